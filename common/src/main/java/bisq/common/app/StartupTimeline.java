@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.app;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the duration of the phases at startup (reading persisted data, parsing the resource stores,...).
+ * Phases can be recorded from any thread. As phases run concurrently the sum of the durations can be larger than
+ * the total startup time.
+ */
+@Slf4j
+@Singleton
+public class StartupTimeline {
+    public static final long UNKNOWN = -1;
+
+    @Value
+    public static class Phase {
+        private final String name;
+        private final String threadName;
+        // Relative to the first recorded phase
+        private final long startTime;
+        private final long duration;
+        private final long numBytes;
+        private final long numEntries;
+    }
+
+    private final Queue<Phase> phases = new ConcurrentLinkedQueue<>();
+    private volatile long firstStartTime;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public StartupTimeline() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void record(String name, long startTime, long numBytes, long numEntries) {
+        if (firstStartTime == 0)
+            firstStartTime = startTime;
+
+        long now = System.currentTimeMillis();
+        Phase phase = new Phase(name,
+                Thread.currentThread().getName(),
+                startTime - firstStartTime,
+                now - startTime,
+                numBytes,
+                numEntries);
+        phases.add(phase);
+        log.info("Startup phase {} took {} ms (bytes={}, entries={}, thread={})",
+                name, phase.getDuration(), numBytes, numEntries, phase.getThreadName());
+    }
+
+    public void record(String name, long startTime) {
+        record(name, startTime, UNKNOWN, UNKNOWN);
+    }
+
+    public List<Phase> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    public String getSummary() {
+        return "Startup timeline:\n" + phases.stream()
+                .sorted(Comparator.comparingLong(Phase::getStartTime))
+                .map(phase -> String.format("%6d ms +%6d ms  %-45s bytes=%d entries=%d thread=%s",
+                        phase.getStartTime(),
+                        phase.getDuration(),
+                        phase.getName(),
+                        phase.getNumBytes(),
+                        phase.getNumEntries(),
+                        phase.getThreadName()))
+                .collect(Collectors.joining("\n"));
+    }
+}
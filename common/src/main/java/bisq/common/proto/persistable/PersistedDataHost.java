@@ -17,6 +17,8 @@
 
 package bisq.common.proto.persistable;
 
+import bisq.common.app.StartupTimeline;
+
 import java.util.List;
 
 public interface PersistedDataHost {
@@ -25,4 +27,14 @@ public interface PersistedDataHost {
     static void apply(List<PersistedDataHost> persistedDataHosts) {
         persistedDataHosts.forEach(PersistedDataHost::readPersisted);
     }
+
+    // Records the duration of each readPersisted call in the startup timeline. The hosts are read sequentially as
+    // most of them depend on data of others or notify listeners on the calling thread.
+    static void apply(List<PersistedDataHost> persistedDataHosts, StartupTimeline startupTimeline) {
+        persistedDataHosts.forEach(host -> {
+            long ts = System.currentTimeMillis();
+            host.readPersisted();
+            startupTimeline.record("readPersisted " + host.getClass().getSimpleName(), ts);
+        });
+    }
 }
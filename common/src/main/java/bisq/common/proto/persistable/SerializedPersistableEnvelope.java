@@ -0,0 +1,34 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Envelope which holds its data already in serialized form, e.g. a store which got read lazily from its file.
+ * FileManager lets it write itself, so that we do not need to create the proto message of the whole envelope for
+ * persisting. All other envelopes are written from their proto message.
+ */
+public interface SerializedPersistableEnvelope extends PersistableEnvelope {
+
+    /**
+     * Writes the envelope length delimited in the same format as PB.PersistableEnvelope.writeDelimitedTo.
+     */
+    void writeDelimitedTo(OutputStream outputStream) throws IOException;
+}
@@ -20,6 +20,7 @@ package bisq.common.storage;
 import bisq.common.UserThread;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.proto.persistable.SerializedPersistableEnvelope;
 import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
@@ -194,15 +195,17 @@ public class FileManager<T extends PersistableEnvelope> {
 
         try {
             log.debug("Write to disc: {}", storageFile.getName());
-            PB.PersistableEnvelope protoPersistable;
-            try {
-                protoPersistable = (PB.PersistableEnvelope) persistable.toProtoMessage();
-                if (protoPersistable.toByteArray().length == 0)
-                    log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
-            } catch (Throwable e) {
-                log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), storageFile);
-                e.printStackTrace();
-                throw new RuntimeException(e);
+            PB.PersistableEnvelope protoPersistable = null;
+            if (!(persistable instanceof SerializedPersistableEnvelope)) {
+                try {
+                    protoPersistable = (PB.PersistableEnvelope) persistable.toProtoMessage();
+                    if (protoPersistable.toByteArray().length == 0)
+                        log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
+                } catch (Throwable e) {
+                    log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), storageFile);
+                    e.printStackTrace();
+                    throw new RuntimeException(e);
+                }
             }
 
             if (!dir.exists() && !dir.mkdir())
@@ -214,7 +217,21 @@ public class FileManager<T extends PersistableEnvelope> {
 
             log.debug("Writing protobuffer class:{} to file:{}", persistable.getClass(), storageFile.getName());
             writeLock.lock();
-            protoPersistable.writeDelimitedTo(fileOutputStream);
+            if (protoPersistable != null) {
+                protoPersistable.writeDelimitedTo(fileOutputStream);
+            } else {
+                // The envelope writes its serialized data without creating the proto message
+                try {
+                    ((SerializedPersistableEnvelope) persistable).writeDelimitedTo(fileOutputStream);
+                } catch (Throwable e) {
+                    log.error("Error in saveToFile writeDelimitedTo: {}, {}", persistable.getClass().getSimpleName(), storageFile);
+                    e.printStackTrace();
+                    throw new RuntimeException(e);
+                }
+                // An empty envelope only has the length prefix
+                if (fileOutputStream.getChannel().position() <= 1)
+                    log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
+            }
 
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
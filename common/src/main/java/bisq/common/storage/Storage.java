@@ -85,6 +85,14 @@ public class Storage<T extends PersistableEnvelope> {
         return getPersisted();
     }
 
+    // Used if the persisted file is read by the caller itself. Only sets up the file for writing.
+    public File initWithFileName(String fileName, long delay) {
+        this.fileName = fileName;
+        storageFile = new File(dir, fileName);
+        fileManager = new FileManager<>(dir, storageFile, delay, persistenceProtoResolver);
+        return storageFile;
+    }
+
     @Nullable
     public T initAndGetPersisted(T persistable, long delay) {
         return initAndGetPersisted(persistable, persistable.getClass().getSimpleName(), delay);
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.lang.reflect.Constructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the instances of a task class. The constructor is resolved once per task and model class and reused by
+ * all task runners, so we don't look it up by reflection each time a task gets executed.
+ */
+final class TaskFactory<T extends Model> {
+    private static final Map<Class<? extends Task>, Map<Class<?>, TaskFactory<?>>> FACTORIES = new ConcurrentHashMap<>();
+
+    static <T extends Model> TaskFactory<T> get(Class<? extends Task> taskClass, Class<T> modelClass) {
+        //noinspection unchecked
+        return (TaskFactory<T>) FACTORIES.computeIfAbsent(taskClass, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(modelClass, e -> new TaskFactory<>(taskClass, modelClass));
+    }
+
+    private final Constructor<? extends Task> constructor;
+
+    private TaskFactory(Class<? extends Task> taskClass, Class<T> modelClass) {
+        try {
+            constructor = taskClass.getDeclaredConstructor(TaskRunner.class, modelClass);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Task " + taskClass.getSimpleName() +
+                    " has no constructor for model " + modelClass.getSimpleName(), e);
+        }
+    }
+
+    Task<T> create(TaskRunner<T> taskRunner, T model) throws ReflectiveOperationException {
+        //noinspection unchecked
+        return constructor.newInstance(taskRunner, model);
+    }
+}
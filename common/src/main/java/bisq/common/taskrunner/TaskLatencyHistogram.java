@@ -0,0 +1,137 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Value;
+
+/**
+ * Collects the duration of the tasks executed by task runners grouped by the task name. Each task has a histogram
+ * with fixed buckets, so memory does not grow with the number of executions.
+ */
+public class TaskLatencyHistogram {
+    // Upper bounds of the buckets in ms. The last bucket holds all durations above the last bound.
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000,
+            10_000, 30_000, 60_000};
+
+    private final Map<String, Entry> entryByTaskName = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(String taskName, long durationMs, boolean success) {
+        entryByTaskName.computeIfAbsent(taskName, e -> new Entry()).add(durationMs, success);
+    }
+
+    // Sorted by task name
+    public Map<String, TaskLatency> getTaskLatencyByTaskName() {
+        Map<String, TaskLatency> map = new TreeMap<>();
+        entryByTaskName.forEach((taskName, entry) -> map.put(taskName, entry.getTaskLatency()));
+        return Collections.unmodifiableMap(map);
+    }
+
+    public static long[] getBucketBoundsMs() {
+        return BUCKET_BOUNDS_MS.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskLatencyHistogram{" +
+                "\n     taskLatencyByTaskName=" + getTaskLatencyByTaskName() +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Value class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    public static class TaskLatency {
+        private final long numExecutions;
+        private final long numFailures;
+        private final long sumMs;
+        private final long maxMs;
+        // Number of executions per bucket, the bounds are defined by getBucketBoundsMs
+        private final long[] bucketCounts;
+
+        public long getMeanMs() {
+            return numExecutions > 0 ? sumMs / numExecutions : 0;
+        }
+
+        // Returns the upper bound of the bucket which contains the given percentile (e.g. 0.95), or maxMs if it is
+        // in the last bucket.
+        public long getPercentileMs(double percentile) {
+            long threshold = (long) Math.ceil(numExecutions * percentile);
+            long count = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                count += bucketCounts[i];
+                if (count >= threshold)
+                    return Math.min(BUCKET_BOUNDS_MS[i], maxMs);
+            }
+            return maxMs;
+        }
+
+        @Override
+        public String toString() {
+            return "TaskLatency{" +
+                    "numExecutions=" + numExecutions +
+                    ", numFailures=" + numFailures +
+                    ", meanMs=" + getMeanMs() +
+                    ", p95Ms=" + getPercentileMs(0.95) +
+                    ", maxMs=" + maxMs +
+                    ", bucketCounts=" + Arrays.toString(bucketCounts) +
+                    '}';
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Entry {
+        private final long[] bucketCounts = new long[BUCKET_BOUNDS_MS.length + 1];
+        private long numExecutions;
+        private long numFailures;
+        private long sumMs;
+        private long maxMs;
+
+        synchronized void add(long durationMs, boolean success) {
+            int index = Arrays.binarySearch(BUCKET_BOUNDS_MS, durationMs);
+            // If not found binarySearch returns (-(insertion point) - 1), the insertion point is the first bigger bound
+            bucketCounts[index >= 0 ? index : -index - 1]++;
+            numExecutions++;
+            if (!success)
+                numFailures++;
+            sumMs += durationMs;
+            maxMs = Math.max(maxMs, durationMs);
+        }
+
+        synchronized TaskLatency getTaskLatency() {
+            return new TaskLatency(numExecutions, numFailures, sumMs, maxMs, bucketCounts.clone());
+        }
+    }
+}
@@ -24,10 +24,20 @@ import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class TaskRunner<T extends Model> {
+    public enum PersistPolicy {
+        // The model gets persisted after each completed task
+        AFTER_EACH_TASK,
+        // The model gets persisted once after the last task or at a failure if any task has completed before
+        AT_END_OF_SEQUENCE
+    }
+
     private final Queue<Class<? extends Task>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
@@ -37,6 +47,14 @@ public class TaskRunner<T extends Model> {
     private boolean isCanceled;
 
     private Class<? extends Task> currentTask;
+    private long currentTaskStartTime;
+    private int numCompletedTasks;
+
+    @Setter
+    private PersistPolicy persistPolicy = PersistPolicy.AFTER_EACH_TASK;
+    @Setter
+    @Nullable
+    private TaskLatencyHistogram taskLatencyHistogram;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -66,12 +84,16 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    currentTaskStartTime = System.currentTimeMillis();
+                    TaskFactory.get(currentTask, sharedModelClass).create(this, sharedModel).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                if (persistPolicy == PersistPolicy.AT_END_OF_SEQUENCE && numCompletedTasks > 0)
+                    sharedModel.persist();
+
                 resultHandler.handleResult();
             }
         }
@@ -83,13 +105,25 @@ public class TaskRunner<T extends Model> {
 
     void handleComplete() {
         log.trace("Task completed: " + currentTask.getSimpleName());
-        sharedModel.persist();
+        recordLatency(true);
+        numCompletedTasks++;
+        if (persistPolicy == PersistPolicy.AFTER_EACH_TASK)
+            sharedModel.persist();
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
+        recordLatency(false);
         failed = true;
+        // We don't want to lose the changes of the tasks which have completed before
+        if (persistPolicy == PersistPolicy.AT_END_OF_SEQUENCE && numCompletedTasks > 0)
+            sharedModel.persist();
         errorMessageHandler.handleErrorMessage(errorMessage);
     }
+
+    private void recordLatency(boolean success) {
+        if (taskLatencyHistogram != null)
+            taskLatencyHistogram.add(currentTask.getSimpleName(), System.currentTimeMillis() - currentTaskStartTime, success);
+    }
 }
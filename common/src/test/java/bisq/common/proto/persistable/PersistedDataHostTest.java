@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import bisq.common.app.StartupTimeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PersistedDataHostTest {
+    private List<String> readOrder;
+    private StartupTimeline startupTimeline;
+
+    @Before
+    public void setUp() {
+        readOrder = new ArrayList<>();
+        startupTimeline = new StartupTimeline();
+    }
+
+    @Test
+    public void testApplyKeepsOrderAndRecordsPhases() {
+        PersistedDataHost.apply(Arrays.asList(new Host("first"), new Host("second"), new Host("third")),
+                startupTimeline);
+
+        assertEquals(Arrays.asList("first", "second", "third"), readOrder);
+        List<StartupTimeline.Phase> phases = startupTimeline.getPhases();
+        assertEquals(3, phases.size());
+        phases.forEach(phase -> {
+            assertEquals("readPersisted Host", phase.getName());
+            assertEquals(Thread.currentThread().getName(), phase.getThreadName());
+        });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testApplyRethrowsException() {
+        PersistedDataHost failing = () -> {
+            throw new IllegalStateException("corrupted");
+        };
+        PersistedDataHost.apply(Arrays.asList(new Host("a"), failing), startupTimeline);
+    }
+
+    private class Host implements PersistedDataHost {
+        private final String name;
+
+        Host(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void readPersisted() {
+            readOrder.add(name);
+        }
+    }
+}
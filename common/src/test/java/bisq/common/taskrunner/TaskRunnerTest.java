@@ -0,0 +1,148 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    @Test
+    public void testPersistAfterEachTask() {
+        TestModel model = new TestModel();
+        boolean[] completed = new boolean[1];
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed[0] = true, errorMessage -> {
+        });
+        taskRunner.addTasks(SucceedingTask.class, SucceedingTask.class, SucceedingTask.class);
+        taskRunner.run();
+
+        assertTrue(completed[0]);
+        assertEquals(3, model.numRuns);
+        assertEquals(3, model.numPersists);
+    }
+
+    @Test
+    public void testPersistAtEndOfSequence() {
+        TestModel model = new TestModel();
+        boolean[] completed = new boolean[1];
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed[0] = true, errorMessage -> {
+        });
+        taskRunner.setPersistPolicy(TaskRunner.PersistPolicy.AT_END_OF_SEQUENCE);
+        taskRunner.addTasks(SucceedingTask.class, SucceedingTask.class, SucceedingTask.class);
+        taskRunner.run();
+
+        assertTrue(completed[0]);
+        assertEquals(3, model.numRuns);
+        assertEquals(1, model.numPersists);
+    }
+
+    @Test
+    public void testPersistAtFailure() {
+        TestModel model = new TestModel();
+        String[] error = new String[1];
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> {
+        }, errorMessage -> error[0] = errorMessage);
+        taskRunner.setPersistPolicy(TaskRunner.PersistPolicy.AT_END_OF_SEQUENCE);
+        taskRunner.addTasks(SucceedingTask.class, FailingTask.class, SucceedingTask.class);
+        taskRunner.run();
+
+        assertTrue(error[0].contains("test failure"));
+        assertEquals(1, model.numRuns);
+        // The change of the first task must not get lost
+        assertEquals(1, model.numPersists);
+    }
+
+    @Test
+    public void testTaskLatencyHistogram() {
+        TaskLatencyHistogram histogram = new TaskLatencyHistogram();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(new TestModel(), () -> {
+        }, errorMessage -> {
+        });
+        taskRunner.setTaskLatencyHistogram(histogram);
+        taskRunner.addTasks(SucceedingTask.class, SucceedingTask.class, FailingTask.class);
+        taskRunner.run();
+
+        Map<String, TaskLatencyHistogram.TaskLatency> map = histogram.getTaskLatencyByTaskName();
+        assertEquals(2, map.get("SucceedingTask").getNumExecutions());
+        assertEquals(0, map.get("SucceedingTask").getNumFailures());
+        assertEquals(1, map.get("FailingTask").getNumFailures());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        TaskLatencyHistogram histogram = new TaskLatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.add("task", 3, true);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.add("task", 1_500, true);
+        }
+        histogram.add("other", 100_000, false);
+
+        TaskLatencyHistogram.TaskLatency taskLatency = histogram.getTaskLatencyByTaskName().get("task");
+        assertEquals(100, taskLatency.getNumExecutions());
+        assertEquals(1_500, taskLatency.getMaxMs());
+        assertEquals(5, taskLatency.getPercentileMs(0.9));
+        assertEquals(1_500, taskLatency.getPercentileMs(0.95));
+        // Above the last bound we fall back to the max value
+        assertEquals(100_000, histogram.getTaskLatencyByTaskName().get("other").getPercentileMs(0.5));
+        assertFalse(histogram.getTaskLatencyByTaskName().containsKey("unknown"));
+    }
+
+    private static class TestModel implements Model {
+        private int numRuns;
+        private int numPersists;
+
+        @Override
+        public void persist() {
+            numPersists++;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    static class SucceedingTask extends Task<TestModel> {
+        public SucceedingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.numRuns++;
+            complete();
+        }
+    }
+
+    static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("test failure");
+        }
+    }
+}
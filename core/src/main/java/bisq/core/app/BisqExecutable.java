@@ -18,6 +18,7 @@
 package bisq.core.app;
 
 import bisq.core.arbitration.ArbitratorManager;
+import bisq.core.arbitration.DisputeManager;
 import bisq.core.btc.BtcOptionKeys;
 import bisq.core.btc.setup.RegTestHost;
 import bisq.core.btc.setup.WalletsSetup;
@@ -32,12 +33,14 @@ import bisq.core.setup.CoreSetup;
 import bisq.core.trade.TradeManager;
 
 import bisq.network.NetworkOptionKeys;
+import bisq.network.http.Socks5HttpClientPool;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.CommonOptionKeys;
 import bisq.common.UserThread;
 import bisq.common.app.AppModule;
 import bisq.common.app.DevEnv;
+import bisq.common.app.StartupTimeline;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
@@ -250,7 +253,8 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
 
     protected void setupPersistedDataHosts(Injector injector) {
         try {
-            PersistedDataHost.apply(CorePersistedDataHost.getPersistedDataHosts(injector));
+            PersistedDataHost.apply(CorePersistedDataHost.getPersistedDataHosts(injector),
+                    injector.getInstance(StartupTimeline.class));
         } catch (Throwable t) {
             // If we are in dev mode we want to get the exception if some db files are corrupted
             // We need to delay it as the stage is not created yet and so popups would not be shown.
@@ -285,6 +289,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
+                injector.getInstance(DisputeManager.class).shutDown();
                 injector.getInstance(TradeManager.class).shutDown();
                 injector.getInstance(DaoSetup.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> {
@@ -372,6 +377,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
                 .withRequiredArg()
                 .describedAs("host:port");
 
+        parser.accepts(NetworkOptionKeys.HTTP_MAX_CONNECTIONS,
+                format("Max. pooled connections per proxy used for Http requests (default: %s)",
+                        Socks5HttpClientPool.DEFAULT_MAX_CONNECTIONS))
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(NetworkOptionKeys.TORRC_FILE,
                 "An existing torrc-file to be sourced for Tor. Note that torrc-entries, " +
                         "which are critical to Bisq's flawless operation, cannot be overwritten.")
@@ -466,6 +477,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
                 .withRequiredArg()
                 .ofType(boolean.class);
 
+        parser.accepts(AppOptionKeys.LAZY_LOAD_RESOURCE_STORES,
+                format("If set to true the trade statistics store is memory mapped and the entries are only " +
+                        "decoded when accessed. (default: %s)", "true"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
         parser.accepts(AppOptionKeys.PROVIDERS,
                 "Custom providers (comma separated)")
                 .withRequiredArg()
@@ -547,6 +564,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
                 format("Genesis transaction block height when not using the hard coded one (default: %s)", "-1"))
                 .withRequiredArg();
 
+        parser.accepts(DaoOptionKeys.PARSE_TXS_IN_PARALLEL,
+                format("If set to true the BSQ txs of a block which do not depend on each other are parsed " +
+                        "concurrently. (default: %s)", "false"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
         parser.accepts(DaoOptionKeys.DAO_ACTIVATED,
                 format("Developer flag. If true it enables dao phase 2 features. (default: %s)", "false"))
                 .withRequiredArg()
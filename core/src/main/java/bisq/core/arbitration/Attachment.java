@@ -17,33 +17,108 @@
 
 package bisq.core.arbitration;
 
+import bisq.common.crypto.Hash;
 import bisq.common.proto.network.NetworkPayload;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
 
-@Value
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attachments of disputes we read from the DisputeStore only keep the hash of their bytes. The bytes are loaded
+ * from the store when they are accessed, so we do not keep all attachments of all disputes in memory.
+ * Equality is based on the file name and the hash of the bytes, so a loaded attachment is equal to the one we
+ * receive again from the network.
+ */
 public final class Attachment implements NetworkPayload {
+    @Getter
     private final String fileName;
+    @Nullable
     private final byte[] bytes;
+    @Nullable
+    private byte[] hash;
+    @Nullable
+    transient private final Function<byte[], byte[]> loader;
 
     public Attachment(String fileName, byte[] bytes) {
         this.fileName = fileName;
         this.bytes = bytes;
+        this.loader = null;
+    }
+
+    private Attachment(String fileName, byte[] hash, @Nullable Function<byte[], byte[]> loader) {
+        this.fileName = fileName;
+        this.bytes = null;
+        this.hash = hash;
+        this.loader = loader;
+    }
+
+    // The loader returns the bytes for the hash or null if they are not available
+    public static Attachment fromStore(String fileName, byte[] hash, Function<byte[], byte[]> loader) {
+        return new Attachment(fileName, hash, loader);
     }
 
     @Override
     public PB.Attachment toProtoMessage() {
         return PB.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
+                .setBytes(ByteString.copyFrom(getBytes()))
                 .build();
     }
 
+    // Records of the DisputeStore only contain the hash, the DisputeList replaces those with attachments from the store
     public static Attachment fromProto(PB.Attachment proto) {
+        if (!proto.getHash().isEmpty())
+            return new Attachment(proto.getFileName(), proto.getHash().toByteArray(), null);
+
         return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public byte[] getBytes() {
+        if (bytes != null)
+            return bytes;
+
+        byte[] loaded = loader != null ? loader.apply(hash) : null;
+        return loaded != null ? loaded : new byte[0];
+    }
+
+    public byte[] getHash() {
+        if (hash == null)
+            hash = Hash.getSha256Hash(getBytes());
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Attachment that = (Attachment) o;
+        return Objects.equals(fileName, that.fileName) && Arrays.equals(getHash(), that.getHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, Arrays.hashCode(getHash()));
+    }
+
+    @Override
+    public String toString() {
+        return "Attachment{" +
+                "\n     fileName='" + fileName + '\'' +
+                ",\n     hash=" + Arrays.toString(getHash()) +
+                "\n}";
+    }
 }
@@ -24,7 +24,6 @@ import bisq.core.trade.Contract;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.network.NetworkPayload;
-import bisq.common.storage.Storage;
 import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
@@ -90,14 +89,14 @@ public final class Dispute implements NetworkPayload {
 
     private long openingDate;
 
-    transient private Storage<DisputeList> storage;
+    transient private DisputeList disputeList;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public Dispute(Storage<DisputeList> storage,
+    public Dispute(DisputeList disputeList,
                    String tradeId,
                    int traderId,
                    boolean disputeOpenerIsBuyer,
@@ -132,7 +131,7 @@ public final class Dispute implements NetworkPayload {
                 takerContractSignature,
                 arbitratorPubKeyRing,
                 isSupportTicket);
-        this.storage = storage;
+        this.disputeList = disputeList;
         openingDate = new Date().getTime();
     }
 
@@ -181,6 +180,19 @@ public final class Dispute implements NetworkPayload {
 
     @Override
     public PB.Dispute toProtoMessage() {
+        return getBuilder()
+                .addAllDisputeCommunicationMessages(disputeCommunicationMessages.stream()
+                        .map(msg -> msg.toProtoNetworkEnvelope().getDisputeCommunicationMessage())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    // The DisputeStore persists the messages separately, so a change of the dispute does not need them
+    PB.Dispute toProtoMessageWithoutMessages() {
+        return getBuilder().build();
+    }
+
+    private PB.Dispute.Builder getBuilder() {
         PB.Dispute.Builder builder = PB.Dispute.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
@@ -192,9 +204,6 @@ public final class Dispute implements NetworkPayload {
                 .setContractAsJson(contractAsJson)
                 .setArbitratorPubKeyRing(arbitratorPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
-                .addAllDisputeCommunicationMessages(disputeCommunicationMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getDisputeCommunicationMessage())
-                        .collect(Collectors.toList()))
                 .setIsClosed(isClosedProperty.get())
                 .setOpeningDate(openingDate)
                 .setId(id);
@@ -208,7 +217,7 @@ public final class Dispute implements NetworkPayload {
         Optional.ofNullable(makerContractSignature).ifPresent(builder::setMakerContractSignature);
         Optional.ofNullable(takerContractSignature).ifPresent(builder::setTakerContractSignature);
         Optional.ofNullable(disputeResultProperty.get()).ifPresent(result -> builder.setDisputeResult(disputeResultProperty.get().toProtoMessage()));
-        return builder.build();
+        return builder;
     }
 
     public static Dispute fromProto(PB.Dispute proto, CoreProtoResolver coreProtoResolver) {
@@ -250,7 +259,7 @@ public final class Dispute implements NetworkPayload {
     public void addDisputeCommunicationMessage(DisputeCommunicationMessage disputeCommunicationMessage) {
         if (!disputeCommunicationMessages.contains(disputeCommunicationMessage)) {
             disputeCommunicationMessages.add(disputeCommunicationMessage);
-            storage.queueUpForSave();
+            disputeList.persist(this, disputeCommunicationMessage);
         } else {
             log.error("disputeDirectMessage already exists");
         }
@@ -261,23 +270,23 @@ public final class Dispute implements NetworkPayload {
     // Setters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // In case we get the object via the network storage is not set as its transient, so we need to set it.
-    public void setStorage(Storage<DisputeList> storage) {
-        this.storage = storage;
+    // In case we get the object via the network disputeList is not set as its transient, so we need to set it.
+    public void setDisputeList(DisputeList disputeList) {
+        this.disputeList = disputeList;
     }
 
     public void setIsClosed(boolean isClosed) {
         boolean changed = this.isClosedProperty.get() != isClosed;
         this.isClosedProperty.set(isClosed);
         if (changed)
-            storage.queueUpForSave();
+            disputeList.persist(this);
     }
 
     public void setDisputeResult(DisputeResult disputeResult) {
         boolean changed = disputeResultProperty.get() == null || !disputeResultProperty.get().equals(disputeResult);
         disputeResultProperty.set(disputeResult);
         if (changed)
-            storage.queueUpForSave();
+            disputeList.persist(this);
     }
 
     @SuppressWarnings("NullableProblems")
@@ -285,7 +294,7 @@ public final class Dispute implements NetworkPayload {
         boolean changed = this.disputePayoutTxId == null || !this.disputePayoutTxId.equals(disputePayoutTxId);
         this.disputePayoutTxId = disputePayoutTxId;
         if (changed)
-            storage.queueUpForSave();
+            disputeList.persist(this);
     }
 
 
@@ -17,12 +17,16 @@
 
 package bisq.core.arbitration;
 
+import bisq.core.arbitration.messages.DisputeCommunicationMessage;
 import bisq.core.proto.CoreProtoResolver;
 
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -31,7 +35,13 @@ import com.google.protobuf.Message;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +49,8 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @ToString
 /**
@@ -46,21 +58,62 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Calls to the List are delegated because this class intercepts the add/remove calls so changes
  * can be saved to disc.
+ *
+ * Each dispute is persisted in its own record in the DisputeStore, so a change of one dispute or a new message does
+ * not cause a write of all disputes. All access to the store, reading included, runs on a single background thread
+ * in the order of the changes. The only exception are the attachment bytes, which are loaded on the thread accessing
+ * them as the attachment files in the store never change. Closed disputes are read in the background after the open ones and added to the list
+ * once they are loaded. The Storage is only used to migrate the data from the DisputeList file used in earlier
+ * versions.
  */
 public final class DisputeList implements PersistableEnvelope, PersistedDataHost {
     transient private final Storage<DisputeList> storage;
+    @Nullable
+    transient private final DisputeStore disputeStore;
+    @Nullable
+    transient private final CoreProtoResolver coreProtoResolver;
+    @Nullable
+    transient private final ExecutorService executor;
     @Getter
     private final ObservableList<Dispute> list = FXCollections.observableArrayList();
+    @Getter
+    transient private boolean closedDisputesLoaded;
+    transient private final List<ResultHandler> closedDisputesLoadedHandlers = new ArrayList<>();
 
-    public DisputeList(Storage<DisputeList> storage) {
+    public DisputeList(Storage<DisputeList> storage, DisputeStore disputeStore, CoreProtoResolver coreProtoResolver) {
         this.storage = storage;
+        this.disputeStore = disputeStore;
+        this.coreProtoResolver = coreProtoResolver;
+
+        executor = Utilities.getSingleThreadExecutor("DisputeStore");
     }
 
     @Override
     public void readPersisted() {
-        DisputeList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
-            list.addAll(persisted.getList());
+        // Reading can compact records, so we read on the executor as well to not write concurrently to a record
+        try {
+            list.addAll(toDisputes(executor.submit(() -> {
+                if (!disputeStore.exists())
+                    migrateFromDisputeListFile();
+
+                return disputeStore.readOpenDisputes();
+            }).get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Reading open disputes got interrupted");
+        } catch (ExecutionException e) {
+            log.error("Could not read open disputes", e.getCause());
+        }
+
+        executor.execute(() -> {
+            List<Dispute> closedDisputes = toDisputes(disputeStore.readClosedDisputes());
+            UserThread.execute(() -> {
+                list.addAll(closedDisputes);
+                closedDisputesLoaded = true;
+                closedDisputesLoadedHandlers.forEach(ResultHandler::handleResult);
+                closedDisputesLoadedHandlers.clear();
+            });
+        });
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -69,6 +122,9 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
 
     private DisputeList(Storage<DisputeList> storage, List<Dispute> list) {
         this.storage = storage;
+        this.disputeStore = null;
+        this.coreProtoResolver = null;
+        this.executor = null;
         this.list.addAll(list);
     }
 
@@ -86,7 +142,6 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         List<Dispute> list = proto.getDisputeList().stream()
                 .map(disputeProto -> Dispute.fromProto(disputeProto, coreProtoResolver))
                 .collect(Collectors.toList());
-        list.forEach(e -> e.setStorage(storage));
         return new DisputeList(storage, list);
     }
 
@@ -98,8 +153,10 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public boolean add(Dispute dispute) {
         if (!list.contains(dispute)) {
             boolean changed = list.add(dispute);
-            if (changed)
-                persist();
+            if (changed) {
+                PB.Dispute proto = dispute.toProtoMessage();
+                execute(dispute.getId(), () -> disputeStore.write(proto));
+            }
             return changed;
         } else {
             return false;
@@ -109,13 +166,52 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public boolean remove(Object dispute) {
         //noinspection SuspiciousMethodCalls
         boolean changed = list.remove(dispute);
-        if (changed)
-            persist();
+        if (changed) {
+            String disputeId = ((Dispute) dispute).getId();
+            execute(disputeId, () -> disputeStore.remove(disputeId));
+        }
         return changed;
     }
 
-    public void persist() {
-        storage.queueUpForSave();
+    // Replaces the dispute in its record and keeps the persisted messages. Used if a field of the dispute itself has
+    // changed.
+    public void persist(Dispute dispute) {
+        PB.Dispute proto = dispute.toProtoMessageWithoutMessages();
+        execute(dispute.getId(), () -> disputeStore.writeHeader(proto));
+    }
+
+    // Appends the message to the record of the dispute. Used if a message was added or its state has changed.
+    public void persist(Dispute dispute, DisputeCommunicationMessage message) {
+        // Not all messages we send are stored in the dispute
+        String uid = message.getUid();
+        if (dispute.getDisputeCommunicationMessages().stream().noneMatch(e -> e.getUid().equals(uid)))
+            return;
+
+        String disputeId = dispute.getId();
+        boolean isClosed = dispute.isClosed();
+        PB.DisputeCommunicationMessage proto = message.toProtoNetworkEnvelope().getDisputeCommunicationMessage();
+        execute(disputeId, () -> {
+            if (!disputeStore.append(disputeId, isClosed, proto)) {
+                // The record is missing or in the directory of the other state, so we write the full record instead.
+                // The dispute is only accessed on the user thread.
+                log.warn("There is no {} record for dispute {}, we write the full record",
+                        isClosed ? "closed" : "open", disputeId);
+                UserThread.execute(() -> {
+                    if (list.contains(dispute)) {
+                        PB.Dispute disputeProto = dispute.toProtoMessage();
+                        execute(disputeId, () -> disputeStore.write(disputeProto));
+                    }
+                });
+            }
+        });
+    }
+
+    // The handler is called on the user thread once the closed disputes are added to the list.
+    public void onClosedDisputesLoaded(ResultHandler resultHandler) {
+        if (closedDisputesLoaded)
+            resultHandler.handleResult();
+        else
+            closedDisputesLoadedHandlers.add(resultHandler);
     }
 
     public int size() {
@@ -134,4 +230,69 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public Stream<Dispute> stream() {
         return list.stream();
     }
+
+    // Waits until the pending writes are done
+    public void shutDown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS))
+                log.warn("Not all disputes got persisted at shutdown");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void migrateFromDisputeListFile() {
+        DisputeList persisted = storage.initAndGetPersisted(this, 50);
+        // We leave the old file as it is, so it can serve as backup
+        if (persisted != null) {
+            log.info("Migrate {} disputes from the DisputeList file to the dispute store", persisted.size());
+            persisted.getList().forEach(dispute -> {
+                try {
+                    disputeStore.write(dispute.toProtoMessage());
+                } catch (IOException e) {
+                    log.error("Could not migrate dispute " + dispute.getId(), e);
+                }
+            });
+        }
+        disputeStore.makeDirs();
+    }
+
+    private List<Dispute> toDisputes(List<PB.Dispute> protos) {
+        List<Dispute> disputes = new ArrayList<>();
+        protos.forEach(proto -> {
+            try {
+                Dispute dispute = Dispute.fromProto(proto, coreProtoResolver);
+                dispute.setDisputeList(this);
+                // The records only contain the hash of the attachments, we load the bytes when they are accessed
+                dispute.getDisputeCommunicationMessages().forEach(message ->
+                        message.getAttachments().replaceAll(attachment ->
+                                Attachment.fromStore(attachment.getFileName(), attachment.getHash(),
+                                        disputeStore::readAttachment)));
+                disputes.add(dispute);
+            } catch (Throwable t) {
+                log.error("Could not create dispute from record " + proto.getId(), t);
+            }
+        });
+        return disputes;
+    }
+
+    private void execute(String disputeId, StoreTask storeTask) {
+        executor.execute(() -> {
+            try {
+                storeTask.run();
+            } catch (Throwable t) {
+                log.error("Could not persist dispute " + disputeId, t);
+            }
+        });
+    }
+
+    private interface StoreTask {
+        void run() throws IOException;
+    }
 }
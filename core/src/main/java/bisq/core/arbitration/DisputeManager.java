@@ -33,6 +33,7 @@ import bisq.core.btc.wallet.TxBroadcaster;
 import bisq.core.locale.Res;
 import bisq.core.offer.OpenOffer;
 import bisq.core.offer.OpenOfferManager;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
 import bisq.core.trade.Contract;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.Trade;
@@ -55,7 +56,6 @@ import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
-import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 import bisq.common.util.Tuple2;
 
@@ -108,6 +108,8 @@ public class DisputeManager implements PersistedDataHost {
     private final P2PService p2PService;
     private final KeyRing keyRing;
     private final Storage<DisputeList> disputeStorage;
+    private final DisputeStore disputeStore;
+    private final CorePersistenceProtoResolver persistenceProtoResolver;
     private DisputeList disputes;
     private final String disputeInfo;
     private final CopyOnWriteArraySet<DecryptedMessageWithPubKey> decryptedMailboxMessageWithPubKeys = new CopyOnWriteArraySet<>();
@@ -134,7 +136,7 @@ public class DisputeManager implements PersistedDataHost {
                           ClosedTradableManager closedTradableManager,
                           OpenOfferManager openOfferManager,
                           KeyRing keyRing,
-                          PersistenceProtoResolver persistenceProtoResolver,
+                          CorePersistenceProtoResolver persistenceProtoResolver,
                           @Named(Storage.STORAGE_DIR) File storageDir) {
         this.p2PService = p2PService;
         this.tradeWalletService = tradeWalletService;
@@ -145,7 +147,10 @@ public class DisputeManager implements PersistedDataHost {
         this.openOfferManager = openOfferManager;
         this.keyRing = keyRing;
 
+        this.persistenceProtoResolver = persistenceProtoResolver;
+
         disputeStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        disputeStore = new DisputeStore(storageDir);
 
         openDisputes = new HashMap<>();
         closedDisputes = new HashMap<>();
@@ -170,9 +175,8 @@ public class DisputeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        disputes = new DisputeList(disputeStorage);
+        disputes = new DisputeList(disputeStorage, disputeStore, persistenceProtoResolver);
         disputes.readPersisted();
-        disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
     }
 
     public void onAllServicesInitialized() {
@@ -193,9 +197,12 @@ public class DisputeManager implements PersistedDataHost {
                 tryApplyMessages();
         });
 
-        tryApplyMessages();
+        // Closed disputes are loaded in the background. We need them to detect duplicates.
+        disputes.onClosedDisputesLoaded(() -> {
+            tryApplyMessages();
 
-        cleanupDisputes();
+            cleanupDisputes();
+        });
 
         disputes.getList().addListener((ListChangeListener<Dispute>) change -> {
             change.next();
@@ -204,6 +211,11 @@ public class DisputeManager implements PersistedDataHost {
         onDisputesChangeListener(disputes.getList(), null);
     }
 
+    public void shutDown() {
+        if (disputes != null)
+            disputes.shutDown();
+    }
+
     private void onDisputesChangeListener(List<? extends Dispute> addedList, @Nullable List<? extends Dispute> removedList) {
         if (removedList != null) {
             removedList.forEach(dispute -> {
@@ -232,7 +244,6 @@ public class DisputeManager implements PersistedDataHost {
 
     public void cleanupDisputes() {
         disputes.stream().forEach(dispute -> {
-            dispute.setStorage(disputeStorage);
             if (dispute.isClosed())
                 closedDisputes.put(dispute.getTradeId(), dispute);
             else
@@ -254,7 +265,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     private void tryApplyMessages() {
-        if (isReadyForTxBroadcast())
+        if (disputes != null && disputes.isClosedDisputesLoaded() && isReadyForTxBroadcast())
             applyMessages();
     }
 
@@ -298,16 +309,15 @@ public class DisputeManager implements PersistedDataHost {
                         ackMessage.getSourceMsgClassName(), ackMessage.getSourceId(), ackMessage.getErrorMessage());
             }
 
-            disputes.getList().stream()
-                    .flatMap(dispute -> dispute.getDisputeCommunicationMessages().stream())
+            disputes.getList().forEach(dispute -> dispute.getDisputeCommunicationMessages().stream()
                     .filter(msg -> msg.getUid().equals(ackMessage.getSourceUid()))
                     .forEach(msg -> {
                         if (ackMessage.isSuccess())
                             msg.setAcknowledged(true);
                         else
                             msg.setAckError(ackMessage.getErrorMessage());
-                    });
-            disputes.persist();
+                        disputes.persist(dispute, msg);
+                    }));
 
             if (decryptedMessageWithPubKey != null)
                 p2PService.removeEntryFromMailbox(decryptedMessageWithPubKey);
@@ -376,7 +386,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setArrived(true);
-                                disputes.persist();
+                                disputes.persist(dispute, disputeCommunicationMessage);
                                 resultHandler.handleResult();
                             }
 
@@ -391,7 +401,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setStoredInMailbox(true);
-                                disputes.persist();
+                                disputes.persist(dispute, disputeCommunicationMessage);
                                 resultHandler.handleResult();
                             }
 
@@ -406,7 +416,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setSendMessageError(errorMessage);
-                                disputes.persist();
+                                disputes.persist(dispute, disputeCommunicationMessage);
                                 faultHandler.handleFault("Sending dispute message failed: " +
                                         errorMessage, new MessageDeliveryFailedException());
                             }
@@ -428,7 +438,7 @@ public class DisputeManager implements PersistedDataHost {
     // arbitrator sends that to trading peer when he received openDispute request
     private String sendPeerOpenedDisputeMessage(Dispute disputeFromOpener, Contract contractFromOpener, PubKeyRing pubKeyRing) {
         Dispute dispute = new Dispute(
-                disputeStorage,
+                disputes,
                 disputeFromOpener.getTradeId(),
                 pubKeyRing.hashCode(),
                 !disputeFromOpener.isDisputeOpenerIsBuyer(),
@@ -490,7 +500,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setArrived(true);
-                            disputes.persist();
+                            disputes.persist(dispute, disputeCommunicationMessage);
                         }
 
                         @Override
@@ -504,7 +514,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setStoredInMailbox(true);
-                            disputes.persist();
+                            disputes.persist(dispute, disputeCommunicationMessage);
                         }
 
                         @Override
@@ -518,7 +528,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setSendMessageError(errorMessage);
-                            disputes.persist();
+                            disputes.persist(dispute, disputeCommunicationMessage);
                         }
                     }
             );
@@ -563,7 +573,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.info("{} arrived at peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setArrived(true);
-                            disputes.persist();
+                            disputes.persist(dispute, message);
                         }
 
                         @Override
@@ -571,7 +581,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.info("{} stored in mailbox for peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setStoredInMailbox(true);
-                            disputes.persist();
+                            disputes.persist(dispute, message);
                         }
 
                         @Override
@@ -579,7 +589,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.error("{} failed: Peer {}. tradeId={}, uid={}, errorMessage={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid(), errorMessage);
                             message.setSendMessageError(errorMessage);
-                            disputes.persist();
+                            disputes.persist(dispute, message);
                         }
                     }
             );
@@ -627,7 +637,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setArrived(true);
-                        disputes.persist();
+                        disputes.persist(dispute, disputeCommunicationMessage);
                     }
 
                     @Override
@@ -641,7 +651,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setStoredInMailbox(true);
-                        disputes.persist();
+                        disputes.persist(dispute, disputeCommunicationMessage);
                     }
 
                     @Override
@@ -655,7 +665,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setSendMessageError(errorMessage);
-                        disputes.persist();
+                        disputes.persist(dispute, disputeCommunicationMessage);
                     }
                 }
         );
@@ -752,7 +762,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     errorMessage = sendPeerOpenedDisputeMessage(dispute, contractFromOpener, peersPubKeyRing);
                 } else {
@@ -786,7 +796,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     Optional<Trade> tradeOptional = tradeManager.getTradeById(dispute.getTradeId());
                     tradeOptional.ifPresent(trade -> trade.setDisputeState(Trade.DisputeState.DISPUTE_STARTED_BY_PEER));
@@ -1050,8 +1060,8 @@ public class DisputeManager implements PersistedDataHost {
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public Storage<DisputeList> getDisputeStorage() {
-        return disputeStorage;
+    public DisputeList getDisputeList() {
+        return disputes;
     }
 
     public ObservableList<Dispute> getDisputesAsObservableList() {
@@ -0,0 +1,298 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.common.crypto.Hash;
+import bisq.common.storage.FileUtil;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists each dispute in its own record file and the attachments in a content addressed blob store.
+ *
+ * A record starts with the delimited PB.Dispute without its messages, followed by the delimited
+ * PB.DisputeCommunicationMessage entries in the order they got added or updated. A later entry with the same uid
+ * replaces the earlier one, so adding a message or changing its state only appends that message. The attachment
+ * bytes are written once to the blob store and the record only keeps their SHA-256 hash in the hash field of the
+ * attachment. The disputes we read contain that hash as well, the bytes are loaded with readAttachment when they
+ * are needed. Records of open and closed disputes are kept in separate directories so that the closed ones can be
+ * read later.
+ *
+ * Not thread safe, all calls except readAttachment are expected to come from one thread. Reading can compact a
+ * record, so that applies to reading as well. Attachment files are written to a temp file and renamed, they are
+ * never changed or deleted afterwards, so readAttachment can be called from any thread.
+ */
+@Slf4j
+public class DisputeStore {
+    static final String DIR_NAME = "disputes";
+    private static final String OPEN_DIR_NAME = "open";
+    private static final String CLOSED_DIR_NAME = "closed";
+    private static final String ATTACHMENTS_DIR_NAME = "attachments";
+
+    private final File openDir;
+    private final File closedDir;
+    private final File attachmentsDir;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public DisputeStore(File storageDir) {
+        File dir = new File(storageDir, DIR_NAME);
+        openDir = new File(dir, OPEN_DIR_NAME);
+        closedDir = new File(dir, CLOSED_DIR_NAME);
+        attachmentsDir = new File(dir, ATTACHMENTS_DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean exists() {
+        return openDir.exists() || closedDir.exists();
+    }
+
+    public List<PB.Dispute> readOpenDisputes() {
+        return readAll(openDir);
+    }
+
+    public List<PB.Dispute> readClosedDisputes() {
+        return readAll(closedDir);
+    }
+
+    // Writes the full record and removes the record in the directory of the other state if the state has changed.
+    public void write(PB.Dispute dispute) throws IOException {
+        makeDirs();
+        List<PB.DisputeCommunicationMessage> messages = new ArrayList<>();
+        for (PB.DisputeCommunicationMessage message : dispute.getDisputeCommunicationMessagesList()) {
+            messages.add(externalizeAttachments(message));
+        }
+        writeRecord(dispute, messages);
+    }
+
+    // Replaces the dispute in the record but keeps the messages of the record, so we neither need the messages nor
+    // their attachments for a change of the dispute itself. The messages of the header are ignored.
+    public void writeHeader(PB.Dispute header) throws IOException {
+        makeDirs();
+        File file = getRecordFile(header.getId(), header.getIsClosed());
+        if (!file.exists())
+            file = getRecordFile(header.getId(), !header.getIsClosed());
+
+        Collection<PB.DisputeCommunicationMessage> messages = new ArrayList<>();
+        if (file.exists()) {
+            PB.Dispute dispute = read(file);
+            if (dispute != null)
+                messages = dispute.getDisputeCommunicationMessagesList();
+        } else {
+            log.warn("There is no record for dispute {}, we write it without messages", header.getId());
+        }
+        writeRecord(header, messages);
+    }
+
+    // Returns false if there is no record for that dispute yet. The message will then be part of the full record
+    // written once the dispute gets added.
+    public boolean append(String disputeId, boolean isClosed, PB.DisputeCommunicationMessage message) throws IOException {
+        File file = getRecordFile(disputeId, isClosed);
+        if (!file.exists())
+            return false;
+
+        PB.DisputeCommunicationMessage record = externalizeAttachments(message);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, true)) {
+            record.writeDelimitedTo(fileOutputStream);
+            fileOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        }
+        return true;
+    }
+
+    // Attachments are shared by content, so we don't remove them together with the record.
+    public void remove(String disputeId) throws IOException {
+        FileUtil.deleteFileIfExists(getRecordFile(disputeId, false));
+        FileUtil.deleteFileIfExists(getRecordFile(disputeId, true));
+    }
+
+    // Safe to call from any thread, see class comment
+    @Nullable
+    public byte[] readAttachment(byte[] hash) {
+        File file = getAttachmentFile(hash);
+        if (!file.exists())
+            return null;
+
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            log.error("Could not read attachment " + file, e);
+            return null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<PB.Dispute> readAll(File dir) {
+        List<PB.Dispute> disputes = new ArrayList<>();
+        File[] files = dir.listFiles(file -> file.isFile() && !file.getName().endsWith(".tmp"));
+        if (files == null)
+            return disputes;
+
+        long ts = System.currentTimeMillis();
+        for (File file : files) {
+            PB.Dispute dispute = read(file);
+            if (dispute != null)
+                disputes.add(dispute);
+        }
+        log.info("Reading {} disputes from {} took {} ms", disputes.size(), dir, System.currentTimeMillis() - ts);
+        return disputes;
+    }
+
+    // Writes the header and the messages with already externalized attachments to a new record.
+    private void writeRecord(PB.Dispute header, Collection<PB.DisputeCommunicationMessage> messages)
+            throws IOException {
+        File file = getRecordFile(header.getId(), header.getIsClosed());
+        File tempFile = File.createTempFile("temp", null, file.getParentFile());
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                header.toBuilder().clearDisputeCommunicationMessages().build().writeDelimitedTo(fileOutputStream);
+                for (PB.DisputeCommunicationMessage message : messages) {
+                    message.writeDelimitedTo(fileOutputStream);
+                }
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.error("Cannot delete temp file {}", tempFile);
+        }
+        FileUtil.deleteFileIfExists(getRecordFile(header.getId(), !header.getIsClosed()));
+    }
+
+    @Nullable
+    private PB.Dispute read(File file) {
+        PB.Dispute header;
+        Map<String, PB.DisputeCommunicationMessage> messagesByUid = new LinkedHashMap<>();
+        int numEntries = 0;
+        boolean isTailCorrupted = false;
+        try (InputStream inputStream = new FileInputStream(file)) {
+            header = PB.Dispute.parseDelimitedFrom(inputStream);
+            if (header == null) {
+                log.warn("Dispute record {} is empty", file);
+                return null;
+            }
+            while (true) {
+                PB.DisputeCommunicationMessage message;
+                try {
+                    message = PB.DisputeCommunicationMessage.parseDelimitedFrom(inputStream);
+                } catch (IOException e) {
+                    // A crash during an append can leave an incomplete last entry
+                    log.warn("Dispute record {} has an incomplete entry after {} messages. {}",
+                            file, numEntries, e.toString());
+                    isTailCorrupted = true;
+                    break;
+                }
+                if (message == null)
+                    break;
+
+                numEntries++;
+                messagesByUid.put(message.getUid(), message);
+            }
+        } catch (IOException e) {
+            log.error("Could not read dispute record " + file, e);
+            return null;
+        }
+
+        // We compact the record if it got corrupted or if most entries are outdated message states
+        if (isTailCorrupted || numEntries > 2 * messagesByUid.size()) {
+            try {
+                writeRecord(header, messagesByUid.values());
+            } catch (IOException e) {
+                log.error("Could not compact dispute record " + file, e);
+            }
+        }
+        return header.toBuilder().addAllDisputeCommunicationMessages(messagesByUid.values()).build();
+    }
+
+    private PB.DisputeCommunicationMessage externalizeAttachments(PB.DisputeCommunicationMessage message)
+            throws IOException {
+        if (message.getAttachmentsCount() == 0)
+            return message;
+
+        PB.DisputeCommunicationMessage.Builder builder = message.toBuilder().clearAttachments();
+        for (PB.Attachment attachment : message.getAttachmentsList()) {
+            byte[] bytes = attachment.getBytes().toByteArray();
+            byte[] hash = Hash.getSha256Hash(bytes);
+            File file = getAttachmentFile(hash);
+            if (!file.exists()) {
+                File tempFile = File.createTempFile("temp", null, attachmentsDir);
+                try {
+                    try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                        fileOutputStream.write(bytes);
+                        fileOutputStream.flush();
+                        fileOutputStream.getFD().sync();
+                    }
+                    FileUtil.renameFile(tempFile, file);
+                } finally {
+                    if (tempFile.exists() && !tempFile.delete())
+                        log.error("Cannot delete temp file {}", tempFile);
+                }
+            }
+            builder.addAttachments(attachment.toBuilder().clearBytes().setHash(ByteString.copyFrom(hash)));
+        }
+        return builder.build();
+    }
+
+    void makeDirs() {
+        for (File dir : new File[]{openDir, closedDir, attachmentsDir}) {
+            if (!dir.exists() && !dir.mkdirs())
+                log.warn("make dir failed {}", dir);
+        }
+    }
+
+    private File getRecordFile(String disputeId, boolean isClosed) {
+        return new File(isClosed ? closedDir : openDir, disputeId.replaceAll("[^a-zA-Z0-9_.-]", "_"));
+    }
+
+    private File getAttachmentFile(byte[] hash) {
+        return new File(attachmentsDir, Utilities.encodeToHex(hash));
+    }
+}
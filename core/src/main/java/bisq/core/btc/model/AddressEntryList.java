@@ -31,7 +31,12 @@ import org.bitcoinj.wallet.Wallet;
 import com.google.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +44,8 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * The List supporting our persistence solution.
  */
@@ -50,6 +57,12 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Getter
     private List<AddressEntry> list;
 
+    // Indexes for the lookups by offerId, context and address. They are updated at add and remove and
+    // rebuilt after the list got read from disk and after the wallet is ready (address is known only then).
+    transient private final Map<String, List<AddressEntry>> entriesByOfferId = new HashMap<>();
+    transient private final Map<AddressEntry.Context, List<AddressEntry>> entriesByContext = new EnumMap<>(AddressEntry.Context.class);
+    transient private final Map<String, List<AddressEntry>> entriesByAddressString = new HashMap<>();
+
     @Inject
     public AddressEntryList(Storage<AddressEntryList> storage) {
         this.storage = storage;
@@ -58,8 +71,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Override
     public void readPersisted() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
+        if (persisted != null) {
             list = new ArrayList<>(persisted.getList());
+            rebuildIndexes();
+        }
     }
 
 
@@ -102,6 +117,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                     log.error("Key from addressEntry not found in that wallet " + addressEntry.toString());
                 }
             });
+            rebuildIndexes();
         } else {
             list = new ArrayList<>();
             add(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.ARBITRATOR));
@@ -119,11 +135,17 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     private boolean add(AddressEntry addressEntry) {
-        return list.add(addressEntry);
+        boolean changed = list.add(addressEntry);
+        if (changed)
+            addToIndexes(addressEntry);
+        return changed;
     }
 
     private boolean remove(AddressEntry addressEntry) {
-        return list.remove(addressEntry);
+        boolean changed = list.remove(addressEntry);
+        if (changed)
+            removeFromIndexes(addressEntry);
+        return changed;
     }
 
     public AddressEntry addAddressEntry(AddressEntry addressEntry) {
@@ -134,8 +156,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     public void swapTradeToSavings(String offerId) {
-        list.stream().filter(addressEntry -> offerId.equals(addressEntry.getOfferId()))
-                .findAny().ifPresent(this::swapToAvailable);
+        getEntriesByOfferId(offerId).stream().findAny().ifPresent(this::swapToAvailable);
     }
 
     public void swapToAvailable(AddressEntry addressEntry) {
@@ -162,4 +183,64 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     public Stream<AddressEntry> stream() {
         return list.stream();
     }
+
+    public Optional<AddressEntry> findAddressEntry(String offerId, AddressEntry.Context context) {
+        return getEntriesByOfferId(offerId).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+    public Optional<AddressEntry> findAddressEntryByAddress(String addressString, AddressEntry.Context context) {
+        return entriesByAddressString.getOrDefault(addressString, Collections.emptyList()).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+    // Returns a view of the index, callers must not hold on to it while the list gets changed.
+    public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
+        return Collections.unmodifiableList(entriesByContext.getOrDefault(context, Collections.emptyList()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<AddressEntry> getEntriesByOfferId(@Nullable String offerId) {
+        return offerId != null ? entriesByOfferId.getOrDefault(offerId, Collections.emptyList()) : Collections.emptyList();
+    }
+
+    private void rebuildIndexes() {
+        entriesByOfferId.clear();
+        entriesByContext.clear();
+        entriesByAddressString.clear();
+        list.forEach(this::addToIndexes);
+    }
+
+    private void addToIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null)
+            entriesByOfferId.computeIfAbsent(addressEntry.getOfferId(), k -> new ArrayList<>()).add(addressEntry);
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), k -> new ArrayList<>()).add(addressEntry);
+        String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            entriesByAddressString.computeIfAbsent(addressString, k -> new ArrayList<>()).add(addressEntry);
+    }
+
+    private void removeFromIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null)
+            removeFromIndex(entriesByOfferId, addressEntry.getOfferId(), addressEntry);
+        removeFromIndex(entriesByContext, addressEntry.getContext(), addressEntry);
+        String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            removeFromIndex(entriesByAddressString, addressString, addressEntry);
+    }
+
+    private static <K> void removeFromIndex(Map<K, List<AddressEntry>> index, K key, AddressEntry addressEntry) {
+        List<AddressEntry> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(addressEntry);
+            if (entries.isEmpty())
+                index.remove(key);
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index from an address to the wallet transactions which pay to it or spend one of its outputs.
+ * It is fed by the wallet listener so that address based lookups do not need to iterate over all wallet
+ * transactions. Entries are never removed, so callers have to filter out transactions which are not in the
+ * wallet anymore or which are dead. After a reorg the index gets reset and is rebuilt at the next lookup.
+ * <p>
+ * The balance per address is derived from one pass over the spend candidates and cached until the next wallet
+ * change, so that iterating over all address entries does not calculate the spend candidates for each entry.
+ */
+@Slf4j
+class AddressIndex {
+    // Txs with an output to the address
+    private final Map<Address, Set<Transaction>> receivingTxsByAddress = new HashMap<>();
+    // Txs with an output to the address or with an input connected to an output of the address
+    private final Map<Address, Set<Transaction>> txsByAddress = new HashMap<>();
+    // Number of connected inputs at the time we have indexed the tx. The connected output of an input can be
+    // resolved after we have seen the tx, in which case we need to index it again.
+    private final Map<Sha256Hash, Integer> numConnectedInputsByTxId = new HashMap<>();
+    @Nullable
+    private Map<Address, Coin> balanceByAddress;
+    private boolean built;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized boolean isBuilt() {
+        return built;
+    }
+
+    synchronized void build(Collection<Transaction> transactions) {
+        clear();
+        long ts = System.currentTimeMillis();
+        transactions.forEach(this::index);
+        built = true;
+        log.info("Building address index for {} transactions took {} ms",
+                transactions.size(), System.currentTimeMillis() - ts);
+    }
+
+    // If not built yet we ignore the tx as it will be included at the build.
+    synchronized void add(Transaction tx) {
+        if (built)
+            index(tx);
+        balanceByAddress = null;
+    }
+
+    synchronized void reset() {
+        clear();
+        built = false;
+    }
+
+    synchronized void invalidateBalances() {
+        balanceByAddress = null;
+    }
+
+    synchronized List<Transaction> getTransactions(Address address, Predicate<Transaction> filter) {
+        List<Transaction> result = new ArrayList<>();
+        txsByAddress.getOrDefault(address, Collections.emptySet()).stream()
+                .filter(filter)
+                .forEach(result::add);
+        return result;
+    }
+
+    synchronized int getNumOutputs(Address address, Predicate<Transaction> filter) {
+        int outputs = 0;
+        for (Transaction tx : receivingTxsByAddress.getOrDefault(address, Collections.emptySet())) {
+            if (filter.test(tx)) {
+                for (TransactionOutput output : tx.getOutputs()) {
+                    if (address.equals(WalletService.getAddressFromOutput(output)))
+                        outputs++;
+                }
+            }
+        }
+        return outputs;
+    }
+
+    synchronized Coin getBalance(Address address, Supplier<List<TransactionOutput>> spendCandidatesSupplier) {
+        if (balanceByAddress == null) {
+            Map<Address, Coin> map = new HashMap<>();
+            for (TransactionOutput output : spendCandidatesSupplier.get()) {
+                Address outputAddress = WalletService.getAddressFromOutput(output);
+                if (outputAddress != null)
+                    map.merge(outputAddress, output.getValue(), Coin::add);
+            }
+            balanceByAddress = map;
+        }
+        return balanceByAddress.getOrDefault(address, Coin.ZERO);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void index(Transaction tx) {
+        List<TransactionOutput> connectedOutputs = new ArrayList<>();
+        for (TransactionInput input : tx.getInputs()) {
+            TransactionOutput connectedOutput = input.getConnectedOutput();
+            if (connectedOutput != null)
+                connectedOutputs.add(connectedOutput);
+        }
+        Integer previous = numConnectedInputsByTxId.put(tx.getHash(), connectedOutputs.size());
+        if (previous != null && previous == connectedOutputs.size())
+            return;
+
+        for (TransactionOutput output : tx.getOutputs()) {
+            Address address = WalletService.getAddressFromOutput(output);
+            if (address != null) {
+                receivingTxsByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(tx);
+                txsByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(tx);
+            }
+        }
+        for (TransactionOutput connectedOutput : connectedOutputs) {
+            Address address = WalletService.getAddressFromOutput(connectedOutput);
+            if (address != null)
+                txsByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(tx);
+        }
+    }
+
+    private void clear() {
+        receivingTxsByAddress.clear();
+        txsByAddress.clear();
+        numConnectedInputsByTxId.clear();
+        balanceByAddress = null;
+    }
+}
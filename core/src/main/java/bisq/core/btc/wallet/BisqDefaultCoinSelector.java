@@ -26,15 +26,15 @@ import org.bitcoinj.core.TransactionOutput;
 import org.bitcoinj.wallet.CoinSelection;
 import org.bitcoinj.wallet.CoinSelector;
 
-import java.math.BigInteger;
-
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Used from org.bitcoinj.wallet.DefaultCoinSelector but added selectOutput method and changed static methods to
  * instance methods.
@@ -48,6 +48,10 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class BisqDefaultCoinSelector implements CoinSelector {
 
     protected final boolean permitForeignPendingTx;
+    // If set we take the sort order from the index instead of sorting all candidates at each selection
+    @Nullable
+    @Setter
+    protected UtxoIndex utxoIndex;
 
     public CoinSelection select(Coin target, Set<TransactionOutput> candidates) {
         return select(target, new ArrayList<>(candidates));
@@ -65,10 +69,7 @@ public abstract class BisqDefaultCoinSelector implements CoinSelector {
     public CoinSelection select(Coin target, List<TransactionOutput> candidates) {
         ArrayList<TransactionOutput> selected = new ArrayList<>();
         // Sort the inputs by age*value so we get the highest "coin days" spent.
-        ArrayList<TransactionOutput> sortedOutputs = new ArrayList<>(candidates);
-        // If we spend all we don't need to sort
-        if (!target.equals(NetworkParameters.MAX_MONEY))
-            sortOutputs(sortedOutputs);
+        List<TransactionOutput> sortedOutputs = getSortedOutputs(target, candidates);
 
         // Now iterate over the sorted outputs until we have got as close to the target as possible or a little
         // bit over (excessive value will be change).
@@ -81,9 +82,7 @@ public abstract class BisqDefaultCoinSelector implements CoinSelector {
                     break;
             }
 
-            if (output.getParentTransaction() != null &&
-                    isTxSpendable(output.getParentTransaction()) &&
-                    isTxOutputSpendable(output)) {
+            if (isSpendable(output)) {
                 selected.add(output);
                 total += output.getValue().value;
             }
@@ -103,6 +102,12 @@ public abstract class BisqDefaultCoinSelector implements CoinSelector {
         return Coin.valueOf(change);
     }
 
+    public boolean isSpendable(TransactionOutput output) {
+        return output.getParentTransaction() != null &&
+                isTxSpendable(output.getParentTransaction()) &&
+                isTxOutputSpendable(output);
+    }
+
     // We allow spending own pending txs and if permitForeignPendingTx is set as well foreign unconfirmed txs.
     protected boolean isTxSpendable(Transaction tx) {
         TransactionConfidence confidence = tx.getConfidence();
@@ -115,26 +120,26 @@ public abstract class BisqDefaultCoinSelector implements CoinSelector {
 
     abstract boolean isTxOutputSpendable(TransactionOutput output);
 
+    protected List<TransactionOutput> getSortedOutputs(Coin target, List<TransactionOutput> candidates) {
+        // If we spend all we don't need to sort
+        if (target.equals(NetworkParameters.MAX_MONEY))
+            return new ArrayList<>(candidates);
+
+        if (utxoIndex != null) {
+            List<TransactionOutput> sortedOutputs = utxoIndex.getCandidatesInCoinDepthOrder(candidates);
+            if (sortedOutputs != null)
+                return sortedOutputs;
+        }
+
+        ArrayList<TransactionOutput> sortedOutputs = new ArrayList<>(candidates);
+        sortOutputs(sortedOutputs);
+        return sortedOutputs;
+    }
+
+    // Sorts by coin depth (value * depth), then by value to get the lowest transaction size and by hash to ensure
+    // a total ordering.
     protected void sortOutputs(ArrayList<TransactionOutput> outputs) {
-        Collections.sort(outputs, (a, b) -> {
-            int depth1 = a.getParentTransactionDepthInBlocks();
-            int depth2 = b.getParentTransactionDepthInBlocks();
-            Coin aValue = a.getValue();
-            Coin bValue = b.getValue();
-            BigInteger aCoinDepth = BigInteger.valueOf(aValue.value).multiply(BigInteger.valueOf(depth1));
-            BigInteger bCoinDepth = BigInteger.valueOf(bValue.value).multiply(BigInteger.valueOf(depth2));
-            int c1 = bCoinDepth.compareTo(aCoinDepth);
-            if (c1 != 0) return c1;
-            // The "coin*days" destroyed are equal, sort by value alone to get the lowest transaction size.
-            int c2 = bValue.compareTo(aValue);
-            if (c2 != 0) return c2;
-            // They are entirely equivalent (possibly pending) so sort by hash to ensure a total ordering.
-            BigInteger aHash = a.getParentTransactionHash() != null ?
-                    a.getParentTransactionHash().toBigInteger() : BigInteger.ZERO;
-            BigInteger bHash = b.getParentTransactionHash() != null ?
-                    b.getParentTransactionHash().toBigInteger() : BigInteger.ZERO;
-            return aHash.compareTo(bHash);
-        });
+        UtxoIndex.sortByCoinDepth(outputs);
     }
 
 }
@@ -0,0 +1,364 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.BUILDING;
+import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.PENDING;
+
+/**
+ * Balances of the BSQ wallet kept per wallet transaction, so that a changed transaction or a new block only requires
+ * to evaluate the affected transactions and not all outputs of all wallet transactions.
+ * <p>
+ * The outputs of a transaction can change their balance without a change of the transaction itself: if they get spent,
+ * which is covered by evaluating the transactions connected to the inputs of a changed or parsed transaction, if the
+ * lock time of an unlock output is over or if an issuance candidate gets accepted. Transactions with unlock or issuance
+ * candidate outputs are evaluated at each block. As a safety net the totals are compared with a full recompute from
+ * time to time by {@link #verify(Collection, Wallet)}.
+ * <p>
+ * If a tx gets dead bitcoinj disconnects its inputs, so we remember the txs spent by each tx to re-evaluate them when
+ * the tx gets removed.
+ */
+@Slf4j
+class BsqBalanceIndex {
+    private final DaoStateService daoStateService;
+    private final Map<String, TxBalance> txBalanceByTxId = new HashMap<>();
+    // Txs with outputs which depend on the block height
+    private final Set<String> blockHeightDependentTxIds = new HashSet<>();
+    private TxBalance totalBalance = TxBalance.EMPTY;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqBalanceIndex(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void rebuild(Collection<Transaction> transactions, Wallet wallet) {
+        txBalanceByTxId.clear();
+        blockHeightDependentTxIds.clear();
+        totalBalance = TxBalance.EMPTY;
+        Map<String, Tx> daoTxMap = daoStateService.getTxMap();
+        transactions.forEach(tx -> put(tx.getHashAsString(),
+                getTxBalance(tx, wallet, txId -> Optional.ofNullable(daoTxMap.get(txId)))));
+    }
+
+    // Evaluates the tx and the wallet txs with outputs spent by the tx
+    synchronized void update(Transaction tx, Wallet wallet) {
+        // The inputs of a dead tx are not connected anymore, so we use the spent txs we got at the last evaluation
+        TxBalance previous = txBalanceByTxId.get(tx.getHashAsString());
+        Set<String> spentTxIds = previous != null ? new HashSet<>(previous.getSpentTxIds()) : new HashSet<>();
+        spentTxIds.addAll(getSpentTxIds(tx));
+        updateTx(tx, wallet);
+        updateTxs(spentTxIds, wallet);
+    }
+
+    // The confidence listener gets called for all txs at each new block. Only a change of the confidence type has
+    // an effect on the balance.
+    synchronized void onTransactionConfidenceChanged(Transaction tx, Wallet wallet) {
+        TxBalance txBalance = txBalanceByTxId.get(tx.getHashAsString());
+        if (txBalance == null || txBalance.getConfidenceType() != tx.getConfidence().getConfidenceType())
+            update(tx, wallet);
+    }
+
+    // Evaluates the wallet txs of the block, the wallet txs with outputs spent in the block and the txs which
+    // depend on the block height
+    synchronized void onParseTxsComplete(Block block, Wallet wallet) {
+        Set<String> txIds = new HashSet<>(blockHeightDependentTxIds);
+        for (Tx tx : block.getTxs()) {
+            txIds.add(tx.getId());
+            for (TxInput txInput : tx.getTxInputs()) {
+                if (txInput.getConnectedTxOutputTxId() != null)
+                    txIds.add(txInput.getConnectedTxOutputTxId());
+            }
+        }
+        updateTxs(txIds, wallet);
+    }
+
+    // Compares the totals with a full recompute and applies the full recompute if they do not match
+    synchronized boolean verify(Collection<Transaction> transactions, Wallet wallet) {
+        TxBalance incrementalBalance = totalBalance;
+        rebuild(transactions, wallet);
+        if (incrementalBalance.hasSameBalance(totalBalance))
+            return true;
+
+        log.warn("Incremental BSQ balance does not match full recompute. incremental={}, recomputed={}",
+                incrementalBalance, totalBalance);
+        return false;
+    }
+
+    synchronized long getAvailableBalance() {
+        return totalBalance.getAvailable();
+    }
+
+    synchronized long getAvailableNonBsqBalance() {
+        return totalBalance.getAvailableNonBsq();
+    }
+
+    synchronized long getUnverifiedBalance() {
+        return totalBalance.getUnverified();
+    }
+
+    synchronized long getLockedForVotingBalance() {
+        return totalBalance.getLockedForVoting();
+    }
+
+    synchronized long getLockupBondsBalance() {
+        return totalBalance.getLockupBonds();
+    }
+
+    synchronized long getUnlockingBondsBalance() {
+        return totalBalance.getUnlockingBonds();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void updateTxs(Set<String> txIds, Wallet wallet) {
+        // The txs spent by removed txs have to be evaluated after the removed txs
+        Set<String> spentTxIdsOfRemovedTxs = new HashSet<>();
+        for (String txId : txIds) {
+            Transaction tx = wallet.getTransaction(Sha256Hash.wrap(txId));
+            TxBalance removed = tx != null ? updateTx(tx, wallet) : remove(txId);
+            if (removed != null)
+                spentTxIdsOfRemovedTxs.addAll(removed.getSpentTxIds());
+        }
+        spentTxIdsOfRemovedTxs.removeAll(txIds);
+        for (String txId : spentTxIdsOfRemovedTxs) {
+            Transaction tx = wallet.getTransaction(Sha256Hash.wrap(txId));
+            if (tx != null)
+                updateTx(tx, wallet);
+        }
+    }
+
+    // Returns the removed balance if the tx got dead
+    @Nullable
+    private TxBalance updateTx(Transaction tx, Wallet wallet) {
+        String txId = tx.getHashAsString();
+        // Dead txs are not part of the wallet txs we use for the balance
+        if (tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.DEAD) {
+            return remove(txId);
+        } else {
+            put(txId, getTxBalance(tx, wallet, daoStateService::getTx));
+            return null;
+        }
+    }
+
+    private void put(String txId, TxBalance txBalance) {
+        remove(txId);
+        txBalanceByTxId.put(txId, txBalance);
+        totalBalance = totalBalance.add(txBalance);
+        if (txBalance.isBlockHeightDependent())
+            blockHeightDependentTxIds.add(txId);
+    }
+
+    @Nullable
+    private TxBalance remove(String txId) {
+        TxBalance previous = txBalanceByTxId.remove(txId);
+        if (previous != null)
+            totalBalance = totalBalance.subtract(previous);
+        blockHeightDependentTxIds.remove(txId);
+        return previous;
+    }
+
+    private static Set<String> getSpentTxIds(Transaction tx) {
+        Set<String> spentTxIds = new HashSet<>();
+        for (TransactionInput input : tx.getInputs()) {
+            TransactionOutput connectedOutput = input.getConnectedOutput();
+            if (connectedOutput != null && connectedOutput.getParentTransaction() != null)
+                spentTxIds.add(connectedOutput.getParentTransaction().getHashAsString());
+        }
+        return spentTxIds;
+    }
+
+    // Same rules as used by the BsqCoinSelector and NonBsqCoinSelector for the available balances and by the DAO
+    // state for the voting and bond balances.
+    private TxBalance getTxBalance(Transaction tx, Wallet wallet, Function<String, Optional<Tx>> daoTxLookup) {
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        boolean isConfirmed = confidenceType == BUILDING;
+        // The coin selectors permit foreign pending txs
+        boolean isSpendable = isConfirmed || confidenceType == PENDING;
+        String txId = tx.getHashAsString();
+        long unverified = 0;
+        long lockedForVoting = 0;
+        long lockupBonds = 0;
+        long unlockingBonds = 0;
+        long available = 0;
+        long availableNonBsq = 0;
+        boolean blockHeightDependent = false;
+        Optional<Tx> daoTx = null;
+
+        if (confidenceType == PENDING) {
+            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking outputs since those
+            // inputs will be accounted for in lockupBondsBalance and unlockingBondsBalance
+            for (TransactionOutput output : tx.getOutputs()) {
+                if (output.isMine(wallet))
+                    unverified += output.getValue().value;
+            }
+            for (TransactionInput input : tx.getInputs()) {
+                TransactionOutput connectedOutput = input.getConnectedOutput();
+                if (connectedOutput != null && connectedOutput.getParentTransaction() != null &&
+                        connectedOutput.isMine(wallet)) {
+                    TxOutputKey key = new TxOutputKey(connectedOutput.getParentTransaction().getHashAsString(),
+                            connectedOutput.getIndex());
+                    if (daoStateService.isLockupOutput(key) || daoStateService.isUnlockingAndUnspent(key))
+                        unverified -= input.getValue() != null ? input.getValue().value : 0;
+                }
+            }
+        }
+
+        for (TransactionOutput output : tx.getOutputs()) {
+            TxOutputKey key = new TxOutputKey(txId, output.getIndex());
+            Optional<TxOutput> unspentTxOutput = daoStateService.getUnspentTxOutput(key);
+            if (isConfirmed && unspentTxOutput.isPresent()) {
+                TxOutput txOutput = unspentTxOutput.get();
+                switch (txOutput.getTxOutputType()) {
+                    case BLIND_VOTE_LOCK_STAKE_OUTPUT:
+                        lockedForVoting += txOutput.getValue();
+                        break;
+                    case LOCKUP_OUTPUT:
+                        lockupBonds += txOutput.getValue();
+                        break;
+                    case UNLOCK_OUTPUT:
+                        blockHeightDependent = true;
+                        if (!daoStateService.isLockTimeOverForUnlockTxOutput(txOutput))
+                            unlockingBonds += txOutput.getValue();
+                        break;
+                    case ISSUANCE_CANDIDATE_OUTPUT:
+                        blockHeightDependent = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            if (output.isAvailableForSpending() && output.isMine(wallet)) {
+                if (isSpendable && daoStateService.isTxOutputSpendable(key))
+                    available += output.getValue().value;
+
+                if (isConfirmed) {
+                    // Any output which is not in the DAO state is considered as BTC output
+                    Optional<TxOutput> txOutput = unspentTxOutput;
+                    if (!txOutput.isPresent()) {
+                        if (daoTx == null)
+                            daoTx = daoTxLookup.apply(txId);
+                        txOutput = daoTx.map(Tx::getTxOutputs)
+                                .filter(txOutputs -> output.getIndex() < txOutputs.size())
+                                .map(txOutputs -> txOutputs.get(output.getIndex()));
+                    }
+                    if (!txOutput.isPresent() || daoStateService.isBtcTxOutput(txOutput.get()))
+                        availableNonBsq += output.getValue().value;
+                }
+            }
+        }
+
+        return new TxBalance(confidenceType, unverified, lockedForVoting, lockupBonds, unlockingBonds, available,
+                availableNonBsq, blockHeightDependent, getSpentTxIds(tx));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // TxBalance
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    static class TxBalance {
+        static final TxBalance EMPTY = new TxBalance(null, 0, 0, 0, 0, 0, 0, false, Collections.emptySet());
+
+        @Nullable
+        private final TransactionConfidence.ConfidenceType confidenceType;
+        private final long unverified;
+        private final long lockedForVoting;
+        private final long lockupBonds;
+        private final long unlockingBonds;
+        private final long available;
+        private final long availableNonBsq;
+        private final boolean blockHeightDependent;
+        // Txs with outputs spent by the inputs of the tx. Not used for the totals.
+        private final Set<String> spentTxIds;
+
+        TxBalance add(TxBalance other) {
+            return new TxBalance(null,
+                    unverified + other.unverified,
+                    lockedForVoting + other.lockedForVoting,
+                    lockupBonds + other.lockupBonds,
+                    unlockingBonds + other.unlockingBonds,
+                    available + other.available,
+                    availableNonBsq + other.availableNonBsq,
+                    false,
+                    Collections.emptySet());
+        }
+
+        TxBalance subtract(TxBalance other) {
+            return new TxBalance(null,
+                    unverified - other.unverified,
+                    lockedForVoting - other.lockedForVoting,
+                    lockupBonds - other.lockupBonds,
+                    unlockingBonds - other.unlockingBonds,
+                    available - other.available,
+                    availableNonBsq - other.availableNonBsq,
+                    false,
+                    Collections.emptySet());
+        }
+
+        boolean hasSameBalance(TxBalance other) {
+            return unverified == other.unverified &&
+                    lockedForVoting == other.lockedForVoting &&
+                    lockupBonds == other.lockupBonds &&
+                    unlockingBonds == other.unlockingBonds &&
+                    available == other.available &&
+                    availableNonBsq == other.availableNonBsq;
+        }
+    }
+}
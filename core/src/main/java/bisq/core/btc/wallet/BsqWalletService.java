@@ -28,7 +28,6 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
-import bisq.core.dao.state.model.blockchain.TxOutputKey;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
@@ -38,8 +37,8 @@ import org.bitcoinj.core.BlockChain;
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.InsufficientMoneyException;
-import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.core.ScriptException;
+import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionConfidence;
 import org.bitcoinj.core.TransactionInput;
@@ -71,16 +70,23 @@ import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.BUILDING;
 import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.PENDING;
 
 @Slf4j
 public class BsqWalletService extends WalletService implements DaoStateListener {
+    // Interval in blocks for comparing the incremental balance with a full recompute. The check rebuilds the wallet
+    // tx list and the balances of all wallet txs, so it costs O(number of wallet txs) once per interval.
+    private static final int BALANCE_CHECK_INTERVAL = 10;
+
     private final BsqCoinSelector bsqCoinSelector;
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final DaoStateService daoStateService;
     private final ObservableList<Transaction> walletTransactions = FXCollections.observableArrayList();
+    // Hashes of the txs in walletTransactions, used to update the list per tx without scanning it
+    private final Set<Sha256Hash> walletTransactionHashes = new HashSet<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
+    private final BsqBalanceIndex bsqBalanceIndex;
+    private boolean parseBlockChainComplete;
 
     // balance of non BSQ satoshis
     @Getter
@@ -115,11 +121,15 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.bsqCoinSelector = bsqCoinSelector;
         this.nonBsqCoinSelector = nonBsqCoinSelector;
         this.daoStateService = daoStateService;
+        bsqBalanceIndex = new BsqBalanceIndex(daoStateService);
 
         if (BisqEnvironment.isBaseCurrencySupportingBsq()) {
             walletsSetup.addSetupCompletedHandler(() -> {
                 wallet = walletsSetup.getBsqWallet();
                 if (wallet != null) {
+                    UtxoIndex utxoIndex = getUtxoIndex();
+                    bsqCoinSelector.setUtxoIndex(utxoIndex);
+                    nonBsqCoinSelector.setUtxoIndex(utxoIndex);
                     wallet.setCoinSelector(bsqCoinSelector);
                     wallet.addEventListener(walletEventListener);
 
@@ -127,12 +137,12 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                     wallet.addEventListener(new AbstractWalletEventListener() {
                         @Override
                         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                            updateBsqWalletTransactions();
+                            updateBsqWalletTransactions(tx);
                         }
 
                         @Override
                         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                            updateBsqWalletTransactions();
+                            updateBsqWalletTransactions(tx);
                         }
 
                         @Override
@@ -143,7 +153,11 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
                         @Override
                         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-                            updateBsqWalletTransactions();
+                            // Called for all txs at each new block, so we only touch the list if the tx got
+                            // added or dead
+                            updateWalletTransactions(tx);
+                            bsqBalanceIndex.onTransactionConfidenceChanged(tx, wallet);
+                            updateBsqBalance();
                         }
 
                         @Override
@@ -158,7 +172,8 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
                         @Override
                         public void onWalletChanged(Wallet wallet) {
-                            updateBsqWalletTransactions();
+                            // Changes of txs are handled by the tx specific callbacks
+                            updateBsqBalance();
                         }
 
                     });
@@ -187,12 +202,23 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     @Override
     public void onParseTxsComplete(Block block) {
-        if (isWalletReady())
-            updateBsqWalletTransactions();
+        if (isWalletReady()) {
+            // A parsed block does not change the wallet txs. Only the periodic check rebuilds the list from the
+            // wallet, together with the full recompute of the balances.
+            if (parseBlockChainComplete && block.getHeight() % BALANCE_CHECK_INTERVAL == 0) {
+                setAllWalletTransactions();
+                bsqBalanceIndex.verify(walletTransactions, wallet);
+            } else
+                bsqBalanceIndex.onParseTxsComplete(block, wallet);
+            updateBsqBalance();
+        }
     }
 
     @Override
     public void onParseBlockChainComplete() {
+        parseBlockChainComplete = true;
+        if (isWalletReady())
+            updateBsqWalletTransactions();
     }
 
 
@@ -213,71 +239,16 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void updateBsqBalance() {
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
-
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                /*.filter(txOutput -> !daoStateService.isSpentByUnlockTx(txOutput))*/ // TODO SQ
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        availableBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        unverifiedBalance = Coin.valueOf(bsqBalanceIndex.getUnverifiedBalance());
+        lockedForVotingBalance = Coin.valueOf(bsqBalanceIndex.getLockedForVotingBalance());
+        lockupBondsBalance = Coin.valueOf(bsqBalanceIndex.getLockupBondsBalance());
+        unlockingBondsBalance = Coin.valueOf(bsqBalanceIndex.getUnlockingBondsBalance());
 
+        availableBalance = Coin.valueOf(bsqBalanceIndex.getAvailableBalance());
         if (availableBalance.isNegative())
             availableBalance = Coin.ZERO;
 
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        availableNonBsqBalance = Coin.valueOf(bsqBalanceIndex.getAvailableNonBsqBalance());
 
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableBalance, availableNonBsqBalance, unverifiedBalance,
                 lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
@@ -306,11 +277,37 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     }
 
     private void updateBsqWalletTransactions() {
-        walletTransactions.setAll(getTransactions(false));
+        setAllWalletTransactions();
         // walletTransactions.setAll(getBsqWalletTransactions());
+        bsqBalanceIndex.rebuild(walletTransactions, wallet);
+        updateBsqBalance();
+    }
+
+    private void updateBsqWalletTransactions(Transaction tx) {
+        updateWalletTransactions(tx);
+        bsqBalanceIndex.update(tx, wallet);
         updateBsqBalance();
     }
 
+    private void setAllWalletTransactions() {
+        Set<Transaction> transactions = getTransactions(false);
+        walletTransactionHashes.clear();
+        transactions.forEach(tx -> walletTransactionHashes.add(tx.getHash()));
+        walletTransactions.setAll(transactions);
+    }
+
+    // Adds or removes the tx so that the list contains the same txs as getTransactions(false)
+    private void updateWalletTransactions(Transaction tx) {
+        boolean isWalletTransaction = wallet.getTransaction(tx.getHash()) != null &&
+                tx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD;
+        if (isWalletTransaction) {
+            if (walletTransactionHashes.add(tx.getHash()))
+                walletTransactions.add(tx);
+        } else if (walletTransactionHashes.remove(tx.getHash())) {
+            walletTransactions.removeIf(e -> e.getHash().equals(tx.getHash()));
+        }
+    }
+
     private Set<Transaction> getBsqWalletTransactions() {
         return getTransactions(false).stream()
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == PENDING ||
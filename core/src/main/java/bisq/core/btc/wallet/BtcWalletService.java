@@ -41,6 +41,7 @@ import org.bitcoinj.core.TransactionOutput;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.crypto.KeyCrypterScrypt;
 import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.wallet.CoinSelector;
 import org.bitcoinj.wallet.SendRequest;
 import org.bitcoinj.wallet.Wallet;
 
@@ -48,11 +49,13 @@ import javax.inject.Inject;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 
 import org.spongycastle.crypto.params.KeyParameter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -201,19 +204,17 @@ public class BtcWalletService extends WalletService {
 
         // safety check counter to avoid endless loops
         int counter = 0;
-        // estimated size of input sig
-        final int sigSizePerInput = 106;
-        // typical size for a tx with 3 inputs
-        int txSizeWithUnsignedInputs = 300;
         final Coin txFeePerByte = feeService.getTxFeePerByte();
 
         Address changeAddress = getFreshAddressEntry().getAddress();
         checkNotNull(changeAddress, "changeAddress must not be null");
 
-        final BtcCoinSelector coinSelector = new BtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
+        final BtcCoinSelector coinSelector = getBtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
         final List<TransactionInput> preparedBsqTxInputs = preparedTx.getInputs();
         final List<TransactionOutput> preparedBsqTxOutputs = preparedTx.getOutputs();
-        int numInputs = preparedBsqTxInputs.size();
+        // We estimate the fee up front so that we usually need only one completeTx call
+        Coin fee = getEstimatedFeeForBtcInputs(preparedBsqTxInputs, preparedBsqTxOutputs, opReturnData,
+                coinSelector, txFeePerByte);
         Transaction resultTx = null;
         boolean isFeeOutsideTolerance;
         do {
@@ -234,7 +235,7 @@ public class BtcWalletService extends WalletService {
             // signInputs needs to be false as it would try to sign all inputs (BSQ inputs are not in this wallet)
             sendRequest.signInputs = false;
 
-            sendRequest.fee = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs);
+            sendRequest.fee = fee;
             sendRequest.feePerKb = Coin.ZERO;
             sendRequest.ensureMinRequiredFee = false;
 
@@ -247,11 +248,10 @@ public class BtcWalletService extends WalletService {
             // add OP_RETURN output
             resultTx.addOutput(new TransactionOutput(params, resultTx, Coin.ZERO, ScriptBuilder.createOpReturnScript(opReturnData).getProgram()));
 
-            numInputs = resultTx.getInputs().size();
-            txSizeWithUnsignedInputs = resultTx.bitcoinSerialize().length;
-            long estimatedFeeAsLong = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs).value;
+            final long estimatedFeeAsLong = txFeePerByte.multiply(TxSizeEstimator.estimateSize(resultTx)).value;
             // calculated fee must be inside of a tolerance range with tx fee
             isFeeOutsideTolerance = Math.abs(resultTx.getFee().value - estimatedFeeAsLong) > 1000;
+            fee = Coin.valueOf(estimatedFeeAsLong);
         }
         while (isFeeOutsideTolerance);
 
@@ -308,19 +308,17 @@ public class BtcWalletService extends WalletService {
     private Transaction addInputsForMinerFee(Transaction preparedTx, byte[] opReturnData) throws InsufficientMoneyException {
         // safety check counter to avoid endless loops
         int counter = 0;
-        // estimated size of input sig
-        final int sigSizePerInput = 106;
-        // typical size for a tx with 3 inputs
-        int txSizeWithUnsignedInputs = 300;
         final Coin txFeePerByte = feeService.getTxFeePerByte();
 
         Address changeAddress = getFreshAddressEntry().getAddress();
         checkNotNull(changeAddress, "changeAddress must not be null");
 
-        final BtcCoinSelector coinSelector = new BtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
+        final BtcCoinSelector coinSelector = getBtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
         final List<TransactionInput> preparedBsqTxInputs = preparedTx.getInputs();
         final List<TransactionOutput> preparedBsqTxOutputs = preparedTx.getOutputs();
-        int numInputs = preparedBsqTxInputs.size();
+        // We estimate the fee up front so that we usually need only one completeTx call
+        Coin fee = getEstimatedFeeForBtcInputs(preparedBsqTxInputs, preparedBsqTxOutputs, opReturnData,
+                coinSelector, txFeePerByte);
         Transaction resultTx = null;
         boolean isFeeOutsideTolerance;
         do {
@@ -341,7 +339,7 @@ public class BtcWalletService extends WalletService {
             // signInputs needs to be false as it would try to sign all inputs (BSQ inputs are not in this wallet)
             sendRequest.signInputs = false;
 
-            sendRequest.fee = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs);
+            sendRequest.fee = fee;
             sendRequest.feePerKb = Coin.ZERO;
             sendRequest.ensureMinRequiredFee = false;
 
@@ -354,16 +352,36 @@ public class BtcWalletService extends WalletService {
             // add OP_RETURN output
             resultTx.addOutput(new TransactionOutput(params, resultTx, Coin.ZERO, ScriptBuilder.createOpReturnScript(opReturnData).getProgram()));
 
-            numInputs = resultTx.getInputs().size();
-            txSizeWithUnsignedInputs = resultTx.bitcoinSerialize().length;
-            final long estimatedFeeAsLong = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs).value;
+            final long estimatedFeeAsLong = txFeePerByte.multiply(TxSizeEstimator.estimateSize(resultTx)).value;
             // calculated fee must be inside of a tolerance range with tx fee
             isFeeOutsideTolerance = Math.abs(resultTx.getFee().value - estimatedFeeAsLong) > 1000;
+            fee = Coin.valueOf(estimatedFeeAsLong);
         }
         while (isFeeOutsideTolerance);
         return resultTx;
     }
 
+    // Estimates the fee for a tx where BTC inputs get added to the prepared inputs to cover the outputs and the fee.
+    private Coin getEstimatedFeeForBtcInputs(List<TransactionInput> preparedInputs,
+                                             List<TransactionOutput> preparedOutputs,
+                                             @Nullable byte[] opReturnData,
+                                             CoinSelector coinSelector,
+                                             Coin txFeePerByte) {
+        long outputValue = preparedOutputs.stream().mapToLong(output -> output.getValue().value).sum();
+        long inputValue = preparedInputs.stream()
+                .mapToLong(input -> input.getValue() != null ? input.getValue().value : 0)
+                .sum();
+        int opReturnOutputSize = opReturnData != null ? TxSizeEstimator.getOpReturnOutputSize(opReturnData) : 0;
+        return TxSizeEstimator.estimateFee(preparedInputs,
+                preparedOutputs,
+                opReturnOutputSize,
+                Coin.valueOf(outputValue - inputValue),
+                false,
+                coinSelector,
+                wallet.calculateAllSpendCandidates(),
+                txFeePerByte);
+    }
+
     private void signAllBtcInputs(int indexOfBtcFirstInput, Transaction tx) throws TransactionVerificationException {
         for (int i = indexOfBtcFirstInput; i < tx.getInputs().size(); i++) {
             TransactionInput input = tx.getInputs().get(i);
@@ -443,10 +461,6 @@ public class BtcWalletService extends WalletService {
 
         // safety check counter to avoid endless loops
         int counter = 0;
-        // estimated size of input sig
-        final int sigSizePerInput = 106;
-        // typical size for a tx with 2 inputs
-        int txSizeWithUnsignedInputs = 203;
         // If useCustomTxFee we allow overriding the estimated fee from preferences
         final Coin txFeePerByte = useCustomTxFee ? getTxFeeForWithdrawalPerByte() : feeService.getTxFeePerByte();
         // In case there are no change outputs we force a change by adding min dust to the BTC input
@@ -455,10 +469,12 @@ public class BtcWalletService extends WalletService {
         Address changeAddress = getFreshAddressEntry().getAddress();
         checkNotNull(changeAddress, "changeAddress must not be null");
 
-        final BtcCoinSelector coinSelector = new BtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
+        final BtcCoinSelector coinSelector = getBtcCoinSelector(walletsSetup.getAddressesByContext(AddressEntry.Context.AVAILABLE));
         final List<TransactionInput> preparedBsqTxInputs = preparedBsqTx.getInputs();
         final List<TransactionOutput> preparedBsqTxOutputs = preparedBsqTx.getOutputs();
-        int numInputs = preparedBsqTxInputs.size() + 1; // We add 1 for the BTC fee input
+        // We estimate the fee up front so that we usually need only one completeTx call
+        Coin fee = getEstimatedFeeForBtcInputs(preparedBsqTxInputs, preparedBsqTxOutputs, opReturnData,
+                coinSelector, txFeePerByte);
         Transaction resultTx = null;
         boolean isFeeOutsideTolerance;
         boolean opReturnIsOnlyOutput;
@@ -487,7 +503,7 @@ public class BtcWalletService extends WalletService {
             // signInputs needs to be false as it would try to sign all inputs (BSQ inputs are not in this wallet)
             sendRequest.signInputs = false;
 
-            sendRequest.fee = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs);
+            sendRequest.fee = fee;
             sendRequest.feePerKb = Coin.ZERO;
             sendRequest.ensureMinRequiredFee = false;
 
@@ -507,11 +523,10 @@ public class BtcWalletService extends WalletService {
             if (opReturnData != null)
                 resultTx.addOutput(new TransactionOutput(params, resultTx, Coin.ZERO, ScriptBuilder.createOpReturnScript(opReturnData).getProgram()));
 
-            numInputs = resultTx.getInputs().size();
-            txSizeWithUnsignedInputs = resultTx.bitcoinSerialize().length;
-            final long estimatedFeeAsLong = txFeePerByte.multiply(txSizeWithUnsignedInputs + sigSizePerInput * numInputs).value;
+            final long estimatedFeeAsLong = txFeePerByte.multiply(TxSizeEstimator.estimateSize(resultTx)).value;
             // calculated fee must be inside of a tolerance range with tx fee
             isFeeOutsideTolerance = Math.abs(resultTx.getFee().value - estimatedFeeAsLong) > 1000;
+            fee = Coin.valueOf(estimatedFeeAsLong);
         }
         while (opReturnIsOnlyOutput ||
                 isFeeOutsideTolerance ||
@@ -543,23 +558,16 @@ public class BtcWalletService extends WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Optional<AddressEntry> getAddressEntry(String offerId, @SuppressWarnings("SameParameterValue") AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.findAddressEntry(offerId, context);
     }
 
     public AddressEntry getOrCreateAddressEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntry = addressEntryList.findAddressEntry(offerId, context);
         if (addressEntry.isPresent()) {
             return addressEntry.get();
         } else {
             // We try to use available and not yet used entries
-            Optional<AddressEntry> emptyAvailableAddressEntry = getAddressEntryListAsImmutableList().stream()
-                    .filter(e -> AddressEntry.Context.AVAILABLE == e.getContext())
+            Optional<AddressEntry> emptyAvailableAddressEntry = addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).stream()
                     .filter(e -> isAddressUnused(e.getAddress()))
                     .findAny();
             if (emptyAvailableAddressEntry.isPresent()) {
@@ -574,16 +582,13 @@ public class BtcWalletService extends WalletService {
 
     public AddressEntry getArbitratorAddressEntry() {
         AddressEntry.Context context = AddressEntry.Context.ARBITRATOR;
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream().findAny();
         return getOrCreateAddressEntry(context, addressEntry);
     }
 
     public AddressEntry getFreshAddressEntry() {
         AddressEntry.Context context = AddressEntry.Context.AVAILABLE;
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .filter(e -> isAddressUnused(e.getAddress()))
                 .findAny();
         return getOrCreateAddressEntry(context, addressEntry);
@@ -600,40 +605,32 @@ public class BtcWalletService extends WalletService {
     }
 
     private Optional<AddressEntry> findAddressEntry(String address, AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> address.equals(e.getAddressString()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.findAddressEntryByAddress(address, context);
     }
 
     public List<AddressEntry> getAvailableAddressEntries() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.AVAILABLE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(AddressEntry.Context.AVAILABLE);
     }
 
     public List<AddressEntry> getAddressEntriesForOpenOffer() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.OFFER_FUNDING == addressEntry.getContext() ||
-                        AddressEntry.Context.RESERVED_FOR_TRADE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        List<AddressEntry> list = getAddressEntries(AddressEntry.Context.OFFER_FUNDING);
+        list.addAll(addressEntryList.getAddressEntries(AddressEntry.Context.RESERVED_FOR_TRADE));
+        return list;
     }
 
     public List<AddressEntry> getAddressEntriesForTrade() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.MULTI_SIG == addressEntry.getContext() ||
-                        AddressEntry.Context.TRADE_PAYOUT == addressEntry.getContext())
-                .collect(Collectors.toList());
+        List<AddressEntry> list = getAddressEntries(AddressEntry.Context.MULTI_SIG);
+        list.addAll(addressEntryList.getAddressEntries(AddressEntry.Context.TRADE_PAYOUT));
+        return list;
     }
 
+    // We return a copy as the caller might hold on to the list while the entries get swapped.
     public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> context == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return new ArrayList<>(addressEntryList.getAddressEntries(context));
     }
 
     public List<AddressEntry> getFundedAvailableAddressEntries() {
-        return getAvailableAddressEntries().stream()
+        return addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).stream()
                 .filter(addressEntry -> getBalanceForAddress(addressEntry.getAddress()).isPositive())
                 .collect(Collectors.toList());
     }
@@ -643,10 +640,7 @@ public class BtcWalletService extends WalletService {
     }
 
     public void swapTradeEntryToAvailableEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntryOptional = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntryOptional = addressEntryList.findAddressEntry(offerId, context);
         addressEntryOptional.ifPresent(e -> {
             log.info("swap addressEntry with address {} and offerId {} from context {} to available",
                     e.getAddressString(), e.getOfferId(), context);
@@ -775,7 +769,7 @@ public class BtcWalletService extends WalletService {
                             sendRequest.feePerKb = Coin.ZERO;
                             sendRequest.ensureMinRequiredFee = false;
                             sendRequest.aesKey = aesKey;
-                            sendRequest.coinSelector = new BtcCoinSelector(toAddress);
+                            sendRequest.coinSelector = getBtcCoinSelector(toAddress);
                             sendRequest.changeAddress = toAddress;
                             wallet.completeTx(sendRequest);
                             tx = sendRequest.tx;
@@ -796,7 +790,7 @@ public class BtcWalletService extends WalletService {
                             sendRequest.feePerKb = Coin.ZERO;
                             sendRequest.ensureMinRequiredFee = false;
                             sendRequest.aesKey = aesKey;
-                            sendRequest.coinSelector = new BtcCoinSelector(toAddress);
+                            sendRequest.coinSelector = getBtcCoinSelector(toAddress);
                             sendRequest.changeAddress = toAddress;
                             sendResult = wallet.sendCoins(sendRequest);
                         } catch (InsufficientMoneyException e) {
@@ -875,18 +869,18 @@ public class BtcWalletService extends WalletService {
         checkNotNull(addressEntry.get().getAddress(), "addressEntry.get().getAddress() must nto be null");
 
         try {
-            Coin fee;
             int counter = 0;
-            int txSize = 0;
             Transaction tx;
             Coin txFeeForWithdrawalPerByte = getTxFeeForWithdrawalPerByte();
+            // The fee is deducted from the amount, so the selected inputs do not depend on the fee
+            Coin fee = getEstimatedFeeForWithdrawal(getSendRequest(fromAddress, toAddress, amount, Coin.ZERO, aesKey, context),
+                    amount, txFeeForWithdrawalPerByte);
             do {
                 counter++;
-                fee = txFeeForWithdrawalPerByte.multiply(txSize);
                 SendRequest sendRequest = getSendRequest(fromAddress, toAddress, amount, fee, aesKey, context);
                 wallet.completeTx(sendRequest);
                 tx = sendRequest.tx;
-                txSize = tx.bitcoinSerialize().length;
+                fee = txFeeForWithdrawalPerByte.multiply(tx.bitcoinSerialize().length);
                 printTx("FeeEstimationTransaction", tx);
             }
             while (feeEstimationNotSatisfied(counter, tx));
@@ -922,20 +916,20 @@ public class BtcWalletService extends WalletService {
             throw new AddressEntryException("No Addresses for withdraw  found in our wallet");
 
         try {
-            Coin fee;
             int counter = 0;
-            int txSize = 0;
             Transaction tx;
             Coin txFeeForWithdrawalPerByte = getTxFeeForWithdrawalPerByte();
+            // We use a dummy address for the output
+            final String dummyReceiver = getFreshAddressEntry().getAddressString();
+            // The fee is deducted from the amount, so the selected inputs do not depend on the fee
+            Coin fee = getEstimatedFeeForWithdrawal(getSendRequestForMultipleAddresses(fromAddresses, dummyReceiver,
+                    amount, Coin.ZERO, null, aesKey), amount, txFeeForWithdrawalPerByte);
             do {
                 counter++;
-                fee = txFeeForWithdrawalPerByte.multiply(txSize);
-                // We use a dummy address for the output
-                final String dummyReceiver = getFreshAddressEntry().getAddressString();
                 SendRequest sendRequest = getSendRequestForMultipleAddresses(fromAddresses, dummyReceiver, amount, fee, null, aesKey);
                 wallet.completeTx(sendRequest);
                 tx = sendRequest.tx;
-                txSize = tx.bitcoinSerialize().length;
+                fee = txFeeForWithdrawalPerByte.multiply(tx.bitcoinSerialize().length);
                 printTx("FeeEstimationTransactionForMultipleAddresses", tx);
             }
             while (feeEstimationNotSatisfied(counter, tx));
@@ -950,6 +944,17 @@ public class BtcWalletService extends WalletService {
         }
     }
 
+    private Coin getEstimatedFeeForWithdrawal(SendRequest sendRequest, Coin amount, Coin txFeePerByte) {
+        return TxSizeEstimator.estimateFee(sendRequest.tx.getInputs(),
+                sendRequest.tx.getOutputs(),
+                0,
+                amount,
+                true,
+                sendRequest.coinSelector,
+                wallet.calculateAllSpendCandidates(),
+                txFeePerByte);
+    }
+
     private boolean feeEstimationNotSatisfied(int counter, Transaction tx) {
         long targetFee = getTxFeeForWithdrawalPerByte().multiply(tx.bitcoinSerialize().length).value;
         return counter < 10 &&
@@ -1020,7 +1025,7 @@ public class BtcWalletService extends WalletService {
 
         checkNotNull(addressEntry.get(), "addressEntry.get() must not be null");
         checkNotNull(addressEntry.get().getAddress(), "addressEntry.get().getAddress() must not be null");
-        sendRequest.coinSelector = new BtcCoinSelector(addressEntry.get().getAddress());
+        sendRequest.coinSelector = getBtcCoinSelector(addressEntry.get().getAddress());
         sendRequest.changeAddress = addressEntry.get().getAddress();
         return sendRequest;
     }
@@ -1065,7 +1070,7 @@ public class BtcWalletService extends WalletService {
         if (addressEntries.isEmpty())
             throw new AddressEntryException("No Addresses for withdraw found in our wallet");
 
-        sendRequest.coinSelector = new BtcCoinSelector(walletsSetup.getAddressesFromAddressEntries(addressEntries));
+        sendRequest.coinSelector = getBtcCoinSelector(walletsSetup.getAddressesFromAddressEntries(addressEntries));
         Optional<AddressEntry> addressEntryOptional = Optional.<AddressEntry>empty();
         AddressEntry changeAddressAddressEntry = null;
         if (changeAddress != null)
@@ -1076,4 +1081,21 @@ public class BtcWalletService extends WalletService {
         sendRequest.changeAddress = changeAddressAddressEntry.getAddress();
         return sendRequest;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Coin selector
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The selectors get used repeatedly in the fee calculation loops, so we let them use the utxo index for the
+    // sort order of the candidates.
+    private BtcCoinSelector getBtcCoinSelector(Set<Address> addresses) {
+        BtcCoinSelector coinSelector = new BtcCoinSelector(addresses);
+        coinSelector.setUtxoIndex(getUtxoIndex());
+        return coinSelector;
+    }
+
+    private BtcCoinSelector getBtcCoinSelector(Address address) {
+        return getBtcCoinSelector(Sets.newHashSet(address));
+    }
 }
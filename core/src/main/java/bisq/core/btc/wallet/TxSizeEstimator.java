@@ -0,0 +1,195 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ScriptException;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.core.VarInt;
+import org.bitcoinj.script.Script;
+import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.wallet.CoinSelection;
+import org.bitcoinj.wallet.CoinSelector;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Estimates the size of a signed transaction from the script types of its inputs and from its outputs, so that
+ * the miner fee can be calculated before the wallet completes the transaction. Signatures are not known before
+ * signing, so we use the max. size of a low-S DER signature (72 bytes incl. sighash byte) and compressed public
+ * keys. The estimate is therefore at most a few bytes above the real size.
+ */
+@Slf4j
+class TxSizeEstimator {
+    // version (4) + lock time (4)
+    private static final int TX_OVERHEAD = 8;
+    // outpoint (32 + 4) + sequence (4)
+    private static final int INPUT_OVERHEAD = 40;
+    // push of signature (1 + 72)
+    private static final int SIG_PUSH_SIZE = 73;
+    // push of compressed public key (1 + 33)
+    private static final int PUB_KEY_PUSH_SIZE = 34;
+    // push of 2-of-2 multisig redeem script (1 + 71)
+    private static final int MULTISIG_REDEEM_SCRIPT_PUSH_SIZE = 72;
+    // value (8) + script length (1) + P2PKH script (25)
+    static final int P2PKH_OUTPUT_SIZE = 34;
+    // We use the same limit as in BtcWalletService for the completeTx loops
+    private static final int MAX_ITERATIONS = 10;
+
+    static final int P2PKH_INPUT_SIZE = getInputSizeForScriptSig(SIG_PUSH_SIZE + PUB_KEY_PUSH_SIZE);
+    static final int P2PK_INPUT_SIZE = getInputSizeForScriptSig(SIG_PUSH_SIZE);
+    // OP_0 + 2 signatures + redeem script
+    static final int P2SH_MULTISIG_INPUT_SIZE = getInputSizeForScriptSig(1 + 2 * SIG_PUSH_SIZE + MULTISIG_REDEEM_SCRIPT_PUSH_SIZE);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static int estimateSize(Transaction tx) {
+        return estimateSize(tx.getInputs(), null, tx.getOutputs(), 0, 0);
+    }
+
+    /**
+     * Estimates the fee of the tx the wallet creates if it completes a tx with the given inputs and outputs.
+     * We apply the coin selector on the spend candidates to know which inputs and if a change output will get
+     * added, so that completeTx is only needed once with the resulting fee.
+     *
+     * @param inputs               Inputs of the prepared tx
+     * @param outputs              Outputs of the prepared tx
+     * @param additionalOutputSize Size of an output which gets added after completeTx (e.g. OP_RETURN), 0 if none
+     * @param valueToSelect        Value the coin selector has to cover, not incl. the fee
+     * @param feeIsDeducted        If true the fee is deducted from an output and does not need to be selected
+     * @param coinSelector         Coin selector used at completeTx
+     * @param candidates           Spend candidates of the wallet
+     * @param txFeePerByte         Fee rate
+     * @return The estimated fee
+     */
+    static Coin estimateFee(List<TransactionInput> inputs,
+                            List<TransactionOutput> outputs,
+                            int additionalOutputSize,
+                            Coin valueToSelect,
+                            boolean feeIsDeducted,
+                            CoinSelector coinSelector,
+                            List<TransactionOutput> candidates,
+                            Coin txFeePerByte) {
+        // We start with the assumption of one input and a change output
+        Coin fee = txFeePerByte.multiply(estimateSize(inputs, null, outputs, additionalOutputSize, 1) + P2PKH_INPUT_SIZE);
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            Coin target = feeIsDeducted ? valueToSelect : valueToSelect.add(fee);
+            CoinSelection selection = coinSelector.select(target, candidates);
+            if (selection.valueGathered.isLessThan(target)) {
+                // completeTx will fail with an InsufficientMoneyException
+                return fee;
+            }
+
+            int numChangeOutputs = selection.valueGathered.isGreaterThan(target) ? 1 : 0;
+            Coin newFee = txFeePerByte.multiply(estimateSize(inputs, selection.gathered, outputs,
+                    additionalOutputSize, numChangeOutputs));
+            if (feeIsDeducted || newFee.equals(fee))
+                return newFee;
+
+            fee = newFee;
+        }
+        log.warn("Fee estimation did not converge. fee={}", fee.toFriendlyString());
+        return fee;
+    }
+
+    static int getInputSize(TransactionInput input) {
+        byte[] scriptBytes = input.getScriptBytes();
+        if (scriptBytes.length > 0)
+            return getInputSizeForScriptSig(scriptBytes.length);
+
+        return getInputSize(input.getConnectedOutput());
+    }
+
+    // Size of an input spending the given output
+    static int getInputSize(@Nullable TransactionOutput connectedOutput) {
+        if (connectedOutput == null)
+            return P2PKH_INPUT_SIZE;
+
+        try {
+            Script scriptPubKey = connectedOutput.getScriptPubKey();
+            if (scriptPubKey.isPayToScriptHash())
+                return P2SH_MULTISIG_INPUT_SIZE;
+            else if (scriptPubKey.isSentToRawPubKey())
+                return P2PK_INPUT_SIZE;
+            else
+                return P2PKH_INPUT_SIZE;
+        } catch (ScriptException e) {
+            log.warn("Could not parse scriptPubKey of connected output. We assume a P2PKH input. " + e.toString());
+            return P2PKH_INPUT_SIZE;
+        }
+    }
+
+    static int getOutputSize(TransactionOutput output) {
+        return getOutputSizeForScript(output.getScriptBytes().length);
+    }
+
+    static int getOpReturnOutputSize(byte[] opReturnData) {
+        return getOutputSizeForScript(ScriptBuilder.createOpReturnScript(opReturnData).getProgram().length);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int estimateSize(List<TransactionInput> inputs,
+                                    @Nullable Iterable<TransactionOutput> selectedOutputs,
+                                    List<TransactionOutput> outputs,
+                                    int additionalOutputSize,
+                                    int numChangeOutputs) {
+        int numInputs = inputs.size();
+        int inputsSize = 0;
+        for (TransactionInput input : inputs) {
+            inputsSize += getInputSize(input);
+        }
+        if (selectedOutputs != null) {
+            for (TransactionOutput output : selectedOutputs) {
+                inputsSize += getInputSize(output);
+                numInputs++;
+            }
+        }
+
+        int numOutputs = outputs.size() + numChangeOutputs + (additionalOutputSize > 0 ? 1 : 0);
+        int outputsSize = numChangeOutputs * P2PKH_OUTPUT_SIZE + additionalOutputSize;
+        for (TransactionOutput output : outputs) {
+            outputsSize += getOutputSize(output);
+        }
+
+        return TX_OVERHEAD +
+                VarInt.sizeOf(numInputs) + inputsSize +
+                VarInt.sizeOf(numOutputs) + outputsSize;
+    }
+
+    private static int getInputSizeForScriptSig(int scriptSigSize) {
+        return INPUT_OVERHEAD + VarInt.sizeOf(scriptSigSize) + scriptSigSize;
+    }
+
+    private static int getOutputSizeForScript(int scriptSize) {
+        // value (8) + script length + script
+        return 8 + VarInt.sizeOf(scriptSize) + scriptSize;
+    }
+}
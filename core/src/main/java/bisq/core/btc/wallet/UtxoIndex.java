@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+
+import java.math.BigInteger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Spendable outputs of a wallet, updated from the wallet listener when outputs get added, spent or confirmed. The
+ * coin selectors use it to get the candidates in their selection order without sorting all candidates at each call,
+ * which adds up in the fee estimation loops where we select repeatedly for the same tx.
+ * <p>
+ * The coin depth order of the default selection changes with each block. We sort it lazily at the first selection
+ * after a change of the outputs or of the depth of their txs and reuse it until the next change. bitcoinj notifies
+ * the wallet listeners asynchronously, so the index might lag behind the wallet. That only affects the priority of
+ * the outputs, as the candidates passed to the selector still decide which outputs can be used. For that reason the
+ * callers keep using the spend candidates of the wallet and not the outputs of the index.
+ */
+@Slf4j
+class UtxoIndex {
+    // Keyed by outpoint so that another instance of the same output replaces the indexed one
+    private final Map<TransactionOutPoint, TransactionOutput> outputByOutPoint = new HashMap<>();
+    private boolean built;
+    @Nullable
+    private List<TransactionOutput> outputsInCoinDepthOrder;
+    // Position of each output in outputsInCoinDepthOrder
+    private final Map<TransactionOutput, Integer> positionByOutput = new IdentityHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized boolean isBuilt() {
+        return built;
+    }
+
+    synchronized void build(Collection<TransactionOutput> spendCandidates) {
+        clear();
+        spendCandidates.forEach(output -> outputByOutPoint.put(output.getOutPointFor(), output));
+        built = true;
+    }
+
+    // If not built yet we ignore the tx as it will be included at the build.
+    synchronized void update(Transaction tx, Wallet wallet) {
+        if (!built)
+            return;
+
+        for (TransactionInput input : tx.getInputs()) {
+            TransactionOutput connectedOutput = input.getConnectedOutput();
+            if (connectedOutput != null)
+                update(connectedOutput, wallet);
+        }
+        for (TransactionOutput output : tx.getOutputs()) {
+            update(output, wallet);
+        }
+    }
+
+    synchronized void reset() {
+        clear();
+        built = false;
+    }
+
+    synchronized int size() {
+        return outputByOutPoint.size();
+    }
+
+    /**
+     * @param candidates The spend candidates passed to the coin selector
+     * @return The candidates sorted by coin depth or null if the index does not contain all candidates
+     */
+    @Nullable
+    synchronized List<TransactionOutput> getCandidatesInCoinDepthOrder(Collection<TransactionOutput> candidates) {
+        if (!built)
+            return null;
+
+        if (outputsInCoinDepthOrder == null) {
+            List<TransactionOutput> outputs = new ArrayList<>(outputByOutPoint.values());
+            sortByCoinDepth(outputs);
+            for (int i = 0; i < outputs.size(); i++) {
+                positionByOutput.put(outputs.get(i), i);
+            }
+            outputsInCoinDepthOrder = outputs;
+        }
+
+        // We put the candidates at their position in the sorted outputs instead of sorting them
+        TransactionOutput[] candidatesByPosition = new TransactionOutput[outputsInCoinDepthOrder.size()];
+        for (TransactionOutput candidate : candidates) {
+            Integer position = positionByOutput.get(candidate);
+            if (position == null) {
+                log.debug("Utxo index does not contain all {} candidates, we fall back to sorting the candidates",
+                        candidates.size());
+                return null;
+            }
+            candidatesByPosition[position] = candidate;
+        }
+        List<TransactionOutput> result = new ArrayList<>(candidates.size());
+        for (TransactionOutput candidate : candidatesByPosition) {
+            if (candidate != null)
+                result.add(candidate);
+        }
+        return result;
+    }
+
+    // Sorts the outputs by coin depth (value * depth), value and tx hash. The coin depth is calculated once per
+    // output instead of at each comparison.
+    static void sortByCoinDepth(List<TransactionOutput> outputs) {
+        Map<TransactionOutput, BigInteger> coinDepthByOutput = new IdentityHashMap<>(outputs.size());
+        for (TransactionOutput output : outputs) {
+            coinDepthByOutput.put(output, BigInteger.valueOf(output.getValue().value)
+                    .multiply(BigInteger.valueOf(output.getParentTransactionDepthInBlocks())));
+        }
+        outputs.sort(Comparator.<TransactionOutput, BigInteger>comparing(coinDepthByOutput::get).reversed()
+                .thenComparing(TransactionOutput::getValue, Comparator.reverseOrder())
+                .thenComparing(output -> output.getParentTransactionHash() != null ?
+                        output.getParentTransactionHash().toBigInteger() : BigInteger.ZERO));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // A new block changes the depth of the indexed outputs without changing the outputs. We get a confidence
+    // callback for their txs, so an update of an indexed output invalidates the sort order as well.
+    private void update(TransactionOutput output, Wallet wallet) {
+        Transaction parentTransaction = output.getParentTransaction();
+        if (parentTransaction == null)
+            return;
+
+        TransactionOutPoint outPoint = output.getOutPointFor();
+        if (parentTransaction.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD &&
+                output.isAvailableForSpending() &&
+                output.isMine(wallet)) {
+            outputByOutPoint.put(outPoint, output);
+            invalidateCoinDepthOrder();
+        } else if (outputByOutPoint.remove(outPoint) != null) {
+            invalidateCoinDepthOrder();
+        }
+    }
+
+    // bitcoinj calls the confidence listener for all txs at each block, so we only clear the positions once
+    private void invalidateCoinDepthOrder() {
+        if (outputsInCoinDepthOrder != null) {
+            outputsInCoinDepthOrder = null;
+            positionByOutput.clear();
+        }
+    }
+
+    private void clear() {
+        outputByOutPoint.clear();
+        invalidateCoinDepthOrder();
+    }
+}
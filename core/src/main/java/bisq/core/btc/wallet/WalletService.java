@@ -102,6 +102,8 @@ public abstract class WalletService {
     protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    private final AddressIndex addressIndex = new AddressIndex();
+    private final UtxoIndex utxoIndex = new UtxoIndex();
     protected Wallet wallet;
     protected KeyParameter aesKey;
     @Getter
@@ -336,12 +338,10 @@ public abstract class WalletService {
     @Nullable
     public TransactionConfidence getConfidenceForAddress(Address address) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-        if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            if (transactions != null) {
-                transactionConfidenceList.addAll(transactions.stream().map(tx ->
-                        getTransactionConfidence(tx, address)).collect(Collectors.toList()));
-            }
+        if (wallet != null && address != null) {
+            transactionConfidenceList.addAll(getAddressIndex().getTransactions(address, this::isLiveWalletTransaction).stream()
+                    .map(tx -> getTransactionConfidence(tx, address))
+                    .collect(Collectors.toList()));
         }
         return getMostRecentConfidence(transactionConfidenceList);
     }
@@ -421,7 +421,10 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        if (wallet == null || address == null)
+            return Coin.ZERO;
+
+        return addressIndex.getBalance(address, wallet::calculateAllSpendCandidates);
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
@@ -453,16 +456,10 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public int getNumTxOutputsForAddress(Address address) {
-        List<TransactionOutput> transactionOutputs = new ArrayList<>();
-        wallet.getTransactions(false).forEach(t -> transactionOutputs.addAll(t.getOutputs()));
-        int outputs = 0;
-        for (TransactionOutput output : transactionOutputs) {
-            if (isOutputScriptConvertibleToAddress(output) &&
-                    address != null &&
-                    address.equals(getAddressFromOutput(output)))
-                outputs++;
-        }
-        return outputs;
+        if (address == null)
+            return 0;
+
+        return getAddressIndex().getNumOutputs(address, this::isLiveWalletTransaction);
     }
 
     public boolean isAddressUnused(Address address) {
@@ -677,6 +674,30 @@ public abstract class WalletService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Address and utxo index
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private AddressIndex getAddressIndex() {
+        if (!addressIndex.isBuilt())
+            addressIndex.build(wallet.getTransactions(true));
+        return addressIndex;
+    }
+
+    // Used by the coin selectors for the sort order of the spend candidates.
+    UtxoIndex getUtxoIndex() {
+        if (!utxoIndex.isBuilt())
+            utxoIndex.build(wallet.calculateAllSpendCandidates());
+        return utxoIndex;
+    }
+
+    // The index does not remove txs, so we apply the same filter as wallet.getTransactions(false) at lookup.
+    private boolean isLiveWalletTransaction(Transaction tx) {
+        return wallet.getTransaction(tx.getHash()) != null &&
+                tx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // bisqWalletEventListener
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -685,21 +706,34 @@ public abstract class WalletService {
     public class BisqWalletListener extends AbstractWalletEventListener {
         @Override
         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            addressIndex.add(tx);
+            utxoIndex.update(tx, wallet);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            addressIndex.add(tx);
+            utxoIndex.update(tx, wallet);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onReorganize(Wallet wallet) {
             log.warn("onReorganize ");
+            addressIndex.reset();
+            utxoIndex.reset();
+        }
+
+        @Override
+        public void onWalletChanged(Wallet wallet) {
+            addressIndex.invalidateBalances();
         }
 
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+            addressIndex.add(tx);
+            utxoIndex.update(tx, wallet);
             for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
                 List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
                 transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
@@ -28,6 +28,7 @@ import bisq.core.dao.governance.blindvote.network.RepublishGovernanceDataHandler
 import bisq.core.dao.governance.blindvote.storage.BlindVoteStorageService;
 import bisq.core.dao.governance.blindvote.storage.BlindVoteStore;
 import bisq.core.dao.governance.bond.lockup.LockupTxService;
+import bisq.core.dao.governance.bond.BondIndex;
 import bisq.core.dao.governance.bond.reputation.BondedReputationRepository;
 import bisq.core.dao.governance.bond.reputation.MyBondedReputationRepository;
 import bisq.core.dao.governance.bond.reputation.MyReputationListService;
@@ -188,9 +189,14 @@ public class DaoModule extends AppModule {
         Integer genesisBlockHeight = environment.getProperty(DaoOptionKeys.GENESIS_BLOCK_HEIGHT, Integer.class, -1);
         bind(Integer.class).annotatedWith(Names.named(DaoOptionKeys.GENESIS_BLOCK_HEIGHT)).toInstance(genesisBlockHeight);
 
+        // Parser
+        Boolean parseTxsInParallel = environment.getProperty(DaoOptionKeys.PARSE_TXS_IN_PARALLEL, Boolean.class, false);
+        bind(Boolean.class).annotatedWith(Names.named(DaoOptionKeys.PARSE_TXS_IN_PARALLEL)).toInstance(parseTxsInParallel);
+
         // Bonds
         bind(LockupTxService.class).in(Singleton.class);
         bind(UnlockTxService.class).in(Singleton.class);
+        bind(BondIndex.class).in(Singleton.class);
         bind(BondedRolesRepository.class).in(Singleton.class);
         bind(BondedReputationRepository.class).in(Singleton.class);
         bind(MyReputationListService.class).in(Singleton.class);
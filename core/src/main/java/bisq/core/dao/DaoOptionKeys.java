@@ -31,4 +31,5 @@ public class DaoOptionKeys {
     public static final String GENESIS_TX_ID = "genesisTxId";
     public static final String GENESIS_BLOCK_HEIGHT = "genesisBlockHeight";
     public static final String DAO_ACTIVATED = "daoActivated";
+    public static final String PARSE_TXS_IN_PARALLEL = "parseTxsInParallel";
 }
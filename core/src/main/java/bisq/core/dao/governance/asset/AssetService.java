@@ -117,6 +117,10 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     public void onAllServicesInitialized() {
+        // If the DAO is not activated all assets are active and we don't need the trade statistics at startup.
+        if (!DevEnv.isDaoActivated())
+            return;
+
         tradeStatsByTickerSymbol = getTradeStatsByTickerSymbol();
         tradeStatisticsManager.getObservableTradeStatisticsSet().addListener((SetChangeListener<TradeStatistics2>) change -> {
             // At startup if a user has downloaded the app long after the release he might receive a lots of trade statistic
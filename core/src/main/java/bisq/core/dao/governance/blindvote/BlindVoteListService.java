@@ -135,7 +135,7 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void fillListFromAppendOnlyDataStore() {
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(this::onAppendOnlyDataAdded);
+        p2PService.getP2PDataStorage().getAppendOnlyDataStorePayloads(BlindVotePayload.class).forEach(this::onAppendOnlyDataAdded);
     }
 
     private void onAppendOnlyDataAdded(PersistableNetworkPayload persistableNetworkPayload) {
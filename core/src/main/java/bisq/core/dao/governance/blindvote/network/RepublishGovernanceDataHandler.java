@@ -42,6 +42,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +63,7 @@ public final class RepublishGovernanceDataHandler {
 
     private boolean stopped;
     private Timer timeoutTimer;
+    private Set<byte[]> knownBlindVotePayloadHashes = new HashSet<>();
 
     @Inject
     public RepublishGovernanceDataHandler(NetworkNode networkNode,
@@ -83,13 +85,21 @@ public final class RepublishGovernanceDataHandler {
             connectToNextNode();
     }
 
+    // The full node only republishes the blindVotePayloads which are not in knownBlindVotePayloadHashes. As we
+    // request only the missing data we start a new request even if a previous one has completed already.
+    public void sendRepublishRequest(Set<byte[]> knownBlindVotePayloadHashes) {
+        this.knownBlindVotePayloadHashes = new HashSet<>(knownBlindVotePayloadHashes);
+        stopped = false;
+        connectToNextNode();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void sendRepublishRequest(NodeAddress nodeAddress) {
-        RepublishGovernanceDataRequest republishGovernanceDataRequest = new RepublishGovernanceDataRequest();
+        RepublishGovernanceDataRequest republishGovernanceDataRequest = new RepublishGovernanceDataRequest(knownBlindVotePayloadHashes);
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
                         if (!stopped) {
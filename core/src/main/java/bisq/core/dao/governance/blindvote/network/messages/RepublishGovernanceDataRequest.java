@@ -22,13 +22,19 @@ import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Version;
+import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.ByteString;
+
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -36,9 +42,15 @@ import lombok.Getter;
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class RepublishGovernanceDataRequest extends NetworkEnvelope implements DirectMessage, CapabilityRequiringPayload {
+    // Hashes of the blindVotePayloads we have already. If empty all blindVotePayloads get republished.
+    private final Set<byte[]> knownBlindVotePayloadHashes;
 
     public RepublishGovernanceDataRequest() {
-        this(Version.getP2PMessageVersion());
+        this(new HashSet<>());
+    }
+
+    public RepublishGovernanceDataRequest(Set<byte[]> knownBlindVotePayloadHashes) {
+        this(knownBlindVotePayloadHashes, Version.getP2PMessageVersion());
     }
 
 
@@ -46,19 +58,25 @@ public final class RepublishGovernanceDataRequest extends NetworkEnvelope implem
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private RepublishGovernanceDataRequest(int messageVersion) {
+    private RepublishGovernanceDataRequest(Set<byte[]> knownBlindVotePayloadHashes, int messageVersion) {
         super(messageVersion);
+        this.knownBlindVotePayloadHashes = knownBlindVotePayloadHashes;
     }
 
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
         return getNetworkEnvelopeBuilder()
-                .setRepublishGovernanceDataRequest(PB.RepublishGovernanceDataRequest.newBuilder())
+                .setRepublishGovernanceDataRequest(PB.RepublishGovernanceDataRequest.newBuilder()
+                        .addAllKnownBlindVotePayloadHashes(knownBlindVotePayloadHashes.stream()
+                                .map(ByteString::copyFrom)
+                                .collect(Collectors.toList())))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(PB.RepublishGovernanceDataRequest proto, int messageVersion) {
-        return new RepublishGovernanceDataRequest(messageVersion);
+        return new RepublishGovernanceDataRequest(
+                ProtoUtil.byteSetFromProtoByteStringList(proto.getKnownBlindVotePayloadHashesList()),
+                messageVersion);
     }
 
     @Override
@@ -71,6 +89,7 @@ public final class RepublishGovernanceDataRequest extends NetworkEnvelope implem
     @Override
     public String toString() {
         return "RepublishGovernanceDataRequest{" +
+                "\n     knownBlindVotePayloadHashes.size()=" + knownBlindVotePayloadHashes.size() +
                 "\n} " + super.toString();
     }
 }
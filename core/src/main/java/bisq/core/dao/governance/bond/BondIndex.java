@@ -0,0 +1,225 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.bond;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import bisq.common.util.Utilities;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the lockup tx outputs by the bond hash from the OpReturn data of the lockup tx. It follows the blocks of
+ * the dao state and reports which bond hashes have been touched by the blocks added since the last sync of a
+ * consumer, so that the bond repositories only need to apply the bond state for those bonds. The index is shared by
+ * all bond repositories, each of them keeps its position in its own Cursor.
+ * <p>
+ * A bond is touched by a block if the block contains its lockup tx, a tx spending the lockup output (unlock tx) or a
+ * tx spending the unlock output of the unlock tx. A confiscation of the lockup tx touches the bond as well.
+ * If the blocks we have synced to are not in the dao state anymore (reorg or applied snapshot) we rebuild the index.
+ * <p>
+ * Not thread safe, it is used from the user thread only.
+ */
+@Slf4j
+public class BondIndex {
+    /**
+     * Position of a consumer in the touched bonds of the index.
+     */
+    public static class Cursor {
+        private int numRebuilds = -1;
+        private long sequenceNumber;
+    }
+
+    private final DaoStateService daoStateService;
+
+    private final Map<String, List<TxOutput>> lockupTxOutputsByHash = new LinkedHashMap<>();
+    private final Map<String, String> hashByLockupTxId = new HashMap<>();
+    // We only follow the lockup output to the unlock tx and the unlock output to the tx spending it
+    private final Map<TxOutputKey, String> hashByLockupTxOutputKey = new HashMap<>();
+    private final Map<TxOutputKey, String> hashByUnlockTxOutputKey = new HashMap<>();
+    // The bond hashes touched by each update which touched any bond. Bond txs are rare, so we keep them all.
+    private final TreeMap<Long, Set<String>> touchedHashesBySequenceNumber = new TreeMap<>();
+    private long sequenceNumber;
+    private int numRebuilds;
+    private int numConfiscatedLockupTxs;
+    private int lastBlockHeight = -1;
+    @Nullable
+    private String lastBlockHash;
+
+    @Inject
+    public BondIndex(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Applies the blocks added since the last call of any consumer.
+     *
+     * @param cursor The position of the consumer, gets moved to the current state.
+     * @return The hex encoded hashes of the bonds touched since the last sync with that cursor or null at the first
+     * sync or if the index had to be rebuilt since, in which case all bonds need to be updated.
+     */
+    @Nullable
+    public Set<String> sync(Cursor cursor) {
+        update();
+        if (cursor.numRebuilds != numRebuilds) {
+            cursor.numRebuilds = numRebuilds;
+            cursor.sequenceNumber = sequenceNumber;
+            return null;
+        }
+
+        Set<String> touchedHashes = new HashSet<>();
+        touchedHashesBySequenceNumber.tailMap(cursor.sequenceNumber, false).values().forEach(touchedHashes::addAll);
+        cursor.sequenceNumber = sequenceNumber;
+        return touchedHashes;
+    }
+
+    public List<TxOutput> getLockupTxOutputs(byte[] hash) {
+        return lockupTxOutputsByHash.getOrDefault(Utilities.bytesAsHexString(hash), Collections.emptyList());
+    }
+
+    // Key is the hex encoded bond hash
+    public Map<String, List<TxOutput>> getLockupTxOutputsByHash() {
+        return Collections.unmodifiableMap(lockupTxOutputsByHash);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void update() {
+        LinkedList<Block> blocks = daoStateService.getBlocks();
+        List<Block> newBlocks = new ArrayList<>();
+        boolean connected = false;
+        Iterator<Block> iterator = blocks.descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() > lastBlockHeight) {
+                newBlocks.add(block);
+            } else {
+                connected = block.getHeight() == lastBlockHeight && block.getHash().equals(lastBlockHash);
+                break;
+            }
+        }
+
+        if (lastBlockHash != null && !connected) {
+            rebuild(blocks);
+            return;
+        }
+
+        Set<String> touchedHashes = new HashSet<>();
+        Collections.reverse(newBlocks);
+        newBlocks.forEach(block -> applyBlock(block, touchedHashes));
+        applyConfiscations(touchedHashes);
+        if (!touchedHashes.isEmpty())
+            touchedHashesBySequenceNumber.put(++sequenceNumber, touchedHashes);
+    }
+
+    private void rebuild(List<Block> blocks) {
+        long ts = System.currentTimeMillis();
+        lockupTxOutputsByHash.clear();
+        hashByLockupTxId.clear();
+        hashByLockupTxOutputKey.clear();
+        hashByUnlockTxOutputKey.clear();
+        touchedHashesBySequenceNumber.clear();
+        numRebuilds++;
+        numConfiscatedLockupTxs = 0;
+        lastBlockHeight = -1;
+        lastBlockHash = null;
+        Set<String> touchedHashes = new HashSet<>();
+        blocks.forEach(block -> applyBlock(block, touchedHashes));
+        applyConfiscations(touchedHashes);
+        log.info("Rebuilding bond index with {} bonds took {} ms",
+                lockupTxOutputsByHash.size(), System.currentTimeMillis() - ts);
+    }
+
+    private void applyBlock(Block block, Set<String> touchedHashes) {
+        block.getTxs().forEach(tx -> applyTx(tx, touchedHashes));
+        lastBlockHeight = block.getHeight();
+        lastBlockHash = block.getHash();
+    }
+
+    private void applyTx(Tx tx, Set<String> touchedHashes) {
+        for (TxInput txInput : tx.getTxInputs()) {
+            TxOutputKey connectedTxOutputKey = txInput.getConnectedTxOutputKey();
+            String hash = hashByLockupTxOutputKey.get(connectedTxOutputKey);
+            if (hash != null) {
+                // Spending the lockup output makes this tx the unlock tx of the bond
+                tx.getTxOutputs().stream()
+                        .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.UNLOCK_OUTPUT)
+                        .forEach(txOutput -> hashByUnlockTxOutputKey.put(txOutput.getKey(), hash));
+                touchedHashes.add(hash);
+                continue;
+            }
+
+            hash = hashByUnlockTxOutputKey.get(connectedTxOutputKey);
+            if (hash != null)
+                touchedHashes.add(hash);
+        }
+
+        for (TxOutput txOutput : tx.getTxOutputs()) {
+            if (txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT) {
+                byte[] opReturnData = tx.getLastTxOutput().getOpReturnData();
+                if (opReturnData != null) {
+                    String hash = Utilities.bytesAsHexString(BondConsensus.getHashFromOpReturnData(opReturnData));
+                    lockupTxOutputsByHash.computeIfAbsent(hash, k -> new ArrayList<>()).add(txOutput);
+                    hashByLockupTxId.put(tx.getId(), hash);
+                    hashByLockupTxOutputKey.put(txOutput.getKey(), hash);
+                    touchedHashes.add(hash);
+                }
+            }
+        }
+    }
+
+    private void applyConfiscations(Set<String> touchedHashes) {
+        List<String> confiscatedLockupTxList = daoStateService.getConfiscatedLockupTxList();
+        for (int i = numConfiscatedLockupTxs; i < confiscatedLockupTxList.size(); i++) {
+            String hash = hashByLockupTxId.get(confiscatedLockupTxList.get(i));
+            if (hash != null)
+                touchedHashes.add(hash);
+        }
+        numConfiscatedLockupTxs = confiscatedLockupTxList.size();
+    }
+}
@@ -28,6 +28,8 @@ import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
 
+import bisq.common.util.Utilities;
+
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionInput;
 import org.bitcoinj.core.TransactionOutput;
@@ -38,11 +40,11 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,7 +54,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Collect bonds and bond asset data from other sources and provides access to the collection.
  * Gets updated after a new block is parsed or at bsqWallet transaction change to detect also state changes by
- * unconfirmed txs.
+ * unconfirmed txs. Only the bonds touched by the new blocks (see BondIndex), the bonds in unlocking state (lock time
+ * depends on the block height) and the bonds with a pending tx get their state applied again, the other bonds keep
+ * their state.
  */
 @Slf4j
 public abstract class BondRepository<T extends Bond, R extends BondedAsset> implements DaoSetupService {
@@ -98,17 +102,20 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
         }
     }
 
-    public static boolean isLockupTxUnconfirmed(BsqWalletService bsqWalletService, BondedAsset bondedAsset) {
+    // Returns the hex encoded bond hashes of the unconfirmed lockup txs
+    public static Set<String> getHashesOfUnconfirmedLockupTxs(BsqWalletService bsqWalletService) {
         return bsqWalletService.getPendingWalletTransactionsStream()
                 .map(transaction -> transaction.getOutputs().get(transaction.getOutputs().size() - 1))
                 .filter(lastOutput -> lastOutput.getScriptPubKey().isOpReturn())
                 .map(lastOutput -> lastOutput.getScriptPubKey().getChunks())
                 .filter(chunks -> chunks.size() > 1)
                 .map(chunks -> chunks.get(1).data)
-                .anyMatch(data -> Arrays.equals(BondConsensus.getHashFromOpReturnData(data), bondedAsset.getHash()));
+                .map(data -> Utilities.bytesAsHexString(BondConsensus.getHashFromOpReturnData(data)))
+                .collect(Collectors.toSet());
     }
 
-    public static boolean isUnlockTxUnconfirmed(BsqWalletService bsqWalletService, DaoStateService daoStateService, BondedAsset bondedAsset) {
+    // Returns the hex encoded bond hashes of the unconfirmed unlock txs
+    public static Set<String> getHashesOfUnconfirmedUnlockTxs(BsqWalletService bsqWalletService, DaoStateService daoStateService) {
         return bsqWalletService.getPendingWalletTransactionsStream()
                 .filter(transaction -> transaction.getInputs().size() > 1)
                 .flatMap(transaction -> transaction.getInputs().stream()) // We need to iterate all inputs
@@ -121,7 +128,8 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
                 .map(lockupTxId -> daoStateService.getLockupOpReturnTxOutput(lockupTxId).orElse(null))
                 .filter(Objects::nonNull)
                 .map(BaseTxOutput::getOpReturnData)
-                .anyMatch(data -> Arrays.equals(BondConsensus.getHashFromOpReturnData(data), bondedAsset.getHash()));
+                .map(data -> Utilities.bytesAsHexString(BondConsensus.getHashFromOpReturnData(data)))
+                .collect(Collectors.toSet());
     }
 
     public static boolean isConfiscated(Bond bond, DaoStateService daoStateService) {
@@ -132,6 +140,8 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
 
     protected final DaoStateService daoStateService;
     protected final BsqWalletService bsqWalletService;
+    protected final BondIndex bondIndex;
+    protected final BondIndex.Cursor bondIndexCursor = new BondIndex.Cursor();
 
     // This map is just for convenience. The data which are used to fill the map are stored in the DaoState (role, txs).
     protected final Map<String, T> bondByUidMap = new HashMap<>();
@@ -144,9 +154,10 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public BondRepository(DaoStateService daoStateService, BsqWalletService bsqWalletService) {
+    public BondRepository(DaoStateService daoStateService, BsqWalletService bsqWalletService, BondIndex bondIndex) {
         this.daoStateService = daoStateService;
         this.bsqWalletService = bsqWalletService;
+        this.bondIndex = bondIndex;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -203,20 +214,45 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
     abstract protected Stream<R> getBondedAssetStream();
 
     protected void update() {
-        getBondedAssetStream().forEach(bondedAsset -> {
+        long ts = System.currentTimeMillis();
+        // If null the index got rebuilt and we apply the state of all bonds
+        Set<String> touchedHashes = bondIndex.sync(bondIndexCursor);
+        int numUpdatedBonds = 0;
+        for (R bondedAsset : getBondedAssetStream().collect(Collectors.toList())) {
             String uid = bondedAsset.getUid();
-            bondByUidMap.putIfAbsent(uid, createBond(bondedAsset));
             T bond = bondByUidMap.get(uid);
+            boolean isNewBond = bond == null;
+            if (isNewBond) {
+                bond = createBond(bondedAsset);
+                bondByUidMap.put(uid, bond);
+            }
 
-            daoStateService.getLockupTxOutputs().forEach(lockupTxOutput -> {
-                updateBond(bond, bondedAsset, lockupTxOutput);
-            });
-        });
+            if (isNewBond ||
+                    touchedHashes == null ||
+                    touchedHashes.contains(Utilities.bytesAsHexString(bondedAsset.getHash())) ||
+                    isUpdateRequiredAtEachUpdate(bond)) {
+                T finalBond = bond;
+                bondIndex.getLockupTxOutputs(bondedAsset.getHash())
+                        .forEach(lockupTxOutput -> updateBond(finalBond, bondedAsset, lockupTxOutput));
+                numUpdatedBonds++;
+            }
+        }
 
         updateBondStateFromUnconfirmedLockupTxs();
         updateBondStateFromUnconfirmedUnlockTxs();
 
         bonds.setAll(bondByUidMap.values());
+        log.debug("Updating {} of {} bonds took {} ms", numUpdatedBonds, bondByUidMap.size(),
+                System.currentTimeMillis() - ts);
+    }
+
+    // The unlocking state ends when the lock time is over, which depends only on the block height. The pending states
+    // are set from unconfirmed wallet txs, so they need to be applied again if such a tx got dropped.
+    protected static boolean isUpdateRequiredAtEachUpdate(Bond bond) {
+        BondState bondState = bond.getBondState();
+        return bondState == BondState.UNLOCKING ||
+                bondState == BondState.LOCKUP_TX_PENDING ||
+                bondState == BondState.UNLOCK_TX_PENDING;
     }
 
 
@@ -225,14 +261,22 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void updateBondStateFromUnconfirmedLockupTxs() {
-        getBondedAssetStream().filter(bondedAsset -> isLockupTxUnconfirmed(bsqWalletService, bondedAsset))
+        Set<String> hashes = getHashesOfUnconfirmedLockupTxs(bsqWalletService);
+        if (hashes.isEmpty())
+            return;
+
+        getBondedAssetStream().filter(bondedAsset -> hashes.contains(Utilities.bytesAsHexString(bondedAsset.getHash())))
                 .map(bondedAsset -> bondByUidMap.get(bondedAsset.getUid()))
                 .filter(bond -> bond.getBondState() == BondState.READY_FOR_LOCKUP)
                 .forEach(bond -> bond.setBondState(isConfiscated(bond, daoStateService) ? BondState.CONFISCATED : BondState.LOCKUP_TX_PENDING));
     }
 
     private void updateBondStateFromUnconfirmedUnlockTxs() {
-        getBondedAssetStream().filter(bondedAsset -> isUnlockTxUnconfirmed(bsqWalletService, daoStateService, bondedAsset))
+        Set<String> hashes = getHashesOfUnconfirmedUnlockTxs(bsqWalletService, daoStateService);
+        if (hashes.isEmpty())
+            return;
+
+        getBondedAssetStream().filter(bondedAsset -> hashes.contains(Utilities.bytesAsHexString(bondedAsset.getHash())))
                 .map(bondedAsset -> bondByUidMap.get(bondedAsset.getUid()))
                 .filter(bond -> bond.getBondState() == BondState.LOCKUP_TX_CONFIRMED)
                 .forEach(bond -> bond.setBondState(isConfiscated(bond, daoStateService) ? BondState.CONFISCATED : BondState.UNLOCK_TX_PENDING));
@@ -19,19 +19,21 @@ package bisq.core.dao.governance.bond.reputation;
 
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.dao.governance.bond.Bond;
-import bisq.core.dao.governance.bond.BondConsensus;
+import bisq.core.dao.governance.bond.BondIndex;
 import bisq.core.dao.governance.bond.BondRepository;
 import bisq.core.dao.governance.bond.role.BondedRole;
 import bisq.core.dao.governance.bond.role.BondedRolesRepository;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 
+import bisq.common.util.Utilities;
+
 import javax.inject.Inject;
 
 import javafx.collections.ListChangeListener;
 
-import java.util.Objects;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,6 +49,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BondedReputationRepository extends BondRepository<BondedReputation, Reputation> {
     private final BondedRolesRepository bondedRolesRepository;
+    // We keep the bonded reputations between the updates and only create them again if touched by a new block.
+    private final Map<String, BondedReputation> bondedReputationByLockupTxId = new HashMap<>();
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -54,8 +58,8 @@ public class BondedReputationRepository extends BondRepository<BondedReputation,
 
     @Inject
     public BondedReputationRepository(DaoStateService daoStateService, BsqWalletService bsqWalletService,
-                                      BondedRolesRepository bondedRolesRepository) {
-        super(daoStateService, bsqWalletService);
+                                      BondIndex bondIndex, BondedRolesRepository bondedRolesRepository) {
+        super(daoStateService, bsqWalletService, bondIndex);
 
         this.bondedRolesRepository = bondedRolesRepository;
     }
@@ -89,41 +93,37 @@ public class BondedReputationRepository extends BondRepository<BondedReputation,
 
     @Override
     protected Stream<Reputation> getBondedAssetStream() {
-        return getBondedReputationStream().map(Bond::getBondedAsset);
+        return bondByUidMap.values().stream().map(Bond::getBondedAsset);
     }
 
     @Override
     protected void update() {
+        // If null the index got rebuilt and we apply the state of all bonds
+        Set<String> touchedHashes = bondIndex.sync(bondIndexCursor);
+        if (touchedHashes == null) {
+            bondedReputationByLockupTxId.clear();
+        } else {
+            bondedReputationByLockupTxId.values().removeIf(bondedReputation ->
+                    touchedHashes.contains(bondedReputation.getBondedAsset().getUid()) ||
+                            isUpdateRequiredAtEachUpdate(bondedReputation));
+        }
+
+        // We exclude bonded roles, so we store those in a lookup set.
+        Set<String> bondedRolesLockupTxIdSet = bondedRolesRepository.getBonds().stream().map(Bond::getLockupTxId).collect(Collectors.toSet());
         bondByUidMap.clear();
-        getBondedReputationStream().forEach(bondedReputation -> bondByUidMap.put(bondedReputation.getBondedAsset().getUid(), bondedReputation));
+        bondIndex.getLockupTxOutputsByHash().forEach((hash, lockupTxOutputs) -> lockupTxOutputs.stream()
+                .filter(lockupTxOutput -> !bondedRolesLockupTxIdSet.contains(lockupTxOutput.getTxId()))
+                .map(lockupTxOutput -> bondedReputationByLockupTxId.computeIfAbsent(lockupTxOutput.getTxId(),
+                        lockupTxId -> createBondedReputation(hash, lockupTxOutput)))
+                .forEach(bondedReputation -> bondByUidMap.put(hash, bondedReputation)));
         bonds.setAll(bondByUidMap.values());
     }
 
-    private Stream<BondedReputation> getBondedReputationStream() {
-        return getLockupTxOutputsForBondedReputation()
-                .map(lockupTxOutput -> {
-                    String lockupTxId = lockupTxOutput.getTxId();
-                    Optional<TxOutput> optionalOpReturnTxOutput = daoStateService.getLockupOpReturnTxOutput(lockupTxId);
-                    if (optionalOpReturnTxOutput.isPresent()) {
-                        TxOutput opReturnTxOutput = optionalOpReturnTxOutput.get();
-                        byte[] hash = BondConsensus.getHashFromOpReturnData(opReturnTxOutput.getOpReturnData());
-                        Reputation reputation = new Reputation(hash);
-                        BondedReputation bondedReputation = new BondedReputation(reputation);
-                        updateBond(bondedReputation, reputation, lockupTxOutput);
-                        return bondedReputation;
-                    } else {
-                        return null;
-                    }
-
-                })
-                .filter(Objects::nonNull);
-    }
-
-    private Stream<TxOutput> getLockupTxOutputsForBondedReputation() {
-        // We exclude bonded roles, so we store those in a lookup set.
-        Set<String> bondedRolesLockupTxIdSet = bondedRolesRepository.getBonds().stream().map(Bond::getLockupTxId).collect(Collectors.toSet());
-        return daoStateService.getLockupTxOutputs().stream()
-                .filter(e -> !bondedRolesLockupTxIdSet.contains(e.getTxId()));
+    private BondedReputation createBondedReputation(String hash, TxOutput lockupTxOutput) {
+        Reputation reputation = new Reputation(Utilities.decodeFromHex(hash));
+        BondedReputation bondedReputation = new BondedReputation(reputation);
+        updateBond(bondedReputation, reputation, lockupTxOutput);
+        return bondedReputation;
     }
 
     @Override
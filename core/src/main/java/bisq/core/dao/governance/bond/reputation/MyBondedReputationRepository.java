@@ -19,13 +19,15 @@ package bisq.core.dao.governance.bond.reputation;
 
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.dao.DaoSetupService;
-import bisq.core.dao.governance.bond.BondConsensus;
+import bisq.core.dao.governance.bond.BondIndex;
 import bisq.core.dao.governance.bond.BondRepository;
 import bisq.core.dao.governance.bond.BondState;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 
+import bisq.common.util.Utilities;
+
 import org.bitcoinj.core.Transaction;
 
 import javax.inject.Inject;
@@ -34,10 +36,9 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -55,6 +56,8 @@ public class MyBondedReputationRepository implements DaoSetupService {
     private final DaoStateService daoStateService;
     private final BsqWalletService bsqWalletService;
     private final MyReputationListService myReputationListService;
+    private final BondIndex bondIndex;
+    private final BondIndex.Cursor bondIndexCursor = new BondIndex.Cursor();
     @Getter
     private final ObservableList<MyBondedReputation> myBondedReputations = FXCollections.observableArrayList();
 
@@ -66,10 +69,12 @@ public class MyBondedReputationRepository implements DaoSetupService {
     @Inject
     public MyBondedReputationRepository(DaoStateService daoStateService,
                                         BsqWalletService bsqWalletService,
-                                        MyReputationListService myReputationListService) {
+                                        MyReputationListService myReputationListService,
+                                        BondIndex bondIndex) {
         this.daoStateService = daoStateService;
         this.bsqWalletService = bsqWalletService;
         this.myReputationListService = myReputationListService;
+        this.bondIndex = bondIndex;
     }
 
 
@@ -106,6 +111,10 @@ public class MyBondedReputationRepository implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void update() {
+        // We only use the index for the lookup of the lockup txs. The number of my reputations is small, so we apply
+        // the state of all of them.
+        bondIndex.sync(bondIndexCursor);
+
         // It can be that the same salt/hash is in several lockupTxs, so we use the bondByLockupTxIdMap to eliminate
         // duplicates by the collection algorithm.
         Map<String, MyBondedReputation> bondByLockupTxIdMap = new HashMap<>();
@@ -113,6 +122,8 @@ public class MyBondedReputationRepository implements DaoSetupService {
                 .flatMap(this::getMyBondedReputation)
                 .forEach(e -> bondByLockupTxIdMap.putIfAbsent(e.getLockupTxId(), e));
 
+        Set<String> hashesOfUnconfirmedLockupTxs = BondRepository.getHashesOfUnconfirmedLockupTxs(bsqWalletService);
+        Set<String> hashesOfUnconfirmedUnlockTxs = BondRepository.getHashesOfUnconfirmedUnlockTxs(bsqWalletService, daoStateService);
         myBondedReputations.setAll(bondByLockupTxIdMap.values().stream()
                 .peek(myBondedReputation -> {
                     if (BondRepository.isConfiscated(myBondedReputation, daoStateService)) {
@@ -120,10 +131,11 @@ public class MyBondedReputationRepository implements DaoSetupService {
                     } else {
                         // We don't have a UI use case for showing LOCKUP_TX_PENDING yet, but lets keep the code so if needed
                         // its there.
-                        if (BondRepository.isLockupTxUnconfirmed(bsqWalletService, myBondedReputation.getBondedAsset()) &&
+                        String hash = Utilities.bytesAsHexString(myBondedReputation.getBondedAsset().getHash());
+                        if (hashesOfUnconfirmedLockupTxs.contains(hash) &&
                                 myBondedReputation.getBondState() == BondState.READY_FOR_LOCKUP) {
                             myBondedReputation.setBondState(BondState.LOCKUP_TX_PENDING);
-                        } else if (BondRepository.isUnlockTxUnconfirmed(bsqWalletService, daoStateService, myBondedReputation.getBondedAsset()) &&
+                        } else if (hashesOfUnconfirmedUnlockTxs.contains(hash) &&
                                 myBondedReputation.getBondState() == BondState.LOCKUP_TX_CONFIRMED) {
                             myBondedReputation.setBondState(BondState.UNLOCK_TX_PENDING);
                         }
@@ -133,24 +145,14 @@ public class MyBondedReputationRepository implements DaoSetupService {
     }
 
     private Stream<MyBondedReputation> getMyBondedReputation(MyReputation myReputation) {
-        return daoStateService.getLockupTxOutputs().stream()
-                .flatMap(lockupTxOutput -> {
-                    String lockupTxId = lockupTxOutput.getTxId();
-                    return daoStateService.getTx(lockupTxId)
-                            .map(lockupTx -> {
-                                byte[] opReturnData = lockupTx.getLastTxOutput().getOpReturnData();
-                                byte[] hash = BondConsensus.getHashFromOpReturnData(opReturnData);
-                                // There could be multiple txs with the same hash, so we collect a stream and not use an optional.
-                                if (Arrays.equals(hash, myReputation.getHash())) {
-                                    MyBondedReputation myBondedReputation = new MyBondedReputation(myReputation);
-                                    BondRepository.applyBondState(daoStateService, myBondedReputation, lockupTx, lockupTxOutput);
-                                    return myBondedReputation;
-                                } else {
-                                    return null;
-                                }
-                            })
-                            .stream();
-                })
-                .filter(Objects::nonNull);
+        // There could be multiple txs with the same hash, so we collect a stream and not use an optional.
+        return bondIndex.getLockupTxOutputs(myReputation.getHash()).stream()
+                .flatMap(lockupTxOutput -> daoStateService.getTx(lockupTxOutput.getTxId())
+                        .map(lockupTx -> {
+                            MyBondedReputation myBondedReputation = new MyBondedReputation(myReputation);
+                            BondRepository.applyBondState(daoStateService, myBondedReputation, lockupTx, lockupTxOutput);
+                            return myBondedReputation;
+                        })
+                        .stream());
     }
 }
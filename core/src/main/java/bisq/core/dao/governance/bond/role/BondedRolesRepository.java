@@ -19,6 +19,7 @@ package bisq.core.dao.governance.bond.role;
 
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.dao.governance.bond.BondConsensus;
+import bisq.core.dao.governance.bond.BondIndex;
 import bisq.core.dao.governance.bond.BondRepository;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.TxOutput;
@@ -49,8 +50,9 @@ public class BondedRolesRepository extends BondRepository<BondedRole, Role> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public BondedRolesRepository(DaoStateService daoStateService, BsqWalletService bsqWalletService) {
-        super(daoStateService, bsqWalletService);
+    public BondedRolesRepository(DaoStateService daoStateService, BsqWalletService bsqWalletService,
+                                 BondIndex bondIndex) {
+        super(daoStateService, bsqWalletService, bondIndex);
     }
 
 
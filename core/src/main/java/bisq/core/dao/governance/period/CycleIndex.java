@@ -0,0 +1,163 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.period;
+
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+
+import java.util.LinkedList;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Index of the cycles by height with the phase boundaries of each cycle precalculated. A cycle is found with a
+ * binary search over the first block heights and the phase lookups are constant time, instead of streaming over all
+ * cycles and the phase lists at each call.
+ * <p>
+ * Cycles only get appended or replaced by a snapshot, so the index is valid as long the number of cycles and the
+ * last cycle instance are the same.
+ */
+@Immutable
+class CycleIndex {
+    private final int numCycles;
+    @Nullable
+    private final Cycle lastCycle;
+    private final IndexedCycle[] indexedCycles;
+    private final int[] heightsOfFirstBlock;
+    // If cycles would not be ordered or would overlap we fall back to a linear search in list order
+    private final boolean isOrdered;
+
+    CycleIndex(LinkedList<Cycle> cycles) {
+        numCycles = cycles.size();
+        lastCycle = cycles.peekLast();
+        indexedCycles = new IndexedCycle[numCycles];
+        heightsOfFirstBlock = new int[numCycles];
+        boolean isOrdered = true;
+        int index = 0;
+        for (Cycle cycle : cycles) {
+            IndexedCycle indexedCycle = new IndexedCycle(cycle);
+            if (index > 0 && indexedCycle.heightOfFirstBlock <= indexedCycles[index - 1].heightOfLastBlock)
+                isOrdered = false;
+            indexedCycles[index] = indexedCycle;
+            heightsOfFirstBlock[index] = indexedCycle.heightOfFirstBlock;
+            index++;
+        }
+        this.isOrdered = isOrdered;
+    }
+
+    boolean isIndexOf(LinkedList<Cycle> cycles) {
+        return cycles.size() == numCycles && cycles.peekLast() == lastCycle;
+    }
+
+    @Nullable
+    IndexedCycle getIndexedCycle(int height) {
+        if (!isOrdered) {
+            for (IndexedCycle indexedCycle : indexedCycles) {
+                if (indexedCycle.isInCycle(height))
+                    return indexedCycle;
+            }
+            return null;
+        }
+
+        // Find the last cycle starting at or before height
+        int low = 0;
+        int high = numCycles - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (heightsOfFirstBlock[mid] <= height) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (candidate < 0)
+            return null;
+
+        IndexedCycle indexedCycle = indexedCycles[candidate];
+        return indexedCycle.isInCycle(height) ? indexedCycle : null;
+    }
+
+
+    /**
+     * A cycle with the first block, last block and duration of each phase calculated like in Cycle.
+     */
+    @Immutable
+    static class IndexedCycle {
+        private static final int NUM_PHASES = DaoPhase.Phase.values().length;
+
+        @Getter
+        private final Cycle cycle;
+        @Getter
+        private final int heightOfFirstBlock;
+        @Getter
+        private final int heightOfLastBlock;
+        // Indexed by phase ordinal
+        private final int[] firstBlockOfPhase = new int[NUM_PHASES];
+        private final int[] lastBlockOfPhase = new int[NUM_PHASES];
+        private final int[] durationOfPhase = new int[NUM_PHASES];
+        // Phases in the order of the daoPhaseList
+        private final DaoPhase.Phase[] phases;
+
+        private IndexedCycle(Cycle cycle) {
+            this.cycle = cycle;
+            heightOfFirstBlock = cycle.getHeightOfFirstBlock();
+            heightOfLastBlock = cycle.getHeightOfLastBlock();
+            for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+                int ordinal = phase.ordinal();
+                firstBlockOfPhase[ordinal] = cycle.getFirstBlockOfPhase(phase);
+                lastBlockOfPhase[ordinal] = cycle.getLastBlockOfPhase(phase);
+                durationOfPhase[ordinal] = cycle.getDurationOfPhase(phase);
+            }
+            phases = cycle.getDaoPhaseList().stream().map(DaoPhase::getPhase).toArray(DaoPhase.Phase[]::new);
+        }
+
+        boolean isInCycle(int height) {
+            return height >= heightOfFirstBlock && height <= heightOfLastBlock;
+        }
+
+        boolean isInPhase(int height, DaoPhase.Phase phase) {
+            return height >= firstBlockOfPhase[phase.ordinal()] && height <= lastBlockOfPhase[phase.ordinal()];
+        }
+
+        @Nullable
+        DaoPhase.Phase getPhaseForHeight(int height) {
+            for (DaoPhase.Phase phase : phases) {
+                if (isInPhase(height, phase))
+                    return phase;
+            }
+            return null;
+        }
+
+        int getFirstBlockOfPhase(DaoPhase.Phase phase) {
+            return firstBlockOfPhase[phase.ordinal()];
+        }
+
+        int getLastBlockOfPhase(DaoPhase.Phase phase) {
+            return lastBlockOfPhase[phase.ordinal()];
+        }
+
+        int getDurationOfPhase(DaoPhase.Phase phase) {
+            return durationOfPhase[phase.ordinal()];
+        }
+    }
+}
@@ -24,6 +24,7 @@ import bisq.core.dao.state.model.governance.DaoPhase;
 
 import com.google.inject.Inject;
 
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,8 @@ import javax.annotation.Nullable;
 @Slf4j
 public final class PeriodService {
     private final DaoStateService daoStateService;
+    // Replaced when the cycles of the daoStateService changed
+    private volatile CycleIndex cycleIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -74,25 +77,18 @@ public final class PeriodService {
     }
 
     public boolean isFirstBlockInCycle(int height) {
-        return getCycle(height)
-                .filter(cycle -> cycle.getHeightOfFirstBlock() == height)
-                .isPresent();
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null && indexedCycle.getHeightOfFirstBlock() == height;
     }
 
     public boolean isLastBlockInCycle(int height) {
-        return getCycle(height)
-                .filter(cycle -> cycle.getHeightOfLastBlock() == height)
-                .isPresent();
-    }
-
-    private Optional<Cycle> getCycle(int height) {
-        return daoStateService.getCycle(height);
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null && indexedCycle.getHeightOfLastBlock() == height;
     }
 
     public boolean isInPhase(int height, DaoPhase.Phase phase) {
-        return getCycle(height)
-                .filter(cycle -> cycle.isInPhase(height, phase))
-                .isPresent();
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null && indexedCycle.isInPhase(height, phase);
     }
 
     public boolean isTxInPhase(String txId, DaoPhase.Phase phase) {
@@ -106,16 +102,14 @@ public final class PeriodService {
     }
 
     public DaoPhase.Phase getPhaseForHeight(int height) {
-        return getCycle(height)
-                .flatMap(cycle -> cycle.getPhaseForHeight(height))
-                .orElse(DaoPhase.Phase.UNDEFINED);
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        DaoPhase.Phase phase = indexedCycle != null ? indexedCycle.getPhaseForHeight(height) : null;
+        return phase != null ? phase : DaoPhase.Phase.UNDEFINED;
     }
 
     public boolean isTxInCorrectCycle(int txHeight, int currentChainHeadHeight) {
-        return getCycle(txHeight)
-                .filter(cycle -> currentChainHeadHeight >= cycle.getHeightOfFirstBlock())
-                .filter(cycle -> currentChainHeadHeight <= cycle.getHeightOfLastBlock())
-                .isPresent();
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(txHeight);
+        return indexedCycle != null && indexedCycle.isInCycle(currentChainHeadHeight);
     }
 
     public boolean isTxInCorrectCycle(String txId, int currentChainHeadHeight) {
@@ -125,15 +119,13 @@ public final class PeriodService {
     }
 
     private boolean isTxInPastCycle(int txHeight, int currentChainHeadHeight) {
-        return getCycle(txHeight)
-                .filter(cycle -> currentChainHeadHeight > cycle.getHeightOfLastBlock())
-                .isPresent();
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(txHeight);
+        return indexedCycle != null && currentChainHeadHeight > indexedCycle.getHeightOfLastBlock();
     }
 
     public int getDurationForPhase(DaoPhase.Phase phase, int height) {
-        return getCycle(height)
-                .map(cycle -> cycle.getDurationOfPhase(phase))
-                .orElse(0);
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null ? indexedCycle.getDurationOfPhase(phase) : 0;
     }
 
     public boolean isTxInPastCycle(String txId, int chainHeight) {
@@ -143,9 +135,8 @@ public final class PeriodService {
     }
 
     public int getFirstBlockOfPhase(int height, DaoPhase.Phase phase) {
-        return getCycle(height)
-                .map(cycle -> cycle.getFirstBlockOfPhase(phase))
-                .orElse(0);
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null ? indexedCycle.getFirstBlockOfPhase(phase) : 0;
     }
 
     public boolean isFirstBlockInCycle() {
@@ -154,9 +145,8 @@ public final class PeriodService {
     }
 
     public int getLastBlockOfPhase(int height, DaoPhase.Phase phase) {
-        return getCycle(height)
-                .map(cycle -> cycle.getLastBlockOfPhase(phase))
-                .orElse(0);
+        CycleIndex.IndexedCycle indexedCycle = getIndexedCycle(height);
+        return indexedCycle != null ? indexedCycle.getLastBlockOfPhase(phase) : 0;
     }
 
     public boolean isInPhaseButNotLastBlock(DaoPhase.Phase phase) {
@@ -164,4 +154,25 @@ public final class PeriodService {
         return isInPhase(chainHeight, phase) &&
                 chainHeight != getLastBlockOfPhase(chainHeight, phase);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private CycleIndex.IndexedCycle getIndexedCycle(int height) {
+        return getCycleIndex().getIndexedCycle(height);
+    }
+
+    // We rebuild the index only if a cycle got added or the cycles got replaced by a snapshot
+    private CycleIndex getCycleIndex() {
+        LinkedList<Cycle> cycles = daoStateService.getCycles();
+        CycleIndex cycleIndex = this.cycleIndex;
+        if (cycleIndex == null || !cycleIndex.isIndexOf(cycles)) {
+            cycleIndex = new CycleIndex(cycles);
+            this.cycleIndex = cycleIndex;
+        }
+        return cycleIndex;
+    }
 }
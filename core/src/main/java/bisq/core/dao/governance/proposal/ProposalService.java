@@ -202,7 +202,7 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     }
 
     private void fillListFromAppendOnlyDataStore() {
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(this::onAppendOnlyDataAdded);
+        p2PService.getP2PDataStorage().getAppendOnlyDataStorePayloads(ProposalPayload.class).forEach(this::onAppendOnlyDataAdded);
     }
 
     private void publishToAppendOnlyDataStore() {
@@ -0,0 +1,162 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+
+import bisq.common.crypto.Hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds a sub list of our sorted blind vote list which matches the hash of the majority blind vote list.
+ * The hash is the same as in VoteRevealConsensus.getHashOfBlindVoteList (RIPEMD160(SHA256(concatenated items))).
+ * We serialize each blind vote only once and keep the SHA-256 state after each prefix of the list, so a candidate
+ * with excluded items only needs to hash the items after the first excluded one.
+ * Missing blind votes cannot be recovered that way, those need to be requested from the network.
+ */
+@Slf4j
+public class BlindVoteListMatcher {
+    // Excluding pairs is quadratic in the number of candidates, so we only do it for small lists.
+    static final int MAX_ITEMS_FOR_PAIR_EXCLUSION = 64;
+
+    private final List<BlindVote> sortedBlindVoteList;
+    private final List<byte[]> serializedBlindVotes;
+    // prefixDigests[i] is the SHA-256 state after the first i items
+    private final MessageDigest[] prefixDigests;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public BlindVoteListMatcher(List<BlindVote> sortedBlindVoteList) {
+        this.sortedBlindVoteList = new ArrayList<>(sortedBlindVoteList);
+        serializedBlindVotes = this.sortedBlindVoteList.stream()
+                .map(blindVote -> blindVote.toProtoMessage().toByteArray())
+                .collect(Collectors.toList());
+
+        int size = serializedBlindVotes.size();
+        prefixDigests = new MessageDigest[size + 1];
+        MessageDigest digest = getSha256Digest();
+        prefixDigests[0] = copy(digest);
+        for (int i = 0; i < size; i++) {
+            digest.update(serializedBlindVotes.get(i));
+            prefixDigests[i + 1] = copy(digest);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public byte[] getHash() {
+        return finish(copy(prefixDigests[sortedBlindVoteList.size()]));
+    }
+
+    /**
+     * @return The full list if it matches, otherwise the first list with one (or for small lists two) excluded items
+     * which matches the given hash or an empty Optional if none matches.
+     */
+    public Optional<List<BlindVote>> findListMatchingHash(byte[] hash) {
+        if (Arrays.equals(hash, getHash()))
+            return Optional.of(Collections.unmodifiableList(sortedBlindVoteList));
+
+        int size = sortedBlindVoteList.size();
+        for (int i = 0; i < size; i++) {
+            MessageDigest digest = copy(prefixDigests[i]);
+            updateRange(digest, i + 1, size);
+            if (Arrays.equals(hash, finish(digest))) {
+                log.info("Our blind vote list matches the majority list if we exclude blindVoteTxId {}",
+                        sortedBlindVoteList.get(i).getTxId());
+                return Optional.of(getListExcluding(i, -1));
+            }
+        }
+
+        if (size <= MAX_ITEMS_FOR_PAIR_EXCLUSION) {
+            for (int i = 0; i < size; i++) {
+                // Holds the state after the prefix and the items between i and j
+                MessageDigest partial = copy(prefixDigests[i]);
+                for (int j = i + 1; j < size; j++) {
+                    MessageDigest digest = copy(partial);
+                    updateRange(digest, j + 1, size);
+                    if (Arrays.equals(hash, finish(digest))) {
+                        log.info("Our blind vote list matches the majority list if we exclude blindVoteTxIds {} and {}",
+                                sortedBlindVoteList.get(i).getTxId(), sortedBlindVoteList.get(j).getTxId());
+                        return Optional.of(getListExcluding(i, j));
+                    }
+                    partial.update(serializedBlindVotes.get(j));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void updateRange(MessageDigest digest, int from, int to) {
+        for (int i = from; i < to; i++) {
+            digest.update(serializedBlindVotes.get(i));
+        }
+    }
+
+    private List<BlindVote> getListExcluding(int first, int second) {
+        List<BlindVote> list = new ArrayList<>(sortedBlindVoteList.size());
+        for (int i = 0; i < sortedBlindVoteList.size(); i++) {
+            if (i != first && i != second)
+                list.add(sortedBlindVoteList.get(i));
+        }
+        return list;
+    }
+
+    private static byte[] finish(MessageDigest digest) {
+        return Hash.getRipemd160hash(digest.digest());
+    }
+
+    private static MessageDigest getSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            log.error("Could not create MessageDigest for hash. " + e.toString());
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            log.error("MessageDigest does not support clone. " + e.toString());
+            throw new RuntimeException(e);
+        }
+    }
+}
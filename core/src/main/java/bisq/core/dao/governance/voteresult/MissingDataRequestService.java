@@ -26,6 +26,8 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.Set;
+
 import lombok.Getter;
 
 public class MissingDataRequestService implements DaoSetupService {
@@ -66,4 +68,8 @@ public class MissingDataRequestService implements DaoSetupService {
     public void addVoteResultException(VoteResultException voteResultException) {
         this.voteResultExceptions.add(voteResultException);
     }
+
+    public void requestMissingBlindVotes(Set<byte[]> knownBlindVotePayloadHashes) {
+        republishGovernanceDataHandler.sendRepublishRequest(knownBlindVotePayloadHashes);
+    }
 }
@@ -24,12 +24,12 @@ import bisq.core.dao.governance.blindvote.BlindVoteConsensus;
 import bisq.core.dao.governance.blindvote.BlindVoteListService;
 import bisq.core.dao.governance.blindvote.VoteWithProposalTxId;
 import bisq.core.dao.governance.blindvote.VoteWithProposalTxIdList;
+import bisq.core.dao.governance.blindvote.storage.BlindVotePayload;
 import bisq.core.dao.governance.merit.MeritConsensus;
 import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.governance.proposal.IssuanceProposal;
 import bisq.core.dao.governance.proposal.ProposalListPresentation;
 import bisq.core.dao.governance.voteresult.issuance.IssuanceService;
-import bisq.core.dao.governance.votereveal.VoteRevealConsensus;
 import bisq.core.dao.governance.votereveal.VoteRevealService;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
@@ -60,7 +60,10 @@ import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import javax.crypto.SecretKey;
@@ -70,12 +73,14 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import lombok.Getter;
 import lombok.Value;
@@ -104,6 +109,9 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     private final MissingDataRequestService missingDataRequestService;
     @Getter
     private final ObservableList<VoteResultException> voteResultExceptions = FXCollections.observableArrayList();
+    // Height of the vote result we could not calculate because we missed blind votes of the majority data view.
+    // Once the requested blind votes arrive we restart the calculation if we are still at that block.
+    private int heightOfPendingVoteResult = -1;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -137,6 +145,11 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     @Override
     public void addListeners() {
         daoStateService.addBsqStateListener(this);
+        blindVoteListService.getBlindVotePayloads().addListener((ListChangeListener<BlindVotePayload>) c -> {
+            c.next();
+            if (c.wasAdded())
+                maybeRecalculatePendingVoteResult();
+        });
     }
 
     @Override
@@ -151,6 +164,13 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
 
     @Override
     public void onNewBlockHeight(int blockHeight) {
+        if (heightOfPendingVoteResult != -1 && heightOfPendingVoteResult != blockHeight) {
+            // The missing blind votes did not arrive in time, so we apply what we would have applied without a result.
+            log.warn("We did not receive the missing blind votes for the vote result at block {}.", heightOfPendingVoteResult);
+            heightOfPendingVoteResult = -1;
+            addRejectedIssuanceCandidatesToNonBsqTxOutputs();
+        }
+
         // TODO check if we should use onParseTxsComplete for calling maybeCalculateVoteResult
         maybeCalculateVoteResult(blockHeight);
     }
@@ -168,6 +188,14 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void maybeRecalculatePendingVoteResult() {
+        int chainHeight = daoStateService.getChainHeight();
+        if (heightOfPendingVoteResult == chainHeight) {
+            log.info("We received a blind vote while waiting for missing blind votes. We restart the vote result calculation.");
+            maybeCalculateVoteResult(chainHeight);
+        }
+    }
+
     private void maybeCalculateVoteResult(int chainHeight) {
         if (isInVoteResultPhase(chainHeight)) {
             long startTs = System.currentTimeMillis();
@@ -186,18 +214,28 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                 // blind vote hash and use the first one in the sorted list as winner.
                 // A node which has a local blindVote list which does not match the winner data view need to recover it's
                 // local blindVote list by requesting the correct list from other peers.
-                Map<P2PDataStorage.ByteArray, Long> stakeByHashOfBlindVoteListMap = getStakeByHashOfBlindVoteListMap(decryptedBallotsWithMeritsSet);
+                Map<String, Long> meritStakeByBlindVoteTxIdMap = getMeritStakeByBlindVoteTxIdMap(decryptedBallotsWithMeritsSet);
+                Map<P2PDataStorage.ByteArray, Long> stakeByHashOfBlindVoteListMap = getStakeByHashOfBlindVoteListMap(decryptedBallotsWithMeritsSet,
+                        meritStakeByBlindVoteTxIdMap);
 
                 try {
                     // Get majority hash
                     byte[] majorityBlindVoteListHash = getMajorityBlindVoteListHash(stakeByHashOfBlindVoteListMap);
 
                     // Is our local list matching the majority data view?
-                    if (isBlindVoteListMatchingMajority(majorityBlindVoteListHash)) {
+                    Optional<List<BlindVote>> blindVoteListMatchingMajority = findBlindVoteListMatchingMajority(majorityBlindVoteListHash);
+                    if (blindVoteListMatchingMajority.isPresent()) {
+                        heightOfPendingVoteResult = -1;
                         //TODO should we write the decryptedBallotsWithMerits here into the state?
 
+                        // If we matched with a sub list we must not use the ballots of the blind votes which are not
+                        // part of the majority data view.
+                        Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsOfMajority = getDecryptedBallotsWithMeritsOfList(
+                                decryptedBallotsWithMeritsSet, blindVoteListMatchingMajority.get());
+
                         //TODO we get duplicated items in evaluatedProposals with diff. merit values
-                        Set<EvaluatedProposal> evaluatedProposals = getEvaluatedProposals(decryptedBallotsWithMeritsSet, chainHeight);
+                        Set<EvaluatedProposal> evaluatedProposals = getEvaluatedProposals(decryptedBallotsWithMeritsOfMajority,
+                                meritStakeByBlindVoteTxIdMap, chainHeight);
 
                         Set<EvaluatedProposal> acceptedEvaluatedProposals = getAcceptedEvaluatedProposals(evaluatedProposals);
                         applyAcceptedProposals(acceptedEvaluatedProposals, chainHeight);
@@ -208,7 +246,12 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                         log.info("processAllVoteResults completed");
                     } else {
                         log.warn("Our list of received blind votes do not match the list from the majority of voters.");
-                        // TODO request missing blind votes
+                        // This is async operation. We will restart the whole verification process once we received the data.
+                        if (heightOfPendingVoteResult != chainHeight) {
+                            heightOfPendingVoteResult = chainHeight;
+                            requestMissingBlindVotesFromNetwork();
+                        }
+                        return;
                     }
 
                 } catch (VoteResultException.ValidationException e) {
@@ -229,114 +272,165 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                 log.info("There have not been any votes in that cycle. chainHeight={}", chainHeight);
             }
 
-            // Those which did not get accepted will be added to the nonBsq map
-            daoStateService.getIssuanceCandidateTxOutputs().stream()
-                    .filter(txOutput -> !daoStateService.isIssuanceTx(txOutput.getTxId()))
-                    .forEach(daoStateService::addNonBsqTxOutput);
+            heightOfPendingVoteResult = -1;
+            addRejectedIssuanceCandidatesToNonBsqTxOutputs();
 
             log.info("Evaluating vote result took {} ms", System.currentTimeMillis() - startTs);
         }
     }
 
+    private void addRejectedIssuanceCandidatesToNonBsqTxOutputs() {
+        // Those which did not get accepted will be added to the nonBsq map
+        daoStateService.getIssuanceCandidateTxOutputs().stream()
+                .filter(txOutput -> !daoStateService.isIssuanceTx(txOutput.getTxId()))
+                .forEach(daoStateService::addNonBsqTxOutput);
+    }
+
     private Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsSet(int chainHeight) {
+        // We sort the blind votes only once and look them up by txId.
+        Map<String, BlindVote> blindVoteByTxIdMap = new HashMap<>();
+        BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService)
+                .forEach(blindVote -> blindVoteByTxIdMap.putIfAbsent(blindVote.getTxId(), blindVote));
+
         // We want all voteRevealTxOutputs which are in current cycle we are processing.
-        return daoStateService.getVoteRevealOpReturnTxOutputs().stream()
+        // The validation is accessing the daoState, so we do it at the parser thread.
+        List<RevealedVote> revealedVotes = daoStateService.getVoteRevealOpReturnTxOutputs().stream()
                 .filter(txOutput -> periodService.isTxInCorrectCycle(txOutput.getTxId(), chainHeight))
-                .map(txOutput -> {
-                    // TODO make method
-                    byte[] opReturnData = txOutput.getOpReturnData();
-                    String voteRevealTxId = txOutput.getTxId();
-                    Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
-                    if (!optionalVoteRevealTx.isPresent()) {
-                        log.error("optionalVoteRevealTx is not present. voteRevealTxId={}", voteRevealTxId);
-                        //TODO throw exception
-                        return null;
-                    }
+                .map(txOutput -> getRevealedVote(txOutput, blindVoteByTxIdMap, chainHeight))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-                    Tx voteRevealTx = optionalVoteRevealTx.get();
-                    // If we get a voteReveal tx which was published too late we ignore it.
-                    if (!periodService.isTxInPhaseAndCycle(voteRevealTx.getId(), DaoPhase.Phase.VOTE_REVEAL, chainHeight)) {
-                        log.warn("We got a vote reveal tx with was not in the correct phase and/or cycle. voteRevealTxId={}", voteRevealTx.getId());
-                        return null;
-                    }
+        // We make a map with proposalTxId as key and the ballot as value out of our stored ballot list
+        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidatedBallotList().stream()
+                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
+        return getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap);
+    }
+
+    // The result is in the order of the revealedVotes list, independent of the order the parallel decryption
+    // completes.
+    @VisibleForTesting
+    Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsSet(List<RevealedVote> revealedVotes,
+                                                                     Map<String, Ballot> ballotByTxIdMap) {
+        // Decryption does not depend on any shared state, so we run it in parallel at the fork-join pool. The
+        // collected list keeps the order of the revealedVotes list, so the result is deterministic.
+        long ts = System.currentTimeMillis();
+        List<DecryptedVote> decryptedVotes = revealedVotes.parallelStream()
+                .map(VoteResultService::decryptVote)
+                .collect(Collectors.toList());
+        log.info("Decryption of {} votes took {} ms", decryptedVotes.size(), System.currentTimeMillis() - ts);
+
+        Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet = new LinkedHashSet<>();
+        decryptedVotes.forEach(decryptedVote -> {
+            RevealedVote revealedVote = decryptedVote.getRevealedVote();
+            if (decryptedVote.getDecryptionException() != null) {
+                VoteResultException.DecryptionException decryptionException = decryptedVote.getDecryptionException();
+                log.error("Could not decrypt data: " + decryptionException.toString());
+                voteResultExceptions.add(decryptionException);
+                return;
+            }
 
-                    try {
-                        // TODO maybe verify version in opReturn
+            try {
+                // We lookup for the proposals we have in our local list which match the txId from the
+                // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
+                // the voteWithProposalTxIdList
+                BallotList ballotList = createBallotList(decryptedVote.getVoteWithProposalTxIdList(), ballotByTxIdMap);
+                byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(revealedVote.getOpReturnData());
+                decryptedBallotsWithMeritsSet.add(new DecryptedBallotsWithMerits(hashOfBlindVoteList,
+                        revealedVote.getBlindVoteTxId(),
+                        revealedVote.getVoteRevealTxId(),
+                        revealedVote.getBlindVoteStake(),
+                        ballotList,
+                        decryptedVote.getMeritList()));
+            } catch (VoteResultException.MissingBallotException missingBallotException) {
+                log.warn("We are missing proposals to create the vote result: " + missingBallotException.toString());
+                missingDataRequestService.addVoteResultException(missingBallotException);
+                voteResultExceptions.add(missingBallotException);
+            } catch (Throwable e) {
+                log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
+                voteResultExceptions.add(new VoteResultException(e));
+            }
+        });
+        return decryptedBallotsWithMeritsSet;
+    }
+
+    @Nullable
+    private RevealedVote getRevealedVote(TxOutput txOutput, Map<String, BlindVote> blindVoteByTxIdMap, int chainHeight) {
+        byte[] opReturnData = txOutput.getOpReturnData();
+        String voteRevealTxId = txOutput.getTxId();
+        Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
+        if (!optionalVoteRevealTx.isPresent()) {
+            log.error("optionalVoteRevealTx is not present. voteRevealTxId={}", voteRevealTxId);
+            //TODO throw exception
+            return null;
+        }
 
-                        TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
-                        String blindVoteTxId = blindVoteStakeOutput.getTxId();
-                        boolean isBlindVoteInCorrectPhaseAndCycle = periodService.isTxInPhaseAndCycle(blindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight);
-                        // If we get a voteReveal tx which was published too late we ignore it.
-                        if (!isBlindVoteInCorrectPhaseAndCycle) {
-                            log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. blindVoteTxId={}", blindVoteTxId);
-                            return null;
-                        }
+        Tx voteRevealTx = optionalVoteRevealTx.get();
+        // If we get a voteReveal tx which was published too late we ignore it.
+        if (!periodService.isTxInPhaseAndCycle(voteRevealTx.getId(), DaoPhase.Phase.VOTE_REVEAL, chainHeight)) {
+            log.warn("We got a vote reveal tx with was not in the correct phase and/or cycle. voteRevealTxId={}", voteRevealTx.getId());
+            return null;
+        }
 
-                        VoteResultConsensus.validateBlindVoteTx(blindVoteStakeOutput.getTxId(), daoStateService, periodService, chainHeight);
-
-                        List<BlindVote> blindVoteList = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-                        Optional<BlindVote> optionalBlindVote = blindVoteList.stream()
-                                .filter(blindVote -> blindVote.getTxId().equals(blindVoteTxId))
-                                .findAny();
-                        if (optionalBlindVote.isPresent()) {
-                            BlindVote blindVote = optionalBlindVote.get();
-                            try {
-                                SecretKey secretKey = VoteResultConsensus.getSecretKey(opReturnData);
-                                VoteWithProposalTxIdList voteWithProposalTxIdList = VoteResultConsensus.decryptVotes(blindVote.getEncryptedVotes(), secretKey);
-                                MeritList meritList = MeritConsensus.decryptMeritList(blindVote.getEncryptedMeritList(), secretKey);
-                                // We lookup for the proposals we have in our local list which match the txId from the
-                                // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
-                                // the voteWithProposalTxIdList
-                                BallotList ballotList = createBallotList(voteWithProposalTxIdList);
-                                byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(opReturnData);
-                                long blindVoteStake = blindVoteStakeOutput.getValue();
-                                return new DecryptedBallotsWithMerits(hashOfBlindVoteList, blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList, meritList);
-                            } catch (VoteResultException.MissingBallotException missingBallotException) {
-                                log.warn("We are missing proposals to create the vote result: " + missingBallotException.toString());
-                                missingDataRequestService.addVoteResultException(missingBallotException);
-                                voteResultExceptions.add(missingBallotException);
-                                return null;
-                            } catch (VoteResultException.DecryptionException decryptionException) {
-                                log.error("Could not decrypt data: " + decryptionException.toString());
-                                voteResultExceptions.add(decryptionException);
-                                return null;
-                            }
-                        } else {
-                            log.warn("We have a blindVoteTx but we do not have the corresponding blindVote payload in our local database.\n" +
-                                    "That can happen if the blindVote item was not properly broadcast. We will go on " +
-                                    "and see if that blindVote was part of the majority data view. If so we should " +
-                                    "recover the missing blind vote by a request to our peers. blindVoteTxId={}", blindVoteTxId);
-
-                            VoteResultException.MissingBlindVoteDataException voteResultException = new VoteResultException.MissingBlindVoteDataException(blindVoteTxId);
-                            missingDataRequestService.addVoteResultException(voteResultException);
-                            voteResultExceptions.add(voteResultException);
-                            return null;
-                        }
-                    } catch (VoteResultException.ValidationException e) {
-                        log.error("Could not create DecryptedBallotsWithMerits because of voteResultValidationException: " + e.toString());
-                        voteResultExceptions.add(e);
-                        return null;
-                    } catch (Throwable e) {
-                        log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
-                        voteResultExceptions.add(new VoteResultException(e));
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        try {
+            // TODO maybe verify version in opReturn
+
+            TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
+            String blindVoteTxId = blindVoteStakeOutput.getTxId();
+            boolean isBlindVoteInCorrectPhaseAndCycle = periodService.isTxInPhaseAndCycle(blindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight);
+            // If we get a voteReveal tx which was published too late we ignore it.
+            if (!isBlindVoteInCorrectPhaseAndCycle) {
+                log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. blindVoteTxId={}", blindVoteTxId);
+                return null;
+            }
+
+            VoteResultConsensus.validateBlindVoteTx(blindVoteStakeOutput.getTxId(), daoStateService, periodService, chainHeight);
+
+            BlindVote blindVote = blindVoteByTxIdMap.get(blindVoteTxId);
+            if (blindVote != null) {
+                return new RevealedVote(opReturnData, voteRevealTxId, blindVoteTxId, blindVoteStakeOutput.getValue(), blindVote);
+            } else {
+                log.warn("We have a blindVoteTx but we do not have the corresponding blindVote payload in our local database.\n" +
+                        "That can happen if the blindVote item was not properly broadcast. We will go on " +
+                        "and see if that blindVote was part of the majority data view. If so we should " +
+                        "recover the missing blind vote by a request to our peers. blindVoteTxId={}", blindVoteTxId);
+
+                VoteResultException.MissingBlindVoteDataException voteResultException = new VoteResultException.MissingBlindVoteDataException(blindVoteTxId);
+                missingDataRequestService.addVoteResultException(voteResultException);
+                voteResultExceptions.add(voteResultException);
+                return null;
+            }
+        } catch (VoteResultException.ValidationException e) {
+            log.error("Could not create DecryptedBallotsWithMerits because of voteResultValidationException: " + e.toString());
+            voteResultExceptions.add(e);
+            return null;
+        } catch (Throwable e) {
+            log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
+            voteResultExceptions.add(new VoteResultException(e));
+            return null;
+        }
+    }
+
+    // Called from the fork-join pool, must not access any shared state.
+    private static DecryptedVote decryptVote(RevealedVote revealedVote) {
+        BlindVote blindVote = revealedVote.getBlindVote();
+        try {
+            SecretKey secretKey = VoteResultConsensus.getSecretKey(revealedVote.getOpReturnData());
+            VoteWithProposalTxIdList voteWithProposalTxIdList = VoteResultConsensus.decryptVotes(blindVote.getEncryptedVotes(), secretKey);
+            MeritList meritList = MeritConsensus.decryptMeritList(blindVote.getEncryptedMeritList(), secretKey);
+            return new DecryptedVote(revealedVote, voteWithProposalTxIdList, meritList, null);
+        } catch (VoteResultException.DecryptionException decryptionException) {
+            return new DecryptedVote(revealedVote, null, null, decryptionException);
+        }
     }
 
-    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList)
+    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList,
+                                        Map<String, Ballot> ballotByTxIdMap)
             throws VoteResultException.MissingBallotException {
         // We convert the list to a map with proposalTxId as key and the vote as value
         Map<String, Vote> voteByTxIdMap = voteWithProposalTxIdList.stream()
                 .filter(voteWithProposalTxId -> voteWithProposalTxId.getVote() != null)
                 .collect(Collectors.toMap(VoteWithProposalTxId::getProposalTxId, VoteWithProposalTxId::getVote));
 
-        // We make a map with proposalTxId as key and the ballot as value out of our stored ballot list
-        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidatedBallotList().stream()
-                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
-
         List<String> missingBallots = new ArrayList<>();
         List<Ballot> ballots = voteByTxIdMap.entrySet().stream()
                 .map(entry -> {
@@ -371,7 +465,36 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         return new BallotList(ballots);
     }
 
-    private Map<P2PDataStorage.ByteArray, Long> getStakeByHashOfBlindVoteListMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet) {
+    // Verification of the merit signatures is CPU bound, so we do it in parallel at the fork-join pool and only once
+    // per vote. The block height of the blind vote tx requires access to the daoState, so we look it up before.
+    private Map<String, Long> getMeritStakeByBlindVoteTxIdMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet) {
+        List<DecryptedBallotsWithMerits> list = new ArrayList<>(decryptedBallotsWithMeritsSet);
+        List<Integer> blindVoteTxHeights = list.stream()
+                .map(e -> daoStateService.getTx(e.getBlindVoteTxId()).map(Tx::getBlockHeight).orElse(0))
+                .collect(Collectors.toList());
+        return getMeritStakeByBlindVoteTxIdMap(list, blindVoteTxHeights);
+    }
+
+    @VisibleForTesting
+    static Map<String, Long> getMeritStakeByBlindVoteTxIdMap(List<DecryptedBallotsWithMerits> list,
+                                                             List<Integer> blindVoteTxHeights) {
+        long ts = System.currentTimeMillis();
+        List<Long> meritStakes = IntStream.range(0, list.size()).parallel()
+                .mapToObj(i -> MeritConsensus.getMeritStake(list.get(i).getBlindVoteTxId(),
+                        list.get(i).getMeritList(),
+                        blindVoteTxHeights.get(i)))
+                .collect(Collectors.toList());
+        log.info("Verification of the merits of {} votes took {} ms", list.size(), System.currentTimeMillis() - ts);
+
+        Map<String, Long> map = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            map.put(list.get(i).getBlindVoteTxId(), meritStakes.get(i));
+        }
+        return map;
+    }
+
+    private Map<P2PDataStorage.ByteArray, Long> getStakeByHashOfBlindVoteListMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                                               Map<String, Long> meritStakeByBlindVoteTxIdMap) {
         // Don't use byte[] as key as byte[] uses object identity for equals and hashCode
         Map<P2PDataStorage.ByteArray, Long> map = new HashMap<>();
         decryptedBallotsWithMeritsSet.forEach(decryptedBallotsWithMerits -> {
@@ -379,7 +502,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
             map.putIfAbsent(hash, 0L);
             long aggregatedStake = map.get(hash);
             //TODO move to consensus class
-            long merit = decryptedBallotsWithMerits.getMerit(daoStateService);
+            long merit = meritStakeByBlindVoteTxIdMap.get(decryptedBallotsWithMerits.getBlindVoteTxId());
             long stake = decryptedBallotsWithMerits.getStake();
             long combinedStake = stake + merit;
             aggregatedStake += combinedStake;
@@ -400,58 +523,60 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     }
 
     // Deal with eventually consistency of P2P network
-    private boolean isBlindVoteListMatchingMajority(byte[] majorityVoteListHash) {
-        // We reuse the method at voteReveal domain used when creating the hash
-        byte[] myBlindVoteListHash = voteRevealService.getHashOfBlindVoteList();
+    private Optional<List<BlindVote>> findBlindVoteListMatchingMajority(byte[] majorityVoteListHash) {
+        // The matcher creates the same hash as used at the voteReveal domain when creating the hash
+        BlindVoteListMatcher blindVoteListMatcher = new BlindVoteListMatcher(
+                BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService));
+        byte[] myBlindVoteListHash = blindVoteListMatcher.getHash();
         log.info("majorityVoteListHash " + Utilities.bytesAsHexString(majorityVoteListHash));
         log.info("myBlindVoteListHash " + Utilities.bytesAsHexString(myBlindVoteListHash));
-        boolean matches = Arrays.equals(majorityVoteListHash, myBlindVoteListHash);
-        // refactor to method
-        if (!matches) {
-            log.warn("myBlindVoteListHash does not match with majorityVoteListHash. We try permuting our list to " +
-                    "find a matching variant");
-            // Each voter has re-published his blind vote list when broadcasting the reveal tx so it should have a very
-            // high change that we have received all blind votes which have been used by the majority of the
-            // voters (e.g. its stake not nr. of voters).
-            // It still could be that we have additional blind votes so our hash does not match. We can try to permute
-            // our list with excluding items to see if we get a matching list. If not last resort is to request the
-            // missing items from the network.
-            List<BlindVote> permutatedListMatchingMajority = findPermutatedListMatchingMajority(majorityVoteListHash);
-            if (!permutatedListMatchingMajority.isEmpty()) {
-                log.info("We found a permutation of our blindVote list which matches the majority view. " +
-                        "permutatedListMatchingMajority={}", permutatedListMatchingMajority);
-                //TODO do we need to apply/store it for later use?
-            } else {
-                log.info("We did not find a permutation of our blindVote list which matches the majority view. " +
-                        "We will request the blindVote data from the peers.");
-                // This is async operation. We will restart the whole verification process once we received the data.
-                requestBlindVoteListFromNetwork(majorityVoteListHash);
-            }
-        }
-        return matches;
-    }
-
-    private List<BlindVote> findPermutatedListMatchingMajority(byte[] majorityVoteListHash) {
-        List<BlindVote> list = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-        while (!list.isEmpty() && !isListMatchingMajority(majorityVoteListHash, list)) {
-            // We remove first item as it will be sorted anyway...
-            list.remove(0);
+        if (Arrays.equals(majorityVoteListHash, myBlindVoteListHash))
+            return Optional.of(BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService));
+
+        log.warn("myBlindVoteListHash does not match with majorityVoteListHash. We try permuting our list to " +
+                "find a matching variant");
+        // Each voter has re-published his blind vote list when broadcasting the reveal tx so it should have a very
+        // high change that we have received all blind votes which have been used by the majority of the
+        // voters (e.g. its stake not nr. of voters).
+        // It still could be that we have additional blind votes so our hash does not match. We can try to permute
+        // our list with excluding items to see if we get a matching list. If not last resort is to request the
+        // missing items from the network.
+        Optional<List<BlindVote>> permutatedListMatchingMajority = blindVoteListMatcher.findListMatchingHash(majorityVoteListHash);
+        if (permutatedListMatchingMajority.isPresent()) {
+            log.info("We found a permutation of our blindVote list which matches the majority view. " +
+                    "permutatedListMatchingMajority={}", permutatedListMatchingMajority.get());
+        } else {
+            log.info("We did not find a permutation of our blindVote list which matches the majority view. " +
+                    "We will request the missing blindVote data from the peers.");
         }
-        return list;
+        return permutatedListMatchingMajority;
     }
 
-    private boolean isListMatchingMajority(byte[] majorityVoteListHash, List<BlindVote> list) {
-        byte[] hashOfBlindVoteList = VoteRevealConsensus.getHashOfBlindVoteList(list);
-        return Arrays.equals(majorityVoteListHash, hashOfBlindVoteList);
+    private Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsOfList(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                                                List<BlindVote> blindVoteList) {
+        Set<String> blindVoteTxIds = blindVoteList.stream()
+                .map(BlindVote::getTxId)
+                .collect(Collectors.toSet());
+        return decryptedBallotsWithMeritsSet.stream()
+                .filter(decryptedBallotsWithMerits -> blindVoteTxIds.contains(decryptedBallotsWithMerits.getBlindVoteTxId()))
+                .collect(Collectors.toSet());
     }
 
-    private void requestBlindVoteListFromNetwork(byte[] majorityVoteListHash) {
-        //TODO impl
+    // We send the hashes of the blindVotePayloads we have so the full node only republishes the missing ones.
+    // The received payloads get added to the blindVoteListService.
+    private void requestMissingBlindVotesFromNetwork() {
+        Set<byte[]> knownBlindVotePayloadHashes = blindVoteListService.getBlindVotePayloads().stream()
+                .map(BlindVotePayload::getHash)
+                .collect(Collectors.toSet());
+        missingDataRequestService.requestMissingBlindVotes(knownBlindVotePayloadHashes);
     }
 
-    private Set<EvaluatedProposal> getEvaluatedProposals(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet, int chainHeight) {
+    private Set<EvaluatedProposal> getEvaluatedProposals(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                         Map<String, Long> meritStakeByBlindVoteTxIdMap,
+                                                         int chainHeight) {
         // We reorganize the data structure to have a map of proposals with a list of VoteWithStake objects
-        Map<Proposal, List<VoteWithStake>> resultListByProposalMap = getVoteWithStakeListByProposalMap(decryptedBallotsWithMeritsSet);
+        Map<Proposal, List<VoteWithStake>> resultListByProposalMap = getVoteWithStakeListByProposalMap(decryptedBallotsWithMeritsSet,
+                meritStakeByBlindVoteTxIdMap);
 
         // TODO breakup
         Set<EvaluatedProposal> evaluatedProposals = new HashSet<>();
@@ -525,7 +650,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         return MathUtils.roundDoubleToLong(paramValueAsPercentDouble * 10000);
     }
 
-    private Map<Proposal, List<VoteWithStake>> getVoteWithStakeListByProposalMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet) {
+    private Map<Proposal, List<VoteWithStake>> getVoteWithStakeListByProposalMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                                                 Map<String, Long> meritStakeByBlindVoteTxIdMap) {
         Map<Proposal, List<VoteWithStake>> voteWithStakeByProposalMap = new HashMap<>();
         decryptedBallotsWithMeritsSet.forEach(decryptedBallotsWithMerits -> {
             decryptedBallotsWithMerits.getBallotList()
@@ -533,8 +659,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                         Proposal proposal = ballot.getProposal();
                         voteWithStakeByProposalMap.putIfAbsent(proposal, new ArrayList<>());
                         List<VoteWithStake> voteWithStakeList = voteWithStakeByProposalMap.get(proposal);
-                        long sumOfAllMerits = MeritConsensus.getMeritStake(decryptedBallotsWithMerits.getBlindVoteTxId(),
-                                decryptedBallotsWithMerits.getMeritList(), daoStateService);
+                        long sumOfAllMerits = meritStakeByBlindVoteTxIdMap.get(decryptedBallotsWithMerits.getBlindVoteTxId());
                         VoteWithStake voteWithStake = new VoteWithStake(ballot.getVote(), decryptedBallotsWithMerits.getStake(), sumOfAllMerits);
                         voteWithStakeList.add(voteWithStake);
                     });
@@ -729,6 +854,44 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         }
     }
 
+    @Value
+    static class RevealedVote {
+        private final byte[] opReturnData;
+        private final String voteRevealTxId;
+        private final String blindVoteTxId;
+        private final long blindVoteStake;
+        private final BlindVote blindVote;
+
+        RevealedVote(byte[] opReturnData, String voteRevealTxId, String blindVoteTxId, long blindVoteStake, BlindVote blindVote) {
+            this.opReturnData = opReturnData;
+            this.voteRevealTxId = voteRevealTxId;
+            this.blindVoteTxId = blindVoteTxId;
+            this.blindVoteStake = blindVoteStake;
+            this.blindVote = blindVote;
+        }
+    }
+
+    @Value
+    private static class DecryptedVote {
+        private final RevealedVote revealedVote;
+        @Nullable
+        private final VoteWithProposalTxIdList voteWithProposalTxIdList;
+        @Nullable
+        private final MeritList meritList;
+        @Nullable
+        private final VoteResultException.DecryptionException decryptionException;
+
+        DecryptedVote(RevealedVote revealedVote,
+                      @Nullable VoteWithProposalTxIdList voteWithProposalTxIdList,
+                      @Nullable MeritList meritList,
+                      @Nullable VoteResultException.DecryptionException decryptionException) {
+            this.revealedVote = revealedVote;
+            this.voteWithProposalTxIdList = voteWithProposalTxIdList;
+            this.meritList = meritList;
+            this.decryptionException = decryptionException;
+        }
+    }
+
     @Value
     private static class VoteWithStake {
         @Nullable
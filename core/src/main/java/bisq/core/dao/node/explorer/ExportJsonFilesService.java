@@ -24,8 +24,11 @@ import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
@@ -36,6 +39,8 @@ import org.bitcoinj.core.Utils;
 
 import com.google.inject.Inject;
 
+import com.google.gson.Gson;
+
 import javax.inject.Named;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -43,30 +48,66 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Writes the DAO state as json files for the block explorer.
+ * <p>
+ * At the first export after startup we write all data (as the json directory got deleted at start). After that we
+ * only write the data which got changed by a new block: the txs of that block with their outputs, the txs whose
+ * outputs got spent by the new block (their spent info has changed), the txs whose state changed without being in
+ * the block (issuance after a vote result, confiscated bonds and unlock txs whose lock time is over), the blocks
+ * containing any of those txs and one line appended to the block index file.
+ * The blocks are only written as one file per block in the block directory. The block index in the all directory
+ * lists all blocks in chain order, so we do not need a file containing all blocks which would have to be rewritten
+ * at each block.
+ * A full export can be triggered at any time with exportAllToJson.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final String BLOCK_INDEX_FILE_NAME = "blockIndex.jsonl";
+    // Not pretty printed as we need one entry per line in the block index
+    private static final Gson GSON = new Gson();
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private JsonFileManager txFileManager, txOutputFileManager, blockFileManager;
+    private File blockIndexFile;
+    private boolean fullExportDone;
+    private int lastExportedBlockHeight;
+    // State changes of older txs we need to re-export
+    private final Set<String> exportedIssuanceTxIds = new HashSet<>();
+    private int numExportedConfiscatedLockupTxs;
+    private final TreeMap<Integer, Set<String>> unlockTxIdsByUnlockBlockHeight = new TreeMap<>();
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -93,6 +134,7 @@ public class ExportJsonFilesService implements DaoSetupService {
             File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
             File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
+            File blockDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "block").toString());
             try {
                 if (txDir.exists())
                     FileUtil.deleteDirectory(txDir);
@@ -100,6 +142,8 @@ public class ExportJsonFilesService implements DaoSetupService {
                     FileUtil.deleteDirectory(txOutputDir);
                 if (bsqStateDir.exists())
                     FileUtil.deleteDirectory(bsqStateDir);
+                if (blockDir.exists())
+                    FileUtil.deleteDirectory(blockDir);
                 if (jsonDir.exists())
                     FileUtil.deleteDirectory(jsonDir);
             } catch (IOException e) {
@@ -119,22 +163,111 @@ public class ExportJsonFilesService implements DaoSetupService {
             if (!bsqStateDir.mkdir())
                 log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
 
+            if (!blockDir.mkdir())
+                log.warn("make blockDir failed.\nblockDir=" + blockDir.getAbsolutePath());
+
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
-            bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            blockFileManager = new JsonFileManager(blockDir);
+            blockIndexFile = new File(bsqStateDir, BLOCK_INDEX_FILE_NAME);
         }
     }
 
     public void shutDown() {
         if (dumpBlockchainData) {
+            // We let the pending exports pass their data to the file managers before we shut those down
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS))
+                    log.warn("Not all json exports got written at shutdown");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
-            bsqStateFileManager.shutDown();
+            blockFileManager.shutDown();
         }
     }
 
-    public void exportToJson() {
+    /**
+     * Called after a new block got parsed. Writes only the data which got changed by that block. If we have not
+     * written the full data since startup we do a full export instead.
+     *
+     * @param block The block which got added to the DAO state.
+     */
+    public void exportToJson(Block block) {
         if (dumpBlockchainData) {
+            // After a reorg we get blocks we have already exported. In that case we rebuild all as well to keep
+            // the block index consistent.
+            if (!fullExportDone || block.getHeight() <= lastExportedBlockHeight) {
+                exportAllToJson();
+                return;
+            }
+
+            lastExportedBlockHeight = block.getHeight();
+
+            long ts = System.currentTimeMillis();
+            Map<String, Tx> changedTxsById = new LinkedHashMap<>();
+            // The txs of the new block and the txs which got an output spent by the new block
+            block.getTxs().forEach(tx -> {
+                changedTxsById.put(tx.getId(), tx);
+                tx.getTxInputs().stream()
+                        .map(TxInput::getConnectedTxOutputTxId)
+                        .filter(txId -> !changedTxsById.containsKey(txId))
+                        .forEach(txId -> addChangedTx(txId, changedTxsById));
+                addUnlockTx(tx);
+            });
+            // The txs which changed by the DAO state but are not part of the new block
+            addTxsChangedByDaoState(block.getHeight(), changedTxsById);
+
+            List<JsonTx> jsonTxs = changedTxsById.values().stream()
+                    .map(this::getJsonTx)
+                    .collect(Collectors.toList());
+            List<JsonTxOutput> jsonTxOutputs = jsonTxs.stream()
+                    .flatMap(jsonTx -> jsonTx.getOutputs().stream())
+                    .collect(Collectors.toList());
+
+            // All blocks containing a changed tx got changed as well
+            Set<Integer> changedBlockHeights = changedTxsById.values().stream()
+                    .map(Tx::getBlockHeight)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            changedBlockHeights.add(block.getHeight());
+            List<JsonBlock> changedJsonBlocks = new ArrayList<>();
+            changedBlockHeights.forEach(height -> {
+                Optional<Block> optionalBlock = height == block.getHeight() ?
+                        Optional.of(block) :
+                        daoStateService.getBlockAtHeight(height);
+                optionalBlock.map(this::getJsonBlock).ifPresent(changedJsonBlocks::add);
+            });
+            String blockIndexEntry = getBlockIndexEntry(block);
+            log.debug("Preparing incremental json export for block {} took {} ms", block.getHeight(), System.currentTimeMillis() - ts);
+
+            ListenableFuture<Void> future = executor.submit(() -> {
+                long ts2 = System.currentTimeMillis();
+                changedJsonBlocks.forEach(jsonBlock -> blockFileManager.writeToDisc(Utilities.objectToJson(jsonBlock), String.valueOf(jsonBlock.getHeight())));
+                jsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+                appendToBlockIndex(blockIndexEntry);
+                log.info("Incremental json export for block {} wrote {} blocks, {} txs and {} txOutputs. Took {} ms",
+                        block.getHeight(), changedJsonBlocks.size(), jsonTxs.size(), jsonTxOutputs.size(),
+                        System.currentTimeMillis() - ts2);
+                return null;
+            });
+
+            addCallback(future);
+        }
+    }
+
+    /**
+     * Writes all txs, tx outputs and blocks of the DAO state and rebuilds the block index.
+     */
+    public void exportAllToJson() {
+        if (dumpBlockchainData) {
+            long ts = System.currentTimeMillis();
+            fullExportDone = true;
+            lastExportedBlockHeight = daoStateService.getBlockHeightOfLastBlock();
+            initStateChangeTracking();
+
             // We store the data we need once we write the data to disk (in the thread) locally.
             // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
             List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
@@ -150,28 +283,108 @@ public class ExportJsonFilesService implements DaoSetupService {
             List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
                     .map(this::getJsonBlock)
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            String blockIndex = daoState.getBlocks().stream()
+                    .map(this::getBlockIndexEntry)
+                    .collect(Collectors.joining());
+            log.debug("Preparing full json export took {} ms", System.currentTimeMillis() - ts);
 
             ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
+                long ts2 = System.currentTimeMillis();
+                jsonBlockList.forEach(jsonBlock -> blockFileManager.writeToDisc(Utilities.objectToJson(jsonBlock), String.valueOf(jsonBlock.getHeight())));
                 allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
                 jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+                Files.write(blockIndexFile.toPath(), blockIndex.getBytes(StandardCharsets.UTF_8));
+                log.info("Full json export wrote {} blocks, {} txs and {} txOutputs. Took {} ms",
+                        jsonBlockList.size(), jsonTxs.size(), allJsonTxOutputs.size(), System.currentTimeMillis() - ts2);
                 return null;
             });
 
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                    log.trace("onSuccess");
-                }
-
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                }
-            });
+            addCallback(future);
         }
     }
 
+    private void addCallback(ListenableFuture<Void> future) {
+        Futures.addCallback(future, new FutureCallback<>() {
+            public void onSuccess(Void ignore) {
+                log.trace("onSuccess");
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error(throwable.toString());
+                throwable.printStackTrace();
+            }
+        });
+    }
+
+    // We remember the state of the txs which can change without being part of a new block, so we can detect the
+    // changes at the next block without iterating all txs.
+    private void initStateChangeTracking() {
+        exportedIssuanceTxIds.clear();
+        exportedIssuanceTxIds.addAll(getIssuanceTxIds());
+        numExportedConfiscatedLockupTxs = daoStateService.getConfiscatedLockupTxList().size();
+        unlockTxIdsByUnlockBlockHeight.clear();
+        daoStateService.getTxStream().forEach(this::addUnlockTx);
+    }
+
+    private void addTxsChangedByDaoState(int blockHeight, Map<String, Tx> changedTxsById) {
+        // A vote result has added issuance. The issuance candidate output becomes a BSQ output.
+        getIssuanceTxIds().stream()
+                .filter(exportedIssuanceTxIds::add)
+                .forEach(txId -> addChangedTx(txId, changedTxsById));
+
+        // A bond got confiscated. That affects the lockup tx and the unlock tx if the bond was unlocking.
+        List<String> confiscatedLockupTxList = daoStateService.getConfiscatedLockupTxList();
+        confiscatedLockupTxList.subList(Math.min(numExportedConfiscatedLockupTxs, confiscatedLockupTxList.size()),
+                confiscatedLockupTxList.size())
+                .forEach(lockupTxId -> {
+                    addChangedTx(lockupTxId, changedTxsById);
+                    daoStateService.getLockupTxOutput(lockupTxId)
+                            .flatMap(daoStateService::getSpentInfo)
+                            .ifPresent(spentInfo -> addChangedTx(spentInfo.getTxId(), changedTxsById));
+                });
+        numExportedConfiscatedLockupTxs = confiscatedLockupTxList.size();
+
+        // The lock time of unlock txs is over
+        SortedMap<Integer, Set<String>> unlockedTxIdsByHeight = unlockTxIdsByUnlockBlockHeight.headMap(blockHeight, true);
+        unlockedTxIdsByHeight.values().forEach(txIds -> txIds.forEach(txId -> addChangedTx(txId, changedTxsById)));
+        unlockedTxIdsByHeight.clear();
+    }
+
+    private void addChangedTx(String txId, Map<String, Tx> changedTxsById) {
+        if (!changedTxsById.containsKey(txId))
+            daoStateService.getTx(txId).ifPresent(tx -> changedTxsById.put(txId, tx));
+    }
+
+    private void addUnlockTx(Tx tx) {
+        if (tx.getTxType() == TxType.UNLOCK && tx.getUnlockBlockHeight() > lastExportedBlockHeight)
+            unlockTxIdsByUnlockBlockHeight.computeIfAbsent(tx.getUnlockBlockHeight(), k -> new HashSet<>()).add(tx.getId());
+    }
+
+    private Set<String> getIssuanceTxIds() {
+        return Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .map(Issuance::getTxId)
+                .collect(Collectors.toSet());
+    }
+
+    // Must be called from the executor thread
+    private void appendToBlockIndex(String blockIndexEntry) throws IOException {
+        Files.write(blockIndexFile.toPath(),
+                blockIndexEntry.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    // One json object per line: height, hash, previousBlockHash, time and the tx IDs of the block
+    private String getBlockIndexEntry(Block block) {
+        List<String> txIds = block.getTxs().stream().map(Tx::getId).collect(Collectors.toList());
+        return GSON.toJson(new JsonBlockIndexEntry(block.getHeight(),
+                block.getHash(),
+                block.getPreviousBlockHash(),
+                block.getTime(),
+                txIds)) + "\n";
+    }
+
     private JsonBlock getJsonBlock(Block block) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
@@ -22,7 +22,10 @@ import java.util.List;
 import lombok.Value;
 
 @Value
-class JsonBlocks {
-    private int chainHeight;
-    private final List<JsonBlock> blocks;
+class JsonBlockIndexEntry {
+    private final int height;
+    private final String hash;
+    private final String previousBlockHash;
+    private final long time; // in ms
+    private final List<String> txIds;
 }
@@ -170,7 +170,7 @@ public class FullNode extends BsqNode {
     }
 
     private void onNewBlock(Block block) {
-        exportJsonFilesService.exportToJson();
+        exportJsonFilesService.exportToJson(block);
 
         if (p2pNetworkReady && parseBlockchainComplete)
             fullNodeNetworkService.publishNewBlock(block);
@@ -34,6 +34,7 @@ import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.UserThread;
 import bisq.common.app.Log;
@@ -44,9 +45,12 @@ import javax.inject.Inject;
 import javafx.collections.ObservableList;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -195,7 +199,14 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
                 log.warn("We have stopped already. We ignore that onMessage call.");
             }
         } else if (networkEnvelope instanceof RepublishGovernanceDataRequest) {
-            ObservableList<BlindVotePayload> blindVotePayloads = blindVoteListService.getBlindVotePayloads();
+            // If the requester sent the hashes of the blindVotePayloads it has already we only republish the missing ones.
+            Set<P2PDataStorage.ByteArray> knownBlindVotePayloadHashes = ((RepublishGovernanceDataRequest) networkEnvelope)
+                    .getKnownBlindVotePayloadHashes().stream()
+                    .map(P2PDataStorage.ByteArray::new)
+                    .collect(Collectors.toSet());
+            List<BlindVotePayload> blindVotePayloads = blindVoteListService.getBlindVotePayloads().stream()
+                    .filter(blindVotePayload -> !knownBlindVotePayloadHashes.contains(new P2PDataStorage.ByteArray(blindVotePayload.getHash())))
+                    .collect(Collectors.toList());
             blindVotePayloads
                     .forEach(blindVotePayload -> {
                         // We want a random delay between 0.1 and 30 sec. depending on the number of items
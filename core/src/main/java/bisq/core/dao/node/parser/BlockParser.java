@@ -17,7 +17,9 @@
 
 package bisq.core.dao.node.parser;
 
+import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
 import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
 import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
 import bisq.core.dao.state.DaoStateService;
@@ -25,16 +27,26 @@ import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 
 import bisq.common.app.DevEnv;
+import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -44,11 +56,19 @@ import javax.annotation.concurrent.Immutable;
 @Slf4j
 @Immutable
 public class BlockParser {
+    // Below that number of independent txs we parse sequentially as the overhead would outweigh the gain
+    private static final int MIN_TXS_FOR_PARALLEL_PARSING = 50;
+    // Number of tasks per thread, so that threads which finish early can take over work
+    private static final int TASKS_PER_THREAD = 4;
+
     private final TxParser txParser;
     private final DaoStateService daoStateService;
     private final String genesisTxId;
     private final int genesisBlockHeight;
     private final Coin genesisTotalSupply;
+    private final int numThreads;
+    @Nullable
+    private final ExecutorService executor;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -58,12 +78,16 @@ public class BlockParser {
     @SuppressWarnings("WeakerAccess")
     @Inject
     public BlockParser(TxParser txParser,
-                       DaoStateService daoStateService) {
+                       DaoStateService daoStateService,
+                       @Named(DaoOptionKeys.PARSE_TXS_IN_PARALLEL) boolean parseTxsInParallel) {
         this.txParser = txParser;
         this.daoStateService = daoStateService;
         this.genesisTxId = daoStateService.getGenesisTxId();
         this.genesisBlockHeight = daoStateService.getGenesisBlockHeight();
         this.genesisTotalSupply = daoStateService.getGenesisTotalSupply();
+
+        numThreads = Runtime.getRuntime().availableProcessors();
+        executor = parseTxsInParallel ? Utilities.getFixedThreadPoolExecutor("BlockParser", numThreads) : null;
     }
 
 
@@ -109,12 +133,10 @@ public class BlockParser {
         long startTs = System.currentTimeMillis();
         List<Tx> txList = block.getTxs();
 
-        rawBlock.getRawTxs().forEach(rawTx ->
-                txParser.findTx(rawTx,
-                        genesisTxId,
-                        genesisBlockHeight,
-                        genesisTotalSupply)
-                        .ifPresent(txList::add));
+        if (executor != null)
+            parseTxsInParallel(rawBlock.getRawTxs(), txList, executor);
+        else
+            rawBlock.getRawTxs().forEach(rawTx -> parseTx(rawTx, txList));
 
         if (System.currentTimeMillis() - startTs > 0)
             log.info("Parsing {} transactions took {} ms", rawBlock.getRawTxs().size(), System.currentTimeMillis() - startTs);
@@ -123,6 +145,83 @@ public class BlockParser {
         return block;
     }
 
+    private void parseTx(RawTx rawTx, List<Tx> txList) {
+        txParser.findTx(rawTx,
+                genesisTxId,
+                genesisBlockHeight,
+                genesisTotalSupply)
+                .ifPresent(txList::add);
+    }
+
+    // Most txs in a block do not spend an output of another tx of the same block. Parsing such a tx only reads the
+    // state resulting from previous blocks, which does not change while we parse the block, as a valid block cannot
+    // contain 2 txs spending the same output. We parse those txs concurrently before we apply any state change.
+    // Afterwards we commit the results in the order of the block and parse the txs depending on another tx of the
+    // block at their position, after the state changes of all previous txs got applied. That leads to the same state
+    // as sequential parsing.
+    private void parseTxsInParallel(List<RawTx> rawTxs, List<Tx> txList, ExecutorService executor) {
+        Set<String> txIdsInBlock = new HashSet<>();
+        rawTxs.forEach(rawTx -> txIdsInBlock.add(rawTx.getId()));
+        List<RawTx> independentTxs = new ArrayList<>();
+        for (RawTx rawTx : rawTxs) {
+            if (isIndependentTx(rawTx, txIdsInBlock))
+                independentTxs.add(rawTx);
+        }
+
+        if (independentTxs.size() < MIN_TXS_FOR_PARALLEL_PARSING) {
+            rawTxs.forEach(rawTx -> parseTx(rawTx, txList));
+            return;
+        }
+
+        List<TxParser.ParsingResult> parsingResults = parseConcurrently(independentTxs, executor);
+        int resultIndex = 0;
+        for (RawTx rawTx : rawTxs) {
+            // Both lists are in block order, so the next independent tx is the one of the next result
+            if (resultIndex < independentTxs.size() && independentTxs.get(resultIndex) == rawTx)
+                parsingResults.get(resultIndex++).commit().ifPresent(txList::add);
+            else
+                parseTx(rawTx, txList);
+        }
+    }
+
+    // Returns the results in the order of the given txs. Returns only after all tasks are completed, so no task
+    // reads the state while we commit the results.
+    private List<TxParser.ParsingResult> parseConcurrently(List<RawTx> rawTxs, ExecutorService executor) {
+        int batchSize = Math.max(1, (rawTxs.size() + numThreads * TASKS_PER_THREAD - 1) / (numThreads * TASKS_PER_THREAD));
+        List<Callable<List<TxParser.ParsingResult>>> tasks = new ArrayList<>();
+        for (int from = 0; from < rawTxs.size(); from += batchSize) {
+            List<RawTx> batch = rawTxs.subList(from, Math.min(from + batchSize, rawTxs.size()));
+            tasks.add(() -> {
+                List<TxParser.ParsingResult> results = new ArrayList<>(batch.size());
+                batch.forEach(rawTx -> results.add(txParser.parseTx(rawTx)));
+                return results;
+            });
+        }
+
+        List<TxParser.ParsingResult> parsingResults = new ArrayList<>(rawTxs.size());
+        try {
+            for (Future<List<TxParser.ParsingResult>> future : executor.invokeAll(tasks)) {
+                parsingResults.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parsing txs got interrupted", e);
+        } catch (ExecutionException e) {
+            // We throw the same exception as at sequential parsing
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+        return parsingResults;
+    }
+
+    // The genesis tx is parsed at its position as it does not follow the normal parsing rules.
+    private boolean isIndependentTx(RawTx rawTx, Set<String> txIdsInBlock) {
+        return !GenesisTxParser.isGenesis(rawTx, genesisTxId, genesisBlockHeight) &&
+                rawTx.getTxInputs().stream()
+                        .noneMatch(txInput -> txIdsInBlock.contains(txInput.getConnectedTxOutputTxId()));
+    }
+
     private void validateIfBlockIsConnecting(RawBlock rawBlock) throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
         LinkedList<Block> blocks = daoStateService.getBlocks();
 
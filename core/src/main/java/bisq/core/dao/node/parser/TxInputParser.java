@@ -23,8 +23,12 @@ import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxOutputKey;
 import bisq.core.dao.state.model.blockchain.TxOutputType;
 
+import bisq.common.util.Tuple2;
+
 import javax.inject.Inject;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import lombok.Getter;
@@ -51,6 +55,8 @@ public class TxInputParser {
 
     // Private
     private int numVoteRevealInputs = 0;
+    // The spent info gets applied to the daoStateService at commitSpentTxOutputs
+    private final List<Tuple2<TxOutput, SpentInfo>> spentTxOutputs = new ArrayList<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -135,14 +141,24 @@ public class TxInputParser {
                                 break;
                         }
 
-                        daoStateService.setSpentInfo(connectedTxOutput.getKey(), new SpentInfo(blockHeight, txId, inputIndex));
-                        daoStateService.removeUnspentTxOutput(connectedTxOutput);
+                        spentTxOutputs.add(new Tuple2<>(connectedTxOutput, new SpentInfo(blockHeight, txId, inputIndex)));
                     });
         } else {
             log.warn("Connected txOutput {} at input {} of txId {} is confiscated ", txOutputKey, inputIndex, txId);
         }
     }
 
+    // We apply the state changes after all inputs are processed, so processing does not change the daoState and txs
+    // which do not depend on each other can be processed concurrently. A valid tx cannot spend the same output twice,
+    // so the result is the same as if we would apply the changes at processing each input.
+    void commitSpentTxOutputs() {
+        spentTxOutputs.forEach(tuple -> {
+            TxOutput connectedTxOutput = tuple.first;
+            daoStateService.setSpentInfo(connectedTxOutput.getKey(), tuple.second);
+            daoStateService.removeUnspentTxOutput(connectedTxOutput);
+        });
+    }
+
     boolean isVoteRevealInputValid() {
         return numVoteRevealInputs == 1;
     }
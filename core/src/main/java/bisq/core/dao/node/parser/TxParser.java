@@ -41,6 +41,8 @@ import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Verifies if a given transaction is a BSQ transaction.
  */
@@ -48,8 +50,6 @@ import lombok.extern.slf4j.Slf4j;
 public class TxParser {
     private final PeriodService periodService;
     private final DaoStateService daoStateService;
-    private TxOutputParser txOutputParser;
-    private TxInputParser txInputParser;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -81,6 +81,13 @@ public class TxParser {
     // There might be txs without any valid BSQ txOutput but we still keep track of it,
     // for instance to calculate the total burned BSQ.
     private Optional<Tx> findTx(RawTx rawTx) {
+        return parseTx(rawTx).commit();
+    }
+
+    // Parses the tx without applying the state changes to the daoStateService. They get applied with
+    // ParsingResult.commit. As parsing only reads the daoState, txs which do not spend outputs of each other can be
+    // parsed concurrently as long no state changes are committed at the same time.
+    ParsingResult parseTx(RawTx rawTx) {
         int blockHeight = rawTx.getBlockHeight();
         TempTx tempTx = TempTx.fromRawTx(rawTx);
 
@@ -88,7 +95,7 @@ public class TxParser {
         // Parse Inputs
         //****************************************************************************************
 
-        txInputParser = new TxInputParser(daoStateService);
+        TxInputParser txInputParser = new TxInputParser(daoStateService);
         for (int inputIndex = 0; inputIndex < tempTx.getTxInputs().size(); inputIndex++) {
             TxInput input = tempTx.getTxInputs().get(inputIndex);
             TxOutputKey outputKey = input.getConnectedTxOutputKey();
@@ -107,14 +114,14 @@ public class TxParser {
 
         // If we don't have any BSQ in our input and we don't have burnt bonds we do not consider the tx as a BSQ tx.
         if (!hasBsqInputs && !hasBurntBond)
-            return Optional.empty();
+            return new ParsingResult(txInputParser, null, Optional.empty());
 
 
         //****************************************************************************************
         // Parse Outputs
         //****************************************************************************************
 
-        txOutputParser = new TxOutputParser(daoStateService);
+        TxOutputParser txOutputParser = new TxOutputParser(daoStateService);
         txOutputParser.setAvailableInputValue(accumulatedInputValue);
         txOutputParser.setUnlockBlockHeight(unlockBlockHeight);
         txOutputParser.setOptionalSpentLockupTxOutput(optionalSpentLockupTxOutput);
@@ -150,12 +157,13 @@ public class TxParser {
         // Verify and apply txType and txOutputTypes after we have all outputs parsed
         //****************************************************************************************
 
-        applyTxTypeAndTxOutputType(blockHeight, tempTx, remainingInputValue);
+        applyTxTypeAndTxOutputType(blockHeight, tempTx, remainingInputValue, txOutputParser);
 
         TxType txType = evaluateTxType(tempTx, optionalOpReturnType, hasBurntBsq, unLockInputValid);
         tempTx.setTxType(txType);
 
-        if (isTxInvalid(tempTx, bsqOutputFound, hasBurntBond)) {
+        boolean isTxValid = !isTxInvalid(tempTx, bsqOutputFound, hasBurntBond);
+        if (!isTxValid) {
             tempTx.setTxType(TxType.INVALID);
             txOutputParser.invalidateUTXOCandidates();
 
@@ -163,11 +171,9 @@ public class TxParser {
                 log.warn("We have destroyed BSQ because of an invalid tx. Burned BSQ={}. tx={}",
                         burntBsq / 100D, tempTx);
             }
-        } else {
-            txOutputParser.commitUTXOCandidates();
         }
 
-        return Optional.of(Tx.fromTempTx(tempTx));
+        return new ParsingResult(txInputParser, isTxValid ? txOutputParser : null, Optional.of(Tx.fromTempTx(tempTx)));
     }
 
 
@@ -182,7 +188,7 @@ public class TxParser {
      * We set the txType as well as the txOutputType of the relevant outputs.
      */
     // TODO That method is not testable and still too complex.
-    private void applyTxTypeAndTxOutputType(int blockHeight, TempTx tempTx, long bsqFee) {
+    private void applyTxTypeAndTxOutputType(int blockHeight, TempTx tempTx, long bsqFee, TxOutputParser txOutputParser) {
         OpReturnType opReturnType = null;
         Optional<OpReturnType> optionalOpReturnType = txOutputParser.getOptionalOpReturnType();
         if (optionalOpReturnType.isPresent()) {
@@ -194,10 +200,10 @@ public class TxParser {
                     break;
                 case COMPENSATION_REQUEST:
                 case REIMBURSEMENT_REQUEST:
-                    processIssuance(blockHeight, tempTx, bsqFee);
+                    processIssuance(blockHeight, tempTx, bsqFee, txOutputParser);
                     break;
                 case BLIND_VOTE:
-                    processBlindVote(blockHeight, tempTx, bsqFee);
+                    processBlindVote(blockHeight, tempTx, bsqFee, txOutputParser);
                     break;
                 case VOTE_REVEAL:
                     // We do not check phase or cycle as a late voteReveal tx is considered a valid BSQ tx.
@@ -237,7 +243,7 @@ public class TxParser {
         }
     }
 
-    private void processIssuance(int blockHeight, TempTx tempTx, long bsqFee) {
+    private void processIssuance(int blockHeight, TempTx tempTx, long bsqFee, TxOutputParser txOutputParser) {
         boolean isFeeAndPhaseValid = isFeeAndPhaseValid(tempTx.getId(), blockHeight, bsqFee, DaoPhase.Phase.PROPOSAL, Param.PROPOSAL_FEE);
         Optional<TempTxOutput> optionalIssuanceCandidate = txOutputParser.getOptionalIssuanceCandidate();
         if (isFeeAndPhaseValid) {
@@ -258,7 +264,7 @@ public class TxParser {
         }
     }
 
-    private void processBlindVote(int blockHeight, TempTx tempTx, long bsqFee) {
+    private void processBlindVote(int blockHeight, TempTx tempTx, long bsqFee, TxOutputParser txOutputParser) {
         boolean isFeeAndPhaseValid = isFeeAndPhaseValid(tempTx.getId(), blockHeight, bsqFee, DaoPhase.Phase.BLIND_VOTE, Param.BLIND_VOTE_FEE);
         if (!isFeeAndPhaseValid) {
             tempTx.setTxType(TxType.INVALID);
@@ -411,4 +417,35 @@ public class TxParser {
                 return TxType.INVALID;
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ParsingResult
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Holds the parsed tx and the state changes which get applied to the daoStateService at commit.
+     */
+    static class ParsingResult {
+        private final TxInputParser txInputParser;
+        // Null if the tx is not a BSQ tx or if it is invalid
+        @Nullable
+        private final TxOutputParser txOutputParser;
+        private final Optional<Tx> optionalTx;
+
+        private ParsingResult(TxInputParser txInputParser,
+                              @Nullable TxOutputParser txOutputParser,
+                              Optional<Tx> optionalTx) {
+            this.txInputParser = txInputParser;
+            this.txOutputParser = txOutputParser;
+            this.optionalTx = optionalTx;
+        }
+
+        Optional<Tx> commit() {
+            txInputParser.commitSpentTxOutputs();
+            if (txOutputParser != null)
+                txOutputParser.commitUTXOCandidates();
+            return optionalTx;
+        }
+    }
 }
@@ -41,7 +41,7 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -69,6 +69,8 @@ public class DaoStateService implements DaoSetupService {
     private final BsqFormatter bsqFormatter;
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
     private boolean parseBlockChainComplete;
+    // Derived from daoState.getParamChangeList() and replaced when the list changes
+    private volatile Map<String, ParamValueTimeline> paramValueTimelinesByName;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -80,6 +82,8 @@ public class DaoStateService implements DaoSetupService {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+
+        updateParamValueTimelines();
     }
 
 
@@ -126,6 +130,7 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getParamChangeList().clear();
         daoState.getParamChangeList().addAll(snapshot.getParamChangeList());
+        updateParamValueTimelines();
 
         daoState.getEvaluatedProposalList().clear();
         daoState.getEvaluatedProposalList().addAll(snapshot.getEvaluatedProposalList());
@@ -600,6 +605,12 @@ public class DaoStateService implements DaoSetupService {
                 .findAny();
     }
 
+    // Same result as getBtcTxOutput(txOutput.getKey()).isPresent() but without iterating all txOutputs
+    public boolean isBtcTxOutput(TxOutput txOutput) {
+        return txOutput.getTxOutputType() == TxOutputType.BTC_OUTPUT ||
+                daoState.getNonBsqTxOutputMap().containsKey(txOutput.getKey());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Bond
@@ -825,6 +836,11 @@ public class DaoStateService implements DaoSetupService {
         return daoState.getConfiscatedLockupTxList().contains(lockupTxId);
     }
 
+    // The list only grows while we follow the chain, new entries are appended at the end.
+    public List<String> getConfiscatedLockupTxList() {
+        return Collections.unmodifiableList(daoState.getConfiscatedLockupTxList());
+    }
+
     public boolean isConfiscatedLockupTxOutput(String lockupTxId) {
         return isConfiscated(lockupTxId);
     }
@@ -848,6 +864,7 @@ public class DaoStateService implements DaoSetupService {
                     paramChangeList.add(paramChange);
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+                    updateParamValueTimelines();
                 });
     }
 
@@ -867,22 +884,22 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public String getParamValue(Param param, int blockHeight) {
-        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
-        if (!paramChangeList.isEmpty()) {
-            // List is sorted by height, we start from latest entries to find most recent entry.
-            for (int i = paramChangeList.size() - 1; i >= 0; i--) {
-                ParamChange paramChange = paramChangeList.get(i);
-                if (paramChange.getParamName().equals(param.name()) &&
-                        blockHeight >= paramChange.getActivationHeight()) {
-                    return paramChange.getValue();
-                }
-            }
+        ParamValueTimeline paramValueTimeline = paramValueTimelinesByName.get(param.name());
+        if (paramValueTimeline != null) {
+            String value = paramValueTimeline.getValue(blockHeight);
+            if (value != null)
+                return value;
         }
 
         // If no value found we use default values
         return param.getDefaultValue();
     }
 
+    // Param changes are applied at most once per cycle, so we rebuild the timelines instead of updating them.
+    private void updateParamValueTimelines() {
+        paramValueTimelinesByName = ParamValueTimeline.fromParamChangeList(daoState.getParamChangeList());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // SpentInfo
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The values of one param sorted by activation height. Lookups use a binary search on the activation heights, so
+ * they don't need to copy or scan the paramChangeList and do not allocate any objects.
+ */
+@Immutable
+class ParamValueTimeline {
+    /**
+     * @param paramChangeList The param changes sorted by activation height
+     * @return The timelines by param name
+     */
+    static Map<String, ParamValueTimeline> fromParamChangeList(List<ParamChange> paramChangeList) {
+        Map<String, List<ParamChange>> paramChangesByName = new HashMap<>();
+        paramChangeList.forEach(paramChange -> paramChangesByName
+                .computeIfAbsent(paramChange.getParamName(), k -> new ArrayList<>())
+                .add(paramChange));
+
+        Map<String, ParamValueTimeline> timelinesByName = new HashMap<>();
+        paramChangesByName.forEach((paramName, paramChanges) ->
+                timelinesByName.put(paramName, new ParamValueTimeline(paramChanges)));
+        return timelinesByName;
+    }
+
+    private final int[] activationHeights;
+    private final String[] values;
+
+    private ParamValueTimeline(List<ParamChange> paramChanges) {
+        int[] activationHeights = new int[paramChanges.size()];
+        String[] values = new String[paramChanges.size()];
+        int size = 0;
+        for (ParamChange paramChange : paramChanges) {
+            // If there are multiple changes for the same height the latest one wins
+            if (size > 0 && activationHeights[size - 1] == paramChange.getActivationHeight())
+                size--;
+            activationHeights[size] = paramChange.getActivationHeight();
+            values[size] = paramChange.getValue();
+            size++;
+        }
+        this.activationHeights = Arrays.copyOf(activationHeights, size);
+        this.values = Arrays.copyOf(values, size);
+    }
+
+    // Returns the value of the latest change activated at or before blockHeight
+    @Nullable
+    String getValue(int blockHeight) {
+        int index = Arrays.binarySearch(activationHeights, blockHeight);
+        if (index >= 0)
+            return values[index];
+
+        int insertionPoint = -index - 1;
+        return insertionPoint > 0 ? values[insertionPoint - 1] : null;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lookup structures built once from a received Filter, so the checks called for each offer in the offer book do not
+ * iterate the filter lists. The accessors of the banned payment account rules are resolved once per payload class
+ * and get method name and shared by all compiled filters.
+ */
+@Slf4j
+final class CompiledFilter {
+    static final CompiledFilter EMPTY = new CompiledFilter(null);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final Map<Class<?>, Map<String, Optional<MethodHandle>>> accessorsByPayloadClass = new ConcurrentHashMap<>();
+
+    @Getter
+    @Nullable
+    private final Filter filter;
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethodIds;
+    private final Map<String, List<PaymentAccountFilter>> bannedPaymentAccountsByPaymentMethodId = new HashMap<>();
+
+    CompiledFilter(@Nullable Filter filter) {
+        this.filter = filter;
+        if (filter != null) {
+            bannedOfferIds = toSet(filter.getBannedOfferIds());
+            bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+            bannedCurrencies = toSet(filter.getBannedCurrencies());
+            bannedPaymentMethodIds = toSet(filter.getBannedPaymentMethods());
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter ->
+                    bannedPaymentAccountsByPaymentMethodId.computeIfAbsent(paymentAccountFilter.getPaymentMethodId(),
+                            e -> new ArrayList<>()).add(paymentAccountFilter));
+        } else {
+            bannedOfferIds = Collections.emptySet();
+            bannedNodeAddresses = Collections.emptySet();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethodIds = Collections.emptySet();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethodIds.contains(paymentMethodId);
+    }
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    // Returns the first rule matching the payment account data or null if none matches
+    @Nullable
+    PaymentAccountFilter getMatchingPaymentAccountFilter(PaymentAccountPayload paymentAccountPayload) {
+        List<PaymentAccountFilter> rules = bannedPaymentAccountsByPaymentMethodId.get(paymentAccountPayload.getPaymentMethodId());
+        if (rules == null)
+            return null;
+
+        for (PaymentAccountFilter paymentAccountFilter : rules) {
+            Optional<MethodHandle> accessor = getAccessor(paymentAccountPayload.getClass(), paymentAccountFilter.getGetMethodName());
+            if (accessor.isPresent()) {
+                try {
+                    Object result = accessor.get().invokeExact((Object) paymentAccountPayload);
+                    if (paymentAccountFilter.getValue().equals(result))
+                        return paymentAccountFilter;
+                } catch (Throwable e) {
+                    log.error(e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection != null ? new HashSet<>(collection) : Collections.emptySet();
+    }
+
+    // A missing get method is cached as empty Optional so we don't try to resolve it again
+    private static Optional<MethodHandle> getAccessor(Class<?> payloadClass, String getMethodName) {
+        return accessorsByPayloadClass.computeIfAbsent(payloadClass, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(getMethodName, e -> {
+                    try {
+                        MethodHandle methodHandle = MethodHandles.publicLookup().unreflect(payloadClass.getMethod(getMethodName));
+                        return Optional.of(methodHandle.asType(GETTER_TYPE));
+                    } catch (Throwable t) {
+                        log.error("Could not resolve method {} at {}. {}", getMethodName, payloadClass.getSimpleName(), t.getMessage());
+                        return Optional.empty();
+                    }
+                });
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.locale.CurrencyUtil;
+import bisq.core.monetary.Price;
+import bisq.core.provider.price.PriceFeedService;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the offers of the offer book per currency and direction sorted by price with the best price first, so the
+ * best bid/ask and the market depth are available without filtering and sorting all offers.
+ * It is updated incrementally from the OfferBookService listener and the prices of market based offers are
+ * calculated once per price feed update instead of at each access.
+ * The sort order is the same as used in the offer book chart: For fiat the buy offers are sorted by descending price
+ * and the sell offers by ascending price, for altcoins it is the other way round.
+ * Not thread safe, it is expected to be used at the user thread as the OfferBookService listeners.
+ */
+@Slf4j
+public class SortedOfferBook {
+    private final Map<String, Entry> entryByOfferId = new HashMap<>();
+    private final Map<String, Market> marketByCurrencyCode = new HashMap<>();
+    private final Set<String> marketBasedOfferIds = new HashSet<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public SortedOfferBook(OfferBookService offerBookService, PriceFeedService priceFeedService) {
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                add(offer);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                remove(offer.getId());
+            }
+        });
+        priceFeedService.updateCounterProperty().addListener((observable, oldValue, newValue) -> repriceMarketBasedOffers());
+
+        offerBookService.getOffers().forEach(this::add);
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    SortedOfferBook() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<Offer> getOffer(String offerId) {
+        return Optional.ofNullable(entryByOfferId.get(offerId)).map(Entry::getOffer);
+    }
+
+    public int size() {
+        return entryByOfferId.size();
+    }
+
+    // Currencies with at least one offer with a price
+    public Set<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(marketByCurrencyCode.keySet());
+    }
+
+    // Best price first. Offers without a price (market based offers without market price) are not included.
+    public List<Offer> getOffers(String currencyCode, OfferPayload.Direction direction) {
+        List<Offer> list = new ArrayList<>();
+        getEntries(currencyCode, direction).forEach(entry -> list.add(entry.getOffer()));
+        return list;
+    }
+
+    // Best offer of the offers where the maker buys BTC
+    public Optional<Offer> getBestBid(String currencyCode) {
+        return getBestOffer(currencyCode, OfferPayload.Direction.BUY);
+    }
+
+    // Best offer of the offers where the maker sells BTC
+    public Optional<Offer> getBestAsk(String currencyCode) {
+        return getBestOffer(currencyCode, OfferPayload.Direction.SELL);
+    }
+
+    public Optional<Offer> getBestOffer(String currencyCode, OfferPayload.Direction direction) {
+        NavigableSet<Entry> entries = getEntries(currencyCode, direction);
+        return entries.isEmpty() ? Optional.empty() : Optional.of(entries.first().getOffer());
+    }
+
+    // Best price first with the BTC amount accumulated over the offers up to that price level
+    public List<DepthEntry> getDepth(String currencyCode, OfferPayload.Direction direction, int maxEntries) {
+        List<DepthEntry> list = new ArrayList<>();
+        long accumulatedAmount = 0;
+        for (Entry entry : getEntries(currencyCode, direction)) {
+            if (list.size() >= maxEntries)
+                break;
+
+            accumulatedAmount += entry.getOffer().getAmount().value;
+            list.add(new DepthEntry(entry.getOffer(), entry.getPrice(), accumulatedAmount));
+        }
+        return list;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We get onAdded called every time a new ProtectedStorageEntry is received, so we replace an offer with the
+    // same ID.
+    void add(Offer offer) {
+        remove(offer.getId());
+
+        Entry entry = new Entry(offer, offer.getPrice());
+        entryByOfferId.put(offer.getId(), entry);
+        if (offer.isUseMarketBasedPrice())
+            marketBasedOfferIds.add(offer.getId());
+
+        if (entry.getPrice() != null)
+            getMarket(offer.getCurrencyCode()).getEntries(offer.getDirection()).add(entry);
+    }
+
+    void remove(String offerId) {
+        Entry entry = entryByOfferId.remove(offerId);
+        if (entry != null) {
+            marketBasedOfferIds.remove(offerId);
+            removeFromMarket(entry);
+        }
+    }
+
+    void repriceMarketBasedOffers() {
+        long ts = System.currentTimeMillis();
+        marketBasedOfferIds.forEach(offerId -> {
+            Entry entry = entryByOfferId.get(offerId);
+            // The price is part of the sort key, so we need to remove the entry before we change it
+            removeFromMarket(entry);
+            Offer offer = entry.getOffer();
+            Entry repricedEntry = new Entry(offer, offer.getPrice());
+            entryByOfferId.put(offerId, repricedEntry);
+            if (repricedEntry.getPrice() != null)
+                getMarket(offer.getCurrencyCode()).getEntries(offer.getDirection()).add(repricedEntry);
+        });
+        log.debug("Repricing of {} market based offers took {} ms", marketBasedOfferIds.size(), System.currentTimeMillis() - ts);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private NavigableSet<Entry> getEntries(String currencyCode, OfferPayload.Direction direction) {
+        Market market = marketByCurrencyCode.get(currencyCode);
+        return market != null ? Collections.unmodifiableNavigableSet(market.getEntries(direction)) : Collections.emptyNavigableSet();
+    }
+
+    private Market getMarket(String currencyCode) {
+        return marketByCurrencyCode.computeIfAbsent(currencyCode, e -> new Market(CurrencyUtil.isCryptoCurrency(currencyCode)));
+    }
+
+    private void removeFromMarket(Entry entry) {
+        if (entry.getPrice() == null)
+            return;
+
+        String currencyCode = entry.getOffer().getCurrencyCode();
+        Market market = marketByCurrencyCode.get(currencyCode);
+        if (market != null) {
+            market.getEntries(entry.getOffer().getDirection()).remove(entry);
+            if (market.isEmpty())
+                marketByCurrencyCode.remove(currencyCode);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Value classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    public static class DepthEntry {
+        private final Offer offer;
+        private final Price price;
+        // Sum of the BTC amounts of all offers with the same or a better price
+        private final long accumulatedAmount;
+    }
+
+    @Value
+    private static class Entry {
+        private final Offer offer;
+        @Nullable
+        private final Price price;
+    }
+
+    private static class Market {
+        private final NavigableSet<Entry> buyEntries;
+        private final NavigableSet<Entry> sellEntries;
+
+        Market(boolean isCryptoCurrency) {
+            Comparator<Entry> ascending = Comparator.comparingLong((Entry e) -> e.getPrice().getValue())
+                    .thenComparing(e -> e.getOffer().getId());
+            Comparator<Entry> descending = Comparator.comparingLong((Entry e) -> e.getPrice().getValue()).reversed()
+                    .thenComparing(e -> e.getOffer().getId());
+            buyEntries = new TreeSet<>(isCryptoCurrency ? ascending : descending);
+            sellEntries = new TreeSet<>(isCryptoCurrency ? descending : ascending);
+        }
+
+        NavigableSet<Entry> getEntries(OfferPayload.Direction direction) {
+            return direction == OfferPayload.Direction.BUY ? buyEntries : sellEntries;
+        }
+
+        boolean isEmpty() {
+            return buyEntries.isEmpty() && sellEntries.isEmpty();
+        }
+    }
+}
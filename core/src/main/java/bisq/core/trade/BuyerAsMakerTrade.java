@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.MakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -49,9 +48,9 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                              Coin takeOfferFee,
                              boolean isCurrencyForTakerFeeBtc,
                              @Nullable NodeAddress arbitratorNodeAddress,
-                             Storage<? extends TradableList> storage,
+                             @Nullable TradableList<? extends Tradable> tradableList,
                              BtcWalletService btcWalletService) {
-        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -67,7 +66,6 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
     }
 
     public static Tradable fromProto(PB.BuyerAsMakerTrade buyerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = buyerAsMakerTradeProto.getTrade();
@@ -77,7 +75,7 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
                 proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                storage,
+                null,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
@@ -25,7 +25,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -46,10 +45,10 @@ public abstract class BuyerTrade extends Trade {
                long tradePrice,
                NodeAddress tradingPeerNodeAddress,
                @Nullable NodeAddress arbitratorNodeAddress,
-               Storage<? extends TradableList> storage,
+               @Nullable TradableList<? extends Tradable> tradableList,
                BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, arbitratorNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     BuyerTrade(Offer offer,
@@ -57,9 +56,9 @@ public abstract class BuyerTrade extends Trade {
                Coin takerFee,
                boolean isCurrencyForTakerFeeBtc,
                @Nullable NodeAddress arbitratorNodeAddress,
-               Storage<? extends TradableList> storage,
+               @Nullable TradableList<? extends Tradable> tradableList,
                BtcWalletService btcWalletService) {
-        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     public void onFiatPaymentStarted(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
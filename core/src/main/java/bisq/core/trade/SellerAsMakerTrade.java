@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.SellerAsMakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -49,9 +48,9 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                               Coin takerFee,
                               boolean isCurrencyForTakerFeeBtc,
                               @Nullable NodeAddress arbitratorNodeAddress,
-                              Storage<? extends TradableList> storage,
+                              @Nullable TradableList<? extends Tradable> tradableList,
                               BtcWalletService btcWalletService) {
-        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
 
@@ -68,7 +67,6 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
     }
 
     public static Tradable fromProto(PB.SellerAsMakerTrade sellerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = sellerAsMakerTradeProto.getTrade();
@@ -78,7 +76,7 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
                 proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                storage,
+                null,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
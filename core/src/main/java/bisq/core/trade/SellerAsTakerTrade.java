@@ -25,7 +25,6 @@ import bisq.core.trade.protocol.TakerProtocol;
 
 import bisq.network.p2p.NodeAddress;
 
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -52,10 +51,10 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                               long tradePrice,
                               NodeAddress tradingPeerNodeAddress,
                               @Nullable NodeAddress arbitratorNodeAddress,
-                              Storage<? extends TradableList> storage,
+                              @Nullable TradableList<? extends Tradable> tradableList,
                               BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, arbitratorNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
 
@@ -72,7 +71,6 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
     }
 
     public static Tradable fromProto(PB.SellerAsTakerTrade sellerAsTakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = sellerAsTakerTradeProto.getTrade();
@@ -85,7 +83,7 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                         proto.getTradePrice(),
                         proto.hasTradingPeerNodeAddress() ? NodeAddress.fromProto(proto.getTradingPeerNodeAddress()) : null,
                         proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                        storage,
+                        null,
                         btcWalletService),
                 proto,
                 coreProtoResolver);
@@ -0,0 +1,202 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.common.crypto.Hash;
+import bisq.common.storage.FileUtil;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-ahead log of the changes of single tradables of a TradableList.
+ *
+ * The TradableList file is the checkpoint and is written in the same format as by the Storage. The journal next to it
+ * starts with the hash of the checkpoint it belongs to, followed by the changed tradables and the ids of removed ones.
+ * A new checkpoint resets the journal. If we crash after the checkpoint was written but before the journal was
+ * reset, the hash does not match anymore and the outdated journal gets ignored, as its changes are part of the
+ * checkpoint.
+ *
+ * Not thread safe, all calls are expected to come from one thread. Only isCheckpointDue can be called from another
+ * thread.
+ */
+@Slf4j
+public class TradableJournal {
+    static final String FILE_NAME_POSTFIX = "Journal";
+    // We write a new checkpoint once the journal has become larger than the checkpoint, so the replay at startup
+    // never costs more than reading the list a second time.
+    private static final long MIN_JOURNAL_SIZE_FOR_CHECKPOINT = 1024 * 1024;
+
+    private final File dir;
+    private final File checkpointFile;
+    @Getter
+    private final File journalFile;
+    private volatile long checkpointSize;
+    private volatile long journalSize;
+    @Getter
+    private boolean valid;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TradableJournal(File dir, String fileName) {
+        this.dir = dir;
+        checkpointFile = new File(dir, fileName);
+        journalFile = new File(dir, fileName + FILE_NAME_POSTFIX);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the changed tradables and removed ids since the last checkpoint. Sets valid to false if the journal is
+    // missing, belongs to another checkpoint or ends with an incomplete entry, so a new checkpoint is required.
+    public List<PB.TradableJournalEntry> read() {
+        List<PB.TradableJournalEntry> entries = new ArrayList<>();
+        valid = false;
+        if (!journalFile.exists())
+            return entries;
+
+        long ts = System.currentTimeMillis();
+        try (InputStream inputStream = new FileInputStream(journalFile)) {
+            byte[] checkpointHash = checkpointFile.exists() ?
+                    Hash.getSha256Hash(Files.readAllBytes(checkpointFile.toPath())) :
+                    new byte[0];
+            PB.TradableJournalEntry header = PB.TradableJournalEntry.parseDelimitedFrom(inputStream);
+            if (header == null || !Arrays.equals(checkpointHash, header.getCheckpointHash().toByteArray())) {
+                log.info("Journal {} does not belong to the current checkpoint and gets ignored", journalFile);
+                return entries;
+            }
+
+            while (true) {
+                PB.TradableJournalEntry entry;
+                try {
+                    entry = PB.TradableJournalEntry.parseDelimitedFrom(inputStream);
+                } catch (IOException e) {
+                    // A crash during an append can leave an incomplete last entry
+                    log.warn("Journal {} has an incomplete entry after {} entries. {}",
+                            journalFile, entries.size(), e.toString());
+                    return entries;
+                }
+                if (entry == null)
+                    break;
+
+                entries.add(entry);
+            }
+        } catch (IOException e) {
+            log.error("Could not read journal " + journalFile, e);
+            return entries;
+        }
+
+        valid = true;
+        checkpointSize = checkpointFile.length();
+        journalSize = journalFile.length();
+        log.info("Reading {} entries from journal {} took {} ms",
+                entries.size(), journalFile, System.currentTimeMillis() - ts);
+        return entries;
+    }
+
+    public void append(PB.TradableJournalEntry entry) throws IOException {
+        try (FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true)) {
+            entry.writeDelimitedTo(fileOutputStream);
+            fileOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        }
+        journalSize = journalFile.length();
+    }
+
+    public boolean isCheckpointDue() {
+        return journalSize > Math.max(MIN_JOURNAL_SIZE_FOR_CHECKPOINT, checkpointSize);
+    }
+
+    // Writes the whole list as new checkpoint and starts an empty journal for it.
+    public void writeCheckpoint(Message tradableListEnvelope) throws IOException {
+        writeCheckpoint(serializeCheckpoint(tradableListEnvelope));
+    }
+
+    // Same as above with the checkpoint created by serializeCheckpoint, so the list can be serialized on the thread
+    // which owns it.
+    public void writeCheckpoint(byte[] checkpoint) throws IOException {
+        long ts = System.currentTimeMillis();
+        writeAtomically(checkpointFile, checkpoint);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PB.TradableJournalEntry.newBuilder()
+                .setCheckpointHash(ByteString.copyFrom(Hash.getSha256Hash(checkpoint)))
+                .build()
+                .writeDelimitedTo(outputStream);
+        writeAtomically(journalFile, outputStream.toByteArray());
+
+        valid = true;
+        checkpointSize = checkpoint.length;
+        journalSize = journalFile.length();
+        log.debug("Writing checkpoint {} of {} bytes took {} ms",
+                checkpointFile, checkpoint.length, System.currentTimeMillis() - ts);
+    }
+
+
+    public static byte[] serializeCheckpoint(Message tradableListEnvelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        tradableListEnvelope.writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeAtomically(File file, byte[] bytes) throws IOException {
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed");
+
+        File tempFile = File.createTempFile("temp", null, dir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(bytes);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.error("Cannot delete temp file {}", tempFile);
+        }
+    }
+}
@@ -24,17 +24,29 @@ import bisq.core.proto.CoreProtoResolver;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.Message;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.io.File;
+import java.io.IOException;
+
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,11 +56,31 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
+/**
+ * If created with a storage dir the changes of single tradables are written to a TradableJournal and the whole list
+ * is only written as checkpoint once the journal has grown large enough. Otherwise the whole list is written with
+ * the storage at each change.
+ * <p/>
+ * The checkpoint has the format of the list file of older versions. We write a checkpoint at shutDown, so an older
+ * version still finds all changes after a downgrade. After a crash the changes since the last checkpoint are only in
+ * the journal, which older versions do not read, so a version with the journal has to be started once before a
+ * downgrade.
+ */
 @Slf4j
 public final class TradableList<T extends Tradable> implements PersistableEnvelope {
     transient final private Storage<TradableList<T>> storage;
+    @Nullable
+    transient private TradableJournal journal;
+    @Nullable
+    transient private ExecutorService executor;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Kept in sync with the list by a listener, so it also covers changes applied directly to the observable list
+    transient private final Map<String, T> tradableById = new HashMap<>();
+    // Set on the user thread once a checkpoint is scheduled and reset by the executor once it is written
+    transient private volatile boolean checkpointPending;
+    // Only accessed on the user thread
+    transient private boolean changedSinceCheckpoint;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -57,12 +89,34 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
+        addIndexListener();
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
             list.addAll(persisted.getList());
     }
 
+    public TradableList(Storage<TradableList<T>> storage,
+                        String fileName,
+                        File storageDir,
+                        PersistenceProtoResolver persistenceProtoResolver) {
+        this(storage, fileName);
+
+        journal = new TradableJournal(storageDir, fileName);
+        List<PB.TradableJournalEntry> entries = journal.read();
+        if (!entries.isEmpty())
+            replay(entries, persistenceProtoResolver);
+        if (!entries.isEmpty() || !journal.isValid()) {
+            try {
+                journal.writeCheckpoint(toProtoMessage());
+            } catch (IOException e) {
+                log.error("Could not write checkpoint " + fileName, e);
+            }
+        }
+
+        executor = Utilities.getSingleThreadExecutor("TradableJournal-" + fileName);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -70,6 +124,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
+        addIndexListener();
         this.list.addAll(list);
     }
 
@@ -95,13 +150,13 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
                         case OPEN_OFFER:
                             return OpenOffer.fromProto(tradable.getOpenOffer());
                         case BUYER_AS_MAKER_TRADE:
-                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), btcWalletService, coreProtoResolver);
                         case BUYER_AS_TAKER_TRADE:
-                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), btcWalletService, coreProtoResolver);
                         case SELLER_AS_MAKER_TRADE:
-                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), btcWalletService, coreProtoResolver);
                         case SELLER_AS_TAKER_TRADE:
-                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), btcWalletService, coreProtoResolver);
                         default:
                             log.error("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
                             throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
@@ -120,17 +175,32 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean add(T tradable) {
         boolean changed = list.add(tradable);
         if (changed)
-            storage.queueUpForSave();
+            persist(tradable);
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
-            storage.queueUpForSave();
+        if (changed) {
+            if (journal != null) {
+                append(PB.TradableJournalEntry.newBuilder().setRemovedTradableId(tradable.getId()).build());
+            } else {
+                storage.queueUpForSave();
+            }
+        }
         return changed;
     }
 
+    // Persists the state of a tradable which got changed. Tradables which are not in that list are ignored.
+    public void persist(Tradable tradable) {
+        if (journal != null) {
+            if (tradable.equals(tradableById.get(tradable.getId())))
+                append(PB.TradableJournalEntry.newBuilder().setTradable((PB.Tradable) tradable.toProtoMessage()).build());
+        } else {
+            storage.queueUpForSave();
+        }
+    }
+
     public Stream<T> stream() {
         return list.stream();
     }
@@ -144,6 +214,116 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     }
 
     public boolean contains(T thing) {
-        return list.contains(thing);
+        return thing.equals(tradableById.get(thing.getId()));
+    }
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradableById.get(id));
+    }
+
+    // Writes a checkpoint if the list got changed and waits until the journal and the checkpoint are written.
+    public void shutDown() {
+        if (executor == null)
+            return;
+
+        if (changedSinceCheckpoint)
+            writeCheckpoint();
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS))
+                log.warn("Not all changes of {} got persisted at shutdown", journal.getJournalFile());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addIndexListener() {
+        list.addListener((ListChangeListener<T>) c -> {
+            while (c.next()) {
+                c.getRemoved().forEach(tradable -> tradableById.remove(tradable.getId(), tradable));
+                c.getAddedSubList().forEach(tradable -> tradableById.put(tradable.getId(), tradable));
+            }
+        });
+    }
+
+    // We apply the entries to a map and set the list once, so we do not search the list for each entry and the list
+    // listeners get notified only once.
+    private void replay(List<PB.TradableJournalEntry> entries, PersistenceProtoResolver persistenceProtoResolver) {
+        Map<String, T> replayed = new LinkedHashMap<>();
+        list.forEach(tradable -> replayed.put(tradable.getId(), tradable));
+        entries.forEach(entry -> {
+            switch (entry.getMessageCase()) {
+                case TRADABLE:
+                    // We use the resolver as it provides all the dependencies required for creating the tradable
+                    //noinspection unchecked
+                    TradableList<T> tradableList = (TradableList<T>) persistenceProtoResolver.fromProto(
+                            PB.PersistableEnvelope.newBuilder()
+                                    .setTradableList(PB.TradableList.newBuilder().addTradable(entry.getTradable()))
+                                    .build());
+                    T tradable = tradableList.getList().get(0);
+                    // A changed tradable keeps its position in the list
+                    replayed.put(tradable.getId(), tradable);
+                    break;
+                case REMOVED_TRADABLE_ID:
+                    replayed.remove(entry.getRemovedTradableId());
+                    break;
+                default:
+                    log.warn("Unexpected journal entry {}", entry.getMessageCase());
+            }
+        });
+        list.setAll(replayed.values());
+    }
+
+    private void append(PB.TradableJournalEntry entry) {
+        changedSinceCheckpoint = true;
+        execute(() -> {
+            try {
+                journal.append(entry);
+            } catch (Throwable t) {
+                log.error("Could not write to journal", t);
+            }
+        });
+
+        // The journal size gets updated by the executor, so we might detect a due checkpoint one change later.
+        if (!checkpointPending && journal.isCheckpointDue())
+            writeCheckpoint();
+    }
+
+    // The list and the tradables are not thread safe, so we serialize the checkpoint here and only write it on the
+    // executor.
+    private void writeCheckpoint() {
+        byte[] checkpoint;
+        try {
+            checkpoint = TradableJournal.serializeCheckpoint(toProtoMessage());
+        } catch (IOException e) {
+            log.error("Could not serialize checkpoint", e);
+            return;
+        }
+        checkpointPending = true;
+        changedSinceCheckpoint = false;
+        execute(() -> {
+            try {
+                journal.writeCheckpoint(checkpoint);
+            } catch (Throwable t) {
+                log.error("Could not write checkpoint", t);
+            } finally {
+                checkpointPending = false;
+            }
+        });
+    }
+
+    // Changes after shutDown are written on the calling thread. The executor has terminated by then, so we still
+    // access the journal from one thread only.
+    private void execute(Runnable runnable) {
+        if (executor.isShutdown())
+            runnable.run();
+        else
+            executor.execute(runnable);
     }
 }
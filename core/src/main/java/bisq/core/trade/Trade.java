@@ -35,6 +35,7 @@ import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.proto.CoreProtoResolver;
 import bisq.core.trade.protocol.ProcessModel;
 import bisq.core.trade.protocol.TradeProtocol;
+import bisq.core.trade.protocol.TradeTaskLatencies;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.User;
@@ -48,7 +49,6 @@ import bisq.common.app.Log;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
-import bisq.common.storage.Storage;
 import bisq.common.taskrunner.Model;
 import bisq.common.util.Utilities;
 
@@ -342,7 +342,7 @@ public abstract class Trade implements Tradable, Model {
     @Getter
     transient final private Coin takerFee;
     @Getter // to set in constructor so not final but set at init
-    transient private Storage<? extends TradableList> storage;
+    transient private TradableList<? extends Tradable> tradableList;
     @Getter // to set in constructor so not final but set at init
     transient private BtcWalletService btcWalletService;
 
@@ -377,13 +377,13 @@ public abstract class Trade implements Tradable, Model {
                     Coin takerFee,
                     boolean isCurrencyForTakerFeeBtc,
                     @Nullable NodeAddress arbitratorNodeAddress,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? extends Tradable> tradableList,
                     BtcWalletService btcWalletService) {
         this.offer = offer;
         this.txFee = txFee;
         this.takerFee = takerFee;
         this.isCurrencyForTakerFeeBtc = isCurrencyForTakerFeeBtc;
-        this.storage = storage;
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
         this.arbitratorNodeAddress = arbitratorNodeAddress;
 
@@ -404,10 +404,10 @@ public abstract class Trade implements Tradable, Model {
                     long tradePrice,
                     NodeAddress tradingPeerNodeAddress,
                     @Nullable NodeAddress arbitratorNodeAddress,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? extends Tradable> tradableList,
                     BtcWalletService btcWalletService) {
 
-        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
         this.tradePrice = tradePrice;
         this.tradingPeerNodeAddress = tradingPeerNodeAddress;
 
@@ -484,8 +484,8 @@ public abstract class Trade implements Tradable, Model {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void setTransientFields(Storage<? extends TradableList> storage, BtcWalletService btcWalletService) {
-        this.storage = storage;
+    public void setTransientFields(TradableList<? extends Tradable> tradableList, BtcWalletService btcWalletService) {
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
     }
 
@@ -501,6 +501,7 @@ public abstract class Trade implements Tradable, Model {
                      AccountAgeWitnessService accountAgeWitnessService,
                      TradeStatisticsManager tradeStatisticsManager,
                      ArbitratorManager arbitratorManager,
+                     TradeTaskLatencies tradeTaskLatencies,
                      KeyRing keyRing,
                      boolean useSavingsWallet,
                      Coin fundsNeededForTrade) {
@@ -518,6 +519,7 @@ public abstract class Trade implements Tradable, Model {
                 accountAgeWitnessService,
                 tradeStatisticsManager,
                 arbitratorManager,
+                tradeTaskLatencies,
                 keyRing,
                 useSavingsWallet,
                 fundsNeededForTrade);
@@ -595,8 +597,8 @@ public abstract class Trade implements Tradable, Model {
     // Get called from taskRunner after each completed task
     @Override
     public void persist() {
-        if (storage != null)
-            storage.queueUpForSave();
+        if (tradableList != null)
+            tradableList.persist(this);
     }
 
     @Override
@@ -977,7 +979,7 @@ public abstract class Trade implements Tradable, Model {
                 ",\n     errorMessage='" + errorMessage + '\'' +
                 ",\n     txFee=" + txFee +
                 ",\n     takerFee=" + takerFee +
-                ",\n     storage=" + storage +
+                ",\n     tradableList=" + tradableList +
                 ",\n     btcWalletService=" + btcWalletService +
                 ",\n     stateProperty=" + stateProperty +
                 ",\n     statePhaseProperty=" + statePhaseProperty +
@@ -36,6 +36,7 @@ import bisq.core.trade.failed.FailedTradesManager;
 import bisq.core.trade.handlers.TradeResultHandler;
 import bisq.core.trade.messages.PayDepositRequest;
 import bisq.core.trade.messages.TradeMessage;
+import bisq.core.trade.protocol.TradeTaskLatencies;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.User;
@@ -118,9 +119,12 @@ public class TradeManager implements PersistedDataHost {
     private final ReferralIdService referralIdService;
     private final AccountAgeWitnessService accountAgeWitnessService;
     private final ArbitratorManager arbitratorManager;
+    private final TradeTaskLatencies tradeTaskLatencies;
     private final Clock clock;
 
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
     private TradableList<Trade> tradableList;
     private final BooleanProperty pendingTradesInitialized = new SimpleBooleanProperty();
     private List<Trade> tradesForStatistics;
@@ -152,6 +156,7 @@ public class TradeManager implements PersistedDataHost {
                         PersistenceProtoResolver persistenceProtoResolver,
                         AccountAgeWitnessService accountAgeWitnessService,
                         ArbitratorManager arbitratorManager,
+                        TradeTaskLatencies tradeTaskLatencies,
                         Clock clock,
                         @Named(Storage.STORAGE_DIR) File storageDir) {
         this.user = user;
@@ -169,8 +174,12 @@ public class TradeManager implements PersistedDataHost {
         this.referralIdService = referralIdService;
         this.accountAgeWitnessService = accountAgeWitnessService;
         this.arbitratorManager = arbitratorManager;
+        this.tradeTaskLatencies = tradeTaskLatencies;
         this.clock = clock;
 
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
         p2PService.addDecryptedDirectMessageListener((decryptedMessageWithPubKey, peerNodeAddress) -> {
@@ -188,7 +197,7 @@ public class TradeManager implements PersistedDataHost {
             if (networkEnvelope instanceof TradeMessage) {
                 TradeMessage tradeMessage = (TradeMessage) networkEnvelope;
                 String tradeId = tradeMessage.getTradeId();
-                Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
+                Optional<Trade> tradeOptional = tradableList.getTradableById(tradeId);
                 // The mailbox message will be removed inside the tasks after they are processed successfully
                 tradeOptional.ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
             } else if (networkEnvelope instanceof AckMessage) {
@@ -209,9 +218,9 @@ public class TradeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
+        tradableList = new TradableList<>(tradableListStorage, "PendingTrades", storageDir, persistenceProtoResolver);
         tradableList.forEach(trade -> {
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(tradableList, btcWalletService);
             Offer offer = trade.getOffer();
             if (offer != null)
                 offer.setPriceFeedService(priceFeedService);
@@ -242,6 +251,10 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void shutDown() {
+        if (tradableList != null)
+            tradableList.shutDown();
+        closedTradableManager.shutDown();
+        failedTradesManager.shutDown();
     }
 
     private void initPendingTrades() {
@@ -265,6 +278,10 @@ public class TradeManager implements PersistedDataHost {
                 }
         );
 
+        tradableList.stream()
+                .filter(Trade::isFundsLockedIn)
+                .forEach(this::preconnect);
+
         addTradeToFailedTradesList.forEach(this::addTradeToFailedTrades);
 
         removePreparedTradeList.forEach(this::removePreparedTrade);
@@ -327,7 +344,7 @@ public class TradeManager implements PersistedDataHost {
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
                         openOffer.getArbitratorNodeAddress(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
             else
                 trade = new SellerAsMakerTrade(offer,
@@ -335,7 +352,7 @@ public class TradeManager implements PersistedDataHost {
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
                         openOffer.getArbitratorNodeAddress(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
 
             initTrade(trade, trade.getProcessModel().isUseSavingsWallet(), trade.getProcessModel().getFundsNeededForTradeAsLong());
@@ -344,6 +361,7 @@ public class TradeManager implements PersistedDataHost {
                 if (takeOfferRequestErrorMessageHandler != null)
                     takeOfferRequestErrorMessageHandler.handleErrorMessage(errorMessage);
             });
+            preconnect(trade);
         } else {
             // TODO respond
             //(RequestDepositTxInputsMessage)message.
@@ -352,6 +370,15 @@ public class TradeManager implements PersistedDataHost {
         }
     }
 
+    // We will likely exchange messages with the trading peer and with the arbitrator in case of a dispute, so we let
+    // the connections get established in the background. Existing connections are kept.
+    private void preconnect(Trade trade) {
+        if (trade.getTradingPeerNodeAddress() != null)
+            p2PService.preconnect(trade.getTradingPeerNodeAddress());
+        if (trade.getDisputeState() != Trade.DisputeState.NO_DISPUTE && trade.getArbitratorNodeAddress() != null)
+            p2PService.preconnect(trade.getArbitratorNodeAddress());
+    }
+
     private void initTrade(Trade trade, boolean useSavingsWallet, Coin fundsNeededForTrade) {
         trade.init(p2PService,
                 btcWalletService,
@@ -365,6 +392,7 @@ public class TradeManager implements PersistedDataHost {
                 accountAgeWitnessService,
                 tradeStatisticsManager,
                 arbitratorManager,
+                tradeTaskLatencies,
                 keyRing,
                 useSavingsWallet,
                 fundsNeededForTrade);
@@ -446,7 +474,7 @@ public class TradeManager implements PersistedDataHost {
                     tradePrice,
                     model.getPeerNodeAddress(),
                     model.getSelectedArbitrator(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
         else
             trade = new BuyerAsTakerTrade(offer,
@@ -457,7 +485,7 @@ public class TradeManager implements PersistedDataHost {
                     tradePrice,
                     model.getPeerNodeAddress(),
                     model.getSelectedArbitrator(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
 
         trade.setTakerPaymentAccountId(paymentAccountId);
@@ -466,6 +494,7 @@ public class TradeManager implements PersistedDataHost {
 
         tradableList.add(trade);
         ((TakerTrade) trade).takeAvailableOffer();
+        preconnect(trade);
         tradeResultHandler.handleResult(trade);
     }
 
@@ -582,7 +611,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
@@ -46,6 +46,8 @@ import java.util.stream.Stream;
 
 public class ClosedTradableManager implements PersistedDataHost {
     private final Storage<TradableList<Tradable>> tradableListStorage;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
     private TradableList<Tradable> closedTradables;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
@@ -59,6 +61,8 @@ public class ClosedTradableManager implements PersistedDataHost {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
         // The ClosedTrades object can become a few MB so we don't keep so many backups
         tradableListStorage.setNumMaxBackupFiles(3);
@@ -67,17 +71,25 @@ public class ClosedTradableManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
+        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades", storageDir, persistenceProtoResolver);
         closedTradables.forEach(tradable -> {
             tradable.getOffer().setPriceFeedService(priceFeedService);
             if (tradable instanceof Trade) {
                 Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
+                trade.setTransientFields(closedTradables, btcWalletService);
             }
         });
     }
 
+    public void shutDown() {
+        if (closedTradables != null)
+            closedTradables.shutDown();
+    }
+
     public void add(Tradable tradable) {
+        // Later changes of the trade get persisted in our list
+        if (tradable instanceof Trade)
+            ((Trade) tradable).setTransientFields(closedTradables, btcWalletService);
         closedTradables.add(tradable);
     }
 
@@ -97,7 +109,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
@@ -49,6 +49,8 @@ public class FailedTradesManager implements PersistedDataHost {
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
 
     @Inject
     public FailedTradesManager(KeyRing keyRing, PriceFeedService priceFeedService,
@@ -58,23 +60,33 @@ public class FailedTradesManager implements PersistedDataHost {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
     }
 
     @Override
     public void readPersisted() {
-        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
+        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades", storageDir, persistenceProtoResolver);
         failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
         failedTrades.forEach(trade -> {
             trade.getOffer().setPriceFeedService(priceFeedService);
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(failedTrades, btcWalletService);
         });
     }
 
+    public void shutDown() {
+        if (failedTrades != null)
+            failedTrades.shutDown();
+    }
+
     public void add(Trade trade) {
-        if (!failedTrades.contains(trade))
+        if (!failedTrades.contains(trade)) {
+            // Later changes of the trade get persisted in our list
+            trade.setTransientFields(failedTrades, btcWalletService);
             failedTrades.add(trade);
+        }
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -86,7 +98,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
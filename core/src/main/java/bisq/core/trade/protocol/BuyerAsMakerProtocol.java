@@ -67,14 +67,14 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
 
         Trade.Phase phase = trade.getState().getPhase();
         if (phase == Trade.Phase.TAKER_FEE_PUBLISHED) {
-            TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, trade,
                     () -> handleTaskRunnerSuccess("MakerSetupDepositTxListener"),
                     this::handleTaskRunnerFault);
 
             taskRunner.addTasks(MakerSetupDepositTxListener.class);
             taskRunner.run();
         } else if (trade.isFiatSent() && !trade.isPayoutPublished()) {
-            TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, trade,
                     () -> handleTaskRunnerSuccess("BuyerSetupPayoutTxListener"),
                     this::handleTaskRunnerFault);
 
@@ -121,7 +121,7 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(peerNodeAddress);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsMakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "handleTakeOfferRequest"),
                 errorMessage -> {
                     errorMessageHandler.handleErrorMessage(errorMessage);
@@ -152,7 +152,7 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(peerNodeAddress);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsMakerTrade,
                 () -> {
                     handleTaskRunnerSuccess(tradeMessage, "handle DepositTxPublishedMessage");
                 },
@@ -176,7 +176,7 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
     public void onFiatPaymentStarted(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         if (trade.isDepositConfirmed() && !trade.isFiatSent()) {
             buyerAsMakerTrade.setState(Trade.State.BUYER_CONFIRMED_IN_UI_FIAT_PAYMENT_INITIATED);
-            TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsMakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsMakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentStarted");
@@ -208,7 +208,7 @@ public class BuyerAsMakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(peerNodeAddress);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsMakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "handle PayoutTxPublishedMessage"),
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
@@ -67,7 +67,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.getTradingPeer().setPubKeyRing(trade.getOffer().getPubKeyRing());
 
         if (trade.isFiatSent() && !trade.isPayoutPublished()) {
-            TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, trade,
                     () -> handleTaskRunnerSuccess("BuyerSetupPayoutTxListener"),
                     this::handleTaskRunnerFault);
 
@@ -108,7 +108,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
 
     @Override
     public void takeAvailableOffer() {
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsTakerTrade,
                 () -> handleTaskRunnerSuccess("takeAvailableOffer"),
                 this::handleTaskRunnerFault);
 
@@ -136,7 +136,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsTakerTrade,
                 () -> {
                     stopTimeout();
                     handleTaskRunnerSuccess(tradeMessage, "PublishDepositTxRequest");
@@ -167,7 +167,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
         if (!trade.isFiatSent()) {
             buyerAsTakerTrade.setState(Trade.State.BUYER_CONFIRMED_IN_UI_FIAT_PAYMENT_INITIATED);
 
-            TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsTakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsTakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentStarted");
@@ -200,7 +200,7 @@ public class BuyerAsTakerProtocol extends TradeProtocol implements BuyerProtocol
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(peerNodeAddress);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(buyerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, buyerAsTakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "handle PayoutTxPublishedMessage"),
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
@@ -89,6 +89,7 @@ public class ProcessModel implements Model, PersistablePayload {
     transient private KeyRing keyRing;
     transient private P2PService p2PService;
     transient private ReferralIdService referralIdService;
+    transient private TradeTaskLatencies tradeTaskLatencies;
 
     // Transient/Mutable
     transient private Transaction takeOfferFeeTx;
@@ -235,6 +236,7 @@ public class ProcessModel implements Model, PersistablePayload {
                                          AccountAgeWitnessService accountAgeWitnessService,
                                          TradeStatisticsManager tradeStatisticsManager,
                                          ArbitratorManager arbitratorManager,
+                                         TradeTaskLatencies tradeTaskLatencies,
                                          KeyRing keyRing,
                                          boolean useSavingsWallet,
                                          Coin fundsNeededForTrade) {
@@ -250,6 +252,7 @@ public class ProcessModel implements Model, PersistablePayload {
         this.accountAgeWitnessService = accountAgeWitnessService;
         this.tradeStatisticsManager = tradeStatisticsManager;
         this.arbitratorManager = arbitratorManager;
+        this.tradeTaskLatencies = tradeTaskLatencies;
         this.keyRing = keyRing;
         this.p2PService = p2PService;
         this.useSavingsWallet = useSavingsWallet;
@@ -68,7 +68,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
 
         Trade.Phase phase = trade.getState().getPhase();
         if (phase == Trade.Phase.TAKER_FEE_PUBLISHED) {
-            TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, trade,
                     () -> handleTaskRunnerSuccess("MakerSetupDepositTxListener"),
                     this::handleTaskRunnerFault);
 
@@ -115,7 +115,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsMakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "handleTakeOfferRequest"),
                 errorMessage -> {
                     errorMessageHandler.handleErrorMessage(errorMessage);
@@ -148,7 +148,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsMakerTrade,
                 () -> {
                     handleTaskRunnerSuccess(tradeMessage, "DepositTxPublishedMessage");
                 },
@@ -172,7 +172,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsMakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsMakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "CounterCurrencyTransferStartedMessage"),
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
@@ -194,7 +194,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
     public void onFiatPaymentReceived(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         if (trade.getPayoutTx() == null) {
             sellerAsMakerTrade.setState(Trade.State.SELLER_CONFIRMED_IN_UI_FIAT_PAYMENT_RECEIPT);
-            TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsMakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsMakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentReceived 1");
@@ -219,7 +219,7 @@ public class SellerAsMakerProtocol extends TradeProtocol implements SellerProtoc
                     "That can happen if message did not arrive first time and we send msg again.\n" +
                     "state=" + sellerAsMakerTrade.getState());
 
-            TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsMakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsMakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentReceived 2");
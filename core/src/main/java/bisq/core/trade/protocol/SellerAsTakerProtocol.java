@@ -99,7 +99,7 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
 
     @Override
     public void takeAvailableOffer() {
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsTakerTrade,
                 () -> handleTaskRunnerSuccess("takeAvailableOffer"),
                 this::handleTaskRunnerFault);
 
@@ -127,7 +127,7 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsTakerTrade,
                 () -> {
                     stopTimeout();
                     handleTaskRunnerSuccess(tradeMessage, "PublishDepositTxRequest");
@@ -157,7 +157,7 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
         processModel.setTradeMessage(tradeMessage);
         processModel.setTempTradingPeerNodeAddress(sender);
 
-        TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsTakerTrade,
+        TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsTakerTrade,
                 () -> handleTaskRunnerSuccess(tradeMessage, "CounterCurrencyTransferStartedMessage"),
                 errorMessage -> handleTaskRunnerFault(tradeMessage, errorMessage));
 
@@ -179,7 +179,7 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
     public void onFiatPaymentReceived(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         if (trade.getPayoutTx() == null) {
             sellerAsTakerTrade.setState(Trade.State.SELLER_CONFIRMED_IN_UI_FIAT_PAYMENT_RECEIPT);
-            TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsTakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsTakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentReceived 1");
@@ -204,7 +204,7 @@ public class SellerAsTakerProtocol extends TradeProtocol implements SellerProtoc
                     "That can happen if message did not arrive first time and we send msg again.\n" +
                     "state=" + sellerAsTakerTrade.getState());
 
-            TradeTaskRunner taskRunner = new TradeTaskRunner(sellerAsTakerTrade,
+            TradeTaskRunner taskRunner = new TradeTaskRunner(this, sellerAsTakerTrade,
                     () -> {
                         resultHandler.handleResult();
                         handleTaskRunnerSuccess("onFiatPaymentReceived 2");
@@ -105,6 +105,9 @@ public abstract class TradeProtocol {
     public void completed() {
         cleanup();
 
+        log.info("Task latencies of {}: {}", getClass().getSimpleName(),
+                processModel.getTradeTaskLatencies().getHistogram(getClass()));
+
         // We only removed earlier the listner here, but then we migth have dangling trades after faults...
         // so lets remove it at cleanup
         //processModel.getP2PService().removeDecryptedDirectMessageListener(decryptedDirectMessageListener);
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.protocol;
+
+import bisq.common.taskrunner.TaskLatencyHistogram;
+
+import javax.inject.Inject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Task durations of all trades, grouped by the protocol class (taker, maker, buyer, seller).
+ */
+public class TradeTaskLatencies {
+    private final Map<String, TaskLatencyHistogram> histogramByProtocol = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TradeTaskLatencies() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TaskLatencyHistogram getHistogram(Class<? extends TradeProtocol> protocolClass) {
+        return histogramByProtocol.computeIfAbsent(protocolClass.getSimpleName(), e -> new TaskLatencyHistogram());
+    }
+
+    // Sorted by protocol name
+    public Map<String, TaskLatencyHistogram> getHistogramByProtocol() {
+        return Collections.unmodifiableMap(new TreeMap<>(histogramByProtocol));
+    }
+}
@@ -25,8 +25,11 @@ import bisq.common.taskrunner.TaskRunner;
 
 public class TradeTaskRunner extends TaskRunner<Trade> {
 
-    public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
+    public TradeTaskRunner(TradeProtocol tradeProtocol, Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         //noinspection unchecked
         super(sharedModel, (Class<Trade>) sharedModel.getClass().getSuperclass().getSuperclass(), resultHandler, errorMessageHandler);
+        // We keep persisting after each task (the default), so changes of the ProcessModel survive a crash in the
+        // middle of a task sequence. The TradableList journal only appends the changed trade for it.
+        setTaskLatencyHistogram(sharedModel.getProcessModel().getTradeTaskLatencies().getHistogram(tradeProtocol.getClass()));
     }
 }
@@ -60,6 +60,10 @@ public class AssetTradeActivityCheck {
     }
 
     public void onAllServicesInitialized() {
+        // The result is only logged at debug level, so we don't load the trade statistics if it would not get printed.
+        if (!log.isDebugEnabled())
+            return;
+
         Date compareDate = new Date(new Date().getTime() - Duration.ofDays(120).toMillis());
         long minTradeAmount = Coin.parseCoin("0.01").value;
         long minNumOfTrades = 3;
@@ -17,17 +17,23 @@
 
 package bisq.core.trade.statistics;
 
+import bisq.core.app.AppOptionKeys;
+
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.persistence.LazyPayloadMap;
 import bisq.network.p2p.storage.persistence.MapStoreService;
 
 import bisq.common.storage.Storage;
 
+import io.bisq.generated.protobuffer.PB;
+
 import com.google.inject.name.Named;
 
 import javax.inject.Inject;
 
 import java.io.File;
+import java.io.IOException;
 
 import java.util.Map;
 
@@ -38,6 +44,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 public class TradeStatistics2StorageService extends MapStoreService<TradeStatistics2Store, PersistableNetworkPayload> {
     private static final String FILE_NAME = "TradeStatistics2Store";
+    // Max. number of decoded TradeStatistics2 objects we keep if the store is loaded lazily
+    private static final int MAX_CACHE_SIZE = 2000;
+
+    private final boolean lazyLoadResourceStores;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -46,8 +56,10 @@ public class TradeStatistics2StorageService extends MapStoreService<TradeStatist
 
     @Inject
     public TradeStatistics2StorageService(@Named(Storage.STORAGE_DIR) File storageDir,
-                                          Storage<TradeStatistics2Store> persistableNetworkPayloadMapStorage) {
+                                          Storage<TradeStatistics2Store> persistableNetworkPayloadMapStorage,
+                                          @Named(AppOptionKeys.LAZY_LOAD_RESOURCE_STORES) boolean lazyLoadResourceStores) {
         super(storageDir, persistableNetworkPayloadMapStorage);
+        this.lazyLoadResourceStores = lazyLoadResourceStores;
     }
 
 
@@ -82,9 +94,36 @@ public class TradeStatistics2StorageService extends MapStoreService<TradeStatist
 
     @Override
     protected void readStore() {
+        if (lazyLoadResourceStores && readStoreLazily())
+            return;
+
         super.readStore();
         checkArgument(store instanceof TradeStatistics2Store,
                 "Store is not instance of TradeStatistics2Store. That can happen if the ProtoBuffer " +
                         "file got changed. We clear the data store and recreated it again.");
     }
+
+    // We only build an index of the hashes and decode the TradeStatistics2 objects when they are accessed.
+    // Returns false if the file does not exist or cannot be indexed, in which case we read it the usual way.
+    private boolean readStoreLazily() {
+        File storageFile = new File(absolutePathOfStorageDir, getFileName());
+        if (!storageFile.exists())
+            return false;
+
+        try {
+            LazyPayloadMap map = LazyPayloadMap.fromFile(storageFile,
+                    PB.PersistableEnvelope.TRADE_STATISTICS2_STORE_FIELD_NUMBER,
+                    PB.TradeStatistics2.HASH_FIELD_NUMBER,
+                    PB.PersistableNetworkPayload.TRADE_STATISTICS2_FIELD_NUMBER,
+                    TradeStatistics2.class,
+                    bytes -> TradeStatistics2.fromProto(PB.TradeStatistics2.parseFrom(bytes)),
+                    MAX_CACHE_SIZE);
+            storage.initWithFileName(getFileName(), 100);
+            store = new TradeStatistics2Store(map);
+            return true;
+        } catch (IOException e) {
+            log.error("Could not read {} lazily. We read it the usual way. {}", getFileName(), e.toString());
+            return false;
+        }
+    }
 }
@@ -19,13 +19,18 @@ package bisq.core.trade.statistics;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.persistence.LazyPayloadMap;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.SerializedPersistableEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.Message;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,13 +45,18 @@ import lombok.extern.slf4j.Slf4j;
  * definition and provide a hashMap for the domain access.
  */
 @Slf4j
-public class TradeStatistics2Store implements PersistableEnvelope {
+public class TradeStatistics2Store implements SerializedPersistableEnvelope {
     @Getter
     private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
 
     TradeStatistics2Store() {
     }
 
+    // Used if the store file is decoded lazily
+    TradeStatistics2Store(LazyPayloadMap map) {
+        this.map = map;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -70,6 +80,18 @@ public class TradeStatistics2Store implements PersistableEnvelope {
         return PB.TradeStatistics2Store.newBuilder().addAllItems(protoList);
     }
 
+    @Override
+    public void writeDelimitedTo(OutputStream outputStream) throws IOException {
+        if (map instanceof LazyPayloadMap) {
+            // We copy the serialized payloads instead of decoding and encoding them again
+            ((LazyPayloadMap) map).writeDelimitedTo(outputStream,
+                    PB.PersistableEnvelope.TRADE_STATISTICS2_STORE_FIELD_NUMBER,
+                    payload -> ((TradeStatistics2) payload).toProtoTradeStatistics2().toByteArray());
+        } else {
+            toProtoMessage().writeDelimitedTo(outputStream);
+        }
+    }
+
     public static PersistableEnvelope fromProto(PB.TradeStatistics2Store proto) {
         List<TradeStatistics2> list = proto.getItemsList().stream()
                 .map(TradeStatistics2::fromProto).collect(Collectors.toList());
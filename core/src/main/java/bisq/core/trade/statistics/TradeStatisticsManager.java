@@ -62,7 +62,11 @@ public class TradeStatisticsManager {
     private final PriceFeedService priceFeedService;
     private final ReferralIdService referralIdService;
     private final boolean dumpStatistics;
+    private final boolean lazyLoadResourceStores;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    // Statistics of our own trades which got published before the trade statistics have been loaded
+    private final List<TradeStatistics2> pendingTradeStatistics = new ArrayList<>();
+    private boolean tradeStatisticsLoaded;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -71,11 +75,13 @@ public class TradeStatisticsManager {
                                   AppendOnlyDataStoreService appendOnlyDataStoreService,
                                   ReferralIdService referralIdService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
-                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
+                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics,
+                                  @Named(AppOptionKeys.LAZY_LOAD_RESOURCE_STORES) boolean lazyLoadResourceStores) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.referralIdService = referralIdService;
         this.dumpStatistics = dumpStatistics;
+        this.lazyLoadResourceStores = lazyLoadResourceStores;
         jsonFileManager = new JsonFileManager(storageDir);
 
         appendOnlyDataStoreService.addService(tradeStatistics2StorageService);
@@ -95,20 +101,18 @@ public class TradeStatisticsManager {
             jsonFileManager.writeToDisc(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
         }
 
+        // Payloads received before the trade statistics are loaded are already in the store and get picked up
+        // when loading.
         p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof TradeStatistics2)
+            if (payload instanceof TradeStatistics2 && tradeStatisticsLoaded)
                 addToMap((TradeStatistics2) payload, true);
         });
 
-        Map<String, TradeStatistics2> map = new HashMap<>();
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().stream()
-                .filter(e -> e instanceof TradeStatistics2)
-                .forEach(e -> addToMap((TradeStatistics2) e, map));
-        observableTradeStatisticsSet.addAll(map.values());
-
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
-
-        dump();
+        // With lazy loaded resource stores we only decode the trade statistics once they are requested, e.g. when
+        // the trade charts get opened. The bisq market price derived from the statistics is applied at that moment.
+        // For dumping the statistics we need all of them at startup.
+        if (!lazyLoadResourceStores || dumpStatistics)
+            loadTradeStatistics();
     }
 
     public void publishTradeStatistics(List<Trade> trades) {
@@ -129,7 +133,10 @@ public class TradeStatisticsManager {
                     trade.getDate(),
                     (trade.getDepositTx() != null ? trade.getDepositTx().getHashAsString() : ""),
                     extraDataMap);
-            addToMap(tradeStatistics, true);
+            if (tradeStatisticsLoaded)
+                addToMap(tradeStatistics, true);
+            else
+                pendingTradeStatistics.add(tradeStatistics);
 
             // We only republish trades from last 10 days
             if ((new Date().getTime() - trade.getDate().getTime()) < TimeUnit.DAYS.toMillis(10)) {
@@ -144,9 +151,28 @@ public class TradeStatisticsManager {
     }
 
     public ObservableSet<TradeStatistics2> getObservableTradeStatisticsSet() {
+        if (!tradeStatisticsLoaded)
+            loadTradeStatistics();
+
         return observableTradeStatisticsSet;
     }
 
+    private void loadTradeStatistics() {
+        tradeStatisticsLoaded = true;
+        long ts = System.currentTimeMillis();
+        Map<String, TradeStatistics2> map = new HashMap<>();
+        p2PService.getP2PDataStorage().getAppendOnlyDataStorePayloads(TradeStatistics2.class)
+                .forEach(e -> addToMap(e, map));
+        pendingTradeStatistics.forEach(e -> addToMap(e, map));
+        pendingTradeStatistics.clear();
+        observableTradeStatisticsSet.addAll(map.values());
+        log.info("Loading {} trade statistics took {} ms", map.size(), System.currentTimeMillis() - ts);
+
+        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+
+        dump();
+    }
+
     private void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
         if (!observableTradeStatisticsSet.contains(tradeStatistics)) {
             boolean itemAlreadyAdded = observableTradeStatisticsSet.stream()
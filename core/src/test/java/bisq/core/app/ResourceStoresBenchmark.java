@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.app;
+
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.AccountAgeWitness;
+import bisq.core.payment.AccountAgeWitnessStorageService;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatistics2StorageService;
+
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+
+import bisq.common.app.StartupTimeline;
+import bisq.common.crypto.Hash;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares reading the resource stores sequentially and concurrently and checks the phases of the startup
+ * timeline. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*ResourceStoresBenchmark'
+ */
+public class ResourceStoresBenchmark {
+    private static final int NUM_TRADE_STATISTICS = 50_000;
+    private static final int NUM_ACCOUNT_AGE_WITNESSES = 200_000;
+
+    @Test
+    public void benchmarkReadFromResources() throws Exception {
+        // Each mode runs twice, the first runs include the warm up
+        for (boolean concurrent : new boolean[]{false, true, false, true}) {
+            File storageDir = Files.createTempDirectory("ResourceStoresBenchmark").toFile();
+            ExecutorService executorService = Utilities.getFixedThreadPoolExecutor("ResourceStoresBenchmark",
+                    Runtime.getRuntime().availableProcessors());
+            try {
+                File tradeStatisticsFile = writeTradeStatistics2Store(storageDir);
+                File accountAgeWitnessFile = writeAccountAgeWitnessStore(storageDir);
+
+                CorePersistenceProtoResolver resolver = new CorePersistenceProtoResolver(null, null, storageDir);
+                AppendOnlyDataStoreService appendOnlyDataStoreService = new AppendOnlyDataStoreService(null);
+                appendOnlyDataStoreService.addService(new TradeStatistics2StorageService(storageDir,
+                        new Storage<>(storageDir, resolver), false));
+                appendOnlyDataStoreService.addService(new AccountAgeWitnessStorageService(storageDir,
+                        new Storage<>(storageDir, resolver)));
+                StartupTimeline startupTimeline = new StartupTimeline();
+
+                Executor executor = concurrent ? executorService : Runnable::run;
+                long ts = System.currentTimeMillis();
+                appendOnlyDataStoreService.readFromResources("_BTC_REGTEST", executor, startupTimeline).join();
+                System.out.println("Reading the stores " + (concurrent ? "concurrently" : "sequentially") +
+                        " took " + (System.currentTimeMillis() - ts) + " ms");
+                System.out.println(startupTimeline.getSummary());
+
+                List<StartupTimeline.Phase> phases = startupTimeline.getPhases();
+                assertEquals(2, phases.size());
+                assertPhase(phases, "readStore TradeStatistics2Store", tradeStatisticsFile, NUM_TRADE_STATISTICS);
+                assertPhase(phases, "readStore AccountAgeWitnessStore", accountAgeWitnessFile,
+                        NUM_ACCOUNT_AGE_WITNESSES);
+            } finally {
+                executorService.shutdown();
+                FileUtil.deleteDirectory(storageDir);
+            }
+        }
+    }
+
+    private static void assertPhase(List<StartupTimeline.Phase> phases, String name, File file, long numEntries) {
+        StartupTimeline.Phase phase = phases.stream()
+                .filter(e -> e.getName().equals(name))
+                .findAny()
+                .orElseThrow(() -> new AssertionError("Missing phase " + name));
+        assertEquals(file.length(), phase.getNumBytes());
+        assertEquals(numEntries, phase.getNumEntries());
+    }
+
+    private static File writeTradeStatistics2Store(File storageDir) throws IOException {
+        Random random = new Random(1);
+        PB.TradeStatistics2Store.Builder builder = PB.TradeStatistics2Store.newBuilder();
+        for (int i = 0; i < NUM_TRADE_STATISTICS; i++) {
+            TradeStatistics2 tradeStatistics = new TradeStatistics2(OfferPayload.Direction.BUY,
+                    "BTC",
+                    "EUR",
+                    "SEPA",
+                    1_500_000_000_000L + i,
+                    false,
+                    0,
+                    1_000_000 + random.nextInt(1_000_000),
+                    1_000_000,
+                    "offer-" + i,
+                    60_000_000 + random.nextInt(1_000_000),
+                    1_000_000,
+                    1_500_000_000_000L + i,
+                    "depositTx-" + i,
+                    null,
+                    null);
+            builder.addItems(tradeStatistics.toProtoTradeStatistics2());
+        }
+        return writeStore(storageDir, "TradeStatistics2Store",
+                PB.PersistableEnvelope.newBuilder().setTradeStatistics2Store(builder).build());
+    }
+
+    private static File writeAccountAgeWitnessStore(File storageDir) throws IOException {
+        PB.AccountAgeWitnessStore.Builder builder = PB.AccountAgeWitnessStore.newBuilder();
+        for (int i = 0; i < NUM_ACCOUNT_AGE_WITNESSES; i++) {
+            AccountAgeWitness witness = new AccountAgeWitness(Hash.getSha256Ripemd160hash(new byte[]{
+                    (byte) i, (byte) (i >> 8), (byte) (i >> 16)}), 1_500_000_000_000L + i);
+            builder.addItems(witness.toProtoAccountAgeWitness());
+        }
+        return writeStore(storageDir, "AccountAgeWitnessStore",
+                PB.PersistableEnvelope.newBuilder().setAccountAgeWitnessStore(builder).build());
+    }
+
+    private static File writeStore(File storageDir, String fileName, PB.PersistableEnvelope envelope)
+            throws IOException {
+        File file = new File(storageDir, fileName);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+            envelope.writeDelimitedTo(fileOutputStream);
+        }
+        return file;
+    }
+}
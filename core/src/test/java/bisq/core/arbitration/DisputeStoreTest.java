@@ -0,0 +1,178 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.common.storage.FileUtil;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DisputeStoreTest {
+    private File storageDir;
+    private DisputeStore disputeStore;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("DisputeStoreTest").toFile();
+        disputeStore = new DisputeStore(storageDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testAppendedMessagesAndStateUpdates() throws IOException {
+        disputeStore.write(getDispute("trade1_1", false, getMessage("msg1", null)));
+        assertTrue(disputeStore.append("trade1_1", false, getMessage("msg2", null)));
+        assertTrue(disputeStore.append("trade1_1", false, getMessage("msg1", null).toBuilder().setArrived(true).build()));
+        assertFalse(disputeStore.append("unknown_1", false, getMessage("msg3", null)));
+
+        List<PB.Dispute> disputes = disputeStore.readOpenDisputes();
+        assertEquals(1, disputes.size());
+        PB.Dispute dispute = disputes.get(0);
+        assertEquals("trade1_1", dispute.getId());
+        assertEquals(2, dispute.getDisputeCommunicationMessagesCount());
+        assertEquals("msg1", dispute.getDisputeCommunicationMessages(0).getUid());
+        assertTrue(dispute.getDisputeCommunicationMessages(0).getArrived());
+        assertEquals("msg2", dispute.getDisputeCommunicationMessages(1).getUid());
+    }
+
+    @Test
+    public void testAttachmentsAreStoredOnceByContent() throws IOException {
+        byte[] bytes = new byte[100_000];
+        new Random().nextBytes(bytes);
+        disputeStore.write(getDispute("trade1_1", false, getMessage("msg1", bytes)));
+        disputeStore.write(getDispute("trade2_1", false));
+        disputeStore.append("trade2_1", false, getMessage("msg2", bytes));
+
+        File[] attachments = new File(storageDir, "disputes/attachments").listFiles();
+        assertEquals(1, attachments.length);
+        File[] records = new File(storageDir, "disputes/open").listFiles();
+        assertEquals(2, records.length);
+        for (File record : records)
+            assertTrue(record.length() < 1000);
+
+        List<PB.Dispute> disputes = disputeStore.readOpenDisputes();
+        assertEquals(2, disputes.size());
+        // The records only contain the hash of the attachment
+        disputes.forEach(dispute -> {
+            PB.Attachment attachment = dispute.getDisputeCommunicationMessages(0).getAttachments(0);
+            assertTrue(attachment.getBytes().isEmpty());
+            assertArrayEquals(bytes, disputeStore.readAttachment(attachment.getHash().toByteArray()));
+        });
+    }
+
+    @Test
+    public void testAppendWithoutRecordOfThatState() throws IOException {
+        disputeStore.write(getDispute("trade1_1", false));
+
+        assertFalse(disputeStore.append("trade1_1", true, getMessage("msg1", null)));
+        assertTrue(disputeStore.append("trade1_1", false, getMessage("msg1", null)));
+        assertEquals(1, disputeStore.readOpenDisputes().get(0).getDisputeCommunicationMessagesCount());
+    }
+
+    @Test
+    public void testWriteHeaderKeepsMessages() throws IOException {
+        disputeStore.write(getDispute("trade1_1", false, getMessage("msg1", new byte[]{1, 2, 3})));
+        disputeStore.append("trade1_1", false, getMessage("msg2", null));
+        disputeStore.writeHeader(getDispute("trade1_1", true));
+
+        assertEquals(0, disputeStore.readOpenDisputes().size());
+        List<PB.Dispute> closedDisputes = disputeStore.readClosedDisputes();
+        assertEquals(1, closedDisputes.size());
+        assertTrue(closedDisputes.get(0).getIsClosed());
+        assertEquals(2, closedDisputes.get(0).getDisputeCommunicationMessagesCount());
+        assertArrayEquals(new byte[]{1, 2, 3}, disputeStore.readAttachment(
+                closedDisputes.get(0).getDisputeCommunicationMessages(0).getAttachments(0).getHash().toByteArray()));
+    }
+
+    @Test
+    public void testClosedDisputesAreStoredSeparately() throws IOException {
+        disputeStore.write(getDispute("trade1_1", false, getMessage("msg1", null)));
+        disputeStore.write(getDispute("trade2_1", false));
+        disputeStore.write(getDispute("trade1_1", true, getMessage("msg1", null)));
+        disputeStore.append("trade1_1", true, getMessage("msg2", null));
+
+        assertEquals(1, disputeStore.readOpenDisputes().size());
+        List<PB.Dispute> closedDisputes = disputeStore.readClosedDisputes();
+        assertEquals(1, closedDisputes.size());
+        assertEquals(2, closedDisputes.get(0).getDisputeCommunicationMessagesCount());
+
+        disputeStore.remove("trade1_1");
+        assertEquals(0, disputeStore.readClosedDisputes().size());
+    }
+
+    @Test
+    public void testIncompleteEntryIsDropped() throws IOException {
+        disputeStore.write(getDispute("trade1_1", false, getMessage("msg1", null)));
+        File record = new File(storageDir, "disputes/open/trade1_1");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(record, true)) {
+            // Length prefix of 100 bytes but only 3 bytes follow
+            fileOutputStream.write(new byte[]{100, 1, 2, 3});
+        }
+
+        assertEquals(1, disputeStore.readOpenDisputes().get(0).getDisputeCommunicationMessagesCount());
+        // The record got compacted so later appends are readable again
+        disputeStore.append("trade1_1", false, getMessage("msg2", null));
+        assertEquals(2, disputeStore.readOpenDisputes().get(0).getDisputeCommunicationMessagesCount());
+    }
+
+    private static PB.Dispute getDispute(String id, boolean isClosed, PB.DisputeCommunicationMessage... messages) {
+        PB.Dispute.Builder builder = PB.Dispute.newBuilder()
+                .setId(id)
+                .setTradeId(id.substring(0, id.indexOf('_')))
+                .setContractAsJson("{\"contract\": \"" + id + "\"}")
+                .setIsClosed(isClosed);
+        for (PB.DisputeCommunicationMessage message : messages)
+            builder.addDisputeCommunicationMessages(message);
+        return builder.build();
+    }
+
+    private static PB.DisputeCommunicationMessage getMessage(String uid, byte[] attachment) {
+        PB.DisputeCommunicationMessage.Builder builder = PB.DisputeCommunicationMessage.newBuilder()
+                .setUid(uid)
+                .setDate(System.currentTimeMillis())
+                .setMessage("Message " + uid);
+        if (attachment != null)
+            builder.addAttachments(PB.Attachment.newBuilder()
+                    .setFileName("file.png")
+                    .setBytes(ByteString.copyFrom(attachment)));
+        return builder.build();
+    }
+}
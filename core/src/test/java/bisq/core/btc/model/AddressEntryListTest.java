@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.btc.model;
+
+import bisq.core.app.BisqEnvironment;
+
+import bisq.common.storage.Storage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class AddressEntryListTest {
+    private Wallet wallet;
+    private AddressEntryList addressEntryList;
+
+    @Before
+    public void setUp() {
+        wallet = new Wallet(BisqEnvironment.getParameters());
+        addressEntryList = new AddressEntryList(mock(Storage.class));
+        addressEntryList.readPersisted();
+        // Without a persisted list we get a new list with the arbitrator entry
+        addressEntryList.onWalletReady(wallet);
+    }
+
+    @Test
+    public void testAdd() {
+        AddressEntry available = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.AVAILABLE, null));
+        AddressEntry offerFunding = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.OFFER_FUNDING, "offer1"));
+        AddressEntry reservedForTrade = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.RESERVED_FOR_TRADE, "offer1"));
+
+        assertEquals(offerFunding, addressEntryList.findAddressEntry("offer1", AddressEntry.Context.OFFER_FUNDING).get());
+        assertEquals(reservedForTrade, addressEntryList.findAddressEntry("offer1", AddressEntry.Context.RESERVED_FOR_TRADE).get());
+        assertFalse(addressEntryList.findAddressEntry("offer1", AddressEntry.Context.MULTI_SIG).isPresent());
+        assertFalse(addressEntryList.findAddressEntry("offer2", AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertFalse(addressEntryList.findAddressEntry(null, AddressEntry.Context.AVAILABLE).isPresent());
+
+        assertEquals(available, addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).get());
+        assertFalse(addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertIndexesMatchList();
+    }
+
+    @Test
+    public void testSwapTradeToSavings() {
+        AddressEntry offerFunding = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.OFFER_FUNDING, "offer1"));
+        String addressString = offerFunding.getAddressString();
+
+        addressEntryList.swapTradeToSavings("offer1");
+
+        assertFalse(addressEntryList.findAddressEntry("offer1", AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertFalse(addressEntryList.findAddressEntryByAddress(addressString, AddressEntry.Context.OFFER_FUNDING).isPresent());
+        AddressEntry available = addressEntryList.findAddressEntryByAddress(addressString, AddressEntry.Context.AVAILABLE).get();
+        assertTrue(addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).contains(available));
+        assertTrue(addressEntryList.getAddressEntries(AddressEntry.Context.OFFER_FUNDING).isEmpty());
+        assertIndexesMatchList();
+
+        // Nothing left to swap for that offer
+        addressEntryList.swapTradeToSavings("offer1");
+        assertIndexesMatchList();
+    }
+
+    @Test
+    public void testSwapAvailableToAddressEntryWithOfferId() {
+        AddressEntry available = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.AVAILABLE, null));
+
+        AddressEntry offerFunding = addressEntryList.swapAvailableToAddressEntryWithOfferId(available,
+                AddressEntry.Context.OFFER_FUNDING, "offer1");
+
+        assertEquals(offerFunding, addressEntryList.findAddressEntry("offer1", AddressEntry.Context.OFFER_FUNDING).get());
+        assertEquals(offerFunding, addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.OFFER_FUNDING).get());
+        assertFalse(addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).isPresent());
+        assertFalse(addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).contains(available));
+        assertIndexesMatchList();
+    }
+
+    @Test
+    public void testPersistenceRoundTrip() {
+        AddressEntry available = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.AVAILABLE, null));
+        AddressEntry multiSig = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.MULTI_SIG, "offer1"));
+        AddressEntry tradePayout = addressEntryList.addAddressEntry(newEntry(AddressEntry.Context.TRADE_PAYOUT, "offer1"));
+        PB.PersistableEnvelope proto = (PB.PersistableEnvelope) addressEntryList.toProtoMessage();
+
+        Storage<AddressEntryList> storage = mock(Storage.class);
+        when(storage.initAndGetPersisted(any(), anyLong()))
+                .thenReturn(AddressEntryList.fromProto(proto.getAddressEntryList()));
+        AddressEntryList persistedAddressEntryList = new AddressEntryList(storage);
+        persistedAddressEntryList.readPersisted();
+
+        // The offerId and context indexes are usable before the wallet is ready
+        assertEquals(multiSig, persistedAddressEntryList.findAddressEntry("offer1", AddressEntry.Context.MULTI_SIG).get());
+        assertEquals(tradePayout, persistedAddressEntryList.findAddressEntry("offer1", AddressEntry.Context.TRADE_PAYOUT).get());
+        assertEquals(1, persistedAddressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+        assertEquals(1, persistedAddressEntryList.getAddressEntries(AddressEntry.Context.ARBITRATOR).size());
+
+        // The address is only known once we have the key from the wallet
+        assertFalse(persistedAddressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).isPresent());
+        persistedAddressEntryList.onWalletReady(wallet);
+        assertEquals(available, persistedAddressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).get());
+        assertEquals(multiSig.getAddressString(), persistedAddressEntryList.findAddressEntryByAddress(multiSig.getAddressString(),
+                AddressEntry.Context.MULTI_SIG).get().getAddressString());
+    }
+
+    private AddressEntry newEntry(AddressEntry.Context context, String offerId) {
+        return new AddressEntry(wallet.freshReceiveKey(), context, offerId);
+    }
+
+    private void assertIndexesMatchList() {
+        for (AddressEntry.Context context : AddressEntry.Context.values()) {
+            List<AddressEntry> expected = addressEntryList.stream()
+                    .filter(e -> e.getContext() == context)
+                    .collect(Collectors.toList());
+            assertEquals(expected, addressEntryList.getAddressEntries(context));
+        }
+        addressEntryList.stream().forEach(addressEntry -> {
+            assertEquals(addressEntry, addressEntryList.findAddressEntryByAddress(addressEntry.getAddressString(),
+                    addressEntry.getContext()).get());
+            if (addressEntry.getOfferId() != null)
+                assertEquals(addressEntry, addressEntryList.findAddressEntry(addressEntry.getOfferId(),
+                        addressEntry.getContext()).get());
+        });
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the unused address lookup by scanning all wallet txs with the lookup in the AddressIndex.
+ * Not part of the unit tests, run it with: ./gradlew :core:test -PrunBenchmarks --tests '*AddressIndexBenchmark'
+ */
+public class AddressIndexBenchmark {
+    private final NetworkParameters params = BisqEnvironment.getParameters();
+
+    @Test
+    public void benchmarkUnusedAddressLookup() {
+        int numTxs = 5000;
+        int numAddresses = 2000;
+        Random random = new Random(1);
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < numAddresses; i++)
+            addresses.add(newAddress());
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < numTxs; i++) {
+            Transaction tx = new Transaction(params);
+            tx.addOutput(Coin.COIN, addresses.get(random.nextInt(numAddresses)));
+            tx.addOutput(Coin.CENT, newAddress());
+            transactions.add(tx);
+        }
+
+        long ts = System.currentTimeMillis();
+        int unusedByScan = 0;
+        for (Address address : addresses) {
+            int outputs = 0;
+            for (Transaction tx : transactions) {
+                for (TransactionOutput output : tx.getOutputs()) {
+                    if (address.equals(WalletService.getAddressFromOutput(output)))
+                        outputs++;
+                }
+            }
+            if (outputs == 0)
+                unusedByScan++;
+        }
+        long scanDuration = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        AddressIndex addressIndex = new AddressIndex();
+        addressIndex.build(transactions);
+        int unusedByIndex = 0;
+        for (Address address : addresses) {
+            if (addressIndex.getNumOutputs(address, tx -> true) == 0)
+                unusedByIndex++;
+        }
+        long indexDuration = System.currentTimeMillis() - ts;
+
+        assertEquals(unusedByScan, unusedByIndex);
+        System.out.println("Unused address lookup for " + numAddresses + " addresses and " + numTxs +
+                " txs: scan " + scanDuration + " ms, index incl. build " + indexDuration + " ms");
+    }
+
+    private Address newAddress() {
+        return new ECKey().toAddress(params);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionOutput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AddressIndexTest {
+    private NetworkParameters params;
+    private AddressIndex addressIndex;
+
+    @Before
+    public void setUp() {
+        params = BisqEnvironment.getParameters();
+        addressIndex = new AddressIndex();
+    }
+
+    @Test
+    public void testOutputsAndConnectedInputs() {
+        Address address1 = newAddress();
+        Address address2 = newAddress();
+        Transaction tx1 = new Transaction(params);
+        tx1.addOutput(Coin.COIN, address1);
+        tx1.addOutput(Coin.CENT, address1);
+        addressIndex.build(Collections.singletonList(tx1));
+
+        assertEquals(2, addressIndex.getNumOutputs(address1, tx -> true));
+        assertEquals(0, addressIndex.getNumOutputs(address1, tx -> false));
+        assertEquals(0, addressIndex.getNumOutputs(address2, tx -> true));
+
+        Transaction tx2 = new Transaction(params);
+        tx2.addInput(tx1.getOutput(0));
+        tx2.addOutput(Coin.COIN, address2);
+        addressIndex.add(tx2);
+
+        assertEquals(2, addressIndex.getNumOutputs(address1, tx -> true));
+        assertEquals(1, addressIndex.getNumOutputs(address2, tx -> true));
+        assertEquals(2, addressIndex.getTransactions(address1, tx -> true).size());
+        assertTrue(addressIndex.getTransactions(address2, tx -> true).contains(tx2));
+        assertFalse(addressIndex.getTransactions(address2, tx -> true).contains(tx1));
+    }
+
+    @Test
+    public void testAddIsIgnoredUntilBuilt() {
+        Address address = newAddress();
+        Transaction tx = new Transaction(params);
+        tx.addOutput(Coin.COIN, address);
+        addressIndex.add(tx);
+        assertFalse(addressIndex.isBuilt());
+        assertEquals(0, addressIndex.getNumOutputs(address, t -> true));
+
+        addressIndex.build(Collections.singletonList(tx));
+        assertEquals(1, addressIndex.getNumOutputs(address, t -> true));
+
+        addressIndex.reset();
+        assertFalse(addressIndex.isBuilt());
+        assertEquals(0, addressIndex.getNumOutputs(address, t -> true));
+    }
+
+    @Test
+    public void testBalanceIsCachedUntilInvalidated() {
+        Address address = newAddress();
+        Transaction tx = new Transaction(params);
+        tx.addOutput(Coin.COIN, address);
+        tx.addOutput(Coin.CENT, address);
+        List<TransactionOutput> spendCandidates = new ArrayList<>(tx.getOutputs());
+        int[] calls = new int[1];
+        addressIndex.build(Collections.singletonList(tx));
+
+        assertEquals(Coin.COIN.add(Coin.CENT), addressIndex.getBalance(address, () -> {
+            calls[0]++;
+            return spendCandidates;
+        }));
+        assertEquals(Coin.ZERO, addressIndex.getBalance(newAddress(), () -> {
+            calls[0]++;
+            return spendCandidates;
+        }));
+        assertEquals(1, calls[0]);
+
+        spendCandidates.remove(1);
+        addressIndex.invalidateBalances();
+        assertEquals(Coin.COIN, addressIndex.getBalance(address, () -> spendCandidates));
+    }
+
+    private Address newAddress() {
+        return new ECKey().toAddress(params);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.util.BsqFormatter;
+
+import io.bisq.generated.protobuffer.PB;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BsqBalanceIndexTest {
+    private NetworkParameters params;
+    private DaoStateService daoStateService;
+    private Wallet wallet;
+    private Address address;
+    private BsqBalanceIndex bsqBalanceIndex;
+    private int height;
+    private long valueCounter;
+
+    @Before
+    public void setUp() {
+        params = BisqEnvironment.getParameters();
+        daoStateService = new DaoStateService(new DaoState(), new GenesisTxInfo("genesisTxId", 0), new BsqFormatter());
+        wallet = new Wallet(params);
+        address = wallet.freshReceiveAddress();
+        bsqBalanceIndex = new BsqBalanceIndex(daoStateService);
+        height = 0;
+        valueCounter = 0;
+    }
+
+    @Test
+    public void testBalancesAfterRebuild() {
+        Transaction bsqTx = addConfirmedWalletTx(2);
+        addBlock(daoTx(bsqTx, TxOutputType.BSQ_OUTPUT, TxOutputType.BTC_OUTPUT));
+        Transaction btcTx = addConfirmedWalletTx(1);
+        Transaction pendingTx = newWalletTx(1);
+        pendingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.PENDING);
+        wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.PENDING, pendingTx));
+
+        bsqBalanceIndex.rebuild(wallet.getTransactions(false), wallet);
+
+        assertEquals(value(bsqTx, 0), bsqBalanceIndex.getAvailableBalance());
+        assertEquals(value(bsqTx, 1) + value(btcTx, 0), bsqBalanceIndex.getAvailableNonBsqBalance());
+        assertEquals(value(pendingTx, 0), bsqBalanceIndex.getUnverifiedBalance());
+        assertEquals(0, bsqBalanceIndex.getLockupBondsBalance());
+    }
+
+    @Test
+    public void testUpdateFromWalletAndBlocks() {
+        Transaction walletTx = addConfirmedWalletTx(1);
+        bsqBalanceIndex.rebuild(wallet.getTransactions(false), wallet);
+        // Not parsed yet so we treat it as BTC
+        assertEquals(0, bsqBalanceIndex.getAvailableBalance());
+        assertEquals(value(walletTx, 0), bsqBalanceIndex.getAvailableNonBsqBalance());
+
+        Block block = addBlock(daoTx(walletTx, TxOutputType.BSQ_OUTPUT));
+        bsqBalanceIndex.onParseTxsComplete(block, wallet);
+        assertEquals(value(walletTx, 0), bsqBalanceIndex.getAvailableBalance());
+        assertEquals(0, bsqBalanceIndex.getAvailableNonBsqBalance());
+
+        // We spend the BSQ output to our own address
+        Transaction spendingTx = new Transaction(params);
+        spendingTx.addInput(walletTx.getOutput(0));
+        spendingTx.addOutput(Coin.valueOf(value(walletTx, 0) - 1000), address);
+        spendingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.PENDING);
+        wallet.commitTx(spendingTx);
+        bsqBalanceIndex.update(spendingTx, wallet);
+        assertEquals(0, bsqBalanceIndex.getAvailableBalance());
+        assertEquals(value(spendingTx, 0), bsqBalanceIndex.getUnverifiedBalance());
+
+        assertTrue(bsqBalanceIndex.verify(wallet.getTransactions(false), wallet));
+    }
+
+    @Test
+    public void testLockupGetsSpentInBlock() {
+        Transaction lockupTx = addConfirmedWalletTx(1);
+        Tx daoLockupTx = daoTx(lockupTx, TxOutputType.LOCKUP_OUTPUT);
+        addBlock(daoLockupTx);
+        bsqBalanceIndex.rebuild(wallet.getTransactions(false), wallet);
+        assertEquals(value(lockupTx, 0), bsqBalanceIndex.getLockupBondsBalance());
+        assertEquals(0, bsqBalanceIndex.getAvailableBalance());
+        assertEquals(0, bsqBalanceIndex.getAvailableNonBsqBalance());
+
+        // The DAO state sees the unlock tx before the wallet
+        daoStateService.removeUnspentTxOutput(daoLockupTx.getTxOutputs().get(0));
+        Block block = addBlock(newTx(Sha256Hash.of(new byte[]{1}).toString(), Collections.singletonList(PB.TxInput.newBuilder()
+                        .setConnectedTxOutputTxId(daoLockupTx.getId())
+                        .setConnectedTxOutputIndex(0)
+                        .build()),
+                Collections.emptyList()));
+        bsqBalanceIndex.onParseTxsComplete(block, wallet);
+        assertEquals(0, bsqBalanceIndex.getLockupBondsBalance());
+        assertTrue(bsqBalanceIndex.verify(wallet.getTransactions(false), wallet));
+    }
+
+    @Test
+    public void testSpentOutputIsAvailableAfterSpendingTxGotDead() {
+        Transaction walletTx = addConfirmedWalletTx(1);
+        addBlock(daoTx(walletTx, TxOutputType.BSQ_OUTPUT));
+        bsqBalanceIndex.rebuild(wallet.getTransactions(false), wallet);
+
+        Transaction spendingTx = new Transaction(params);
+        spendingTx.addInput(walletTx.getOutput(0));
+        spendingTx.addOutput(Coin.valueOf(value(walletTx, 0) - 1000), address);
+        spendingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.PENDING);
+        wallet.commitTx(spendingTx);
+        bsqBalanceIndex.update(spendingTx, wallet);
+        assertEquals(0, bsqBalanceIndex.getAvailableBalance());
+
+        // Like bitcoinj does for a dead tx, the input gets disconnected and the spent output is unspent again
+        spendingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.DEAD);
+        spendingTx.getInput(0).disconnect();
+        bsqBalanceIndex.update(spendingTx, wallet);
+        assertEquals(value(walletTx, 0), bsqBalanceIndex.getAvailableBalance());
+        assertEquals(0, bsqBalanceIndex.getUnverifiedBalance());
+        assertTrue(bsqBalanceIndex.verify(wallet.getTransactions(false), wallet));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Utils
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Transaction newWalletTx(int numOutputs) {
+        Transaction tx = new Transaction(params);
+        for (int i = 0; i < numOutputs; i++) {
+            tx.addOutput(Coin.valueOf(10_000 + valueCounter++), address);
+        }
+        return tx;
+    }
+
+    private Transaction addConfirmedWalletTx(int numOutputs) {
+        Transaction tx = newWalletTx(numOutputs);
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        tx.getConfidence().setDepthInBlocks(1);
+        wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, tx));
+        return tx;
+    }
+
+    private static long value(Transaction tx, int index) {
+        return tx.getOutput(index).getValue().value;
+    }
+
+    private Block addBlock(Tx... txs) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, height > 0 ? "blockHash" + (height - 1) : null);
+        Collections.addAll(block.getTxs(), txs);
+        daoStateService.getBlocks().add(block);
+        // Parser adds the BSQ outputs to the unspent outputs
+        for (Tx tx : txs) {
+            tx.getTxOutputs().stream()
+                    .filter(txOutput -> txOutput.getTxOutputType() != TxOutputType.BTC_OUTPUT)
+                    .forEach(daoStateService::addUnspentTxOutput);
+        }
+        height++;
+        return block;
+    }
+
+    private Tx daoTx(Transaction walletTx, TxOutputType... txOutputTypes) {
+        String txId = walletTx.getHashAsString();
+        List<PB.BaseTxOutput> txOutputs = new ArrayList<>();
+        for (TransactionOutput output : walletTx.getOutputs()) {
+            txOutputs.add(PB.BaseTxOutput.newBuilder()
+                    .setIndex(output.getIndex())
+                    .setValue(output.getValue().value)
+                    .setTxId(txId)
+                    .setBlockHeight(height)
+                    .setTxOutput(PB.TxOutput.newBuilder()
+                            .setTxOutputType(Arrays.asList(txOutputTypes).get(output.getIndex()).toProtoMessage()))
+                    .build());
+        }
+        return newTx(txId, Collections.emptyList(), txOutputs);
+    }
+
+    private Tx newTx(String txId, List<PB.TxInput> txInputs, List<PB.BaseTxOutput> txOutputs) {
+        return Tx.fromProto(PB.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("blockHash" + height)
+                .addAllTxInputs(txInputs)
+                .setTx(PB.Tx.newBuilder()
+                        .addAllTxOutputs(txOutputs)
+                        .setTxType(TxType.TRANSFER_BSQ.toProtoMessage()))
+                .build());
+    }
+}
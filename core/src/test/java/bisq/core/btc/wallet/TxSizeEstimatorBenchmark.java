@@ -0,0 +1,137 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.InsufficientMoneyException;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.wallet.SendRequest;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import com.google.common.collect.Sets;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the fee calculation which repeats completeTx until the fee matches the tx size with the calculation
+ * based on the TxSizeEstimator. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*TxSizeEstimatorBenchmark'
+ */
+public class TxSizeEstimatorBenchmark {
+    private final NetworkParameters params = BisqEnvironment.getParameters();
+
+    @Test
+    public void benchmarkCompleteTxCalls() throws InsufficientMoneyException {
+        int numUtxos = 5000;
+        Wallet wallet = new Wallet(params);
+        Address address = wallet.freshReceiveAddress();
+        for (int i = 0; i < numUtxos; i++) {
+            Transaction fundingTx = new Transaction(params);
+            fundingTx.addOutput(Coin.valueOf(20_000 + i), address);
+            fundingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+            fundingTx.getConfidence().setDepthInBlocks(i + 1);
+            wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, fundingTx));
+        }
+        Set<Address> addresses = Sets.newHashSet(address);
+        Coin txFeePerByte = Coin.valueOf(50);
+        Coin amount = Coin.valueOf(1_000_000);
+        Address receiver = new ECKey().toAddress(params);
+        int numRuns = 20;
+
+        // Previous approach: start with the size of a typical tx and repeat completeTx until the fee matches
+        long ts = System.currentTimeMillis();
+        int legacyCalls = 0;
+        for (int run = 0; run < numRuns; run++) {
+            int txSizeWithUnsignedInputs = 203;
+            int numInputs = 1;
+            boolean isFeeOutsideTolerance;
+            int counter = 0;
+            do {
+                counter++;
+                legacyCalls++;
+                Coin fee = txFeePerByte.multiply(txSizeWithUnsignedInputs + 106 * numInputs);
+                Transaction tx = completeTx(wallet, newPreparedTx(amount, receiver), fee, addresses, address);
+                numInputs = tx.getInputs().size();
+                txSizeWithUnsignedInputs = tx.bitcoinSerialize().length;
+                long estimatedFee = txFeePerByte.multiply(txSizeWithUnsignedInputs + 106 * numInputs).value;
+                isFeeOutsideTolerance = Math.abs(tx.getFee().value - estimatedFee) > 1000;
+            } while (isFeeOutsideTolerance && counter < 10);
+        }
+        long legacyDuration = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        int estimatorCalls = 0;
+        for (int run = 0; run < numRuns; run++) {
+            Transaction preparedTx = newPreparedTx(amount, receiver);
+            Coin fee = TxSizeEstimator.estimateFee(preparedTx.getInputs(),
+                    preparedTx.getOutputs(),
+                    0,
+                    amount,
+                    false,
+                    new BtcCoinSelector(addresses),
+                    wallet.calculateAllSpendCandidates(),
+                    txFeePerByte);
+            boolean isFeeOutsideTolerance;
+            int counter = 0;
+            do {
+                counter++;
+                estimatorCalls++;
+                Transaction tx = completeTx(wallet, newPreparedTx(amount, receiver), fee, addresses, address);
+                long estimatedFee = txFeePerByte.multiply(TxSizeEstimator.estimateSize(tx)).value;
+                isFeeOutsideTolerance = Math.abs(tx.getFee().value - estimatedFee) > 1000;
+                fee = Coin.valueOf(estimatedFee);
+            } while (isFeeOutsideTolerance && counter < 10);
+        }
+        long estimatorDuration = System.currentTimeMillis() - ts;
+
+        assertEquals(numRuns, estimatorCalls);
+        System.out.println("Fee calculation for " + numUtxos + " UTXOs, " + numRuns + " runs: completeTx loop " +
+                legacyCalls + " calls / " + legacyDuration + " ms, estimator " + estimatorCalls + " calls / " +
+                estimatorDuration + " ms");
+    }
+
+    private Transaction newPreparedTx(Coin amount, Address receiver) {
+        Transaction preparedTx = new Transaction(params);
+        preparedTx.addOutput(amount, receiver);
+        return preparedTx;
+    }
+
+    private Transaction completeTx(Wallet wallet, Transaction preparedTx, Coin fee, Set<Address> addresses,
+                                   Address changeAddress) throws InsufficientMoneyException {
+        SendRequest sendRequest = SendRequest.forTx(preparedTx);
+        sendRequest.shuffleOutputs = false;
+        sendRequest.signInputs = false;
+        sendRequest.fee = fee;
+        sendRequest.feePerKb = Coin.ZERO;
+        sendRequest.ensureMinRequiredFee = false;
+        sendRequest.coinSelector = new BtcCoinSelector(addresses);
+        sendRequest.changeAddress = changeAddress;
+        wallet.completeTx(sendRequest);
+        return sendRequest.tx;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.crypto.TransactionSignature;
+import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.wallet.CoinSelection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TxSizeEstimatorTest {
+    private NetworkParameters params;
+
+    @Before
+    public void setUp() {
+        params = BisqEnvironment.getParameters();
+    }
+
+    @Test
+    public void testP2pkhTxSize() {
+        ECKey key = new ECKey();
+        Transaction tx = new Transaction(params);
+        tx.addInput(newFundingOutput(key.toAddress(params), Coin.COIN, 1));
+        tx.addOutput(Coin.CENT, new ECKey().toAddress(params));
+        tx.addOutput(Coin.CENT, key.toAddress(params));
+
+        // Well known size of a tx with 1 P2PKH input and 2 P2PKH outputs
+        assertEquals(226, TxSizeEstimator.estimateSize(tx));
+    }
+
+    @Test
+    public void testEstimateIsCloseAboveSignedSize() {
+        ECKey key = new ECKey();
+        Transaction tx = new Transaction(params);
+        int numInputs = 20;
+        for (int i = 0; i < numInputs; i++) {
+            tx.addInput(newFundingOutput(key.toAddress(params), Coin.CENT, 1));
+        }
+        tx.addOutput(Coin.COIN, new ECKey().toAddress(params));
+        tx.addOutput(new TransactionOutput(params, tx, Coin.ZERO,
+                ScriptBuilder.createOpReturnScript(new byte[22]).getProgram()));
+        int estimatedSize = TxSizeEstimator.estimateSize(tx);
+
+        for (int i = 0; i < numInputs; i++) {
+            TransactionInput input = tx.getInput(i);
+            TransactionSignature signature = tx.calculateSignature(i, key,
+                    input.getConnectedOutput().getScriptPubKey(), Transaction.SigHash.ALL, false);
+            input.setScriptSig(ScriptBuilder.createInputScript(signature, key));
+        }
+        int signedSize = tx.bitcoinSerialize().length;
+
+        // Signatures are 71 or 72 bytes, we assume 72 bytes
+        assertTrue(estimatedSize >= signedSize);
+        assertTrue(estimatedSize - signedSize <= numInputs);
+        // Signed inputs are counted with their real size
+        assertEquals(signedSize, TxSizeEstimator.estimateSize(tx));
+    }
+
+    @Test
+    public void testEstimateFeeCoversSelectedInputs() {
+        Address address = new ECKey().toAddress(params);
+        List<TransactionOutput> candidates = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            candidates.add(newFundingOutput(address, Coin.valueOf(20_000), i + 1));
+        }
+        BtcCoinSelector coinSelector = new BtcCoinSelector(address);
+        Coin txFeePerByte = Coin.valueOf(50);
+        Transaction preparedTx = new Transaction(params);
+        preparedTx.addOutput(Coin.valueOf(300_000), new ECKey().toAddress(params));
+        byte[] opReturnData = new byte[22];
+
+        Coin fee = TxSizeEstimator.estimateFee(preparedTx.getInputs(),
+                preparedTx.getOutputs(),
+                TxSizeEstimator.getOpReturnOutputSize(opReturnData),
+                preparedTx.getOutputSum(),
+                false,
+                coinSelector,
+                candidates,
+                txFeePerByte);
+
+        // The tx completed with that fee must have a size which results in the same fee
+        Transaction tx = complete(preparedTx, fee, coinSelector, candidates, address);
+        tx.addOutput(new TransactionOutput(params, tx, Coin.ZERO,
+                ScriptBuilder.createOpReturnScript(opReturnData).getProgram()));
+        assertTrue(tx.getInputs().size() > 15);
+        assertEquals(txFeePerByte.multiply(TxSizeEstimator.estimateSize(tx)), fee);
+    }
+
+    @Test
+    public void testEstimateFeeWithDeductedFee() {
+        Address address = new ECKey().toAddress(params);
+        List<TransactionOutput> candidates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            candidates.add(newFundingOutput(address, Coin.valueOf(100_000), i + 1));
+        }
+        BtcCoinSelector coinSelector = new BtcCoinSelector(address);
+        Coin txFeePerByte = Coin.valueOf(10);
+        Coin amount = Coin.valueOf(1_000_000);
+        Transaction preparedTx = new Transaction(params);
+        preparedTx.addOutput(amount, new ECKey().toAddress(params));
+
+        Coin fee = TxSizeEstimator.estimateFee(preparedTx.getInputs(),
+                preparedTx.getOutputs(),
+                0,
+                amount,
+                true,
+                coinSelector,
+                candidates,
+                txFeePerByte);
+
+        // All 10 inputs are spent without change output
+        assertEquals(txFeePerByte.multiply(8 + 1 + 10 * TxSizeEstimator.P2PKH_INPUT_SIZE + 1 +
+                TxSizeEstimator.P2PKH_OUTPUT_SIZE), fee);
+    }
+
+    private TransactionOutput newFundingOutput(Address address, Coin value, int depth) {
+        Transaction fundingTx = new Transaction(params);
+        fundingTx.addOutput(value, address);
+        fundingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        fundingTx.getConfidence().setDepthInBlocks(depth);
+        return fundingTx.getOutput(0);
+    }
+
+    // Like Wallet.completeTx with a fixed fee and without signing
+    private Transaction complete(Transaction preparedTx, Coin fee, BtcCoinSelector coinSelector,
+                                 List<TransactionOutput> candidates, Address changeAddress) {
+        Transaction tx = new Transaction(params);
+        Coin target = preparedTx.getOutputSum().add(fee);
+        CoinSelection selection = coinSelector.select(target, candidates);
+        selection.gathered.forEach(tx::addInput);
+        preparedTx.getOutputs().forEach(tx::addOutput);
+        Coin change = selection.valueGathered.subtract(target);
+        if (change.isPositive())
+            tx.addOutput(change, changeAddress);
+        return tx;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.CoinSelection;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class UtxoIndexTest {
+    private NetworkParameters params;
+    private Wallet wallet;
+    private Address address;
+    private int numFundingTxs;
+
+    @Before
+    public void setUp() {
+        params = BisqEnvironment.getParameters();
+        wallet = new Wallet(params);
+        address = wallet.freshReceiveAddress();
+    }
+
+    @Test
+    public void testSelectionWithIndexEqualsSelectionWithoutIndex() {
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            addFundingTx(Coin.valueOf(10_000 + random.nextInt(1_000_000)), 1 + random.nextInt(100));
+        }
+        UtxoIndex utxoIndex = new UtxoIndex();
+        utxoIndex.build(wallet.calculateAllSpendCandidates());
+        assertEquals(300, utxoIndex.size());
+
+        BtcCoinSelector coinSelector = new BtcCoinSelector(address);
+        BtcCoinSelector indexedCoinSelector = new BtcCoinSelector(address);
+        indexedCoinSelector.setUtxoIndex(utxoIndex);
+        for (long target : new long[]{1_000, 500_000, 5_000_000, 50_000_000}) {
+            List<TransactionOutput> candidates = wallet.calculateAllSpendCandidates();
+            CoinSelection expected = coinSelector.select(Coin.valueOf(target), candidates);
+            CoinSelection selection = indexedCoinSelector.select(Coin.valueOf(target), candidates);
+            assertEquals(expected.valueGathered, selection.valueGathered);
+            assertEquals(new ArrayList<>(expected.gathered), new ArrayList<>(selection.gathered));
+        }
+    }
+
+    @Test
+    public void testUpdate() {
+        TransactionOutput output1 = addFundingTx(Coin.valueOf(100_000), 1);
+        TransactionOutput output2 = addFundingTx(Coin.valueOf(200_000), 2);
+        UtxoIndex utxoIndex = new UtxoIndex();
+        utxoIndex.build(wallet.calculateAllSpendCandidates());
+        assertEquals(2, utxoIndex.size());
+
+        // Spending output1 removes it
+        Transaction spendingTx = new Transaction(params);
+        TransactionInput input = spendingTx.addInput(output1);
+        spendingTx.addOutput(Coin.valueOf(90_000), new ECKey().toAddress(params));
+        output1.markAsSpent(input);
+        utxoIndex.update(spendingTx, wallet);
+        assertEquals(1, utxoIndex.size());
+
+        // A received output gets added
+        TransactionOutput output3 = addFundingTx(Coin.valueOf(300_000), 1);
+        utxoIndex.update(output3.getParentTransaction(), wallet);
+        assertEquals(2, utxoIndex.size());
+
+        List<TransactionOutput> sorted = utxoIndex.getCandidatesInCoinDepthOrder(wallet.calculateAllSpendCandidates());
+        assertNotNull(sorted);
+        assertEquals(output2, sorted.get(0));
+        assertEquals(output3, sorted.get(1));
+
+        // If a candidate is not in the index we fall back to sorting
+        List<TransactionOutput> candidates = new ArrayList<>(wallet.calculateAllSpendCandidates());
+        candidates.add(output1);
+        assertNull(utxoIndex.getCandidatesInCoinDepthOrder(candidates));
+
+        // A dead tx gets removed
+        output3.getParentTransaction().getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.DEAD);
+        utxoIndex.update(output3.getParentTransaction(), wallet);
+        assertEquals(1, utxoIndex.size());
+
+        utxoIndex.reset();
+        assertFalse(utxoIndex.isBuilt());
+        assertNull(utxoIndex.getCandidatesInCoinDepthOrder(candidates));
+    }
+
+    @Test
+    public void testCoinDepthOrderFollowsDepthChanges() {
+        TransactionOutput output1 = addFundingTx(Coin.valueOf(100_000), 1);
+        TransactionOutput output2 = addFundingTx(Coin.valueOf(50_000), 5);
+        UtxoIndex utxoIndex = new UtxoIndex();
+        utxoIndex.build(wallet.calculateAllSpendCandidates());
+
+        List<TransactionOutput> sorted = utxoIndex.getCandidatesInCoinDepthOrder(wallet.calculateAllSpendCandidates());
+        assertNotNull(sorted);
+        assertEquals(output2, sorted.get(0));
+
+        // A confidence change of an indexed tx invalidates the order
+        output1.getParentTransaction().getConfidence().setDepthInBlocks(10);
+        utxoIndex.update(output1.getParentTransaction(), wallet);
+        sorted = utxoIndex.getCandidatesInCoinDepthOrder(wallet.calculateAllSpendCandidates());
+        assertNotNull(sorted);
+        assertEquals(output1, sorted.get(0));
+        assertEquals(output2, sorted.get(1));
+    }
+
+    private TransactionOutput addFundingTx(Coin value, int depth) {
+        Transaction fundingTx = new Transaction(params);
+        fundingTx.addOutput(value, address);
+        // Makes the tx hash unique for funding txs with the same value
+        fundingTx.setLockTime(numFundingTxs++);
+        fundingTx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        fundingTx.getConfidence().setDepthInBlocks(depth);
+        wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, fundingTx));
+        return fundingTx.getOutput(0);
+    }
+}
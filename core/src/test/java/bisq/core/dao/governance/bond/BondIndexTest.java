@@ -0,0 +1,266 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.bond;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.util.BsqFormatter;
+
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BondIndexTest {
+    private DaoState daoState;
+    private DaoStateService daoStateService;
+    private int height;
+    private int txCounter;
+
+    @Before
+    public void setUp() {
+        daoState = new DaoState();
+        daoStateService = new DaoStateService(daoState, new GenesisTxInfo("genesisTxId", 0), new BsqFormatter());
+        height = 0;
+        txCounter = 0;
+    }
+
+    @Test
+    public void testTouchedHashes() {
+        BondIndex bondIndex = new BondIndex(daoStateService);
+        BondIndex.Cursor cursor = new BondIndex.Cursor();
+        assertNull(bondIndex.sync(cursor));
+        assertTrue(bondIndex.sync(cursor).isEmpty());
+
+        byte[] hash = newHash(1);
+        String hashAsHex = Utilities.bytesAsHexString(hash);
+        Tx lockupTx = lockupTx(hash);
+        addBlock(lockupTx);
+        assertEquals(Collections.singleton(hashAsHex), bondIndex.sync(cursor));
+        assertEquals(1, bondIndex.getLockupTxOutputs(hash).size());
+
+        addBlock(lockupTx(newHash(2)));
+        Set<String> touchedHashes = bondIndex.sync(cursor);
+        assertNotNull(touchedHashes);
+        assertEquals(1, touchedHashes.size());
+        assertTrue(!touchedHashes.contains(hashAsHex));
+
+        Tx unlockTx = spendingTx(lockupTx, TxType.UNLOCK, TxOutputType.UNLOCK_OUTPUT);
+        addBlock(unlockTx);
+        assertEquals(Collections.singleton(hashAsHex), bondIndex.sync(cursor));
+
+        addBlock();
+        assertTrue(bondIndex.sync(cursor).isEmpty());
+
+        addBlock(spendingTx(unlockTx, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT));
+        assertEquals(Collections.singleton(hashAsHex), bondIndex.sync(cursor));
+
+        daoState.getConfiscatedLockupTxList().add(lockupTx.getId());
+        assertEquals(Collections.singleton(hashAsHex), bondIndex.sync(cursor));
+        assertTrue(bondIndex.sync(cursor).isEmpty());
+    }
+
+    @Test
+    public void testOnlyLockupAndUnlockOutputsAreFollowed() {
+        BondIndex bondIndex = new BondIndex(daoStateService);
+        BondIndex.Cursor cursor = new BondIndex.Cursor();
+        bondIndex.sync(cursor);
+
+        byte[] hash = newHash(1);
+        Tx lockupTx = lockupTx(hash);
+        addBlock(lockupTx);
+        bondIndex.sync(cursor);
+
+        // Spending another output of the lockup tx does not touch the bond
+        addBlock(spendingTx(lockupTx, 1, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT));
+        assertTrue(bondIndex.sync(cursor).isEmpty());
+
+        Tx unlockTx = spendingTx(lockupTx, 0, TxType.UNLOCK, TxOutputType.UNLOCK_OUTPUT);
+        addBlock(unlockTx);
+        assertEquals(Collections.singleton(Utilities.bytesAsHexString(hash)), bondIndex.sync(cursor));
+
+        // The tx spending the unlock output touches the bond but a tx spending its outputs does not
+        Tx spendingUnlockOutputTx = spendingTx(unlockTx, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT);
+        addBlock(spendingUnlockOutputTx);
+        assertEquals(1, bondIndex.sync(cursor).size());
+        addBlock(spendingTx(spendingUnlockOutputTx, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT));
+        assertTrue(bondIndex.sync(cursor).isEmpty());
+    }
+
+    @Test
+    public void testCursorsAreIndependent() {
+        BondIndex bondIndex = new BondIndex(daoStateService);
+        BondIndex.Cursor cursor1 = new BondIndex.Cursor();
+        BondIndex.Cursor cursor2 = new BondIndex.Cursor();
+        bondIndex.sync(cursor1);
+        bondIndex.sync(cursor2);
+
+        addBlock(lockupTx(newHash(1)));
+        assertEquals(1, bondIndex.sync(cursor1).size());
+        addBlock(lockupTx(newHash(2)));
+        assertEquals(1, bondIndex.sync(cursor1).size());
+        // The second consumer gets all bonds touched since its last sync
+        assertEquals(2, bondIndex.sync(cursor2).size());
+        assertTrue(bondIndex.sync(cursor2).isEmpty());
+    }
+
+    @Test
+    public void testRebuildAfterReorg() {
+        BondIndex bondIndex = new BondIndex(daoStateService);
+        BondIndex.Cursor cursor = new BondIndex.Cursor();
+        bondIndex.sync(cursor);
+        addBlock(lockupTx(newHash(1)));
+        addBlock(lockupTx(newHash(2)));
+        assertEquals(2, bondIndex.sync(cursor).size());
+
+        daoStateService.getBlocks().removeLast();
+        height--;
+        addBlock(lockupTx(newHash(3)));
+        assertNull(bondIndex.sync(cursor));
+        assertEquals(0, bondIndex.getLockupTxOutputs(newHash(2)).size());
+        assertEquals(1, bondIndex.getLockupTxOutputs(newHash(3)).size());
+    }
+
+    @Test
+    public void testIncrementalSyncMatchesRebuild() {
+        Random random = new Random(1);
+        BondIndex bondIndex = new BondIndex(daoStateService);
+        BondIndex.Cursor cursor = new BondIndex.Cursor();
+        bondIndex.sync(cursor);
+        List<Tx> lockupTxs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            List<Tx> txs = new ArrayList<>();
+            int numLockupTxs = random.nextInt(4);
+            for (int j = 0; j < numLockupTxs; j++) {
+                // Some bonds share the same hash
+                Tx lockupTx = lockupTx(newHash(random.nextInt(50)));
+                lockupTxs.add(lockupTx);
+                txs.add(lockupTx);
+            }
+            if (!lockupTxs.isEmpty() && random.nextBoolean())
+                txs.add(spendingTx(lockupTxs.remove(random.nextInt(lockupTxs.size())), TxType.UNLOCK, TxOutputType.UNLOCK_OUTPUT));
+            addBlock(txs.toArray(new Tx[0]));
+
+            Set<String> touchedHashes = bondIndex.sync(cursor);
+            assertNotNull(touchedHashes);
+            BondIndex rebuiltBondIndex = new BondIndex(daoStateService);
+            rebuiltBondIndex.sync(new BondIndex.Cursor());
+            assertEquals(toTxIds(rebuiltBondIndex.getLockupTxOutputsByHash()), toTxIds(bondIndex.getLockupTxOutputsByHash()));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Utils
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addBlock(Tx... txs) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, height > 0 ? "blockHash" + (height - 1) : null);
+        Collections.addAll(block.getTxs(), txs);
+        daoStateService.getBlocks().add(block);
+        height++;
+    }
+
+    private static byte[] newHash(int i) {
+        byte[] hash = new byte[20];
+        hash[0] = (byte) (i >> 24);
+        hash[1] = (byte) (i >> 16);
+        hash[2] = (byte) (i >> 8);
+        hash[3] = (byte) i;
+        return hash;
+    }
+
+    private Tx lockupTx(byte[] hash) {
+        String txId = "tx" + txCounter++;
+        byte[] opReturnData = new byte[25];
+        System.arraycopy(hash, 0, opReturnData, 5, 20);
+        return newTx(txId, TxType.LOCKUP, Collections.emptyList(), Arrays.asList(
+                newTxOutput(txId, 0, TxOutputType.LOCKUP_OUTPUT, null),
+                newTxOutput(txId, 1, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, opReturnData)));
+    }
+
+    private Tx spendingTx(Tx connectedTx, TxType txType, TxOutputType txOutputType) {
+        return spendingTx(connectedTx, 0, txType, txOutputType);
+    }
+
+    private Tx spendingTx(Tx connectedTx, int connectedTxOutputIndex, TxType txType, TxOutputType txOutputType) {
+        String txId = "tx" + txCounter++;
+        PB.TxInput txInput = PB.TxInput.newBuilder()
+                .setConnectedTxOutputTxId(connectedTx.getId())
+                .setConnectedTxOutputIndex(connectedTxOutputIndex)
+                .build();
+        return newTx(txId, txType, Collections.singletonList(txInput),
+                Collections.singletonList(newTxOutput(txId, 0, txOutputType, null)));
+    }
+
+    private Tx newTx(String txId, TxType txType, List<PB.TxInput> txInputs, List<PB.BaseTxOutput> txOutputs) {
+        return Tx.fromProto(PB.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("blockHash" + height)
+                .addAllTxInputs(txInputs)
+                .setTx(PB.Tx.newBuilder()
+                        .addAllTxOutputs(txOutputs)
+                        .setTxType(txType.toProtoMessage()))
+                .build());
+    }
+
+    private PB.BaseTxOutput newTxOutput(String txId, int index, TxOutputType txOutputType, byte[] opReturnData) {
+        PB.BaseTxOutput.Builder builder = PB.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(1000)
+                .setTxId(txId)
+                .setBlockHeight(height)
+                .setTxOutput(PB.TxOutput.newBuilder()
+                        .setTxOutputType(txOutputType.toProtoMessage()));
+        if (opReturnData != null)
+            builder.setOpReturnData(ByteString.copyFrom(opReturnData));
+        return builder.build();
+    }
+
+    private static Map<String, List<String>> toTxIds(Map<String, List<TxOutput>> lockupTxOutputsByHash) {
+        return lockupTxOutputsByHash.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        e -> e.getValue().stream().map(TxOutput::getTxId).collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.governance.period;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.util.BsqFormatter;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares the phase lookup by streaming the cycles with the lookup in the height index of the PeriodService. Not part
+ * of the unit tests, run it with: ./gradlew :core:test -PrunBenchmarks --tests '*PeriodServiceBenchmark'
+ */
+public class PeriodServiceBenchmark {
+    private static final int GENESIS_HEIGHT = 100;
+
+    @Test
+    public void benchmarkGetPhaseForHeight() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("fakegenesistxid", GENESIS_HEIGHT),
+                new BsqFormatter());
+        PeriodService periodService = new PeriodService(daoStateService);
+        Random random = new Random(1);
+
+        // About 8 years of cycles
+        List<Cycle> cycles = daoStateService.getCycles();
+        for (int i = 0; i < 200; i++) {
+            int heightOfFirstBlock = cycles.isEmpty() ?
+                    GENESIS_HEIGHT :
+                    cycles.get(cycles.size() - 1).getHeightOfLastBlock() + 1;
+            List<DaoPhase> daoPhaseList = new ArrayList<>();
+            for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+                if (phase != DaoPhase.Phase.UNDEFINED)
+                    daoPhaseList.add(new DaoPhase(phase, random.nextInt(1441)));
+            }
+            cycles.add(new Cycle(heightOfFirstBlock, ImmutableList.copyOf(daoPhaseList)));
+        }
+        int lastHeight = daoStateService.getCurrentCycle().getHeightOfLastBlock();
+
+        int numLookups = 1_000_000;
+        long sum = 0;
+        long ts = System.nanoTime();
+        for (int i = 0; i < numLookups; i++) {
+            int height = GENESIS_HEIGHT + random.nextInt(lastHeight - GENESIS_HEIGHT);
+            sum += daoStateService.getCycle(height).flatMap(cycle -> cycle.getPhaseForHeight(height)).get().ordinal();
+        }
+        long streamNanos = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        for (int i = 0; i < numLookups; i++) {
+            int height = GENESIS_HEIGHT + random.nextInt(lastHeight - GENESIS_HEIGHT);
+            sum += periodService.getPhaseForHeight(height).ordinal();
+        }
+        long indexNanos = System.nanoTime() - ts;
+
+        System.out.println("Stream lookup took " + streamNanos / numLookups + " ns per call, index lookup took " +
+                indexNanos / numLookups + " ns per call (" + sum + ")");
+    }
+}
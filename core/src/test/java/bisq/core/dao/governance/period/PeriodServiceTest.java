@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.period;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.util.BsqFormatter;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PeriodServiceTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    private DaoStateService daoStateService;
+    private PeriodService periodService;
+    private Random random;
+
+    @Before
+    public void setup() {
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("fakegenesistxid", GENESIS_HEIGHT),
+                new BsqFormatter());
+        periodService = new PeriodService(daoStateService);
+        random = new Random(1);
+    }
+
+    @Test
+    public void testLookupsMatchCyclesWhileCyclesGetAdded() {
+        for (int i = 0; i < 50; i++) {
+            addCycle(daoStateService.getCycles(), random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(5));
+            // Lookups in between adding cycles make sure a stale index gets replaced
+            assertLookupsMatchCycles();
+        }
+    }
+
+    @Test
+    public void testLookupsMatchCyclesAfterApplySnapshot() {
+        for (int i = 0; i < 20; i++)
+            addCycle(daoStateService.getCycles(), 1 + random.nextInt(5));
+        assertLookupsMatchCycles();
+
+        // Same number of cycles but different durations
+        DaoState snapshot = new DaoState();
+        for (int i = 0; i < 20; i++)
+            addCycle(snapshot.getCycles(), 1 + random.nextInt(5));
+        daoStateService.applySnapshot(snapshot);
+        assertLookupsMatchCycles();
+
+        daoStateService.applySnapshot(new DaoState());
+        assertLookupsMatchCycles();
+        Assert.assertEquals(DaoPhase.Phase.UNDEFINED, periodService.getPhaseForHeight(GENESIS_HEIGHT));
+    }
+
+    @Test
+    public void testLookupsMatchCyclesWithUnorderedPhases() {
+        // Phase lists are ordered by the Phase enum in practice, but the lookups must not rely on that
+        List<DaoPhase> daoPhaseList = new ArrayList<>();
+        daoPhaseList.add(new DaoPhase(DaoPhase.Phase.BLIND_VOTE, 3));
+        daoPhaseList.add(new DaoPhase(DaoPhase.Phase.PROPOSAL, 2));
+        daoPhaseList.add(new DaoPhase(DaoPhase.Phase.RESULT, 1));
+        daoPhaseList.add(new DaoPhase(DaoPhase.Phase.PROPOSAL, 4));
+        daoStateService.getCycles().add(new Cycle(GENESIS_HEIGHT, ImmutableList.copyOf(daoPhaseList)));
+        addCycle(daoStateService.getCycles(), 2);
+        assertLookupsMatchCycles();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Adds a cycle with random phase durations, a phaseDuration of 0 leads to an empty cycle
+    private void addCycle(List<Cycle> cycles, int phaseDuration) {
+        int heightOfFirstBlock = cycles.isEmpty() ?
+                GENESIS_HEIGHT :
+                cycles.get(cycles.size() - 1).getHeightOfLastBlock() + 1;
+        List<DaoPhase> daoPhaseList = new ArrayList<>();
+        for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+            if (phase != DaoPhase.Phase.UNDEFINED) {
+                int duration = phaseDuration == 0 ? 0 : random.nextInt(phaseDuration + 1);
+                daoPhaseList.add(new DaoPhase(phase, duration));
+            }
+        }
+        cycles.add(new Cycle(heightOfFirstBlock, ImmutableList.copyOf(daoPhaseList)));
+    }
+
+    private void assertLookupsMatchCycles() {
+        int lastHeight = daoStateService.getCycles().isEmpty() ?
+                GENESIS_HEIGHT :
+                daoStateService.getCurrentCycle().getHeightOfLastBlock();
+        for (int height = GENESIS_HEIGHT - 5; height <= lastHeight + 5; height++) {
+            Optional<Cycle> optionalCycle = daoStateService.getCycle(height);
+            int finalHeight = height;
+            Assert.assertEquals(optionalCycle.map(cycle -> cycle.getHeightOfFirstBlock() == finalHeight).orElse(false),
+                    periodService.isFirstBlockInCycle(height));
+            Assert.assertEquals(optionalCycle.map(cycle -> cycle.getHeightOfLastBlock() == finalHeight).orElse(false),
+                    periodService.isLastBlockInCycle(height));
+            Assert.assertEquals(optionalCycle.flatMap(cycle -> cycle.getPhaseForHeight(finalHeight)).orElse(DaoPhase.Phase.UNDEFINED),
+                    periodService.getPhaseForHeight(height));
+            for (int chainHeight = height - 3; chainHeight <= height + 3; chainHeight++) {
+                int finalChainHeight = chainHeight;
+                Assert.assertEquals(optionalCycle.map(cycle -> cycle.isInCycle(finalChainHeight)).orElse(false),
+                        periodService.isTxInCorrectCycle(height, chainHeight));
+            }
+
+            for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+                Assert.assertEquals(optionalCycle.map(cycle -> cycle.isInPhase(finalHeight, phase)).orElse(false),
+                        periodService.isInPhase(height, phase));
+                Assert.assertEquals((int) optionalCycle.map(cycle -> cycle.getFirstBlockOfPhase(phase)).orElse(0),
+                        periodService.getFirstBlockOfPhase(height, phase));
+                Assert.assertEquals((int) optionalCycle.map(cycle -> cycle.getLastBlockOfPhase(phase)).orElse(0),
+                        periodService.getLastBlockOfPhase(height, phase));
+                Assert.assertEquals((int) optionalCycle.map(cycle -> cycle.getDurationOfPhase(phase)).orElse(0),
+                        periodService.getDurationForPhase(phase, height));
+            }
+        }
+    }
+}
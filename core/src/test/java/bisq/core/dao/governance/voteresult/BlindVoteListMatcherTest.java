@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.governance.votereveal.VoteRevealConsensus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlindVoteListMatcherTest {
+    private final Random random = new Random(1);
+
+    @Test
+    public void testHashMatchesConsensusHash() {
+        List<BlindVote> list = getSortedBlindVotes(20);
+        assertArrayEquals(VoteRevealConsensus.getHashOfBlindVoteList(list), new BlindVoteListMatcher(list).getHash());
+        assertArrayEquals(VoteRevealConsensus.getHashOfBlindVoteList(new ArrayList<>()),
+                new BlindVoteListMatcher(new ArrayList<>()).getHash());
+    }
+
+    @Test
+    public void testFullListMatches() {
+        List<BlindVote> list = getSortedBlindVotes(20);
+        Optional<List<BlindVote>> result = new BlindVoteListMatcher(list)
+                .findListMatchingHash(VoteRevealConsensus.getHashOfBlindVoteList(list));
+        assertTrue(result.isPresent());
+        assertEquals(list, result.get());
+    }
+
+    @Test
+    public void testOneExtraVote() {
+        List<BlindVote> list = getSortedBlindVotes(20);
+        // The majority did not get the item in the middle, with the old approach removing from the front that
+        // was not found.
+        List<BlindVote> majorityList = new ArrayList<>(list);
+        majorityList.remove(10);
+        Optional<List<BlindVote>> result = new BlindVoteListMatcher(list)
+                .findListMatchingHash(VoteRevealConsensus.getHashOfBlindVoteList(majorityList));
+        assertTrue(result.isPresent());
+        assertEquals(majorityList, result.get());
+    }
+
+    @Test
+    public void testTwoExtraVotes() {
+        List<BlindVote> list = getSortedBlindVotes(20);
+        List<BlindVote> majorityList = new ArrayList<>(list);
+        majorityList.remove(19);
+        majorityList.remove(3);
+        Optional<List<BlindVote>> result = new BlindVoteListMatcher(list)
+                .findListMatchingHash(VoteRevealConsensus.getHashOfBlindVoteList(majorityList));
+        assertTrue(result.isPresent());
+        assertEquals(majorityList, result.get());
+    }
+
+    @Test
+    public void testMissingVote() {
+        List<BlindVote> majorityList = getSortedBlindVotes(20);
+        byte[] majorityHash = VoteRevealConsensus.getHashOfBlindVoteList(majorityList);
+        List<BlindVote> list = new ArrayList<>(majorityList);
+        BlindVote missing = list.remove(7);
+        // A missing vote cannot be recovered by excluding items, it has to be requested from the network
+        assertFalse(new BlindVoteListMatcher(list).findListMatchingHash(majorityHash).isPresent());
+
+        list.add(7, missing);
+        assertTrue(new BlindVoteListMatcher(list).findListMatchingHash(majorityHash).isPresent());
+    }
+
+    private List<BlindVote> getSortedBlindVotes(int size) {
+        List<BlindVote> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            byte[] encryptedVotes = new byte[200];
+            random.nextBytes(encryptedVotes);
+            byte[] encryptedMeritList = new byte[100];
+            random.nextBytes(encryptedMeritList);
+            // Zero padded so the list is sorted by txId
+            String txId = String.format("%064d", i);
+            list.add(new BlindVote(encryptedVotes, txId, 10_000 + i, encryptedMeritList));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.VoteWithProposalTxIdList;
+import bisq.core.dao.governance.merit.MeritConsensus;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.MeritList;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+
+import javax.crypto.SecretKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the decryption of the votes and merit lists and the merit signature verification as done in
+ * VoteResultService, sequential versus parallel at the fork-join pool. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*VoteResultDecryptionBenchmark'
+ */
+public class VoteResultDecryptionBenchmark {
+    private static final int NUM_VOTERS = 500;
+    private static final int NUM_PROPOSALS = 50;
+    private static final int NUM_MERITS_PER_VOTER = 5;
+    private static final int CHAIN_HEIGHT = 600_000;
+
+    @Test
+    public void benchmarkDecryptionAndMeritVerification() throws Exception {
+        List<SyntheticVote> votes = new ArrayList<>();
+        for (int i = 0; i < NUM_VOTERS; i++)
+            votes.add(createSyntheticVote(i));
+
+        // Warm up
+        votes.forEach(VoteResultDecryptionBenchmark::process);
+
+        long ts = System.currentTimeMillis();
+        List<Long> sequentialResult = votes.stream()
+                .map(VoteResultDecryptionBenchmark::process)
+                .collect(Collectors.toList());
+        long sequentialDuration = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        List<Long> parallelResult = IntStream.range(0, votes.size()).parallel()
+                .mapToObj(i -> process(votes.get(i)))
+                .collect(Collectors.toList());
+        long parallelDuration = System.currentTimeMillis() - ts;
+
+        assertEquals(sequentialResult, parallelResult);
+        System.out.println(NUM_VOTERS + " voters x " + NUM_PROPOSALS + " proposals: sequential " + sequentialDuration +
+                " ms, parallel " + parallelDuration + " ms");
+    }
+
+    private static long process(SyntheticVote vote) {
+        try {
+            VoteWithProposalTxIdList voteWithProposalTxIdList = VoteResultConsensus.decryptVotes(vote.encryptedVotes, vote.secretKey);
+            assertEquals(NUM_PROPOSALS, voteWithProposalTxIdList.size());
+            MeritList meritList = MeritConsensus.decryptMeritList(vote.encryptedMeritList, vote.secretKey);
+            return MeritConsensus.getMeritStake(vote.blindVoteTxId, meritList, CHAIN_HEIGHT);
+        } catch (VoteResultException.DecryptionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static SyntheticVote createSyntheticVote(int index) throws Exception {
+        SecretKey secretKey = Encryption.generateSecretKey(128);
+        String blindVoteTxId = Sha256Hash.of(("blindVote" + index).getBytes()).toString();
+
+        PB.VoteWithProposalTxIdList.Builder votesBuilder = PB.VoteWithProposalTxIdList.newBuilder();
+        for (int i = 0; i < NUM_PROPOSALS; i++) {
+            votesBuilder.addItem(PB.VoteWithProposalTxId.newBuilder()
+                    .setProposalTxId(Sha256Hash.of(("proposal" + i).getBytes()).toString())
+                    .setVote(PB.Vote.newBuilder().setAccepted(i % 2 == 0)));
+        }
+
+        PB.MeritList.Builder meritListBuilder = PB.MeritList.newBuilder();
+        for (int i = 0; i < NUM_MERITS_PER_VOTER; i++) {
+            ECKey key = new ECKey();
+            byte[] signature = key.sign(Sha256Hash.wrap(blindVoteTxId)).toCanonicalised().encodeToDER();
+            meritListBuilder.addMerit(PB.Merit.newBuilder()
+                    .setIssuance(PB.Issuance.newBuilder()
+                            .setTxId(Sha256Hash.of(("issuance" + index + "_" + i).getBytes()).toString())
+                            .setChainHeight(CHAIN_HEIGHT - 1000 * i)
+                            .setAmount(100_000)
+                            .setPubKey(Utilities.encodeToHex(key.getPubKey()))
+                            .setIssuanceType(IssuanceType.COMPENSATION.name()))
+                    .setSignature(ByteString.copyFrom(signature)));
+        }
+
+        return new SyntheticVote(secretKey,
+                blindVoteTxId,
+                Encryption.encrypt(votesBuilder.build().toByteArray(), secretKey),
+                Encryption.encrypt(meritListBuilder.build().toByteArray(), secretKey));
+    }
+
+    private static class SyntheticVote {
+        private final SecretKey secretKey;
+        private final String blindVoteTxId;
+        private final byte[] encryptedVotes;
+        private final byte[] encryptedMeritList;
+
+        SyntheticVote(SecretKey secretKey, String blindVoteTxId, byte[] encryptedVotes, byte[] encryptedMeritList) {
+            this.secretKey = secretKey;
+            this.blindVoteTxId = blindVoteTxId;
+            this.encryptedVotes = encryptedVotes;
+            this.encryptedMeritList = encryptedMeritList;
+        }
+    }
+}
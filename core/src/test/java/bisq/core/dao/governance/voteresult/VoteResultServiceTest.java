@@ -0,0 +1,225 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.ballot.BallotListService;
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.governance.blindvote.BlindVoteListService;
+import bisq.core.dao.governance.merit.MeritConsensus;
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.governance.proposal.ProposalListPresentation;
+import bisq.core.dao.governance.voteresult.issuance.IssuanceService;
+import bisq.core.dao.governance.votereveal.VoteRevealService;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.governance.Ballot;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.GenericProposal;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.Proposal;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+
+import javax.crypto.SecretKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class VoteResultServiceTest {
+    private static final int NUM_VOTERS = 40;
+    private static final int NUM_PROPOSALS = 10;
+    private static final int CHAIN_HEIGHT = 600_000;
+
+    private final Map<String, Ballot> ballotByTxIdMap = new HashMap<>();
+    private final List<VoteResultService.RevealedVote> revealedVotes = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < NUM_PROPOSALS; i++) {
+            Proposal proposal = new GenericProposal("proposal" + i, "link")
+                    .cloneProposalAndAddTxId(Sha256Hash.of(("proposal" + i).getBytes()).toString());
+            ballotByTxIdMap.put(proposal.getTxId(), new Ballot(proposal));
+        }
+        for (int i = 0; i < NUM_VOTERS; i++)
+            revealedVotes.add(createRevealedVote(i, i % 10 == 3));
+    }
+
+    @Test
+    public void testParallelDecryptionMatchesSequentialResult() throws Exception {
+        VoteResultService sequentialService = createVoteResultService();
+        // A fork-join pool with a single worker runs the parallel streams of the service one task after the other
+        ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+        List<DecryptedBallotsWithMerits> sequentialResult = new ArrayList<>(singleThreadPool
+                .submit(() -> sequentialService.getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap))
+                .get());
+        singleThreadPool.shutdown();
+
+        // Repeated runs as the completion order of the parallel tasks varies
+        for (int run = 0; run < 5; run++) {
+            VoteResultService parallelService = createVoteResultService();
+            List<DecryptedBallotsWithMerits> parallelResult = new ArrayList<>(parallelService
+                    .getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap));
+
+            assertEquals(toProto(sequentialResult), toProto(parallelResult));
+            assertEquals(sequentialService.getVoteResultExceptions().size(),
+                    parallelService.getVoteResultExceptions().size());
+        }
+    }
+
+    @Test
+    public void testResultIsInOrderOfRevealedVotes() {
+        VoteResultService voteResultService = createVoteResultService();
+        List<DecryptedBallotsWithMerits> result = new ArrayList<>(voteResultService
+                .getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap));
+
+        List<String> expectedBlindVoteTxIds = new ArrayList<>();
+        for (int i = 0; i < NUM_VOTERS; i++) {
+            if (i % 10 != 3)
+                expectedBlindVoteTxIds.add(revealedVotes.get(i).getBlindVoteTxId());
+        }
+        assertEquals(expectedBlindVoteTxIds, result.stream()
+                .map(DecryptedBallotsWithMerits::getBlindVoteTxId)
+                .collect(Collectors.toList()));
+
+        // Voter 0 accepts the proposals with an even index
+        DecryptedBallotsWithMerits first = result.get(0);
+        assertEquals(NUM_PROPOSALS, first.getBallotList().size());
+        String proposalTxId = Sha256Hash.of("proposal2".getBytes()).toString();
+        assertTrue(first.getVote(proposalTxId).get().isAccepted());
+        proposalTxId = Sha256Hash.of("proposal3".getBytes()).toString();
+        assertFalse(first.getVote(proposalTxId).get().isAccepted());
+    }
+
+    @Test
+    public void testFailedDecryptionIsReportedAndSkipped() {
+        VoteResultService voteResultService = createVoteResultService();
+        Optional<DecryptedBallotsWithMerits> failedVote = voteResultService
+                .getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap).stream()
+                .filter(e -> e.getBlindVoteTxId().equals(revealedVotes.get(3).getBlindVoteTxId()))
+                .findAny();
+
+        assertFalse(failedVote.isPresent());
+        // The encrypted votes of voters 3, 13, 23 and 33 are corrupted
+        assertEquals(4, voteResultService.getVoteResultExceptions().size());
+        assertTrue(voteResultService.getVoteResultExceptions().stream()
+                .allMatch(e -> e instanceof VoteResultException.DecryptionException));
+    }
+
+    @Test
+    public void testParallelMeritStakesMatchSequentialResult() {
+        List<DecryptedBallotsWithMerits> list = new ArrayList<>(createVoteResultService()
+                .getDecryptedBallotsWithMeritsSet(revealedVotes, ballotByTxIdMap));
+        List<Integer> blindVoteTxHeights = list.stream()
+                .map(e -> CHAIN_HEIGHT)
+                .collect(Collectors.toList());
+
+        Map<String, Long> meritStakeByBlindVoteTxIdMap = VoteResultService.getMeritStakeByBlindVoteTxIdMap(list,
+                blindVoteTxHeights);
+
+        assertEquals(list.size(), meritStakeByBlindVoteTxIdMap.size());
+        list.forEach(e -> assertEquals(MeritConsensus.getMeritStake(e.getBlindVoteTxId(), e.getMeritList(), CHAIN_HEIGHT),
+                (long) meritStakeByBlindVoteTxIdMap.get(e.getBlindVoteTxId())));
+        assertTrue(meritStakeByBlindVoteTxIdMap.values().stream().allMatch(stake -> stake > 0));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static VoteResultService createVoteResultService() {
+        return new VoteResultService(mock(VoteRevealService.class),
+                mock(ProposalListPresentation.class),
+                mock(DaoStateService.class),
+                mock(PeriodService.class),
+                mock(BallotListService.class),
+                mock(BlindVoteListService.class),
+                mock(IssuanceService.class),
+                mock(MissingDataRequestService.class));
+    }
+
+    private static List<PB.DecryptedBallotsWithMerits> toProto(List<DecryptedBallotsWithMerits> list) {
+        return list.stream().map(DecryptedBallotsWithMerits::toProtoMessage).collect(Collectors.toList());
+    }
+
+    private static VoteResultService.RevealedVote createRevealedVote(int index, boolean corruptEncryptedVotes)
+            throws Exception {
+        SecretKey secretKey = Encryption.generateSecretKey(128);
+        String blindVoteTxId = Sha256Hash.of(("blindVote" + index).getBytes()).toString();
+
+        PB.VoteWithProposalTxIdList.Builder votesBuilder = PB.VoteWithProposalTxIdList.newBuilder();
+        for (int i = 0; i < NUM_PROPOSALS; i++) {
+            votesBuilder.addItem(PB.VoteWithProposalTxId.newBuilder()
+                    .setProposalTxId(Sha256Hash.of(("proposal" + i).getBytes()).toString())
+                    .setVote(PB.Vote.newBuilder().setAccepted((index + i) % 2 == 0)));
+        }
+
+        PB.MeritList.Builder meritListBuilder = PB.MeritList.newBuilder();
+        for (int i = 0; i < 3; i++) {
+            ECKey key = new ECKey();
+            byte[] signature = key.sign(Sha256Hash.wrap(blindVoteTxId)).toCanonicalised().encodeToDER();
+            meritListBuilder.addMerit(PB.Merit.newBuilder()
+                    .setIssuance(PB.Issuance.newBuilder()
+                            .setTxId(Sha256Hash.of(("issuance" + index + "_" + i).getBytes()).toString())
+                            .setChainHeight(CHAIN_HEIGHT - 1000 * (i + 1))
+                            .setAmount(100_000)
+                            .setPubKey(Utilities.encodeToHex(key.getPubKey()))
+                            .setIssuanceType(IssuanceType.COMPENSATION.name()))
+                    .setSignature(ByteString.copyFrom(signature)));
+        }
+
+        long stake = 10_000 + index;
+        byte[] encryptedVotes = Encryption.encrypt(votesBuilder.build().toByteArray(), secretKey);
+        // A ciphertext which is not a multiple of the AES block size fails at decryption
+        if (corruptEncryptedVotes)
+            encryptedVotes = Arrays.copyOf(encryptedVotes, encryptedVotes.length - 1);
+        BlindVote blindVote = new BlindVote(encryptedVotes,
+                blindVoteTxId,
+                stake,
+                Encryption.encrypt(meritListBuilder.build().toByteArray(), secretKey));
+
+        // Op return data: type, version, 20 bytes hash of the blind vote list and the 16 bytes of the secret key
+        byte[] opReturnData = new byte[38];
+        System.arraycopy(secretKey.getEncoded(), 0, opReturnData, 22, 16);
+        return new VoteResultService.RevealedVote(opReturnData,
+                Sha256Hash.of(("voteReveal" + index).getBytes()).toString(),
+                blindVoteTxId,
+                stake,
+                blindVote);
+    }
+}
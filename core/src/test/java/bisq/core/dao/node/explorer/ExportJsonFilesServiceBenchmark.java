@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import java.nio.file.Files;
+
+import java.io.File;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static bisq.core.dao.node.parser.BlockParserParallelTest.createRawBlocks;
+import static bisq.core.dao.node.parser.BlockParserParallelTest.newBlockParser;
+import static bisq.core.dao.node.parser.BlockParserParallelTest.newDaoStateService;
+
+/**
+ * Compares a full json export at each new block, as done by earlier versions, with the incremental export. Both
+ * modes start with a full export of the same DAO state and then export the same new blocks. The time includes the
+ * shut down of the service, which waits until the files are written. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*ExportJsonFilesServiceBenchmark'
+ */
+public class ExportJsonFilesServiceBenchmark {
+    private static final int NUM_NEW_BLOCKS = 10;
+
+    @Test
+    public void benchmarkExport() throws Exception {
+        List<RawBlock> rawBlocks = createRawBlocks(200, 20, 3);
+        // Each mode runs twice, the first runs include the warm up
+        for (boolean incremental : new boolean[]{false, true, false, true}) {
+            File storageDir = Files.createTempDirectory("ExportJsonFilesServiceBenchmark").toFile();
+            try {
+                DaoStateService daoStateService = newDaoStateService();
+                BlockParser blockParser = newBlockParser(daoStateService, false);
+                for (RawBlock rawBlock : rawBlocks.subList(0, rawBlocks.size() - NUM_NEW_BLOCKS)) {
+                    blockParser.parseBlock(rawBlock);
+                }
+                ExportJsonFilesService exportJsonFilesService = new ExportJsonFilesService(daoStateService,
+                        storageDir, true);
+                exportJsonFilesService.start();
+
+                long ts = System.currentTimeMillis();
+                exportJsonFilesService.exportAllToJson();
+                for (RawBlock rawBlock : rawBlocks.subList(rawBlocks.size() - NUM_NEW_BLOCKS, rawBlocks.size())) {
+                    Block block = blockParser.parseBlock(rawBlock);
+                    if (incremental)
+                        exportJsonFilesService.exportToJson(block);
+                    else
+                        exportJsonFilesService.exportAllToJson();
+                }
+                exportJsonFilesService.shutDown();
+                System.out.println("Exporting " + NUM_NEW_BLOCKS + " new blocks " + (incremental ?
+                        "incrementally" : "with full exports") + " took " + (System.currentTimeMillis() - ts) +
+                        " ms");
+            } finally {
+                FileUtil.deleteDirectory(storageDir);
+            }
+        }
+    }
+}
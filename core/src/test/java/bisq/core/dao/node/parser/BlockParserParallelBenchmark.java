@@ -0,0 +1,51 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.DaoStateService;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static bisq.core.dao.node.parser.BlockParserParallelTest.createRawBlocks;
+import static bisq.core.dao.node.parser.BlockParserParallelTest.newBlockParser;
+import static bisq.core.dao.node.parser.BlockParserParallelTest.newDaoStateService;
+
+/**
+ * Compares parsing the txs of a block sequentially and in parallel. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*BlockParserParallelBenchmark'
+ */
+public class BlockParserParallelBenchmark {
+
+    @Test
+    public void benchmarkParsing() throws Exception {
+        List<RawBlock> rawBlocks = createRawBlocks(100, 2000, 2);
+        // Each mode runs twice, the first runs include the warm up
+        for (boolean parseTxsInParallel : new boolean[]{false, true, false, true}) {
+            DaoStateService daoStateService = newDaoStateService();
+            BlockParser blockParser = newBlockParser(daoStateService, parseTxsInParallel);
+            long ts = System.currentTimeMillis();
+            for (RawBlock rawBlock : rawBlocks) {
+                blockParser.parseBlock(rawBlock);
+            }
+            System.out.println("Parsing " + rawBlocks.size() + " blocks " + (parseTxsInParallel ? "in parallel" :
+                    "sequentially") + " took " + (System.currentTimeMillis() - ts) + " ms");
+        }
+    }
+}
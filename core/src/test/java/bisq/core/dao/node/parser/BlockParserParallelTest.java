@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.full.RawTxOutput;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.util.BsqFormatter;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockParserParallelTest {
+    private static final String GENESIS_TX_ID = "genesisTxId";
+    private static final int GENESIS_BLOCK_HEIGHT = 100;
+
+    @Test
+    public void testParallelParsingResultsInSameState() throws Exception {
+        List<RawBlock> rawBlocks = createRawBlocks(20, 300, 1);
+        DaoStateService sequentialDaoStateService = newDaoStateService();
+        DaoStateService parallelDaoStateService = newDaoStateService();
+        BlockParser sequentialBlockParser = newBlockParser(sequentialDaoStateService, false);
+        BlockParser parallelBlockParser = newBlockParser(parallelDaoStateService, true);
+
+        for (RawBlock rawBlock : rawBlocks) {
+            Block sequentialBlock = sequentialBlockParser.parseBlock(rawBlock);
+            Block parallelBlock = parallelBlockParser.parseBlock(rawBlock);
+            assertEquals(sequentialBlock.toProtoMessage(), parallelBlock.toProtoMessage());
+        }
+
+        // We expect a meaningful share of BSQ txs and unspent BSQ outputs
+        assertTrue(sequentialDaoStateService.getTxMap().size() > 1000);
+        assertTrue(sequentialDaoStateService.getUnspentTxOutputMap().size() > 100);
+        assertArrayEquals(toBytes(sequentialDaoStateService), toBytes(parallelDaoStateService));
+    }
+
+    public static DaoStateService newDaoStateService() {
+        return new DaoStateService(new DaoState(),
+                new GenesisTxInfo(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT),
+                new BsqFormatter());
+    }
+
+    public static BlockParser newBlockParser(DaoStateService daoStateService, boolean parseTxsInParallel) {
+        TxParser txParser = new TxParser(new PeriodService(daoStateService), daoStateService);
+        return new BlockParser(txParser, daoStateService, parseTxsInParallel);
+    }
+
+    private byte[] toBytes(DaoStateService daoStateService) {
+        return daoStateService.getClone().toProtoMessage().toByteArray();
+    }
+
+    // Creates blocks with BTC txs and BSQ transfers. BSQ transfers spend random BSQ outputs, including outputs of
+    // earlier txs in the same block, so we get chains of txs depending on each other.
+    public static List<RawBlock> createRawBlocks(int numBlocks, int numTxsPerBlock, long seed) {
+        Random random = new Random(seed);
+        List<RawTxOutput> bsqOutputs = new ArrayList<>();
+        List<RawBlock> rawBlocks = new ArrayList<>();
+
+        int height = GENESIS_BLOCK_HEIGHT;
+        List<RawTx> genesisBlockTxs = new ArrayList<>();
+        List<RawTxOutput> genesisOutputs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            genesisOutputs.add(newOutput(i, GenesisTxInfo.GENESIS_TOTAL_SUPPLY.value / 10, GENESIS_TX_ID, height));
+        }
+        genesisBlockTxs.add(newRawTx(GENESIS_TX_ID, height, ImmutableList.of(new TxInput("btcTx", 0, null)),
+                genesisOutputs));
+        bsqOutputs.addAll(genesisOutputs);
+        rawBlocks.add(newRawBlock(height, null, genesisBlockTxs));
+
+        for (int blockIndex = 1; blockIndex < numBlocks; blockIndex++) {
+            height++;
+            List<RawTx> rawTxs = new ArrayList<>();
+            for (int txIndex = 0; txIndex < numTxsPerBlock; txIndex++) {
+                String txId = "tx-" + height + "-" + txIndex;
+                if (random.nextInt(10) < 7 || bsqOutputs.isEmpty()) {
+                    // BTC tx
+                    ImmutableList<TxInput> inputs = ImmutableList.of(new TxInput("btcTx-" + txId, 0, null));
+                    rawTxs.add(newRawTx(txId, height, inputs,
+                            ImmutableList.of(newOutput(0, 10_000 + random.nextInt(100_000), txId, height))));
+                    continue;
+                }
+
+                List<TxInput> inputs = new ArrayList<>();
+                long inputValue = 0;
+                int numBsqInputs = Math.min(bsqOutputs.size(), 1 + random.nextInt(2));
+                for (int i = 0; i < numBsqInputs; i++) {
+                    // Outputs at the end of the list are more likely from the same block
+                    int index = random.nextBoolean() ?
+                            bsqOutputs.size() - 1 - random.nextInt(Math.min(bsqOutputs.size(), 20)) :
+                            random.nextInt(bsqOutputs.size());
+                    RawTxOutput spentOutput = bsqOutputs.remove(index);
+                    inputs.add(new TxInput(spentOutput.getTxId(), spentOutput.getIndex(), null));
+                    inputValue += spentOutput.getValue();
+                }
+                if (random.nextBoolean())
+                    inputs.add(new TxInput("btcTx-" + txId, 0, null));
+
+                List<RawTxOutput> outputs = new ArrayList<>();
+                switch (random.nextInt(3)) {
+                    case 0:
+                        // Transfer with BSQ change
+                        long value = Math.max(1, inputValue / 2);
+                        outputs.add(newOutput(0, value, txId, height));
+                        if (inputValue - value > 0)
+                            outputs.add(newOutput(1, inputValue - value, txId, height));
+                        bsqOutputs.addAll(outputs);
+                        break;
+                    case 1:
+                        // Burnt fee
+                        long fee = Math.min(inputValue - 1, 100 + random.nextInt(1000));
+                        outputs.add(newOutput(0, inputValue - fee, txId, height));
+                        bsqOutputs.addAll(outputs);
+                        break;
+                    default:
+                        // BSQ output and BTC output
+                        outputs.add(newOutput(0, inputValue, txId, height));
+                        bsqOutputs.add(outputs.get(0));
+                        outputs.add(newOutput(1, 5_000 + random.nextInt(10_000), txId, height));
+                        break;
+                }
+                rawTxs.add(newRawTx(txId, height, ImmutableList.copyOf(inputs), outputs));
+            }
+            rawBlocks.add(newRawBlock(height, "block-" + (height - 1), rawTxs));
+        }
+        return rawBlocks;
+    }
+
+    private static RawTxOutput newOutput(int index, long value, String txId, int height) {
+        return new RawTxOutput(index, value, txId, null, "address", null, height);
+    }
+
+    private static RawTx newRawTx(String txId, int height, ImmutableList<TxInput> inputs, List<RawTxOutput> outputs) {
+        return new RawTx(txId, height, "block-" + height, height * 600_000L, inputs, ImmutableList.copyOf(outputs));
+    }
+
+    private static RawBlock newRawBlock(int height, String previousBlockHash, List<RawTx> rawTxs) {
+        PB.BaseBlock.Builder builder = PB.BaseBlock.newBuilder()
+                .setHeight(height)
+                .setTime(height * 600_000L)
+                .setHash("block-" + height)
+                .setRawBlock(PB.RawBlock.newBuilder()
+                        .addAllRawTxs(rawTxs.stream().map(RawTx::toProtoMessage).collect(Collectors.toList())));
+        if (previousBlockHash != null)
+            builder.setPreviousBlockHash(previousBlockHash);
+        return RawBlock.fromProto(builder.build());
+    }
+}
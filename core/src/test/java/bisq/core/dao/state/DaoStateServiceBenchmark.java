@@ -0,0 +1,77 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.governance.ParamChange;
+import bisq.core.util.BsqFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static bisq.core.dao.state.DaoStateServiceTest.getParamValueFromList;
+
+/**
+ * Compares the fee param lookup by scanning the param change list with the lookup in the per param timelines. Not
+ * part of the unit tests, run it with: ./gradlew :core:test -PrunBenchmarks --tests '*DaoStateServiceBenchmark'
+ */
+public class DaoStateServiceBenchmark {
+
+    @Test
+    public void benchmarkFeeParamLookup() {
+        DaoState daoState = new DaoState();
+        List<ParamChange> paramChangeList = daoState.getParamChangeList();
+        Param[] params = Param.values();
+        // About 10 years of cycles with a few param changes per cycle
+        for (int cycle = 0; cycle < 120; cycle++) {
+            for (int i = 0; i < 5; i++) {
+                Param param = params[(cycle * 5 + i) % params.length];
+                paramChangeList.add(new ParamChange(param.name(), param.getDefaultValue(), 100 + cycle * 4000));
+            }
+        }
+        DaoStateService stateService = new DaoStateService(daoState,
+                new GenesisTxInfo("fakegenesistxid", 100),
+                new BsqFormatter());
+        int numLookups = 1_000_000;
+
+        for (int run = 0; run < 3; run++) {
+            long ts = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < numLookups; i++) {
+                int height = 100 + i % 480_000;
+                Param param = i % 2 == 0 ? Param.PROPOSAL_FEE : Param.BLIND_VOTE_FEE;
+                // The previous implementation copied the list at each lookup
+                sum += getParamValueFromList(new ArrayList<>(paramChangeList), param, height).length();
+            }
+            long listDuration = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numLookups; i++) {
+                int height = 100 + i % 480_000;
+                Param param = i % 2 == 0 ? Param.PROPOSAL_FEE : Param.BLIND_VOTE_FEE;
+                sum += stateService.getParamValueAsCoin(param, height).value;
+            }
+            long timelineDuration = System.nanoTime() - ts;
+            System.out.println(numLookups + " fee param lookups with " + paramChangeList.size() +
+                    " param changes: list scan " + listDuration / 1_000_000 + " ms, timeline incl. parsing to coin " +
+                    timelineDuration / 1_000_000 + " ms (" + sum + ")");
+        }
+    }
+}
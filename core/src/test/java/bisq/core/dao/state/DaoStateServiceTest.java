@@ -17,10 +17,16 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.governance.param.Param;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.governance.ParamChange;
 import bisq.core.util.BsqFormatter;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,4 +69,47 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testGetParamValue() {
+        Random random = new Random(1);
+        Param[] params = {Param.PROPOSAL_FEE, Param.BLIND_VOTE_FEE, Param.QUORUM_COMP_REQUEST};
+        DaoState daoState = new DaoState();
+        List<ParamChange> paramChangeList = daoState.getParamChangeList();
+        for (int i = 0; i < 200; i++) {
+            Param param = params[random.nextInt(params.length)];
+            // We use few heights to get multiple changes at the same height as well
+            paramChangeList.add(new ParamChange(param.name(), String.valueOf(i), 100 + random.nextInt(50) * 10));
+        }
+        paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+        DaoStateService stateService = new DaoStateService(daoState,
+                new GenesisTxInfo("fakegenesistxid", 100),
+                new BsqFormatter());
+
+        for (Param param : params) {
+            Assert.assertEquals(param.getDefaultValue(), stateService.getParamValue(param, 99));
+            for (int height = 99; height < 700; height++) {
+                Assert.assertEquals(getParamValueFromList(paramChangeList, param, height),
+                        stateService.getParamValue(param, height));
+            }
+        }
+        Assert.assertEquals(Param.THRESHOLD_GENERIC.getDefaultValue(),
+                stateService.getParamValue(Param.THRESHOLD_GENERIC, 500));
+
+        // A snapshot replaces the param changes
+        stateService.applySnapshot(new DaoState());
+        Assert.assertEquals(Param.PROPOSAL_FEE.getDefaultValue(), stateService.getParamValue(Param.PROPOSAL_FEE, 500));
+    }
+
+    // Previous implementation of getParamValue used as reference
+    static String getParamValueFromList(List<ParamChange> paramChangeList, Param param, int blockHeight) {
+        for (int i = paramChangeList.size() - 1; i >= 0; i--) {
+            ParamChange paramChange = paramChangeList.get(i);
+            if (paramChange.getParamName().equals(param.name()) &&
+                    blockHeight >= paramChange.getActivationHeight()) {
+                return paramChange.getValue();
+            }
+        }
+        return param.getDefaultValue();
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentMethod;
+import bisq.core.payment.payload.PerfectMoneyAccountPayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the offer book checks with the stream and reflection based filter lookups used before with the
+ * CompiledFilter. Not part of the unit tests, run it with:
+ * ./gradlew :core:test -PrunBenchmarks --tests '*CompiledFilterBenchmark'
+ */
+public class CompiledFilterBenchmark {
+
+    @Test
+    public void benchmarkOfferBookChecks() {
+        int numEntries = 500;
+        List<String> bannedOfferIds = new ArrayList<>();
+        List<String> bannedNodeAddresses = new ArrayList<>();
+        List<PaymentAccountFilter> bannedPaymentAccounts = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            bannedOfferIds.add("bannedOffer" + i);
+            bannedNodeAddresses.add("banned" + i + ".onion:9999");
+            bannedPaymentAccounts.add(new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "banned" + i));
+        }
+        Filter filter = new Filter(bannedOfferIds,
+                bannedNodeAddresses,
+                bannedPaymentAccounts,
+                Arrays.asList("XMR", "ETH"),
+                Collections.singletonList(PaymentMethod.ALI_PAY_ID),
+                null,
+                null,
+                null,
+                false,
+                null);
+
+        int numOffers = 10_000;
+        List<String> offerIds = new ArrayList<>();
+        List<String> nodeAddresses = new ArrayList<>();
+        List<PerfectMoneyAccountPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            offerIds.add("offer" + i);
+            nodeAddresses.add("node" + i + ".onion:9999");
+            PerfectMoneyAccountPayload payload = new PerfectMoneyAccountPayload(PaymentMethod.PERFECT_MONEY_ID, "id");
+            payload.setAccountNr("account" + i);
+            payloads.add(payload);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long ts = System.nanoTime();
+            int numBanned = 0;
+            for (int i = 0; i < numOffers; i++) {
+                String offerId = offerIds.get(i);
+                String nodeAddress = nodeAddresses.get(i);
+                if (filter.getBannedOfferIds().stream().anyMatch(e -> e.equals(offerId)) ||
+                        filter.getBannedNodeAddress().stream().anyMatch(e -> e.equals(nodeAddress)) ||
+                        isPaymentAccountBannedByReflection(filter, payloads.get(i)))
+                    numBanned++;
+            }
+            long streamDuration = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            CompiledFilter compiledFilter = new CompiledFilter(filter);
+            int numBannedCompiled = 0;
+            for (int i = 0; i < numOffers; i++) {
+                if (compiledFilter.isOfferIdBanned(offerIds.get(i)) ||
+                        compiledFilter.isNodeAddressBanned(nodeAddresses.get(i)) ||
+                        compiledFilter.getMatchingPaymentAccountFilter(payloads.get(i)) != null)
+                    numBannedCompiled++;
+            }
+            long compiledDuration = System.nanoTime() - ts;
+
+            assertEquals(numBanned, numBannedCompiled);
+            System.out.println("Checking " + numOffers + " offers against " + numEntries + " entries: stream/reflection " +
+                    streamDuration / 1_000_000 + " ms, compiled (incl. compilation) " + compiledDuration / 1_000_000 + " ms");
+        }
+    }
+
+    // The approach used before the filter got compiled
+    private static boolean isPaymentAccountBannedByReflection(Filter filter, PerfectMoneyAccountPayload payload) {
+        return filter.getBannedPaymentAccounts().stream()
+                .anyMatch(paymentAccountFilter -> {
+                    if (!paymentAccountFilter.getPaymentMethodId().equals(payload.getPaymentMethodId()))
+                        return false;
+                    try {
+                        Object result = payload.getClass().getMethod(paymentAccountFilter.getGetMethodName()).invoke(payload);
+                        return paymentAccountFilter.getValue().equals(result);
+                    } catch (Throwable e) {
+                        return false;
+                    }
+                });
+    }
+}
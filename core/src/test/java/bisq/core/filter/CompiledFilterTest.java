@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentMethod;
+import bisq.core.payment.payload.PerfectMoneyAccountPayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledFilterTest {
+
+    @Test
+    public void testEmptyFilter() {
+        assertFalse(CompiledFilter.EMPTY.isOfferIdBanned("offer"));
+        assertFalse(CompiledFilter.EMPTY.isCurrencyBanned("EUR"));
+        assertNull(CompiledFilter.EMPTY.getMatchingPaymentAccountFilter(getPayload("123")));
+    }
+
+    @Test
+    public void testBannedEntries() {
+        CompiledFilter compiledFilter = new CompiledFilter(getFilter(Arrays.asList("offer1", "offer2"),
+                Collections.singletonList("abc.onion:9999"),
+                new ArrayList<>(),
+                Collections.singletonList("EUR"),
+                null));
+
+        assertTrue(compiledFilter.isOfferIdBanned("offer2"));
+        assertFalse(compiledFilter.isOfferIdBanned("offer3"));
+        assertTrue(compiledFilter.isNodeAddressBanned("abc.onion:9999"));
+        assertFalse(compiledFilter.isNodeAddressBanned("abc.onion:8888"));
+        assertTrue(compiledFilter.isCurrencyBanned("EUR"));
+        assertFalse(compiledFilter.isCurrencyBanned("USD"));
+        // bannedPaymentMethods is null for filters created by old versions
+        assertFalse(compiledFilter.isPaymentMethodBanned(PaymentMethod.PERFECT_MONEY_ID));
+    }
+
+    @Test
+    public void testBannedPaymentAccount() {
+        PaymentAccountFilter rule = new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "123");
+        PaymentAccountFilter otherMethodRule = new PaymentAccountFilter(PaymentMethod.ALI_PAY_ID, "getAccountNr", "456");
+        PaymentAccountFilter invalidGetterRule = new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getUnknown", "456");
+        CompiledFilter compiledFilter = new CompiledFilter(getFilter(new ArrayList<>(), new ArrayList<>(),
+                Arrays.asList(invalidGetterRule, otherMethodRule, rule), null, null));
+
+        assertEquals(rule, compiledFilter.getMatchingPaymentAccountFilter(getPayload("123")));
+        assertNull(compiledFilter.getMatchingPaymentAccountFilter(getPayload("456")));
+    }
+
+    private static PerfectMoneyAccountPayload getPayload(String accountNr) {
+        PerfectMoneyAccountPayload payload = new PerfectMoneyAccountPayload(PaymentMethod.PERFECT_MONEY_ID, "id");
+        payload.setAccountNr(accountNr);
+        return payload;
+    }
+
+    private static Filter getFilter(List<String> bannedOfferIds,
+                                    List<String> bannedNodeAddresses,
+                                    List<PaymentAccountFilter> bannedPaymentAccounts,
+                                    List<String> bannedCurrencies,
+                                    List<String> bannedPaymentMethods) {
+        return new Filter(bannedOfferIds,
+                bannedNodeAddresses,
+                bannedPaymentAccounts,
+                bannedCurrencies,
+                bannedPaymentMethods,
+                null,
+                null,
+                null,
+                false,
+                null);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import java.time.Instant;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static bisq.core.offer.OfferMaker.*;
+import static bisq.core.offer.OfferPayload.Direction.BUY;
+import static bisq.core.offer.OfferPayload.Direction.SELL;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(PriceFeedService.class)
+@PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*"})
+public class SortedOfferBookTest {
+
+    @Test
+    public void testFiatSortOrder() {
+        SortedOfferBook sortedOfferBook = new SortedOfferBook();
+        sortedOfferBook.add(getOffer("buy1", BUY, 1000_0000L));
+        sortedOfferBook.add(getOffer("buy2", BUY, 3000_0000L));
+        sortedOfferBook.add(getOffer("buy3", BUY, 2000_0000L));
+        sortedOfferBook.add(getOffer("sell1", SELL, 3500_0000L));
+        sortedOfferBook.add(getOffer("sell2", SELL, 3100_0000L));
+
+        assertEquals("buy2", sortedOfferBook.getBestBid("USD").get().getId());
+        assertEquals("sell2", sortedOfferBook.getBestAsk("USD").get().getId());
+        assertEquals(Arrays.asList("buy2", "buy3", "buy1"), getIds(sortedOfferBook.getOffers("USD", BUY)));
+        assertEquals(Arrays.asList("sell2", "sell1"), getIds(sortedOfferBook.getOffers("USD", SELL)));
+        assertFalse(sortedOfferBook.getBestBid("EUR").isPresent());
+    }
+
+    @Test
+    public void testAltcoinSortOrder() {
+        SortedOfferBook sortedOfferBook = new SortedOfferBook();
+        sortedOfferBook.add(getAltcoinOffer("buy1", BUY, 2_000_000L));
+        sortedOfferBook.add(getAltcoinOffer("buy2", BUY, 1_000_000L));
+        sortedOfferBook.add(getAltcoinOffer("sell1", SELL, 900_000L));
+        sortedOfferBook.add(getAltcoinOffer("sell2", SELL, 950_000L));
+
+        // Altcoin prices are in BTC, so the order is inverted
+        assertEquals("buy2", sortedOfferBook.getBestBid("XMR").get().getId());
+        assertEquals("sell2", sortedOfferBook.getBestAsk("XMR").get().getId());
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        SortedOfferBook sortedOfferBook = new SortedOfferBook();
+        sortedOfferBook.add(getOffer("buy1", BUY, 1000_0000L));
+        sortedOfferBook.add(getOffer("buy2", BUY, 2000_0000L));
+        // Same offer received again with another price must not lead to duplicates
+        sortedOfferBook.add(getOffer("buy1", BUY, 3000_0000L));
+
+        assertEquals(2, sortedOfferBook.size());
+        assertEquals(Arrays.asList("buy1", "buy2"), getIds(sortedOfferBook.getOffers("USD", BUY)));
+
+        sortedOfferBook.remove("buy1");
+        sortedOfferBook.remove("buy2");
+        sortedOfferBook.remove("unknown");
+        assertEquals(0, sortedOfferBook.size());
+        assertTrue(sortedOfferBook.getCurrencyCodes().isEmpty());
+    }
+
+    @Test
+    public void testDepth() {
+        SortedOfferBook sortedOfferBook = new SortedOfferBook();
+        sortedOfferBook.add(make(btcUsdOffer.but(with(id, "sell1"), with(direction, SELL),
+                with(price, 3000_0000L), with(amount, 100_000L))));
+        sortedOfferBook.add(make(btcUsdOffer.but(with(id, "sell2"), with(direction, SELL),
+                with(price, 3100_0000L), with(amount, 200_000L))));
+        sortedOfferBook.add(make(btcUsdOffer.but(with(id, "sell3"), with(direction, SELL),
+                with(price, 3200_0000L), with(amount, 300_000L))));
+
+        List<SortedOfferBook.DepthEntry> depth = sortedOfferBook.getDepth("USD", SELL, 2);
+        assertEquals(2, depth.size());
+        assertEquals(100_000L, depth.get(0).getAccumulatedAmount());
+        assertEquals(300_000L, depth.get(1).getAccumulatedAmount());
+        assertEquals(3100_0000L, depth.get(1).getPrice().getValue());
+    }
+
+    @Test
+    public void testRepriceMarketBasedOffers() {
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
+
+        SortedOfferBook sortedOfferBook = new SortedOfferBook();
+        sortedOfferBook.add(getOffer("fixed", BUY, 2000_0000L));
+        Offer marketBasedOffer = make(btcUsdOffer.but(with(id, "marketBased"), with(direction, BUY),
+                with(useMarketBasedPrice, true), with(marketPriceMargin, 0.01)));
+        marketBasedOffer.setPriceFeedService(priceFeedService);
+        sortedOfferBook.add(marketBasedOffer);
+
+        // Without market price the offer has no price and is not in the sorted lists
+        assertEquals(Collections.singletonList("fixed"), getIds(sortedOfferBook.getOffers("USD", BUY)));
+
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(getMarketPrice(1000));
+        sortedOfferBook.repriceMarketBasedOffers();
+        assertEquals(Arrays.asList("fixed", "marketBased"), getIds(sortedOfferBook.getOffers("USD", BUY)));
+
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(getMarketPrice(3000));
+        sortedOfferBook.repriceMarketBasedOffers();
+        assertEquals(Arrays.asList("marketBased", "fixed"), getIds(sortedOfferBook.getOffers("USD", BUY)));
+    }
+
+    private static MarketPrice getMarketPrice(double price) {
+        return new MarketPrice("USD", price, Instant.now().getEpochSecond(), true);
+    }
+
+    private static Offer getOffer(String offerId, OfferPayload.Direction offerDirection, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId), with(direction, offerDirection), with(price, offerPrice)));
+    }
+
+    private static Offer getAltcoinOffer(String offerId, OfferPayload.Direction offerDirection, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(direction, offerDirection),
+                with(price, offerPrice),
+                with(baseCurrencyCode, "XMR"),
+                with(counterCurrencyCode, "BTC")));
+    }
+
+    private static List<String> getIds(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.common.storage.FileUtil;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.base.Strings;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradableJournalTest {
+    private static final String FILE_NAME = "ClosedTrades";
+
+    private File dir;
+    private TradableJournal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("TradableJournalTest").toFile();
+        journal = new TradableJournal(dir, FILE_NAME);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testMissingJournalRequiresCheckpoint() {
+        assertTrue(journal.read().isEmpty());
+        assertFalse(journal.isValid());
+    }
+
+    @Test
+    public void testEntriesSinceCheckpoint() throws IOException {
+        journal.writeCheckpoint(getTradableList(getTradable("id1", 10)));
+        journal.append(getEntry("id1", 10));
+        journal.append(PB.TradableJournalEntry.newBuilder().setRemovedTradableId("id2").build());
+
+        TradableJournal persisted = new TradableJournal(dir, FILE_NAME);
+        List<PB.TradableJournalEntry> entries = persisted.read();
+        assertTrue(persisted.isValid());
+        assertEquals(2, entries.size());
+        assertEquals("id1", entries.get(0).getTradable().getOpenOffer().getOffer().getOfferPayload().getId());
+        assertEquals("id2", entries.get(1).getRemovedTradableId());
+
+        journal.writeCheckpoint(getTradableList(getTradable("id1", 10)));
+        persisted = new TradableJournal(dir, FILE_NAME);
+        assertTrue(persisted.read().isEmpty());
+        assertTrue(persisted.isValid());
+    }
+
+    @Test
+    public void testCrashAfterCheckpointBeforeJournalReset() throws IOException {
+        journal.writeCheckpoint(getTradableList());
+        journal.append(getEntry("id1", 10));
+        File journalFile = new File(dir, FILE_NAME + TradableJournal.FILE_NAME_POSTFIX);
+        File oldJournalFile = new File(dir, "oldJournal");
+        Files.copy(journalFile.toPath(), oldJournalFile.toPath());
+
+        // The new checkpoint contains the journal entry but the old journal is still there
+        journal.writeCheckpoint(getTradableList(getTradable("id1", 10)));
+        Files.move(oldJournalFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        TradableJournal persisted = new TradableJournal(dir, FILE_NAME);
+        assertTrue(persisted.read().isEmpty());
+        assertFalse(persisted.isValid());
+    }
+
+    @Test
+    public void testCrashDuringAppend() throws IOException {
+        journal.writeCheckpoint(getTradableList());
+        journal.append(getEntry("id1", 10));
+        File journalFile = new File(dir, FILE_NAME + TradableJournal.FILE_NAME_POSTFIX);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true)) {
+            // Length prefix of 100 bytes but only 3 bytes follow
+            fileOutputStream.write(new byte[]{100, 1, 2, 3});
+        }
+
+        TradableJournal persisted = new TradableJournal(dir, FILE_NAME);
+        List<PB.TradableJournalEntry> entries = persisted.read();
+        assertEquals(1, entries.size());
+        assertFalse(persisted.isValid());
+    }
+
+    @Test
+    public void testCheckpointDue() throws IOException {
+        journal.writeCheckpoint(getTradableList(getTradable("id1", 10)));
+        assertFalse(journal.isCheckpointDue());
+        for (int i = 0; i < 110; i++)
+            journal.append(getEntry("id1", 10_000));
+        assertTrue(journal.isCheckpointDue());
+
+        journal.writeCheckpoint(TradableJournal.serializeCheckpoint(getTradableList(getTradable("id1", 10_000))));
+        assertFalse(journal.isCheckpointDue());
+    }
+
+    private static PB.PersistableEnvelope getTradableList(PB.Tradable... tradables) {
+        PB.TradableList.Builder builder = PB.TradableList.newBuilder();
+        for (PB.Tradable tradable : tradables)
+            builder.addTradable(tradable);
+        return PB.PersistableEnvelope.newBuilder().setTradableList(builder).build();
+    }
+
+    private static PB.TradableJournalEntry getEntry(String id, int size) {
+        return PB.TradableJournalEntry.newBuilder().setTradable(getTradable(id, size)).build();
+    }
+
+    private static PB.Tradable getTradable(String id, int size) {
+        return PB.Tradable.newBuilder()
+                .setOpenOffer(PB.OpenOffer.newBuilder()
+                        .setOffer(PB.Offer.newBuilder()
+                                .setOfferPayload(PB.OfferPayload.newBuilder()
+                                        .setId(id)
+                                        .setOfferFeePaymentTxId(Strings.repeat("x", size)))))
+                .build();
+    }
+}
@@ -175,9 +175,7 @@ public class MarketView extends ActivatableViewAndModel<TabPane, Activatable> {
         // all items of both traders in case the referral ID was only set by one trader.
         // If both traders had set it the tradeStatistics is only delivered once.
         // If both traders used a different referral ID then we would get 2 objects.
-        List<String> list = p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().stream()
-                .filter(e -> e instanceof TradeStatistics2)
-                .map(e -> (TradeStatistics2) e)
+        List<String> list = p2PService.getP2PDataStorage().getAppendOnlyDataStorePayloads(TradeStatistics2.class).stream()
                 .filter(tradeStatistics2 -> tradeStatistics2.getExtraDataMap() != null)
                 .filter(tradeStatistics2 -> tradeStatistics2.getExtraDataMap().get(OfferPayload.REFERRAL_ID) != null)
                 .map(trade -> {
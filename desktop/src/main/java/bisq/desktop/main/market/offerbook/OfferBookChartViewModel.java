@@ -34,6 +34,7 @@ import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Price;
 import bisq.core.offer.Offer;
 import bisq.core.offer.OfferPayload;
+import bisq.core.offer.SortedOfferBook;
 import bisq.core.payment.AccountAgeWitnessService;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.user.Preferences;
@@ -67,6 +68,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     private static final int TAB_INDEX = 0;
 
     private final OfferBook offerBook;
+    private final SortedOfferBook sortedOfferBook;
     final Preferences preferences;
     final PriceFeedService priceFeedService;
     final AccountAgeWitnessService accountAgeWitnessService;
@@ -94,9 +96,11 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
     @SuppressWarnings("WeakerAccess")
     @Inject
-    public OfferBookChartViewModel(OfferBook offerBook, Preferences preferences, PriceFeedService priceFeedService,
-                                   AccountAgeWitnessService accountAgeWitnessService, Navigation navigation, BSFormatter formatter) {
+    public OfferBookChartViewModel(OfferBook offerBook, SortedOfferBook sortedOfferBook, Preferences preferences,
+                                   PriceFeedService priceFeedService, AccountAgeWitnessService accountAgeWitnessService,
+                                   Navigation navigation, BSFormatter formatter) {
         this.offerBook = offerBook;
+        this.sortedOfferBook = sortedOfferBook;
         this.preferences = preferences;
         this.priceFeedService = priceFeedService;
         this.navigation = navigation;
@@ -279,23 +283,9 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        List<Offer> allBuyOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.BUY))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a > b ? 1 : -1;
-                        else
-                            return a < b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
+        // The sorted offer book keeps the offers sorted by price with the best price first and does not contain
+        // offers without a price.
+        List<Offer> allBuyOffers = sortedOfferBook.getOffers(getCurrencyCode(), OfferPayload.Direction.BUY);
 
         allBuyOffers = filterOffersWithRelevantPrices(allBuyOffers);
 
@@ -321,23 +311,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
         buildChartAndTableEntries(allBuyOffers, OfferPayload.Direction.BUY, buyData, topBuyOfferList);
 
-        List<Offer> allSellOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.SELL))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a < b ? 1 : -1;
-                        else
-                            return a > b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
+        List<Offer> allSellOffers = sortedOfferBook.getOffers(getCurrencyCode(), OfferPayload.Direction.SELL);
 
         allSellOffers = filterOffersWithRelevantPrices(allSellOffers);
 
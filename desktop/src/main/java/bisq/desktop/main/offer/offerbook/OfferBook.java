@@ -21,14 +21,18 @@ import bisq.core.offer.Offer;
 import bisq.core.offer.OfferBookService;
 import bisq.core.trade.TradeManager;
 
+import bisq.common.UserThread;
+
 import javax.inject.Inject;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +50,11 @@ import static bisq.core.offer.OfferPayload.Direction.BUY;
 public class OfferBook {
     private final OfferBookService offerBookService;
     private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+    // Kept in sync with offerBookListItems, so we don't need to scan the list for each added or removed offer
+    private final Map<String, OfferBookListItem> offerBookListItemById = new HashMap<>();
+    // At bootstrap we receive thousands of offers in one GetDataResponse. We collect the items added in the same user
+    // thread cycle and add them with one call, so listeners of the observable list get only one change event.
+    private final Map<String, OfferBookListItem> pendingOfferBookListItemById = new LinkedHashMap<>();
     private final Map<String, Integer> buyOfferCountMap = new HashMap<>();
     private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
 
@@ -63,22 +72,20 @@ public class OfferBook {
                 // We get onAdded called every time a new ProtectedStorageEntry is received.
                 // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
                 // We filter here to only add new offers if the same offer (using equals) was not already added.
-                boolean hasSameOffer = offerBookListItems.stream()
-                        .anyMatch(item -> item.getOffer().equals(offer));
+                OfferBookListItem pendingItem = pendingOfferBookListItemById.get(offer.getId());
+                OfferBookListItem candidateWithSameId = pendingItem != null ? pendingItem : offerBookListItemById.get(offer.getId());
+                boolean hasSameOffer = candidateWithSameId != null && candidateWithSameId.getOffer().equals(offer);
                 if (!hasSameOffer) {
                     OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
                     // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
                     // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
-                    Optional<OfferBookListItem> candidateWithSameId = offerBookListItems.stream()
-                            .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                            .findAny();
-                    if (candidateWithSameId.isPresent()) {
+                    if (candidateWithSameId != null && pendingItem == null) {
                         log.warn("We had an old offer in the list with the same Offer ID. Might be that the state or errorMessage was different. " +
-                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId.get(), offerBookListItem);
-                        offerBookListItems.remove(candidateWithSameId.get());
+                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId, offerBookListItem);
+                        removeItem(candidateWithSameId);
                     }
 
-                    offerBookListItems.add(offerBookListItem);
+                    addItem(offerBookListItem);
                 } else {
                     log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
                 }
@@ -92,10 +99,11 @@ public class OfferBook {
                 // clean up possible references in openOfferManager
                 tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
                 // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                Optional<OfferBookListItem> candidateToRemove = offerBookListItems.stream()
-                        .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                        .findAny();
-                candidateToRemove.ifPresent(offerBookListItems::remove);
+                if (pendingOfferBookListItemById.remove(offer.getId()) == null) {
+                    OfferBookListItem candidateToRemove = offerBookListItemById.get(offer.getId());
+                    if (candidateToRemove != null)
+                        removeItem(candidateToRemove);
+                }
             }
         });
     }
@@ -108,10 +116,15 @@ public class OfferBook {
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
-            offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
+            List<OfferBookListItem> items = offerBookService.getOffers().stream()
                     .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList());
+            // getOffers contains the pending offers as well
+            pendingOfferBookListItemById.clear();
+            offerBookListItemById.clear();
+            items.forEach(item -> offerBookListItemById.put(item.getOffer().getId(), item));
+            offerBookListItems.clear();
+            offerBookListItems.addAll(items);
 
             log.debug("offerBookListItems.size " + offerBookListItems.size());
             fillOfferCountMaps();
@@ -129,6 +142,28 @@ public class OfferBook {
         return sellOfferCountMap;
     }
 
+    private void addItem(OfferBookListItem offerBookListItem) {
+        boolean isFirstPendingItem = pendingOfferBookListItemById.isEmpty();
+        pendingOfferBookListItemById.put(offerBookListItem.getOffer().getId(), offerBookListItem);
+        if (isFirstPendingItem)
+            UserThread.execute(this::addPendingItems);
+    }
+
+    private void addPendingItems() {
+        if (pendingOfferBookListItemById.isEmpty())
+            return;
+
+        List<OfferBookListItem> items = new ArrayList<>(pendingOfferBookListItemById.values());
+        pendingOfferBookListItemById.clear();
+        items.forEach(item -> offerBookListItemById.put(item.getOffer().getId(), item));
+        offerBookListItems.addAll(items);
+    }
+
+    private void removeItem(OfferBookListItem offerBookListItem) {
+        offerBookListItemById.remove(offerBookListItem.getOffer().getId(), offerBookListItem);
+        offerBookListItems.remove(offerBookListItem);
+    }
+
     private void fillOfferCountMaps() {
         buyOfferCountMap.clear();
         sellOfferCountMap.clear();
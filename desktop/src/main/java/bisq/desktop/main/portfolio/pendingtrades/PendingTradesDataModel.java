@@ -461,7 +461,7 @@ public class PendingTradesDataModel extends ActivatableDataModel {
 
             final PubKeyRing arbitratorPubKeyRing = trade.getArbitratorPubKeyRing();
             checkNotNull(arbitratorPubKeyRing, "arbitratorPubKeyRing must no tbe null");
-            Dispute dispute = new Dispute(disputeManager.getDisputeStorage(),
+            Dispute dispute = new Dispute(disputeManager.getDisputeList(),
                     trade.getId(),
                     keyRing.getPubKeyRing().hashCode(), // traderId
                     trade.getOffer().getDirection() == OfferPayload.Direction.BUY ? isMaker : !isMaker,
@@ -22,12 +22,15 @@ import bisq.desktop.main.offer.offerbook.OfferBookListItem;
 import bisq.desktop.main.offer.offerbook.OfferBookListItemMaker;
 
 import bisq.core.locale.GlobalSettings;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.SortedOfferBook;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.util.BSFormatter;
 
 import javafx.beans.property.SimpleIntegerProperty;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
@@ -38,6 +41,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import org.mockito.ArgumentCaptor;
+
 import static bisq.desktop.main.offer.offerbook.OfferBookListItemMaker.btcBuyItem;
 import static bisq.desktop.main.offer.offerbook.OfferBookListItemMaker.btcSellItem;
 import static bisq.desktop.maker.PreferenceMakers.empty;
@@ -47,6 +52,7 @@ import static com.natpryce.makeiteasy.MakeItEasy.with;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(PowerMockRunner.class)
@@ -66,7 +72,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyPrice.intValue());
     }
 
@@ -85,7 +91,7 @@ public class OfferBookChartViewModelTest {
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
         assertEquals(0, model.maxPlacesForBuyPrice.intValue());
     }
@@ -99,7 +105,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, service, null, null, new BSFormatter());
         model.activate();
         assertEquals(7, model.maxPlacesForBuyPrice.intValue());
         offerBookListItems.addAll(make(btcBuyItem.but(with(OfferBookListItemMaker.price, 94016475L))));
@@ -115,7 +121,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyVolume.intValue());
     }
 
@@ -128,7 +134,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, service, null, null, new BSFormatter());
         model.activate();
         assertEquals(4, model.maxPlacesForBuyVolume.intValue()); //0.01
         offerBookListItems.addAll(make(btcBuyItem.but(with(OfferBookListItemMaker.amount, 100000000L))));
@@ -144,7 +150,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellPrice.intValue());
     }
 
@@ -163,7 +169,7 @@ public class OfferBookChartViewModelTest {
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
         assertEquals(0, model.maxPlacesForSellPrice.intValue());
     }
@@ -177,7 +183,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, service, null, null, new BSFormatter());
         model.activate();
         assertEquals(7, model.maxPlacesForSellPrice.intValue()); // 10.0000 default price
         offerBookListItems.addAll(make(btcSellItem.but(with(OfferBookListItemMaker.price, 94016475L))));
@@ -193,7 +199,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellVolume.intValue());
     }
 
@@ -206,7 +212,7 @@ public class OfferBookChartViewModelTest {
 
         when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
 
-        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
+        final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, getSortedOfferBook(offerBookListItems), empty, service, null, null, new BSFormatter());
         model.activate();
         assertEquals(4, model.maxPlacesForSellVolume.intValue()); //0.01
         offerBookListItems.addAll(make(btcSellItem.but(with(OfferBookListItemMaker.amount, 100000000L))));
@@ -214,4 +220,25 @@ public class OfferBookChartViewModelTest {
         offerBookListItems.addAll(make(btcSellItem.but(with(OfferBookListItemMaker.amount, 22128600000L))));
         assertEquals(7, model.maxPlacesForSellVolume.intValue()); //2212.86
     }
+
+    // The sorted offer book gets the offers from the OfferBookService listener. We feed it with the items of the offer
+    // book list before the view model gets notified about them.
+    private static SortedOfferBook getSortedOfferBook(ObservableList<OfferBookListItem> offerBookListItems) {
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
+        SortedOfferBook sortedOfferBook = new SortedOfferBook(offerBookService, priceFeedService);
+
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        OfferBookService.OfferBookChangedListener listener = captor.getValue();
+        offerBookListItems.forEach(item -> listener.onAdded(item.getOffer()));
+        offerBookListItems.addListener((ListChangeListener<OfferBookListItem>) c -> {
+            while (c.next()) {
+                c.getAddedSubList().forEach(item -> listener.onAdded(item.getOffer()));
+            }
+        });
+        return sortedOfferBook;
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.desktop.main.offer.offerbook;
+
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.trade.TradeManager;
+
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static bisq.desktop.maker.OfferMaker.btcUsdOffer;
+import static bisq.desktop.maker.OfferMaker.direction;
+import static bisq.desktop.maker.OfferMaker.id;
+import static bisq.desktop.maker.OfferMaker.price;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Measures populating the offer book with offers received from several peers. Not part of the unit tests, run it
+ * with: ./gradlew :desktop:test -PrunBenchmarks --tests '*OfferBookBenchmark'
+ */
+public class OfferBookBenchmark {
+
+    @Test
+    public void benchmarkPopulateOfferBook() {
+        List<Runnable> pendingUserThreadTasks = new ArrayList<>();
+        Executor defaultExecutor = UserThread.getExecutor();
+        UserThread.setExecutor(pendingUserThreadTasks::add);
+        try {
+            OfferBookService offerBookService = mock(OfferBookService.class);
+            OfferBook offerBook = new OfferBook(offerBookService, mock(TradeManager.class));
+            ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                    ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+            verify(offerBookService).addOfferBookChangedListener(captor.capture());
+            OfferBookService.OfferBookChangedListener listener = captor.getValue();
+
+            int numOffers = 5000;
+            List<Offer> offers = new ArrayList<>();
+            for (int i = 0; i < numOffers; i++) {
+                offers.add(make(btcUsdOffer.but(with(id, String.valueOf(i)),
+                        with(price, 100L + i),
+                        with(direction, OfferPayload.Direction.BUY))));
+            }
+
+            long ts = System.nanoTime();
+            // Each offer is delivered twice as we receive the same offer from several peers
+            offers.forEach(listener::onAdded);
+            offers.forEach(listener::onAdded);
+            new ArrayList<>(pendingUserThreadTasks).forEach(Runnable::run);
+            long duration = System.nanoTime() - ts;
+
+            assertEquals(numOffers, offerBook.getOfferBookListItems().size());
+            System.out.println("Populating offer book with " + numOffers + " offers took " + duration / 1_000_000 + " ms");
+        } finally {
+            UserThread.setExecutor(defaultExecutor);
+        }
+    }
+}
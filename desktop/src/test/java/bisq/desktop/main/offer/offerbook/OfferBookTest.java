@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.desktop.main.offer.offerbook;
+
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.trade.TradeManager;
+
+import bisq.common.UserThread;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static bisq.desktop.maker.OfferMaker.btcUsdOffer;
+import static bisq.desktop.maker.OfferMaker.direction;
+import static bisq.desktop.maker.OfferMaker.id;
+import static bisq.desktop.maker.OfferMaker.price;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class OfferBookTest {
+    private final List<Runnable> pendingUserThreadTasks = new ArrayList<>();
+    private Executor defaultExecutor;
+    private OfferBook offerBook;
+    private OfferBookService.OfferBookChangedListener listener;
+
+    @Before
+    public void setUp() {
+        defaultExecutor = UserThread.getExecutor();
+        UserThread.setExecutor(pendingUserThreadTasks::add);
+
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        offerBook = new OfferBook(offerBookService, mock(TradeManager.class));
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(defaultExecutor);
+    }
+
+    @Test
+    public void testAddedOffersAreBatched() {
+        List<Integer> numChanges = new ArrayList<>();
+        offerBook.getOfferBookListItems().addListener((ListChangeListener<OfferBookListItem>) c -> numChanges.add(1));
+
+        listener.onAdded(getOffer("1", 100));
+        listener.onAdded(getOffer("2", 200));
+        listener.onAdded(getOffer("3", 300));
+        assertEquals(0, offerBook.getOfferBookListItems().size());
+
+        runPendingUserThreadTasks();
+        assertEquals(3, offerBook.getOfferBookListItems().size());
+        assertEquals(1, numChanges.size());
+    }
+
+    @Test
+    public void testSameOfferIsIgnoredAndChangedOfferIsReplaced() {
+        listener.onAdded(getOffer("1", 100));
+        runPendingUserThreadTasks();
+        OfferBookListItem item = offerBook.getOfferBookListItems().get(0);
+
+        listener.onAdded(getOffer("1", 100));
+        runPendingUserThreadTasks();
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertSame(item, offerBook.getOfferBookListItems().get(0));
+
+        listener.onAdded(getOffer("1", 101));
+        runPendingUserThreadTasks();
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertEquals(101, offerBook.getOfferBookListItems().get(0).getOffer().getOfferPayload().getPrice());
+    }
+
+    @Test
+    public void testRemove() {
+        listener.onAdded(getOffer("1", 100));
+        listener.onAdded(getOffer("2", 200));
+        runPendingUserThreadTasks();
+
+        listener.onRemoved(getOffer("1", 100));
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertEquals("2", offerBook.getOfferBookListItems().get(0).getOffer().getId());
+
+        // Removing an offer which is not added to the list yet
+        listener.onAdded(getOffer("3", 300));
+        listener.onRemoved(getOffer("3", 300));
+        runPendingUserThreadTasks();
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+
+        listener.onRemoved(getOffer("unknown", 100));
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+    }
+
+    private void runPendingUserThreadTasks() {
+        List<Runnable> tasks = new ArrayList<>(pendingUserThreadTasks);
+        pendingUserThreadTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Offer getOffer(String offerId, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(price, offerPrice),
+                with(direction, OfferPayload.Direction.BUY)));
+    }
+}
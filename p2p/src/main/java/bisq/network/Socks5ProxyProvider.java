@@ -19,6 +19,7 @@ package bisq.network;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
+import bisq.network.http.Socks5HttpClientPool;
 import bisq.network.p2p.network.NetworkNode;
 
 import com.google.inject.Inject;
@@ -59,9 +60,11 @@ public class Socks5ProxyProvider {
 
     @Inject
     public Socks5ProxyProvider(@Named(NetworkOptionKeys.SOCKS_5_PROXY_BTC_ADDRESS) String socks5ProxyBtcAddress,
-                               @Named(NetworkOptionKeys.SOCKS_5_PROXY_HTTP_ADDRESS) String socks5ProxyHttpAddress) {
+                               @Named(NetworkOptionKeys.SOCKS_5_PROXY_HTTP_ADDRESS) String socks5ProxyHttpAddress,
+                               @Named(NetworkOptionKeys.HTTP_MAX_CONNECTIONS) int httpMaxConnections) {
         socks5ProxyBtc = getProxyFromAddress(socks5ProxyBtcAddress);
         socks5ProxyHttp = getProxyFromAddress(socks5ProxyHttpAddress);
+        Socks5HttpClientPool.setMaxConnections(httpMaxConnections);
     }
 
     @Nullable
@@ -21,19 +21,17 @@ import bisq.network.Socks5ProxyProvider;
 
 import bisq.common.app.Version;
 
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.ssl.SSLContexts;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javax.inject.Inject;
 
 import java.net.HttpURLConnection;
@@ -45,9 +43,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -57,12 +58,26 @@ import static com.google.common.base.Preconditions.checkNotNull;
 // TODO close connection if failing
 @Slf4j
 public class HttpClient {
+    // Price and fee requests are polled, so we log the statistics of a provider only each n-th request
+    private static final int LOG_STATISTICS_INTERVAL = 60;
+
     @Nullable
     private Socks5ProxyProvider socks5ProxyProvider;
     @Getter
     private String baseUrl;
     private boolean ignoreSocks5Proxy;
     private final String uid;
+    @Getter
+    private final HttpRequestStatistics requestStatistics = new HttpRequestStatistics();
+    // We send the ETag of the last response with the next request to the same URL. If the resource has not changed the
+    // server responds with 304 (Not Modified) and we use the cached body.
+    private final Map<String, CachedResponse> cachedResponseByUrl = new ConcurrentHashMap<>();
+
+    @Value
+    private static class CachedResponse {
+        private final String eTag;
+        private final String body;
+    }
 
     @Inject
     public HttpClient(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
@@ -110,7 +125,11 @@ public class HttpClient {
     public String requestWithGETNoProxy(String param, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
         HttpURLConnection connection = null;
         log.debug("Executing HTTP request " + baseUrl + param + " proxy: none.");
-        URL url = new URL(baseUrl + param);
+        String urlString = baseUrl + param;
+        URL url = new URL(urlString);
+        long ts = System.currentTimeMillis();
+        boolean success = false;
+        boolean notModified = false;
         try {
             connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
@@ -119,9 +138,20 @@ public class HttpClient {
             connection.setRequestProperty("User-Agent", "bisq/" + Version.VERSION);
             if (headerKey != null && headerValue != null)
                 connection.setRequestProperty(headerKey, headerValue);
-
-            if (connection.getResponseCode() == 200) {
-                return convertInputStreamToString(connection.getInputStream());
+            CachedResponse cachedResponse = cachedResponseByUrl.get(urlString);
+            if (cachedResponse != null)
+                connection.setRequestProperty("If-None-Match", cachedResponse.getETag());
+
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpStatus.SC_NOT_MODIFIED && cachedResponse != null) {
+                success = true;
+                notModified = true;
+                return cachedResponse.getBody();
+            } else if (responseCode == 200) {
+                String body = convertInputStreamToString(connection.getInputStream());
+                updateCachedResponse(urlString, connection.getHeaderField("ETag"), body);
+                success = true;
+                return body;
             } else {
                 String error = convertInputStreamToString(connection.getErrorStream());
                 connection.getErrorStream().close();
@@ -132,6 +162,7 @@ public class HttpClient {
             log.error(message);
             throw new IOException(message);
         } finally {
+            addRequestStatistics(System.currentTimeMillis() - ts, success, notModified);
             try {
                 if (connection != null)
                     connection.getInputStream().close();
@@ -146,25 +177,20 @@ public class HttpClient {
 
 
     /**
-     * Make an HTTP Get request routed over socks5 proxy.
+     * Make an HTTP Get request routed over socks5 proxy. We use a pooled client per proxy, so consecutive requests
+     * reuse the open connection.
      */
-    private String requestWithGETProxy(String param, Socks5Proxy socks5Proxy, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
+    @VisibleForTesting
+    String requestWithGETProxy(String param, Socks5Proxy socks5Proxy, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
         log.debug("requestWithGETProxy param=" + param);
         // This code is adapted from:
         //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
-
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
-        try (CloseableHttpClient httpclient = HttpClients.custom().setConnectionManager(cm).build()) {
+        String urlString = baseUrl + param;
+        long ts = System.currentTimeMillis();
+        boolean success = false;
+        boolean notModified = false;
+        try {
+            CloseableHttpClient httpclient = Socks5HttpClientPool.getHttpClient(socks5Proxy);
             InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
 
             // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
@@ -173,19 +199,50 @@ public class HttpClient {
             HttpClientContext context = HttpClientContext.create();
             context.setAttribute("socks.address", socksAddress);
 
-            HttpGet request = new HttpGet(baseUrl + param);
+            HttpGet request = new HttpGet(urlString);
             if (headerKey != null && headerValue != null)
                 request.setHeader(headerKey, headerValue);
+            CachedResponse cachedResponse = cachedResponseByUrl.get(urlString);
+            if (cachedResponse != null)
+                request.setHeader("If-None-Match", cachedResponse.getETag());
 
             log.debug("Executing request " + request + " proxy: " + socksAddress);
             try (CloseableHttpResponse response = httpclient.execute(request, context)) {
-                return convertInputStreamToString(response.getEntity().getContent());
+                if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED && cachedResponse != null) {
+                    success = true;
+                    notModified = true;
+                    return cachedResponse.getBody();
+                }
+
+                // The entity has to be fully consumed for the connection to be returned to the pool
+                String body = convertInputStreamToString(response.getEntity().getContent());
+                if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+                    Header eTagHeader = response.getFirstHeader("ETag");
+                    updateCachedResponse(urlString, eTagHeader != null ? eTagHeader.getValue() : null, body);
+                }
+                success = true;
+                return body;
             }
         } catch (Throwable t) {
-            throw new IOException("Error at requestWithGETProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage());
+            throw new IOException("Error at requestWithGETProxy with URL: " + urlString + ". Throwable=" + t.getMessage());
+        } finally {
+            addRequestStatistics(System.currentTimeMillis() - ts, success, notModified);
         }
     }
 
+    private void addRequestStatistics(long latencyMs, boolean success, boolean notModified) {
+        HttpRequestStatistics.ProviderStatistics statistics = requestStatistics.add(baseUrl, latencyMs, success, notModified);
+        if (statistics.getNumRequests() % LOG_STATISTICS_INTERVAL == 0)
+            log.info("Http request statistics for {}: {}", baseUrl, statistics);
+    }
+
+    private void updateCachedResponse(String urlString, @Nullable String eTag, String body) {
+        if (eTag != null)
+            cachedResponseByUrl.put(urlString, new CachedResponse(eTag, body));
+        else
+            cachedResponseByUrl.remove(urlString);
+    }
+
     private String convertInputStreamToString(InputStream inputStream) throws IOException {
         BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
         StringBuilder stringBuilder = new StringBuilder();
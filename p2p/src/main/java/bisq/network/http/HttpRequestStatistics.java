@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Value;
+
+/**
+ * Latency statistics of the http requests per provider (base url).
+ */
+public class HttpRequestStatistics {
+    private final Map<String, Entry> entryByProvider = new TreeMap<>();
+
+    @Value
+    public static class ProviderStatistics {
+        private final int numRequests;
+        private final int numFailures;
+        private final int numNotModified;
+        private final long lastLatencyMs;
+        private final long maxLatencyMs;
+        private final long totalLatencyMs;
+
+        public long getMeanLatencyMs() {
+            return numRequests > 0 ? totalLatencyMs / numRequests : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "numRequests=" + numRequests +
+                    ", numFailures=" + numFailures +
+                    ", numNotModified=" + numNotModified +
+                    ", meanLatencyMs=" + getMeanLatencyMs() +
+                    ", lastLatencyMs=" + lastLatencyMs +
+                    ", maxLatencyMs=" + maxLatencyMs;
+        }
+    }
+
+    private static class Entry {
+        private int numRequests;
+        private int numFailures;
+        private int numNotModified;
+        private long lastLatencyMs;
+        private long maxLatencyMs;
+        private long totalLatencyMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized ProviderStatistics add(String provider, long latencyMs, boolean success, boolean notModified) {
+        Entry entry = entryByProvider.computeIfAbsent(provider, k -> new Entry());
+        entry.numRequests++;
+        if (!success)
+            entry.numFailures++;
+        if (notModified)
+            entry.numNotModified++;
+        entry.lastLatencyMs = latencyMs;
+        entry.maxLatencyMs = Math.max(entry.maxLatencyMs, latencyMs);
+        entry.totalLatencyMs += latencyMs;
+        return getProviderStatistics(entry);
+    }
+
+    public synchronized Map<String, ProviderStatistics> getStatisticsByProvider() {
+        Map<String, ProviderStatistics> result = new TreeMap<>();
+        entryByProvider.forEach((provider, entry) -> result.put(provider, getProviderStatistics(entry)));
+        return result;
+    }
+
+    private static ProviderStatistics getProviderStatistics(Entry entry) {
+        return new ProviderStatistics(entry.numRequests,
+                entry.numFailures,
+                entry.numNotModified,
+                entry.lastLatencyMs,
+                entry.maxLatencyMs,
+                entry.totalLatencyMs);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("HttpRequestStatistics{");
+        getStatisticsByProvider().forEach((provider, statistics) ->
+                sb.append("\n     ").append(provider).append(": ").append(statistics));
+        return sb.append("\n}").toString();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.http;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+
+import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one long-lived pooled http client per socks5 proxy. Connections are kept alive between requests, so
+ * consecutive requests to the same host don't need a new socks5 handshake, Tor circuit attach and TLS handshake.
+ * <p/>
+ * The socks5 address is not part of the route used as pool key by the connection manager, so we must not share a
+ * client between different proxies.
+ */
+@Slf4j
+public class Socks5HttpClientPool {
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+    // Tor exit nodes and the providers close idle connections, so we don't keep them open longer.
+    private static final long DEFAULT_KEEP_ALIVE_MS = TimeUnit.SECONDS.toMillis(90);
+    private static final long MAX_IDLE_TIME_SEC = 90;
+    // A connection which was idle for longer is checked before it gets reused
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+
+    // Guarded by the class lock, so no client can be added while we close the clients at shut down
+    private static final Map<String, CloseableHttpClient> httpClientByProxy = new HashMap<>();
+    private static volatile int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private static boolean isShutDown;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Max. number of pooled connections per proxy and per host. Applies to clients created after the call.
+     */
+    public static void setMaxConnections(int maxConnections) {
+        Socks5HttpClientPool.maxConnections = maxConnections;
+    }
+
+    public static synchronized void shutDown() {
+        isShutDown = true;
+        closeHttpClients();
+    }
+
+    // Requests after shut down fail as a client created then would never be closed
+    static synchronized CloseableHttpClient getHttpClient(Socks5Proxy socks5Proxy) throws IOException {
+        if (isShutDown)
+            throw new IOException("Socks5HttpClientPool is already shut down");
+
+        String key = socks5Proxy.getInetAddress().getHostAddress() + ":" + socks5Proxy.getPort() +
+                ":" + socks5Proxy.resolveAddrLocally();
+        return httpClientByProxy.computeIfAbsent(key, k -> createHttpClient(socks5Proxy));
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        closeHttpClients();
+        isShutDown = false;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void closeHttpClients() {
+        httpClientByProxy.values().forEach(httpClient -> {
+            try {
+                httpClient.close();
+            } catch (Throwable t) {
+                log.warn("Closing pooled http client failed. {}", t.toString());
+            }
+        });
+        httpClientByProxy.clear();
+    }
+
+    private static CloseableHttpClient createHttpClient(Socks5Proxy socks5Proxy) {
+        // Register our own SocketFactories to override createSocket() and connectSocket().
+        // connectSocket does NOT resolve hostname before passing it to proxy.
+        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new SocksConnectionSocketFactory())
+                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+
+        // Use FakeDNSResolver if not resolving DNS locally.
+        // This prevents a local DNS lookup (which would be ignored anyway)
+        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
+                new PoolingHttpClientConnectionManager(reg) :
+                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
+        int maxConnections = Socks5HttpClientPool.maxConnections;
+        cm.setMaxTotal(maxConnections);
+        cm.setDefaultMaxPerRoute(maxConnections);
+        cm.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+
+        // We use the keep alive duration sent by the server and fall back to our default if it did not send one.
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long keepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAliveMs > 0 ? Math.min(keepAliveMs, DEFAULT_KEEP_ALIVE_MS) : DEFAULT_KEEP_ALIVE_MS;
+        };
+
+        log.info("Create pooled http client for socks5 proxy {}:{} with maxConnections={}",
+                socks5Proxy.getInetAddress(), socks5Proxy.getPort(), maxConnections);
+        return HttpClients.custom()
+                .setConnectionManager(cm)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_TIME_SEC, TimeUnit.SECONDS)
+                .build();
+    }
+}
@@ -19,6 +19,7 @@ package bisq.network.p2p;
 
 import bisq.network.NetworkOptionKeys;
 import bisq.network.Socks5ProxyProvider;
+import bisq.network.http.Socks5HttpClientPool;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.BanList;
 import bisq.network.p2p.peers.Broadcaster;
@@ -26,6 +27,7 @@ import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.getdata.RequestDataManager;
 import bisq.network.p2p.peers.keepalive.KeepAliveManager;
 import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.peers.preconnect.PreconnectManager;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.network.p2p.storage.persistence.PersistableNetworkPayloadListService;
@@ -62,6 +64,7 @@ public class P2PModule extends AppModule {
         bind(RequestDataManager.class).in(Singleton.class);
         bind(PeerExchangeManager.class).in(Singleton.class);
         bind(KeepAliveManager.class).in(Singleton.class);
+        bind(PreconnectManager.class).in(Singleton.class);
         bind(Broadcaster.class).in(Singleton.class);
         bind(BanList.class).in(Singleton.class);
         bind(NetworkNode.class).toProvider(NetworkNodeProvider.class).in(Singleton.class);
@@ -81,6 +84,9 @@ public class P2PModule extends AppModule {
         Integer maxConnections = environment.getProperty(NetworkOptionKeys.MAX_CONNECTIONS, int.class, P2PService.MAX_CONNECTIONS_DEFAULT);
         bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.MAX_CONNECTIONS)).toInstance(maxConnections);
 
+        Integer httpMaxConnections = environment.getProperty(NetworkOptionKeys.HTTP_MAX_CONNECTIONS, int.class, Socks5HttpClientPool.DEFAULT_MAX_CONNECTIONS);
+        bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.HTTP_MAX_CONNECTIONS)).toInstance(httpMaxConnections);
+
         Integer networkId = environment.getProperty(NetworkOptionKeys.NETWORK_ID, int.class, 1);
         bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.NETWORK_ID)).toInstance(networkId);
         bindConstant().annotatedWith(named(NetworkOptionKeys.SEED_NODES_KEY)).to(environment.getRequiredProperty(NetworkOptionKeys.SEED_NODES_KEY));
@@ -19,6 +19,7 @@ package bisq.network.p2p;
 
 import bisq.network.Socks5ProxyProvider;
 import bisq.network.crypto.EncryptionService;
+import bisq.network.http.Socks5HttpClientPool;
 import bisq.network.p2p.messaging.DecryptedMailboxListener;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
@@ -33,6 +34,7 @@ import bisq.network.p2p.peers.getdata.RequestDataManager;
 import bisq.network.p2p.peers.keepalive.KeepAliveManager;
 import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.peers.preconnect.PreconnectManager;
 import bisq.network.p2p.seed.SeedNodeRepository;
 import bisq.network.p2p.storage.HashMapChangedListener;
 import bisq.network.p2p.storage.P2PDataStorage;
@@ -128,6 +130,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private final Subscription networkReadySubscription;
     private boolean isBootstrapped;
     private final KeepAliveManager keepAliveManager;
+    private final PreconnectManager preconnectManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
 
 
@@ -143,6 +146,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                       RequestDataManager requestDataManager,
                       PeerExchangeManager peerExchangeManager,
                       KeepAliveManager keepAliveManager,
+                      PreconnectManager preconnectManager,
                       Broadcaster broadcaster,
                       SeedNodeRepository seedNodeRepository,
                       Socks5ProxyProvider socks5ProxyProvider,
@@ -154,6 +158,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         this.requestDataManager = requestDataManager;
         this.peerExchangeManager = peerExchangeManager;
         this.keepAliveManager = keepAliveManager;
+        this.preconnectManager = preconnectManager;
         this.broadcaster = broadcaster;
         this.seedNodeRepository = seedNodeRepository;
         this.socks5ProxyProvider = socks5ProxyProvider;
@@ -232,6 +237,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (keepAliveManager != null)
                 keepAliveManager.shutDown();
 
+            if (preconnectManager != null)
+                preconnectManager.shutDown();
+
+            Socks5HttpClientPool.shutDown();
+
             if (networkReadySubscription != null)
                 networkReadySubscription.unsubscribe();
 
@@ -280,6 +290,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         boolean seedNodesAvailable = requestDataManager.requestPreliminaryData();
 
         keepAliveManager.start();
+        preconnectManager.start();
         p2pServiceListeners.stream().forEach(SetupListener::onTorNodeReady);
 
         if (!seedNodesAvailable) {
@@ -513,6 +524,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         }
     }
 
+    // Pre-establishes a connection in the background to a peer we expect to send direct messages to soon
+    public void preconnect(NodeAddress peerNodeAddress) {
+        preconnectManager.preconnect(peerNodeAddress, PreconnectManager.Priority.HIGH);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MailboxMessages
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of the time it takes to create a socket to a peer. With Tor that is mainly the hidden service rendezvous
+ * which takes usually a few seconds.
+ * Durations are added from the NetworkNode threads, so we use atomic counters.
+ */
+public class ConnectTimeHistogram {
+    // Upper bounds of the buckets in ms, the last bucket is for all durations above the highest bound
+    private static final long[] BUCKET_BOUNDS_MS = {250, 500, 1000, 2000, 4000, 8000, 16000, 32000, 64000, 120000};
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final AtomicLong numFailures = new AtomicLong();
+    private final AtomicLong sumOfDurations = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(long durationMs) {
+        bucketCounts.incrementAndGet(getBucketIndex(durationMs));
+        sumOfDurations.addAndGet(durationMs);
+    }
+
+    public void addFailure() {
+        numFailures.incrementAndGet();
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < bucketCounts.length(); i++)
+            count += bucketCounts.get(i);
+        return count;
+    }
+
+    public long getNumFailures() {
+        return numFailures.get();
+    }
+
+    public long getAverage() {
+        long count = getCount();
+        return count > 0 ? sumOfDurations.get() / count : 0;
+    }
+
+    // Returns the upper bound of the bucket containing the given percentile or -1 if it is in the open last bucket
+    // or if we do not have any durations yet.
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0)
+            return -1;
+
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long cumulatedCount = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            cumulatedCount += bucketCounts.get(i);
+            if (cumulatedCount >= rank)
+                return BUCKET_BOUNDS_MS[i];
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ConnectTimeHistogram{")
+                .append("count=").append(getCount())
+                .append(", numFailures=").append(getNumFailures())
+                .append(", average=").append(getAverage()).append(" ms")
+                .append(", buckets=[");
+        for (int i = 0; i < bucketCounts.length(); i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(i < BUCKET_BOUNDS_MS.length ? "<=" + BUCKET_BOUNDS_MS[i] : ">" + BUCKET_BOUNDS_MS[i - 1])
+                    .append(" ms: ").append(bucketCounts.get(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int getBucketIndex(long durationMs) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (durationMs <= BUCKET_BOUNDS_MS[i])
+                return i;
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+}
@@ -27,7 +27,9 @@ import java.net.ServerSocket;
 import java.net.Socket;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -41,6 +43,8 @@ public class LocalhostNetworkNode extends NetworkNode {
 
     private static int simulateTorDelayTorNode = 500;
     private static int simulateTorDelayHiddenService = 500;
+    // Simulates the hidden service rendezvous when connecting to a peer. The delay varies randomly by +/- 50%.
+    private static int simulateTorDelayConnect = 0;
 
     private String address;
 
@@ -52,6 +56,10 @@ public class LocalhostNetworkNode extends NetworkNode {
         LocalhostNetworkNode.simulateTorDelayHiddenService = simulateTorDelayHiddenService;
     }
 
+    public static void setSimulateTorDelayConnect(int simulateTorDelayConnect) {
+        LocalhostNetworkNode.simulateTorDelayConnect = simulateTorDelayConnect;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -101,6 +109,15 @@ public class LocalhostNetworkNode extends NetworkNode {
     // Called from NetworkNode thread
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
+        if (simulateTorDelayConnect > 0) {
+            int delay = simulateTorDelayConnect / 2 + ThreadLocalRandom.current().nextInt(simulateTorDelayConnect + 1);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted at simulated connect delay");
+            }
+        }
         return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
     }
 }
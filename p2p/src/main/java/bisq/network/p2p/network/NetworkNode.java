@@ -31,6 +31,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
 import javafx.beans.property.ObjectProperty;
@@ -42,11 +43,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -63,10 +68,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public abstract class NetworkNode implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(NetworkNode.class);
     private static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    // Each hidden service rendezvous builds several circuits in the Tor client. Message-driven connects are not
+    // limited otherwise, so we bound the socket creations which run at the same time.
+    private static final int MAX_CONCURRENT_CONNECTS = 10;
 
     final int servicePort;
     private final NetworkProtoResolver networkProtoResolver;
 
+    private final Semaphore connectPermits = new Semaphore(MAX_CONCURRENT_CONNECTS, true);
     private final CopyOnWriteArraySet<InboundConnection> inBoundConnections = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<>();
@@ -77,6 +86,8 @@ public abstract class NetworkNode implements MessageListener {
     private volatile boolean shutDownInProgress;
     // accessed from different threads
     private final CopyOnWriteArraySet<OutboundConnection> outBoundConnections = new CopyOnWriteArraySet<>();
+    private final Map<NodeAddress, ListenableFuture<Connection>> pendingOutboundConnections = new ConcurrentHashMap<>();
+    private final ConnectTimeHistogram connectTimeHistogram = new ConnectTimeHistogram();
     protected final ObjectProperty<NodeAddress> nodeAddressProperty = new SimpleObjectProperty<>();
 
 
@@ -105,8 +116,11 @@ public abstract class NetworkNode implements MessageListener {
         if (connection == null)
             connection = getInboundConnection(peersNodeAddress);
 
+        ListenableFuture<Connection> pendingConnectionFuture = pendingOutboundConnections.get(peersNodeAddress);
         if (connection != null) {
             return sendMessage(connection, networkEnvelope);
+        } else if (pendingConnectionFuture != null) {
+            return sendMessageAfterPendingConnection(pendingConnectionFuture, peersNodeAddress, networkEnvelope);
         } else {
             log.debug("We have not found any connection for peerAddress {}.\n\t" +
                     "We will create a new outbound connection.", peersNodeAddress);
@@ -117,15 +131,7 @@ public abstract class NetworkNode implements MessageListener {
                 OutboundConnection outboundConnection = null;
                 try {
                     // can take a while when using tor
-                    long startTs = System.currentTimeMillis();
-                    log.debug("Start create socket to peersNodeAddress {}", peersNodeAddress.getFullAddress());
-                    Socket socket = createSocket(peersNodeAddress);
-                    long duration = System.currentTimeMillis() - startTs;
-                    log.debug("Socket creation to peersNodeAddress {} took {} ms", peersNodeAddress.getFullAddress(),
-                            duration);
-
-                    if (duration > CREATE_SOCKET_TIMEOUT)
-                        throw new TimeoutException("A timeout occurred when creating a socket.");
+                    Socket socket = createSocketAndCheckTimeout(peersNodeAddress);
 
                     // Tor needs sometimes quite long to create a connection. To avoid that we get too many double
                     // sided connections we check again if we still don't have any connection for that node address.
@@ -139,44 +145,11 @@ public abstract class NetworkNode implements MessageListener {
                                         "That can happen if Tor needs long for creating a new outbound connection.\n" +
                                         "We might have got a new inbound or outbound connection.",
                                 peersNodeAddress.getFullAddress());
-                        try {
-                            socket.close();
-                        } catch (Throwable throwable) {
-                            log.error("Error at closing socket " + throwable);
-                        }
+                        closeSocket(socket);
                         existingConnection.sendMessage(networkEnvelope);
                         return existingConnection;
                     } else {
-                        final ConnectionListener connectionListener = new ConnectionListener() {
-                            @Override
-                            public void onConnection(Connection connection) {
-                                if (!connection.isStopped()) {
-                                    outBoundConnections.add((OutboundConnection) connection);
-                                    printOutBoundConnections();
-                                    connectionListeners.stream().forEach(e -> e.onConnection(connection));
-                                }
-                            }
-
-                            @Override
-                            public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
-                                log.trace("onDisconnect connectionListener\n\tconnection={}" + connection);
-                                //noinspection SuspiciousMethodCalls
-                                outBoundConnections.remove(connection);
-                                printOutBoundConnections();
-                                connectionListeners.stream().forEach(e -> e.onDisconnect(closeConnectionReason, connection));
-                            }
-
-                            @Override
-                            public void onError(Throwable throwable) {
-                                log.error("new OutboundConnection.ConnectionListener.onError " + throwable.getMessage());
-                                connectionListeners.stream().forEach(e -> e.onError(throwable));
-                            }
-                        };
-                        outboundConnection = new OutboundConnection(socket,
-                                NetworkNode.this,
-                                connectionListener,
-                                peersNodeAddress,
-                                networkProtoResolver);
+                        outboundConnection = createOutboundConnection(socket, peersNodeAddress);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "NetworkNode created new outbound connection:"
@@ -199,6 +172,7 @@ public abstract class NetworkNode implements MessageListener {
                     throw throwable;
                 }
             });
+            addPendingOutboundConnection(peersNodeAddress, future);
 
             Futures.addCallback(future, new FutureCallback<Connection>() {
                 public void onSuccess(Connection connection) {
@@ -215,6 +189,85 @@ public abstract class NetworkNode implements MessageListener {
         }
     }
 
+    // We are already creating a connection to that peer (e.g. a pre-established one), so we wait for it instead of
+    // doing another hidden service rendezvous.
+    private SettableFuture<Connection> sendMessageAfterPendingConnection(ListenableFuture<Connection> pendingConnectionFuture,
+                                                                        NodeAddress peersNodeAddress,
+                                                                        NetworkEnvelope networkEnvelope) {
+        log.debug("We have a pending outbound connection for peerAddress {}.\n\t" +
+                "We will send the message once it is established.", peersNodeAddress);
+        final SettableFuture<Connection> resultFuture = SettableFuture.create();
+        Futures.addCallback(pendingConnectionFuture, new FutureCallback<Connection>() {
+            public void onSuccess(Connection connection) {
+                UserThread.execute(() -> resultFuture.setFuture(sendMessage(connection, networkEnvelope)));
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                // We do not retry, the caller handles the failure like one of a new connection
+                UserThread.execute(() -> resultFuture.setException(throwable));
+            }
+        });
+        return resultFuture;
+    }
+
+    /**
+     * Establishes an outbound connection to the peer without sending a message. Used to pre-establish connections
+     * to peers we expect to send messages to soon, so the hidden service rendezvous does not delay the first message.
+     * If we have already a connection or a pending connection to that peer we use that.
+     */
+    public SettableFuture<Connection> connect(@NotNull NodeAddress peersNodeAddress) {
+        checkNotNull(peersNodeAddress, "peerAddress must not be null");
+
+        final SettableFuture<Connection> resultFuture = SettableFuture.create();
+        Connection connection = getOutboundConnection(peersNodeAddress);
+        if (connection == null)
+            connection = getInboundConnection(peersNodeAddress);
+
+        if (connection != null) {
+            resultFuture.set(connection);
+            return resultFuture;
+        }
+
+        ListenableFuture<Connection> future = pendingOutboundConnections.get(peersNodeAddress);
+        if (future == null) {
+            future = executorService.submit(() -> {
+                Thread.currentThread().setName("NetworkNode:Connect-to-" + peersNodeAddress);
+                Socket socket = createSocketAndCheckTimeout(peersNodeAddress);
+
+                Connection existingConnection = getInboundConnection(peersNodeAddress);
+                if (existingConnection == null)
+                    existingConnection = getOutboundConnection(peersNodeAddress);
+
+                if (existingConnection != null) {
+                    closeSocket(socket);
+                    return existingConnection;
+                } else {
+                    OutboundConnection outboundConnection = createOutboundConnection(socket, peersNodeAddress);
+                    log.debug("NetworkNode created new outbound connection without message. peersNodeAddress={}, uid={}",
+                            peersNodeAddress, outboundConnection.getUid());
+                    return outboundConnection;
+                }
+            });
+            addPendingOutboundConnection(peersNodeAddress, future);
+        }
+
+        Futures.addCallback(future, new FutureCallback<Connection>() {
+            public void onSuccess(Connection connection) {
+                UserThread.execute(() -> resultFuture.set(connection));
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                log.debug("onFailure at connect: peersNodeAddress={}, error={}", peersNodeAddress, throwable.toString());
+                UserThread.execute(() -> resultFuture.setException(throwable));
+            }
+        });
+        return resultFuture;
+    }
+
+    public ConnectTimeHistogram getConnectTimeHistogram() {
+        return connectTimeHistogram;
+    }
+
     @Nullable
     private InboundConnection getInboundConnection(@NotNull NodeAddress peersNodeAddress) {
         Optional<InboundConnection> inboundConnectionOptional = lookupInBoundConnection(peersNodeAddress);
@@ -447,6 +500,93 @@ public abstract class NetworkNode implements MessageListener {
         log.debug(sb.toString());
     }
 
+    // Called from NetworkNode thread
+    private Socket createSocketAndCheckTimeout(NodeAddress peersNodeAddress) throws IOException, TimeoutException {
+        acquireConnectPermit(peersNodeAddress);
+        long startTs = System.currentTimeMillis();
+        log.debug("Start create socket to peersNodeAddress {}", peersNodeAddress.getFullAddress());
+        Socket socket;
+        try {
+            socket = createSocket(peersNodeAddress);
+        } catch (Throwable t) {
+            connectTimeHistogram.addFailure();
+            throw t;
+        } finally {
+            connectPermits.release();
+        }
+        long duration = System.currentTimeMillis() - startTs;
+        log.debug("Socket creation to peersNodeAddress {} took {} ms", peersNodeAddress.getFullAddress(),
+                duration);
+        connectTimeHistogram.add(duration);
+
+        if (duration > CREATE_SOCKET_TIMEOUT) {
+            closeSocket(socket);
+            throw new TimeoutException("A timeout occurred when creating a socket.");
+        }
+        return socket;
+    }
+
+    private void acquireConnectPermit(NodeAddress peersNodeAddress) throws InterruptedIOException, TimeoutException {
+        try {
+            if (!connectPermits.tryAcquire(CREATE_SOCKET_TIMEOUT, TimeUnit.MILLISECONDS))
+                throw new TimeoutException("A timeout occurred when waiting for other connects to " +
+                        "complete before creating a socket to " + peersNodeAddress.getFullAddress());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted when waiting for other connects to complete");
+        }
+    }
+
+    private void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (Throwable throwable) {
+            log.error("Error at closing socket " + throwable);
+        }
+    }
+
+    // Called from NetworkNode thread
+    private OutboundConnection createOutboundConnection(Socket socket, NodeAddress peersNodeAddress) {
+        final ConnectionListener connectionListener = new ConnectionListener() {
+            @Override
+            public void onConnection(Connection connection) {
+                if (!connection.isStopped()) {
+                    outBoundConnections.add((OutboundConnection) connection);
+                    printOutBoundConnections();
+                    connectionListeners.stream().forEach(e -> e.onConnection(connection));
+                }
+            }
+
+            @Override
+            public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
+                log.trace("onDisconnect connectionListener\n\tconnection={}" + connection);
+                //noinspection SuspiciousMethodCalls
+                outBoundConnections.remove(connection);
+                printOutBoundConnections();
+                connectionListeners.stream().forEach(e -> e.onDisconnect(closeConnectionReason, connection));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                log.error("new OutboundConnection.ConnectionListener.onError " + throwable.getMessage());
+                connectionListeners.stream().forEach(e -> e.onError(throwable));
+            }
+        };
+        return new OutboundConnection(socket,
+                NetworkNode.this,
+                connectionListener,
+                peersNodeAddress,
+                networkProtoResolver);
+    }
+
+    // Other sendMessage or connect calls to the same peer use the pending connection until it is completed.
+    // The entry gets removed before any callback added later to the future is called.
+    private void addPendingOutboundConnection(NodeAddress peersNodeAddress, ListenableFuture<Connection> future) {
+        pendingOutboundConnections.put(peersNodeAddress, future);
+        future.addListener(() -> pendingOutboundConnections.remove(peersNodeAddress, future),
+                MoreExecutors.directExecutor());
+    }
+
     abstract protected Socket createSocket(NodeAddress peersNodeAddress) throws IOException;
 
     @Nullable
@@ -32,8 +32,8 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -121,13 +121,16 @@ public class BroadcastHandler implements PeerManager.Listener {
                 "Message=" + Utilities.toTruncatedString(message));
         Set<Connection> connectedPeersSet = networkNode.getConfirmedConnections()
                 .stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().isPresent())
                 .filter(connection -> !connection.getPeersNodeAddressOptional().get().equals(sender))
                 .collect(Collectors.toSet());
         if (!connectedPeersSet.isEmpty()) {
             numOfCompletedBroadcasts = 0;
 
             List<Connection> connectedPeersList = new ArrayList<>(connectedPeersSet);
-            Collections.shuffle(connectedPeersList);
+            // We prefer fast and reliable peers but keep the order random
+            peerManager.getPeerScoring().weightedShuffle(connectedPeersList,
+                    connection -> connection.getPeersNodeAddressOptional().orElse(null));
             numPeers = connectedPeersList.size();
             int delay = 50;
             if (!isDataOwner) {
@@ -169,13 +172,15 @@ public class BroadcastHandler implements PeerManager.Listener {
         if (!stopped) {
             if (!connection.isStopped()) {
                 if (connection.noCapabilityRequiredOrCapabilityIsSupported(message)) {
-                    NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
+                    Optional<NodeAddress> optionalNodeAddress = connection.getPeersNodeAddressOptional();
+                    NodeAddress nodeAddress = optionalNodeAddress.orElse(null);
                     log.trace("Broadcast message to " + nodeAddress + ".");
                     SettableFuture<Connection> future = networkNode.sendMessage(connection, message);
                     Futures.addCallback(future, new FutureCallback<Connection>() {
                         @Override
                         public void onSuccess(Connection connection) {
                             numOfCompletedBroadcasts++;
+                            optionalNodeAddress.ifPresent(e -> peerManager.getPeerScoring().addResult(e, true));
                             if (!stopped) {
                                 log.trace("Broadcast to " + nodeAddress + " succeeded.");
 
@@ -201,6 +206,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                         @Override
                         public void onFailure(@NotNull Throwable throwable) {
                             numOfFailedBroadcasts++;
+                            optionalNodeAddress.ifPresent(e -> peerManager.getPeerScoring().addResult(e, false));
                             if (!stopped) {
                                 log.info("Broadcast to " + nodeAddress + " failed.\n\t" +
                                         "ErrorMessage=" + throwable.getMessage());
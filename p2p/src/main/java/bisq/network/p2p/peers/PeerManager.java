@@ -106,6 +106,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     private final Storage<PeerList> storage;
     private final HashSet<Peer> persistedPeers = new HashSet<>();
     private final Set<Peer> reportedPeers = new HashSet<>();
+    @Getter
+    private final PeerScoring peerScoring = new PeerScoring();
     private final Clock.Listener listener;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private Timer checkMaxConnectionsTimer;
@@ -190,6 +192,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
             }
 
             this.persistedPeers.addAll(persistedPeerList.getList());
+            peerScoring.addPersistedPeerScores(persistedPeerList.getPeerScores());
         }
     }
 
@@ -251,6 +254,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
                 isSeedNode(connection) ? " (SeedNode)" : "",
                 closeConnectionReason);
 
+        // We persist the peer scores we have collected with that peer
+        persistPeerList();
         handleConnectionFault(connection);
 
         lostAllConnections = networkNode.getAllConnections().isEmpty();
@@ -450,7 +455,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
 
             persistedPeers.addAll(reportedPeersToAdd);
             purgePersistedPeersIfExceeds();
-            storage.queueUpForSave(new PeerList(new ArrayList<>(persistedPeers)), 2000);
+            persistPeerList();
 
             printReportedPeers();
         } else {
@@ -515,7 +520,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     private boolean removePersistedPeer(Peer persistedPeer) {
         if (persistedPeers.contains(persistedPeer)) {
             persistedPeers.remove(persistedPeer);
-            storage.queueUpForSave(new PeerList(new ArrayList<>(persistedPeers)), 2000);
+            persistPeerList();
             return true;
         } else {
             return false;
@@ -566,6 +571,10 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return persistedPeers;
     }
 
+    private void persistPeerList() {
+        storage.queueUpForSave(new PeerList(new ArrayList<>(persistedPeers), peerScoring.getPeerScores()), 2000);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     //  Misc
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.proto.persistable.PersistablePayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Exponentially weighted moving averages of the round trip time, the failure rate and the throughput we measured
+ * with a peer.
+ * <p/>
+ * Immutable, as the scores get persisted with the PeerList on another thread. Adding a measurement returns a new
+ * PeerScore.
+ */
+@Getter
+@EqualsAndHashCode
+public final class PeerScore implements PersistablePayload {
+    private static final double RTT_ALPHA = 0.2;
+    private static final double FAILURE_RATE_ALPHA = 0.1;
+    private static final double THROUGHPUT_ALPHA = 0.2;
+
+    private final NodeAddress nodeAddress;
+    // 0 if not measured yet
+    private final double roundTripTime;
+    private final double failureRate;
+    // 0 if not measured yet
+    private final double throughput;
+    private final long lastUpdate;
+
+    public PeerScore(NodeAddress nodeAddress) {
+        this(nodeAddress, 0, 0, 0, System.currentTimeMillis());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PeerScore(NodeAddress nodeAddress, double roundTripTime, double failureRate, double throughput, long lastUpdate) {
+        this.nodeAddress = nodeAddress;
+        this.roundTripTime = roundTripTime;
+        this.failureRate = failureRate;
+        this.throughput = throughput;
+        this.lastUpdate = lastUpdate;
+    }
+
+    @Override
+    public PB.PeerScore toProtoMessage() {
+        return PB.PeerScore.newBuilder()
+                .setNodeAddress(nodeAddress.toProtoMessage())
+                .setRoundTripTime(roundTripTime)
+                .setFailureRate(failureRate)
+                .setThroughput(throughput)
+                .setLastUpdate(lastUpdate)
+                .build();
+    }
+
+    public static PeerScore fromProto(PB.PeerScore proto) {
+        return new PeerScore(NodeAddress.fromProto(proto.getNodeAddress()),
+                proto.getRoundTripTime(),
+                proto.getFailureRate(),
+                proto.getThroughput(),
+                proto.getLastUpdate());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PeerScore withRoundTripTime(long roundTripTime) {
+        double newRoundTripTime = this.roundTripTime == 0 ? roundTripTime : ewma(this.roundTripTime, roundTripTime, RTT_ALPHA);
+        return new PeerScore(nodeAddress, newRoundTripTime, failureRate, throughput, System.currentTimeMillis());
+    }
+
+    public PeerScore withResult(boolean success) {
+        double newFailureRate = ewma(failureRate, success ? 0 : 1, FAILURE_RATE_ALPHA);
+        return new PeerScore(nodeAddress, roundTripTime, newFailureRate, throughput, System.currentTimeMillis());
+    }
+
+    public PeerScore withThroughput(double bytesPerSec) {
+        double newThroughput = throughput == 0 ? bytesPerSec : ewma(throughput, bytesPerSec, THROUGHPUT_ALPHA);
+        return new PeerScore(nodeAddress, roundTripTime, failureRate, newThroughput, System.currentTimeMillis());
+    }
+
+    private static double ewma(double average, double value, double alpha) {
+        return average + alpha * (value - average);
+    }
+
+    @Override
+    public String toString() {
+        return "PeerScore{" +
+                "\n     nodeAddress=" + nodeAddress +
+                ",\n     roundTripTime=" + roundTripTime +
+                ",\n     failureRate=" + failureRate +
+                ",\n     throughput=" + throughput +
+                ",\n     lastUpdate=" + lastUpdate +
+                "\n}";
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.util.Tuple2;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the round trip time, failure rate and throughput per peer and orders peers by weighted random selection,
+ * so fast and reliable peers are preferred for data requests and broadcasts.
+ * <p/>
+ * The order is still random and each peer keeps a min. chance to get selected, so we don't always use the same few
+ * peers, which would make eclipse attacks easier.
+ */
+@Slf4j
+public class PeerScoring {
+    // A peer with that round trip time gets half the weight of a peer with a round trip time of 0.
+    // Over Tor we usually see round trip times of 0.5 to 3 sec.
+    private static final double REFERENCE_ROUND_TRIP_TIME = 1000;
+    // A peer with that throughput in bytes/sec gets half the weight of a peer with infinite throughput
+    private static final double REFERENCE_THROUGHPUT = 10_000;
+    // Peers without any measurement get the weight of a peer with the reference values
+    private static final double DEFAULT_FACTOR = 0.5;
+    private static final double ROUND_TRIP_TIME_SHARE = 0.8;
+    private static final double MIN_WEIGHT = 0.05;
+    private static final int MAX_PERSISTED_SCORES = 1000;
+
+    private final Map<NodeAddress, PeerScore> peerScoreByNodeAddress = new HashMap<>();
+    private final Random random;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PeerScoring() {
+        this(new Random());
+    }
+
+    @VisibleForTesting
+    PeerScoring(Random random) {
+        this.random = random;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized void addRoundTripTime(NodeAddress nodeAddress, long roundTripTime) {
+        if (roundTripTime > 0)
+            peerScoreByNodeAddress.put(nodeAddress, getOrCreatePeerScore(nodeAddress).withRoundTripTime(roundTripTime));
+    }
+
+    public synchronized void addResult(NodeAddress nodeAddress, boolean success) {
+        peerScoreByNodeAddress.put(nodeAddress, getOrCreatePeerScore(nodeAddress).withResult(success));
+    }
+
+    public synchronized void addThroughput(NodeAddress nodeAddress, long numBytes, long durationMs) {
+        if (numBytes > 0 && durationMs > 0)
+            peerScoreByNodeAddress.put(nodeAddress, getOrCreatePeerScore(nodeAddress).withThroughput(numBytes * 1000d / durationMs));
+    }
+
+    public synchronized double getWeight(NodeAddress nodeAddress) {
+        PeerScore peerScore = peerScoreByNodeAddress.get(nodeAddress);
+        if (peerScore == null)
+            return DEFAULT_FACTOR;
+
+        double roundTripTime = peerScore.getRoundTripTime();
+        double roundTripTimeFactor = roundTripTime > 0 ?
+                REFERENCE_ROUND_TRIP_TIME / (REFERENCE_ROUND_TRIP_TIME + roundTripTime) :
+                DEFAULT_FACTOR;
+        double throughput = peerScore.getThroughput();
+        double throughputFactor = throughput > 0 ?
+                throughput / (throughput + REFERENCE_THROUGHPUT) :
+                DEFAULT_FACTOR;
+        double weight = (ROUND_TRIP_TIME_SHARE * roundTripTimeFactor + (1 - ROUND_TRIP_TIME_SHARE) * throughputFactor) *
+                (1 - peerScore.getFailureRate());
+        return Math.max(MIN_WEIGHT, weight);
+    }
+
+    /**
+     * Like Collections.shuffle but peers with a higher weight are more likely at the front of the list.
+     */
+    public void weightedShuffle(List<NodeAddress> nodeAddresses) {
+        weightedShuffle(nodeAddresses, nodeAddress -> nodeAddress);
+    }
+
+    /**
+     * Weighted random sampling without replacement (Efraimidis and Spirakis): each item gets the key
+     * -ln(u) / weight with a uniform random u and we sort by the key.
+     */
+    public synchronized <T> void weightedShuffle(List<T> items, Function<T, NodeAddress> nodeAddressFunction) {
+        List<Tuple2<T, Double>> itemsWithKey = new ArrayList<>(items.size());
+        items.forEach(item -> itemsWithKey.add(new Tuple2<>(item,
+                -Math.log(1 - random.nextDouble()) / getWeight(nodeAddressFunction.apply(item)))));
+        itemsWithKey.sort(Comparator.comparingDouble(tuple -> tuple.second));
+        for (int i = 0; i < itemsWithKey.size(); i++) {
+            items.set(i, itemsWithKey.get(i).first);
+        }
+    }
+
+    // PeerScore is immutable, so the returned scores don't change if we add measurements while they get persisted
+    public synchronized List<PeerScore> getPeerScores() {
+        return peerScoreByNodeAddress.values().stream()
+                .sorted(Comparator.comparingLong(PeerScore::getLastUpdate).reversed())
+                .limit(MAX_PERSISTED_SCORES)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void addPersistedPeerScores(List<PeerScore> peerScores) {
+        peerScores.forEach(peerScore -> peerScoreByNodeAddress.putIfAbsent(peerScore.getNodeAddress(), peerScore));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PeerScore getOrCreatePeerScore(NodeAddress nodeAddress) {
+        PeerScore peerScore = peerScoreByNodeAddress.get(nodeAddress);
+        return peerScore != null ? peerScore : new PeerScore(nodeAddress);
+    }
+}
@@ -88,6 +88,9 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    // Used for measuring the throughput of the peer while it sends the response
+    private long requestSentTs;
+    private long receivedBytesAtRequest;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -162,6 +165,8 @@ class RequestDataHandler implements MessageListener {
                 public void onSuccess(Connection connection) {
                     if (!stopped) {
                         log.trace("Send " + getDataRequest + " to " + nodeAddress + " succeeded.");
+                        requestSentTs = System.currentTimeMillis();
+                        receivedBytesAtRequest = connection.getStatistic().getReceivedBytes();
                     } else {
                         log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call." +
                                 "Might be caused by an previous timeout.");
@@ -251,6 +256,13 @@ class RequestDataHandler implements MessageListener {
 
                         final NodeAddress sender = connection.getPeersNodeAddressOptional().get();
 
+                        // We only count the bytes and the time from sending our request until we got the response
+                        if (requestSentTs > 0) {
+                            peerManager.getPeerScoring().addThroughput(sender,
+                                    connection.getStatistic().getReceivedBytes() - receivedBytesAtRequest,
+                                    System.currentTimeMillis() - requestSentTs);
+                        }
+
                         List<NetworkPayload> processDelayedItems = new ArrayList<>();
                         dataSet.stream().forEach(e -> {
                             if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload) {
@@ -41,7 +41,6 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -155,7 +154,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         Log.traceCall();
         ArrayList<NodeAddress> nodeAddresses = new ArrayList<>(seedNodeAddresses);
         if (!nodeAddresses.isEmpty()) {
-            Collections.shuffle(nodeAddresses);
+            peerManager.getPeerScoring().weightedShuffle(nodeAddresses);
             ArrayList<NodeAddress> finalNodeAddresses = new ArrayList<>(nodeAddresses);
             final int size = Math.min(NUM_SEEDS_FOR_PRELIMINARY_REQUEST, finalNodeAddresses.size());
             for (int i = 0; i < size; i++) {
@@ -186,7 +185,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                 requestData(candidate, nodeAddresses);
 
                 // For more redundancy we request as well from other random nodes.
-                Collections.shuffle(nodeAddresses);
+                peerManager.getPeerScoring().weightedShuffle(nodeAddresses);
                 ArrayList<NodeAddress> finalNodeAddresses = new ArrayList<>(nodeAddresses);
                 int numRequests = 0;
                 for (int i = 0; i < finalNodeAddresses.size() && numRequests < NUM_ADDITIONAL_SEEDS_FOR_UPDATE_REQUEST; i++) {
@@ -337,6 +336,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
                                 // need to remove before listeners are notified as they cause the update call
                                 handlerMap.remove(nodeAddress);
+                                peerManager.getPeerScoring().addResult(nodeAddress, true);
 
                                 // 1. We get a response from requestPreliminaryData
                                 if (!nodeAddressOfPreliminaryDataRequest.isPresent()) {
@@ -363,6 +363,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
                                 peerManager.handleConnectionFault(nodeAddress);
                                 handlerMap.remove(nodeAddress);
+                                peerManager.getPeerScoring().addResult(nodeAddress, false);
 
                                 if (!remainingNodeAddresses.isEmpty()) {
                                     log.debug("There are remaining nodes available for requesting data. " +
@@ -426,11 +427,11 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                         stopRetryTimer();
 
                         // We create a new list of candidates
-                        // 1. shuffled seedNodes
+                        // 1. shuffled seedNodes (weighted by peer score)
                         // 2. reported peers sorted by last activity date
                         // 3. Add as last persisted peers sorted by last activity date
                         List<NodeAddress> list = getFilteredList(new ArrayList<>(seedNodeAddresses), new ArrayList<>());
-                        Collections.shuffle(list);
+                        peerManager.getPeerScoring().weightedShuffle(list);
 
                         List<NodeAddress> filteredReportedPeers = getFilteredNonSeedNodeList(getSortedNodeAddresses(peerManager.getReportedPeers()), list);
                         list.addAll(filteredReportedPeers);
@@ -43,6 +43,10 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 
+/**
+ * One handler is used for all pings to a connection. Each ping uses a new nonce, so a late pong of a previous ping
+ * gets dropped.
+ */
 class KeepAliveHandler implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(KeepAliveHandler.class);
 
@@ -68,10 +72,12 @@ class KeepAliveHandler implements MessageListener {
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final Listener listener;
-    private final int nonce = new Random().nextInt();
+    private final Random random = new Random();
+    private int nonce;
     @Nullable
     private Connection connection;
     private boolean stopped;
+    private boolean pingPending;
     private Timer delayTimer;
     private long sendTs;
 
@@ -96,12 +102,32 @@ class KeepAliveHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void sendPingAfterRandomDelay(Connection connection) {
-        delayTimer = UserThread.runAfterRandomDelay(() -> sendPing(connection), 1, DELAY_MS, TimeUnit.MILLISECONDS);
+        if (stopped) {
+            log.trace("We have stopped already. We ignore that sendPingAfterRandomDelay call.");
+            return;
+        }
+
+        if (pingPending)
+            log.debug("We did not receive the pong of our last ping. We send a new ping. connection={}", connection.getUid());
+
+        if (delayTimer != null)
+            delayTimer.stop();
+
+        pingPending = true;
+        delayTimer = UserThread.runAfterRandomDelay(() -> {
+            delayTimer = null;
+            sendPing(connection);
+        }, 1, DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isPingPending() {
+        return pingPending;
     }
 
     private void sendPing(Connection connection) {
         Log.traceCall("connection=" + connection + " / this=" + this);
         if (!stopped) {
+            nonce = random.nextInt();
             Ping ping = new Ping(nonce, connection.getStatistic().roundTripTimeProperty().get());
             sendTs = System.currentTimeMillis();
             SettableFuture<Connection> future = networkNode.sendMessage(connection, ping);
@@ -110,8 +136,11 @@ class KeepAliveHandler implements MessageListener {
                 public void onSuccess(Connection connection) {
                     if (!stopped) {
                         log.trace("Send " + ping + " to " + connection + " succeeded.");
-                        KeepAliveHandler.this.connection = connection;
-                        connection.addMessageListener(KeepAliveHandler.this);
+                        // We register only once as the handler is used for all pings to that connection
+                        if (KeepAliveHandler.this.connection == null) {
+                            KeepAliveHandler.this.connection = connection;
+                            connection.addMessageListener(KeepAliveHandler.this);
+                        }
                     } else {
                         log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call.");
                     }
@@ -124,6 +153,8 @@ class KeepAliveHandler implements MessageListener {
                                 " failed. That is expected if the peer is offline.\n\tping=" + ping +
                                 ".\n\tException=" + throwable.getMessage();
                         cleanup();
+                        connection.getPeersNodeAddressOptional().ifPresent(nodeAddress ->
+                                peerManager.getPeerScoring().addResult(nodeAddress, false));
                         //peerManager.shutDownConnection(connection, CloseConnectionReason.SEND_MSG_FAILURE);
                         log.info(errorMessage);
                         peerManager.handleConnectionFault(connection);
@@ -153,10 +184,12 @@ class KeepAliveHandler implements MessageListener {
                     int roundTripTime = (int) (System.currentTimeMillis() - sendTs);
                     log.trace("roundTripTime=" + roundTripTime + "\n\tconnection=" + connection);
                     connection.getStatistic().setRoundTripTime(roundTripTime);
-                    cleanup();
+                    connection.getPeersNodeAddressOptional().ifPresent(nodeAddress ->
+                            peerManager.getPeerScoring().addRoundTripTime(nodeAddress, roundTripTime));
+                    pingPending = false;
                     listener.onComplete();
                 } else {
-                    log.warn("Nonce not matching. That should never happen.\n\t" +
+                    log.warn("Nonce not matching. That can happen if we receive the pong of a previous ping.\n\t" +
                                     "We drop that message. nonce={} / requestNonce={}",
                             nonce, pong.getRequestNonce());
                 }
@@ -168,6 +201,7 @@ class KeepAliveHandler implements MessageListener {
 
     private void cleanup() {
         stopped = true;
+        pingPending = false;
         if (connection != null)
             connection.removeMessageListener(this);
 
@@ -41,6 +41,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +52,18 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private static final Logger log = LoggerFactory.getLogger(KeepAliveManager.class);
 
     private static final int INTERVAL_SEC = new Random().nextInt(5) + 30;
-    private static final long LAST_ACTIVITY_AGE_MS = INTERVAL_SEC / 2;
+    // We only ping connections which have not sent or received a message for that time
+    private static final long LAST_ACTIVITY_AGE_MS = TimeUnit.SECONDS.toMillis(INTERVAL_SEC) / 2;
+    // The check is cheap as we only look at the connections which became idle, so we can do it more often
+    private static final int CHECK_INTERVAL_SEC = 5;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final Map<String, KeepAliveHandler> handlerMap = new HashMap<>();
+    private final KeepAliveScheduler<Connection> keepAliveScheduler = new KeepAliveScheduler<>(LAST_ACTIVITY_AGE_MS,
+            TimeUnit.SECONDS.toMillis(INTERVAL_SEC),
+            Connection::getUid,
+            connection -> connection.getStatistic().getLastActivityTimestamp());
 
     private boolean stopped;
     private Timer keepAliveTimer;
@@ -145,12 +153,15 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     @Override
     public void onConnection(Connection connection) {
         Log.traceCall();
+        if (connection instanceof OutboundConnection)
+            keepAliveScheduler.add(connection);
     }
 
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         Log.traceCall();
         closeHandler(connection);
+        keepAliveScheduler.remove(connection);
     }
 
     @Override
@@ -194,26 +205,30 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void restart() {
+        // We might have missed connections while we have been stopped
+        networkNode.getAllConnections().stream()
+                .filter(connection -> connection instanceof OutboundConnection)
+                .forEach(keepAliveScheduler::add);
+
         if (keepAliveTimer == null)
             keepAliveTimer = UserThread.runPeriodically(() -> {
                 stopped = false;
                 keepAlive();
-            }, INTERVAL_SEC);
+            }, CHECK_INTERVAL_SEC);
     }
 
     private void keepAlive() {
         if (!stopped) {
             Log.traceCall();
-            networkNode.getConfirmedConnections().stream()
-                    .filter(connection -> connection instanceof OutboundConnection &&
-                            connection.getStatistic().getLastActivityAge() > LAST_ACTIVITY_AGE_MS)
+            keepAliveScheduler.pollIdleItems(System.currentTimeMillis()).stream()
+                    .filter(connection -> connection.hasPeersNodeAddress() && !connection.isStopped())
                     .forEach(connection -> {
                         final String uid = connection.getUid();
-                        if (!handlerMap.containsKey(uid)) {
-                            KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
+                        KeepAliveHandler keepAliveHandler = handlerMap.get(uid);
+                        if (keepAliveHandler == null) {
+                            keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
                                 @Override
                                 public void onComplete() {
-                                    handlerMap.remove(uid);
                                 }
 
                                 @Override
@@ -222,16 +237,12 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
                                 }
                             });
                             handlerMap.put(uid, keepAliveHandler);
-                            keepAliveHandler.sendPingAfterRandomDelay(connection);
-                        } else {
-                            // TODO check if this situation causes any issues
-                            log.debug("Connection with id {} has not completed and is still in our map. " +
-                                    "We will try to ping that peer at the next schedule.", uid);
                         }
+                        keepAliveHandler.sendPingAfterRandomDelay(connection);
                     });
 
             int size = handlerMap.size();
-            log.debug("handlerMap size=" + size);
+            log.debug("handlerMap size={}, scheduled connections={}", size, keepAliveScheduler.size());
             if (size > peerManager.getMaxConnections())
                 log.warn("Seems we didn't clean up out map correctly.\n" +
                         "handlerMap size={}, peerManager.getMaxConnections()={}", size, peerManager.getMaxConnections());
@@ -259,6 +270,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private void closeAllHandlers() {
         handlerMap.values().stream().forEach(KeepAliveHandler::cancel);
         handlerMap.clear();
+        keepAliveScheduler.clear();
     }
 
 }
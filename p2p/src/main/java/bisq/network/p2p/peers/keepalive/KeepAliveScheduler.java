@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the connections ordered by the time they will become idle, so at each check we only look at the connections
+ * which are due instead of iterating all connections.
+ * <p/>
+ * We don't update the queue at each sent or received message. When an entry is due we read the last activity
+ * timestamp of the connection and reschedule the entry if there was activity in the meantime.
+ */
+class KeepAliveScheduler<T> {
+    private static class Entry<T> {
+        private final T item;
+        private long dueTs;
+        private boolean removed;
+
+        Entry(T item, long dueTs) {
+            this.item = item;
+            this.dueTs = dueTs;
+        }
+    }
+
+    private final long idleThresholdMs;
+    private final long pingIntervalMs;
+    private final Function<T, String> idFunction;
+    private final ToLongFunction<T> lastActivityTsFunction;
+    private final PriorityQueue<Entry<T>> queue = new PriorityQueue<>(Comparator.comparingLong(e -> e.dueTs));
+    private final Map<String, Entry<T>> entryById = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param idleThresholdMs        Min. time without activity before we ping
+     * @param pingIntervalMs         Min. time between 2 pings at an idle connection
+     * @param idFunction             Provides the unique id of the item
+     * @param lastActivityTsFunction Provides the timestamp of the last sent or received message of the item
+     */
+    KeepAliveScheduler(long idleThresholdMs,
+                       long pingIntervalMs,
+                       Function<T, String> idFunction,
+                       ToLongFunction<T> lastActivityTsFunction) {
+        this.idleThresholdMs = idleThresholdMs;
+        this.pingIntervalMs = pingIntervalMs;
+        this.idFunction = idFunction;
+        this.lastActivityTsFunction = lastActivityTsFunction;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(T item) {
+        String id = idFunction.apply(item);
+        if (!entryById.containsKey(id)) {
+            Entry<T> entry = new Entry<>(item, lastActivityTsFunction.applyAsLong(item) + idleThresholdMs);
+            entryById.put(id, entry);
+            queue.add(entry);
+        }
+    }
+
+    void remove(T item) {
+        // We remove lazily from the queue when the entry gets due
+        Entry<T> entry = entryById.remove(idFunction.apply(item));
+        if (entry != null)
+            entry.removed = true;
+    }
+
+    void clear() {
+        entryById.clear();
+        queue.clear();
+    }
+
+    int size() {
+        return entryById.size();
+    }
+
+    /**
+     * @param now Current time in ms
+     * @return The items which had no activity for at least idleThresholdMs and have not been returned within the last
+     * pingIntervalMs. The returned items get rescheduled.
+     */
+    List<T> pollIdleItems(long now) {
+        List<T> result = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().dueTs <= now) {
+            Entry<T> entry = queue.poll();
+            if (entry.removed)
+                continue;
+
+            long idleTs = lastActivityTsFunction.applyAsLong(entry.item) + idleThresholdMs;
+            if (idleTs > now) {
+                // We had activity since the entry was scheduled
+                entry.dueTs = idleTs;
+            } else {
+                result.add(entry.item);
+                entry.dueTs = now + pingIntervalMs;
+            }
+            queue.add(entry);
+        }
+        return result;
+    }
+}
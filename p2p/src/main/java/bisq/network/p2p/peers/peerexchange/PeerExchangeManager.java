@@ -38,7 +38,6 @@ import com.google.common.base.Preconditions;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -108,7 +107,7 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
         Preconditions.checkNotNull(networkNode.getNodeAddress(), "My node address must not be null at requestReportedPeers");
         ArrayList<NodeAddress> remainingNodeAddresses = new ArrayList<>(seedNodeAddresses);
         remainingNodeAddresses.remove(nodeAddress);
-        Collections.shuffle(remainingNodeAddresses);
+        peerManager.getPeerScoring().weightedShuffle(remainingNodeAddresses);
         requestReportedPeers(nodeAddress, remainingNodeAddresses);
 
         startPeriodicTimer();
@@ -299,14 +298,14 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
                 // 2. shuffled persisted peers
                 // 3. Add as last shuffled seedNodes (least priority)
                 List<NodeAddress> list = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getReportedPeers()), new ArrayList<>());
-                Collections.shuffle(list);
+                peerManager.getPeerScoring().weightedShuffle(list);
 
                 List<NodeAddress> filteredPersistedPeers = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getPersistedPeers()), list);
-                Collections.shuffle(filteredPersistedPeers);
+                peerManager.getPeerScoring().weightedShuffle(filteredPersistedPeers);
                 list.addAll(filteredPersistedPeers);
 
                 List<NodeAddress> filteredSeedNodeAddresses = getFilteredList(new ArrayList<>(seedNodeAddresses), list);
-                Collections.shuffle(filteredSeedNodeAddresses);
+                peerManager.getPeerScoring().weightedShuffle(filteredSeedNodeAddresses);
                 list.addAll(filteredSeedNodeAddresses);
 
                 log.debug("Number of peers in list for connectToMorePeers: {}", list.size());
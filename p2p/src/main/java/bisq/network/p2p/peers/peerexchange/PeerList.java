@@ -17,6 +17,8 @@
 
 package bisq.network.p2p.peers.peerexchange;
 
+import bisq.network.p2p.peers.PeerScore;
+
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistableList;
 
@@ -29,25 +31,38 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 public class PeerList extends PersistableList<Peer> {
+    // Added in v. 0.9.2. We persist the scores of all peers we have measured, which includes seed nodes.
+    @Getter
+    private final List<PeerScore> peerScores;
 
     public PeerList(List<Peer> list) {
+        this(list, new ArrayList<>());
+    }
+
+    public PeerList(List<Peer> list, List<PeerScore> peerScores) {
         super(list);
+        this.peerScores = peerScores;
     }
 
     @Override
     public Message toProtoMessage() {
         return PB.PersistableEnvelope.newBuilder()
                 .setPeerList(PB.PeerList.newBuilder()
-                        .addAllPeer(getList().stream().map(Peer::toProtoMessage).collect(Collectors.toList())))
+                        .addAllPeer(getList().stream().map(Peer::toProtoMessage).collect(Collectors.toList()))
+                        .addAllPeerScore(peerScores.stream().map(PeerScore::toProtoMessage).collect(Collectors.toList())))
                 .build();
     }
 
     public static PersistableEnvelope fromProto(PB.PeerList proto) {
         return new PeerList(new ArrayList<>(proto.getPeerList().stream()
                 .map(Peer::fromProto)
-                .collect(Collectors.toList())));
+                .collect(Collectors.toList())),
+                new ArrayList<>(proto.getPeerScoreList().stream()
+                        .map(PeerScore::fromProto)
+                        .collect(Collectors.toList())));
     }
 }
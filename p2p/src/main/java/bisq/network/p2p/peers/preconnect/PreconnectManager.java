@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.preconnect;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.PeerManager;
+
+import bisq.common.app.Log;
+
+import javax.inject.Inject;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Establishes outbound connections in the background to peers we expect to send messages to soon (the peers and
+ * arbitrators of our open trades). The hidden service rendezvous takes usually a few seconds, so without
+ * that the first message to such a peer gets delayed by it.
+ * <p>
+ * A pre-established connection on which we do not send a message gets closed by the peer after a few minutes as it
+ * does not know our address. Tor keeps the rendezvous circuit for a while longer though, so a new connection to the
+ * same peer is still faster. We do not reconnect automatically.
+ * <p>
+ * We do not pre-connect to seed nodes, as RequestDataManager connects to the seed nodes it requests data from
+ * directly when Tor is ready.
+ */
+@Slf4j
+public class PreconnectManager {
+    // Each rendezvous builds several circuits in the Tor client, so we only do a few at the same time
+    private static final int MAX_PENDING_CONNECTS = 3;
+
+    public enum Priority {
+        HIGH,
+        LOW
+    }
+
+    private final NetworkNode networkNode;
+    private final PeerManager peerManager;
+    private final Deque<NodeAddress> queue = new ArrayDeque<>();
+    private final Set<NodeAddress> pendingNodeAddresses = new HashSet<>();
+    private boolean started;
+    private boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public PreconnectManager(NetworkNode networkNode, PeerManager peerManager) {
+        this.networkNode = networkNode;
+        this.peerManager = peerManager;
+    }
+
+    public void shutDown() {
+        Log.traceCall();
+        stopped = true;
+        queue.clear();
+        log.info("Connect times of outbound connections: {}", networkNode.getConnectTimeHistogram());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Tor needs to be ready, outbound connections do not depend on our hidden service
+    public void start() {
+        started = true;
+        maybeConnectNext();
+    }
+
+    public void preconnect(NodeAddress nodeAddress, Priority priority) {
+        if (stopped || queue.contains(nodeAddress) || pendingNodeAddresses.contains(nodeAddress))
+            return;
+
+        if (priority == Priority.HIGH)
+            queue.addFirst(nodeAddress);
+        else
+            queue.addLast(nodeAddress);
+
+        maybeConnectNext();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeConnectNext() {
+        while (started && !stopped && pendingNodeAddresses.size() < MAX_PENDING_CONNECTS && !queue.isEmpty()) {
+            NodeAddress nodeAddress = queue.poll();
+            if (nodeAddress.equals(networkNode.getNodeAddress()) ||
+                    networkNode.getNodeAddressesOfConfirmedConnections().contains(nodeAddress)) {
+                log.debug("We are already connected to {}", nodeAddress);
+                continue;
+            }
+
+            // We do not want that the PeerManager closes other connections because of a pre-established one
+            if (networkNode.getAllConnections().size() >= peerManager.getMaxConnections()) {
+                log.debug("We have already enough connections and do not pre-establish one to {}", nodeAddress);
+                continue;
+            }
+
+            pendingNodeAddresses.add(nodeAddress);
+            long startTs = System.currentTimeMillis();
+            Futures.addCallback(networkNode.connect(nodeAddress), new FutureCallback<Connection>() {
+                @Override
+                public void onSuccess(Connection connection) {
+                    log.debug("Pre-established connection to {} after {} ms", nodeAddress,
+                            System.currentTimeMillis() - startTs);
+                    pendingNodeAddresses.remove(nodeAddress);
+                    maybeConnectNext();
+                }
+
+                @Override
+                public void onFailure(@NotNull Throwable throwable) {
+                    log.info("Pre-establishing a connection to {} failed after {} ms: {}", nodeAddress,
+                            System.currentTimeMillis() - startTs, throwable.toString());
+                    pendingNodeAddresses.remove(nodeAddress);
+                    maybeConnectNext();
+                }
+            });
+        }
+    }
+}
@@ -49,6 +49,7 @@ import bisq.network.p2p.storage.persistence.SequenceNumberMap;
 import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.Log;
+import bisq.common.app.StartupTimeline;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
 import bisq.common.crypto.Sig;
@@ -67,6 +68,8 @@ import com.google.protobuf.ByteString;
 import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -75,15 +78,19 @@ import org.bouncycastle.util.encoders.Hex;
 import java.security.KeyPair;
 import java.security.PublicKey;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.slf4j.LoggerFactory;
@@ -109,6 +116,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     private final AppendOnlyDataStoreService appendOnlyDataStoreService;
     private final ProtectedDataStoreService protectedDataStoreService;
     private final ResourceDataStoreService resourceDataStoreService;
+    private final StartupTimeline startupTimeline;
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
@@ -132,11 +140,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                           AppendOnlyDataStoreService appendOnlyDataStoreService,
                           ProtectedDataStoreService protectedDataStoreService,
                           ResourceDataStoreService resourceDataStoreService,
-                          Storage<SequenceNumberMap> sequenceNumberMapStorage) {
+                          Storage<SequenceNumberMap> sequenceNumberMapStorage,
+                          StartupTimeline startupTimeline) {
         this.broadcaster = broadcaster;
         this.appendOnlyDataStoreService = appendOnlyDataStoreService;
         this.protectedDataStoreService = protectedDataStoreService;
         this.resourceDataStoreService = resourceDataStoreService;
+        this.startupTimeline = startupTimeline;
 
         networkNode.addMessageListener(this);
         networkNode.addConnectionListener(this);
@@ -155,12 +165,25 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // This method is called at startup in a non-user thread.
     // We should not have any threading issues here as the p2p network is just initializing
 
+    // All stores are independent of each other, so we read them concurrently. Only filling the map depends on the
+    // protected data stores.
     public synchronized void readFromResources(String postFix) {
-        appendOnlyDataStoreService.readFromResources(postFix);
-        protectedDataStoreService.readFromResources(postFix);
-        resourceDataStoreService.readFromResources(postFix);
-
-        map.putAll(protectedDataStoreService.getMap());
+        long ts = System.currentTimeMillis();
+        ExecutorService executor = Utilities.getFixedThreadPoolExecutor("readFromResources",
+                Runtime.getRuntime().availableProcessors());
+        try {
+            CompletableFuture<Void> protectedDataStoreFuture = protectedDataStoreService
+                    .readFromResources(postFix, executor, startupTimeline)
+                    .thenRun(() -> map.putAll(protectedDataStoreService.getMap()));
+            CompletableFuture.allOf(appendOnlyDataStoreService.readFromResources(postFix, executor, startupTimeline),
+                    protectedDataStoreFuture,
+                    resourceDataStoreService.readFromResources(postFix, executor, startupTimeline))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+        startupTimeline.record("readFromResources", ts);
+        log.info(startupTimeline.getSummary());
     }
 
 
@@ -208,6 +231,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return appendOnlyDataStoreService.getMap();
     }
 
+    // Use that instead of iterating getAppendOnlyDataStoreMap if only payloads of one type are needed
+    public <T extends PersistableNetworkPayload> List<T> getAppendOnlyDataStorePayloads(Class<T> payloadClass) {
+        return appendOnlyDataStoreService.getPayloads(payloadClass);
+    }
+
+    // Use that for sending our data to a peer, the payloads of lazily decoded stores are not decoded for that
+    public List<PersistableNetworkPayload> getAppendOnlyDataStorePayloadsForSending(Set<ByteArray> excludedKeys,
+                                                                                    Predicate<PersistableNetworkPayload> filter) {
+        return appendOnlyDataStoreService.getPayloadsForSending(excludedKeys, filter);
+    }
+
     public Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> getProtectedDataStoreMap() {
         return protectedDataStoreService.getMap();
     }
@@ -314,7 +348,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             if (!containsKey || reBroadcast) {
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance()) {
                     if (!containsKey) {
-                        appendOnlyDataStoreService.put(hashAsByteArray, payload);
+                        appendOnlyDataStoreService.put(hashAsByteArray.intern(), payload);
                         appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
                     }
                     if (allowBroadcast)
@@ -362,7 +396,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
-                map.put(hashOfPayload, protectedStorageEntry);
+                map.put(hashOfPayload.intern(), protectedStorageEntry);
                 hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
                 // printData("after add");
             } else {
@@ -370,7 +404,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             if (hasSequenceNrIncreased) {
-                sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
+                sequenceNumberMap.put(hashOfPayload.intern(), new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
                 // We set the delay higher as we might receive a batch of items
                 sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
 
@@ -430,7 +464,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     storedData.updateSequenceNumber(sequenceNumber);
                     storedData.updateSignature(signature);
                     printData("after refreshTTL");
-                    sequenceNumberMap.put(hashOfPayload, new MapValue(sequenceNumber, System.currentTimeMillis()));
+                    sequenceNumberMap.put(hashOfPayload.intern(), new MapValue(sequenceNumber, System.currentTimeMillis()));
                     sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 1000);
 
                     broadcast(refreshTTLMessage, sender, null, isDataOwner);
@@ -460,7 +494,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (result) {
             doRemoveProtectedExpirableData(protectedStorageEntry, hashOfPayload);
             printData("after remove");
-            sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
+            sequenceNumberMap.put(hashOfPayload.intern(), new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
             sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 300);
 
             broadcast(new RemoveDataMessage(protectedStorageEntry), sender, null, isDataOwner);
@@ -498,7 +532,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (result) {
             doRemoveProtectedExpirableData(protectedMailboxStorageEntry, hashOfData);
             printData("after removeMailboxData");
-            sequenceNumberMap.put(hashOfData, new MapValue(protectedMailboxStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
+            sequenceNumberMap.put(hashOfData.intern(), new MapValue(protectedMailboxStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
             sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 300);
 
             broadcast(new RemoveMailboxDataMessage(protectedMailboxStorageEntry), sender, null, isDataOwner);
@@ -820,12 +854,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     /**
      * Used as key object in map for cryptographic hash of stored data as byte[] as primitive data type cannot be
-     * used as key
+     * used as key.
+     * <p/>
+     * ByteArray is used as key in all hash maps of the P2P network layer and looked up for each received message, so
+     * we calculate the hashCode only once at construction. The bytes must not be changed after construction.
      */
-    @EqualsAndHashCode
     public static final class ByteArray implements PersistablePayload {
+        // Instances used as keys in our stores can be shared by interning them. The interner holds the instances
+        // weakly, so keys are garbage collected once they got removed from all maps.
+        private static final Interner<ByteArray> INTERNER = Interners.newWeakInterner();
+
         // That object is saved to disc. We need to take care of changes to not break deserialization.
         public final byte[] bytes;
+        // Not part of the persisted or network data
+        private final int hashCode;
 
         @Override
         public String toString() {
@@ -836,6 +878,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         public ByteArray(byte[] bytes) {
             this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
         }
 
 
@@ -844,7 +887,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         ///////////////////////////////////////////////////////////////////////////////////////////
 
         public ByteArray(String hex) {
-            this.bytes = Utilities.decodeFromHex(hex);
+            this(Utilities.decodeFromHex(hex));
         }
 
         @Override
@@ -856,16 +899,49 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             return new ByteArray(proto.getBytes().toByteArray());
         }
 
+
+        ///////////////////////////////////////////////////////////////////////////////////////////
+        // API
+        ///////////////////////////////////////////////////////////////////////////////////////////
+
+        /**
+         * @return The canonical instance with the same bytes. Useful for keys which are stored in several maps or
+         * received repeatedly from the network as equal keys resolve to the same instance and equals() returns at
+         * the identity check.
+         */
+        public ByteArray intern() {
+            return INTERNER.intern(this);
+        }
+
         public String getHex() {
             return Utilities.encodeToHex(bytes);
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ByteArray)) return false;
+
+            ByteArray other = (ByteArray) o;
+            // Our keys are 32 byte (SHA256) or 20 byte (RIPEMD160) hashes, so a different hashCode rejects nearly all
+            // non equal keys without comparing the bytes.
+            return hashCode == other.hashCode && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
         public static Set<P2PDataStorage.ByteArray> convertBytesSetToByteArraySet(Set<byte[]> set) {
-            return set != null ?
-                    set.stream()
-                            .map(P2PDataStorage.ByteArray::new)
-                            .collect(Collectors.toSet())
-                    : new HashSet<>();
+            if (set == null)
+                return new HashSet<>();
+
+            Set<P2PDataStorage.ByteArray> result = new HashSet<>(Math.max(16, (int) (set.size() / .75f) + 1));
+            for (byte[] bytes : set) {
+                result.add(new P2PDataStorage.ByteArray(bytes));
+            }
+            return result;
         }
     }
 
@@ -20,13 +20,24 @@ package bisq.network.p2p.storage.persistence;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
+import bisq.common.app.StartupTimeline;
 import bisq.common.proto.persistable.PersistableEnvelope;
 
 import javax.inject.Inject;
 
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -56,10 +67,10 @@ public class AppendOnlyDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
-
+    public CompletableFuture<Void> readFromResources(String postFix, Executor executor, StartupTimeline startupTimeline) {
         // transferDeprecatedDataStructure();
+
+        return StoreService.readFromResources(services, postFix, executor, startupTimeline);
     }
 
     // Only needed for one time converting the old data store to the new ones. Can be removed after next release when we
@@ -73,10 +84,73 @@ public class AppendOnlyDataStoreService {
         persistableNetworkPayloadListService.removeFile();
     }
 
+    // We return a read only view on the maps of all services instead of a copy, so that payloads of lazily decoded
+    // stores (see LazyPayloadMap) only get decoded if they are accessed. The keys of the services are disjoint.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                        return Iterators.unmodifiableIterator(Iterators.concat(services.stream()
+                                .map(service -> service.getMap().entrySet().iterator())
+                                .iterator()));
+                    }
+
+                    @Override
+                    public int size() {
+                        return services.stream().mapToInt(service -> service.getMap().size()).sum();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return services.stream().anyMatch(service -> service.getMap().containsKey(key));
+            }
+
+            @Override
+            public PersistableNetworkPayload get(Object key) {
+                return services.stream()
+                        .map(service -> service.getMap().get(key))
+                        .filter(Objects::nonNull)
+                        .findAny()
+                        .orElse(null);
+            }
+        };
+    }
+
+    // Returns the payloads of the given type. We skip lazily decoded stores of other payload types, so consumers which
+    // filter for their payload type do not decode all payloads of e.g. the trade statistics store.
+    public <T extends PersistableNetworkPayload> List<T> getPayloads(Class<T> payloadClass) {
         return services.stream()
-                .flatMap(service -> service.getMap().entrySet().stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .filter(service -> !(service.getMap() instanceof LazyPayloadMap) ||
+                        payloadClass.isAssignableFrom(((LazyPayloadMap) service.getMap()).getPayloadClass()))
+                .flatMap(service -> service.getMap().values().stream())
+                .filter(payloadClass::isInstance)
+                .map(payloadClass::cast)
+                .collect(Collectors.toList());
+    }
+
+    // Returns the payloads which are not excluded and pass the filter. Payloads of lazily decoded stores are not decoded
+    // but sent as they are serialized in the store file.
+    public List<PersistableNetworkPayload> getPayloadsForSending(Set<P2PDataStorage.ByteArray> excludedKeys,
+                                                                 Predicate<PersistableNetworkPayload> filter) {
+        List<PersistableNetworkPayload> result = new ArrayList<>();
+        services.forEach(service -> {
+            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = service.getMap();
+            if (map instanceof LazyPayloadMap) {
+                result.addAll(((LazyPayloadMap) map).getPayloadsForSending(excludedKeys, filter));
+            } else {
+                map.entrySet().stream()
+                        .filter(e -> !excludedKeys.contains(e.getKey()))
+                        .map(Map.Entry::getValue)
+                        .filter(filter)
+                        .forEach(result::add);
+            }
+        });
+        return result;
     }
 
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
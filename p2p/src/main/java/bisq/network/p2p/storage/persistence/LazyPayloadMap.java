@@ -0,0 +1,493 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.ProtobufferRuntimeException;
+import bisq.common.util.Utilities;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Map of PersistableNetworkPayloads backed by a persisted store file which is decoded lazily.
+ * <p>
+ * At creation we map the file into memory and only build an index from the payload hash to the position of the
+ * serialized payload in the file. A payload gets decoded when it is accessed and is kept in a bounded LRU cache.
+ * Iterating over the keys, checking if a key is contained and re-serializing the map does not decode any payload.
+ * Iterating over the values decodes each payload again, so consumers which need all payloads should do that once and
+ * keep the result. Payloads which get added at runtime are kept as objects.
+ * <p>
+ * We expect a PB.PersistableEnvelope written with writeDelimitedTo which contains a store message with the
+ * payloads as repeated field with number 1 (as used by TradeStatistics2Store or AccountAgeWitnessStore).
+ * On Windows a mapped file cannot be replaced while it is mapped, so we read the file into the heap there.
+ */
+@Slf4j
+public final class LazyPayloadMap extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    private static final int ITEMS_FIELD_NUMBER = 1;
+
+    public interface Decoder {
+        PersistableNetworkPayload decode(byte[] serializedPayload) throws IOException;
+    }
+
+    public interface Encoder {
+        byte[] encode(PersistableNetworkPayload payload);
+    }
+
+    private final ByteBuffer buffer;
+    @Getter
+    private final Class<? extends PersistableNetworkPayload> payloadClass;
+    private final Decoder decoder;
+    private final int payloadFieldNumber;
+    // Offset in the upper 32 bits, length in the lower 32 bits
+    private final Map<P2PDataStorage.ByteArray, Long> index;
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> addedPayloads = new ConcurrentHashMap<>();
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> cache;
+    private final AtomicLong numDecoded = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param file                The persisted store file.
+     * @param storeFieldNumber    The field number of the store inside PB.PersistableEnvelope.
+     * @param hashFieldNumber     The field number of the hash inside the payload message.
+     * @param payloadFieldNumber  The field number of the payload inside PB.PersistableNetworkPayload.
+     * @param payloadClass        The type of the payloads in the store.
+     * @param decoder             Decodes a serialized payload message.
+     * @param maxCacheSize        Max. number of decoded payloads we keep.
+     * @throws IOException If the file cannot be read or has not the expected format.
+     */
+    public static LazyPayloadMap fromFile(File file,
+                                          int storeFieldNumber,
+                                          int hashFieldNumber,
+                                          int payloadFieldNumber,
+                                          Class<? extends PersistableNetworkPayload> payloadClass,
+                                          Decoder decoder,
+                                          int maxCacheSize) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (Utilities.isWindows()) {
+                buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0)
+                        break;
+                }
+                buffer.flip();
+            } else {
+                // The mapping stays valid after the channel is closed
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return new LazyPayloadMap(buffer, storeFieldNumber, hashFieldNumber, payloadFieldNumber, payloadClass, decoder, maxCacheSize);
+    }
+
+    LazyPayloadMap(ByteBuffer buffer,
+                   int storeFieldNumber,
+                   int hashFieldNumber,
+                   int payloadFieldNumber,
+                   Class<? extends PersistableNetworkPayload> payloadClass,
+                   Decoder decoder,
+                   int maxCacheSize) throws IOException {
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.payloadClass = payloadClass;
+        this.decoder = decoder;
+        this.payloadFieldNumber = payloadFieldNumber;
+        this.index = buildIndex(this.buffer, storeFieldNumber, hashFieldNumber);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> eldest) {
+                return size() > maxCacheSize;
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int size() {
+        return index.size() + addedPayloads.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        //noinspection SuspiciousMethodCalls
+        return index.containsKey(key) || addedPayloads.containsKey(key);
+    }
+
+    @Override
+    public PersistableNetworkPayload get(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray))
+            return null;
+
+        P2PDataStorage.ByteArray hash = (P2PDataStorage.ByteArray) key;
+        PersistableNetworkPayload payload = addedPayloads.get(hash);
+        if (payload != null)
+            return payload;
+
+        payload = cache.get(hash);
+        if (payload != null)
+            return payload;
+
+        payload = decode(hash);
+        if (payload != null)
+            cache.put(hash, payload);
+        return payload;
+    }
+
+    @Override
+    public PersistableNetworkPayload put(P2PDataStorage.ByteArray key, PersistableNetworkPayload value) {
+        PersistableNetworkPayload previous = index.containsKey(key) ? get(key) : null;
+        index.remove(key);
+        cache.remove(key);
+        PersistableNetworkPayload previousAdded = addedPayloads.put(key, value);
+        return previous != null ? previous : previousAdded;
+    }
+
+    @Override
+    public PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray key, PersistableNetworkPayload value) {
+        if (index.containsKey(key))
+            return get(key);
+        return addedPayloads.putIfAbsent(key, value);
+    }
+
+    @Override
+    public PersistableNetworkPayload remove(Object key) {
+        PersistableNetworkPayload previous = get(key);
+        //noinspection SuspiciousMethodCalls
+        index.remove(key);
+        //noinspection SuspiciousMethodCalls
+        cache.remove(key);
+        //noinspection SuspiciousMethodCalls
+        addedPayloads.remove(key);
+        return previous;
+    }
+
+    @Override
+    public Set<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                Iterator<P2PDataStorage.ByteArray> mappedKeys = index.keySet().iterator();
+                Iterator<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> addedEntries =
+                        addedPayloads.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return mappedKeys.hasNext() || addedEntries.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> next() {
+                        if (mappedKeys.hasNext())
+                            return new LazyEntry(mappedKeys.next());
+                        return addedEntries.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LazyPayloadMap.this.size();
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param encoder Used for the payloads added at runtime.
+     * @return The serialized store message with all payloads. The mapped payloads are copied without decoding.
+     */
+    public ByteString getSerializedStore(Encoder encoder) {
+        try {
+            ByteString.Output output = ByteString.newOutput();
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(output);
+            for (long position : index.values()) {
+                codedOutputStream.writeByteArray(ITEMS_FIELD_NUMBER, getBytes(position));
+            }
+            for (PersistableNetworkPayload payload : addedPayloads.values()) {
+                codedOutputStream.writeByteArray(ITEMS_FIELD_NUMBER, encoder.encode(payload));
+            }
+            codedOutputStream.flush();
+            return output.toByteString();
+        } catch (IOException e) {
+            throw new ProtobufferRuntimeException("Serializing LazyPayloadMap failed", e);
+        }
+    }
+
+    /**
+     * Writes the store length delimited as PB.PersistableEnvelope, in the same format as the file we read it from.
+     * The mapped payloads are copied without decoding and we do not create the proto messages of the store.
+     *
+     * @param outputStream      The stream we write to.
+     * @param storeFieldNumber  The field number of the store inside PB.PersistableEnvelope.
+     * @param encoder           Used for the payloads added at runtime.
+     * @throws IOException If writing to the stream failed.
+     */
+    public void writeDelimitedTo(OutputStream outputStream, int storeFieldNumber, Encoder encoder) throws IOException {
+        ByteString serializedStore = getSerializedStore(encoder);
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(CodedOutputStream.computeBytesSize(storeFieldNumber, serializedStore));
+        codedOutputStream.writeBytes(storeFieldNumber, serializedStore);
+        codedOutputStream.flush();
+    }
+
+    /**
+     * Returns the payloads we send to a peer which requested our data. The mapped payloads are not decoded but sent
+     * as they are serialized in the file.
+     * All mapped payloads are of the same type and a payload type has the same required capabilities for all its
+     * instances, so we apply the filter only to one decoded payload and use the result for all mapped payloads.
+     *
+     * @param excludedKeys  The keys of the payloads the peer has already.
+     * @param filter        Filter for the payloads we send, e.g. the capability check for the peer.
+     * @return The payloads which are not excluded and pass the filter.
+     */
+    public List<PersistableNetworkPayload> getPayloadsForSending(Set<P2PDataStorage.ByteArray> excludedKeys,
+                                                                 Predicate<PersistableNetworkPayload> filter) {
+        List<PersistableNetworkPayload> result = new ArrayList<>();
+        Boolean mappedPayloadsPassFilter = null;
+        for (Map.Entry<P2PDataStorage.ByteArray, Long> entry : index.entrySet()) {
+            P2PDataStorage.ByteArray key = entry.getKey();
+            if (excludedKeys.contains(key))
+                continue;
+
+            if (mappedPayloadsPassFilter == null) {
+                PersistableNetworkPayload sample = get(key);
+                mappedPayloadsPassFilter = sample != null && filter.test(sample);
+            }
+            if (!mappedPayloadsPassFilter)
+                break;
+
+            result.add(new SerializedPayload(key.bytes, getBytes(entry.getValue()), payloadFieldNumber));
+        }
+
+        addedPayloads.entrySet().stream()
+                .filter(e -> !excludedKeys.contains(e.getKey()))
+                .map(Map.Entry::getValue)
+                .filter(filter)
+                .forEach(result::add);
+        return result;
+    }
+
+    // Number of payloads decoded since creation. Used for measuring the effect of lazy decoding.
+    public long getNumDecoded() {
+        return numDecoded.get();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We parse the wire format directly on the buffer with absolute reads, so we neither copy the buffer nor depend
+    // on the direct buffer support of CodedInputStream.
+    private static Map<P2PDataStorage.ByteArray, Long> buildIndex(ByteBuffer buffer,
+                                                                  int storeFieldNumber,
+                                                                  int hashFieldNumber) throws IOException {
+        Map<P2PDataStorage.ByteArray, Long> index = new ConcurrentHashMap<>();
+        WireReader reader = new WireReader(buffer);
+
+        // Length prefix from writeDelimitedTo
+        int envelopeEnd = reader.readLengthAndGetEnd(buffer.limit());
+        while (reader.position < envelopeEnd) {
+            int tag = reader.readVarint32();
+            if (WireFormat.getTagFieldNumber(tag) != storeFieldNumber) {
+                reader.skipField(tag, envelopeEnd);
+                continue;
+            }
+
+            int storeEnd = reader.readLengthAndGetEnd(envelopeEnd);
+            while (reader.position < storeEnd) {
+                int itemTag = reader.readVarint32();
+                if (WireFormat.getTagFieldNumber(itemTag) != ITEMS_FIELD_NUMBER) {
+                    reader.skipField(itemTag, storeEnd);
+                    continue;
+                }
+
+                int itemEnd = reader.readLengthAndGetEnd(storeEnd);
+                int offset = reader.position;
+                byte[] hash = null;
+                while (reader.position < itemEnd) {
+                    int fieldTag = reader.readVarint32();
+                    if (WireFormat.getTagFieldNumber(fieldTag) == hashFieldNumber &&
+                            WireFormat.getTagWireType(fieldTag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        int hashEnd = reader.readLengthAndGetEnd(itemEnd);
+                        hash = reader.getBytes(hashEnd - reader.position);
+                    } else {
+                        reader.skipField(fieldTag, itemEnd);
+                    }
+                }
+
+                if (hash == null)
+                    throw new IOException("Payload at offset " + offset + " has no hash");
+
+                index.put(new P2PDataStorage.ByteArray(hash), ((long) offset << 32) | (itemEnd - offset));
+            }
+        }
+        return index;
+    }
+
+    private PersistableNetworkPayload decode(P2PDataStorage.ByteArray hash) {
+        Long position = index.get(hash);
+        if (position == null)
+            return null;
+
+        try {
+            numDecoded.incrementAndGet();
+            return decoder.decode(getBytes(position));
+        } catch (IOException e) {
+            throw new ProtobufferRuntimeException("Decoding payload failed. hash=" + hash, e);
+        }
+    }
+
+    private byte[] getBytes(long position) {
+        WireReader reader = new WireReader(buffer);
+        reader.position = (int) (position >>> 32);
+        return reader.getBytes((int) position);
+    }
+
+    // Entry used for iterating. We do not put the decoded payload into the cache to not evict the frequently used
+    // payloads when iterating over all.
+    private class LazyEntry implements Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        private final P2PDataStorage.ByteArray key;
+        private PersistableNetworkPayload value;
+
+        LazyEntry(P2PDataStorage.ByteArray key) {
+            this.key = key;
+        }
+
+        @Override
+        public P2PDataStorage.ByteArray getKey() {
+            return key;
+        }
+
+        @Override
+        public PersistableNetworkPayload getValue() {
+            if (value == null) {
+                value = cache.get(key);
+                if (value == null)
+                    value = decode(key);
+            }
+            return value;
+        }
+
+        @Override
+        public PersistableNetworkPayload setValue(PersistableNetworkPayload value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class WireReader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        WireReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readVarint32() throws IOException {
+            return (int) readVarint64();
+        }
+
+        long readVarint64() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= buffer.limit())
+                    throw new IOException("Truncated varint at " + position);
+                byte b = buffer.get(position++);
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return result;
+            }
+            throw new IOException("Malformed varint at " + position);
+        }
+
+        int readLengthAndGetEnd(int limit) throws IOException {
+            int length = readVarint32();
+            if (length < 0 || position + length > limit)
+                throw new IOException("Invalid length " + length + " at " + position);
+            return position + length;
+        }
+
+        void skipField(int tag, int limit) throws IOException {
+            switch (WireFormat.getTagWireType(tag)) {
+                case WireFormat.WIRETYPE_VARINT:
+                    readVarint64();
+                    break;
+                case WireFormat.WIRETYPE_FIXED64:
+                    position += 8;
+                    break;
+                case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+                    position = readLengthAndGetEnd(limit);
+                    break;
+                case WireFormat.WIRETYPE_FIXED32:
+                    position += 4;
+                    break;
+                default:
+                    throw new IOException("Unsupported wire type of tag " + tag + " at " + position);
+            }
+            if (position > limit)
+                throw new IOException("Field exceeds limit at " + position);
+        }
+
+        byte[] getBytes(int length) {
+            byte[] bytes = new byte[length];
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(position);
+            duplicate.get(bytes);
+            position += length;
+            return bytes;
+        }
+    }
+}
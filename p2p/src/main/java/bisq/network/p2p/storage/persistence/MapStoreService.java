@@ -71,4 +71,9 @@ public abstract class MapStoreService<T extends PersistableEnvelope, R extends P
     boolean containsKey(P2PDataStorage.ByteArray hash) {
         return getMap().containsKey(hash);
     }
+
+    @Override
+    protected long getNumEntries() {
+        return getMap().size();
+    }
 }
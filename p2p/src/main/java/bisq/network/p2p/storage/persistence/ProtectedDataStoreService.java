@@ -20,6 +20,7 @@ package bisq.network.p2p.storage.persistence;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
+import bisq.common.app.StartupTimeline;
 import bisq.common.proto.persistable.PersistableEnvelope;
 
 import javax.inject.Inject;
@@ -27,6 +28,8 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -51,8 +54,8 @@ public class ProtectedDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public CompletableFuture<Void> readFromResources(String postFix, Executor executor, StartupTimeline startupTimeline) {
+        return StoreService.readFromResources(services, postFix, executor, startupTimeline);
     }
 
     public Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> getMap() {
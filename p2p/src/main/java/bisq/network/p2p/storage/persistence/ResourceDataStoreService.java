@@ -17,12 +17,15 @@
 
 package bisq.network.p2p.storage.persistence;
 
+import bisq.common.app.StartupTimeline;
 import bisq.common.proto.persistable.PersistableEnvelope;
 
 import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,7 +45,7 @@ public class ResourceDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public CompletableFuture<Void> readFromResources(String postFix, Executor executor, StartupTimeline startupTimeline) {
+        return StoreService.readFromResources(services, postFix, executor, startupTimeline);
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Serialized payload of a LazyPayloadMap which is only used for sending it to a peer, so that we do not need to
+ * decode it. The payload bytes are written as unknown field of PB.PersistableNetworkPayload, which results in the
+ * same bytes as if the decoded payload would have been serialized.
+ */
+@EqualsAndHashCode(exclude = {"serializedPayload", "payloadFieldNumber"})
+final class SerializedPayload implements PersistableNetworkPayload {
+    private final byte[] hash;
+    private final byte[] serializedPayload;
+    private final int payloadFieldNumber;
+
+    /**
+     * @param hash                  The hash of the payload.
+     * @param serializedPayload     The serialized payload message.
+     * @param payloadFieldNumber    The field number of the payload inside PB.PersistableNetworkPayload.
+     */
+    SerializedPayload(byte[] hash, byte[] serializedPayload, int payloadFieldNumber) {
+        this.hash = hash;
+        this.serializedPayload = serializedPayload;
+        this.payloadFieldNumber = payloadFieldNumber;
+    }
+
+    @Override
+    public PB.PersistableNetworkPayload toProtoMessage() {
+        UnknownFieldSet.Field field = UnknownFieldSet.Field.newBuilder()
+                .addLengthDelimited(ByteString.copyFrom(serializedPayload))
+                .build();
+        return PB.PersistableNetworkPayload.newBuilder()
+                .setUnknownFields(UnknownFieldSet.newBuilder().addField(payloadFieldNumber, field).build())
+                .build();
+    }
+
+    @Override
+    public byte[] getHash() {
+        return hash;
+    }
+
+    // The hash got verified when the payload was added to the store
+    @Override
+    public boolean verifyHashSize() {
+        return true;
+    }
+}
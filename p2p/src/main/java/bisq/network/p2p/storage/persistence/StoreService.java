@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.storage.persistence;
 
+import bisq.common.app.StartupTimeline;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.ResourceNotFoundException;
@@ -27,6 +28,10 @@ import java.nio.file.Paths;
 import java.io.File;
 import java.io.IOException;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -75,6 +80,26 @@ public abstract class StoreService<T extends PersistableEnvelope> {
 
     abstract public String getFileName();
 
+    /**
+     * Reads the resource files of the given services concurrently on the given executor. The stores do not depend on
+     * each other or on other persisted data. For each store we record the read time, the file size and the number of
+     * entries in the startup timeline.
+     *
+     * @return A future which completes when all services have read their stores.
+     */
+    static CompletableFuture<Void> readFromResources(List<? extends StoreService<?>> services,
+                                                     String postFix,
+                                                     Executor executor,
+                                                     StartupTimeline startupTimeline) {
+        return CompletableFuture.allOf(services.stream()
+                .map(service -> CompletableFuture.runAsync(() -> {
+                    long ts = System.currentTimeMillis();
+                    service.readFromResources(postFix);
+                    service.recordReadStore(startupTimeline, ts);
+                }, executor))
+                .toArray(CompletableFuture[]::new));
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -124,13 +149,23 @@ public abstract class StoreService<T extends PersistableEnvelope> {
     protected void readStore() {
         final String fileName = getFileName();
         store = storage.initAndGetPersistedWithFileName(fileName, 100);
-        if (store != null) {
-            log.info("{}: size of {}: {} MB", this.getClass().getSimpleName(),
-                    storage.getClass().getSimpleName(),
-                    store.toProtoMessage().toByteArray().length / 1_000_000D);
-        } else {
+        if (store == null)
             store = createStore();
-        }
+    }
+
+    void recordReadStore(StartupTimeline startupTimeline, long startTime) {
+        // We use the file size instead of serializing the store again as that is expensive for large stores.
+        String fileName = getFileName();
+        File storageFile = new File(absolutePathOfStorageDir, fileName);
+        startupTimeline.record("readStore " + fileName,
+                startTime,
+                storageFile.exists() ? storageFile.length() : 0,
+                getNumEntries());
+    }
+
+    // Number of entries for the startup timeline. Stores which are not map based return StartupTimeline.UNKNOWN.
+    protected long getNumEntries() {
+        return StartupTimeline.UNKNOWN;
     }
 
     abstract protected T createStore();
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.http;
+
+import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Compares requests over a new connection through the socks5 proxy with requests over a pooled connection. Not part
+ * of the unit tests, run it with: ./gradlew :p2p:test -PrunBenchmarks --tests '*HttpClientBenchmark'
+ */
+public class HttpClientBenchmark {
+    static {
+        // Otherwise the delayed ACK of the reused connection adds about 40 ms to each response of the JDK http server
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Test
+    public void benchmarkPooledClient() throws IOException {
+        byte[] body = "{\"data\":[{\"currencyCode\":\"EUR\",\"price\":5000.0}]}".getBytes(StandardCharsets.UTF_8);
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/getFees", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        try (Socks5StandIn socks5StandIn = new Socks5StandIn()) {
+            Socks5Proxy socks5Proxy = new Socks5Proxy(InetAddress.getLoopbackAddress(), socks5StandIn.getPort());
+            HttpClient httpClient = new HttpClient("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+            int numIterations = 200;
+            // Warm up
+            for (int i = 0; i < 20; i++) {
+                httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null);
+            }
+
+            long ts = System.nanoTime();
+            for (int i = 0; i < numIterations; i++) {
+                // Without a pooled client each request needs a new connection over the proxy
+                Socks5HttpClientPool.reset();
+                httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null);
+            }
+            long newClientDuration = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numIterations; i++) {
+                httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null);
+            }
+            long pooledClientDuration = System.nanoTime() - ts;
+
+            System.out.println("New connection per request: " + newClientDuration / numIterations / 1000 + " us/request");
+            System.out.println("Pooled connection: " + pooledClientDuration / numIterations / 1000 + " us/request");
+            System.out.println(httpClient.getRequestStatistics());
+        } finally {
+            Socks5HttpClientPool.reset();
+            httpServer.stop(0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.http;
+
+import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class HttpClientTest {
+    private static final String BODY = "{\"data\":[{\"currencyCode\":\"EUR\",\"price\":5000.0}]}";
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer httpServer;
+    private Socks5StandIn socks5StandIn;
+    private Socks5Proxy socks5Proxy;
+    private HttpClient httpClient;
+    private final AtomicInteger numRequests = new AtomicInteger();
+
+    static {
+        // Otherwise the delayed ACK of the reused connection adds about 40 ms to each response of the JDK http server
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/getAllMarketPrices", exchange -> {
+            numRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        httpServer.createContext("/getFees", exchange -> {
+            numRequests.incrementAndGet();
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        httpServer.start();
+
+        socks5StandIn = new Socks5StandIn();
+        socks5Proxy = new Socks5Proxy(InetAddress.getLoopbackAddress(), socks5StandIn.getPort());
+        httpClient = new HttpClient("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Socks5HttpClientPool.reset();
+        socks5StandIn.close();
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws IOException {
+        assertEquals(BODY, httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null));
+        assertEquals(BODY, httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null));
+        assertEquals(BODY, httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null));
+
+        assertEquals(3, numRequests.get());
+        assertEquals(1, socks5StandIn.getNumConnections());
+    }
+
+    @Test
+    public void testNotModifiedResponseUsesCachedBody() throws IOException {
+        assertEquals(BODY, httpClient.requestWithGETProxy("getAllMarketPrices", socks5Proxy, null, null));
+        assertEquals(BODY, httpClient.requestWithGETProxy("getAllMarketPrices", socks5Proxy, null, null));
+        assertEquals(BODY, httpClient.requestWithGETProxy("getAllMarketPrices", socks5Proxy, null, null));
+        assertEquals(3, numRequests.get());
+
+        HttpRequestStatistics.ProviderStatistics statistics = httpClient.getRequestStatistics()
+                .getStatisticsByProvider().get(httpClient.getBaseUrl());
+        assertEquals(3, statistics.getNumRequests());
+        assertEquals(2, statistics.getNumNotModified());
+        assertEquals(0, statistics.getNumFailures());
+    }
+
+    @Test
+    public void testNoRequestAfterShutDown() throws IOException {
+        assertEquals(BODY, httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null));
+        Socks5HttpClientPool.shutDown();
+        try {
+            httpClient.requestWithGETProxy("getFees", socks5Proxy, null, null);
+            fail("Expected IOException");
+        } catch (IOException ignore) {
+        }
+        assertEquals(1, numRequests.get());
+        assertEquals(1, httpClient.getRequestStatistics().getStatisticsByProvider().get(httpClient.getBaseUrl()).getNumFailures());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.http;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal socks5 proxy (no authentication, CONNECT only) used as a stand-in for Tor.
+ */
+class Socks5StandIn implements Closeable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger numConnections = new AtomicInteger();
+
+    Socks5StandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    numConnections.incrementAndGet();
+                    executor.execute(() -> handle(socket));
+                } catch (IOException ignore) {
+                }
+            }
+        });
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getNumConnections() {
+        return numConnections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void handle(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            // Greeting: version, number of methods, methods
+            in.readUnsignedByte();
+            in.readFully(new byte[in.readUnsignedByte()]);
+            out.write(new byte[]{5, 0});
+            out.flush();
+
+            // Request: version, command, reserved, address type, address, port
+            in.readFully(new byte[3]);
+            int addressType = in.readUnsignedByte();
+            String host;
+            if (addressType == 3) {
+                byte[] domain = new byte[in.readUnsignedByte()];
+                in.readFully(domain);
+                host = new String(domain, StandardCharsets.US_ASCII);
+            } else {
+                byte[] address = new byte[addressType == 1 ? 4 : 16];
+                in.readFully(address);
+                host = InetAddress.getByAddress(address).getHostAddress();
+            }
+            int port = in.readUnsignedShort();
+            Socket target = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            target.setTcpNoDelay(true);
+            out.write(new byte[]{5, 0, 0, 1, 0, 0, 0, 0, 0, 0});
+            out.flush();
+
+            executor.execute(() -> pipe(target, socket));
+            pipe(socket, target);
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static void pipe(Socket from, Socket to) {
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException ignore) {
+        } finally {
+            try {
+                from.close();
+                to.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
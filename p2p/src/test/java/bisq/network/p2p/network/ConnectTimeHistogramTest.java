@@ -0,0 +1,70 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectTimeHistogramTest {
+    @Test
+    public void testEmptyHistogram() {
+        ConnectTimeHistogram histogram = new ConnectTimeHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getAverage());
+        assertEquals(-1, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testPercentiles() {
+        ConnectTimeHistogram histogram = new ConnectTimeHistogram();
+        for (int i = 0; i < 50; i++)
+            histogram.add(200);
+        for (int i = 0; i < 40; i++)
+            histogram.add(3000);
+        for (int i = 0; i < 9; i++)
+            histogram.add(10000);
+        histogram.add(200000);
+        histogram.addFailure();
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getNumFailures());
+        assertEquals((50 * 200 + 40 * 3000 + 9 * 10000 + 200000) / 100, histogram.getAverage());
+        assertEquals(250, histogram.getPercentile(50));
+        assertEquals(4000, histogram.getPercentile(51));
+        assertEquals(4000, histogram.getPercentile(90));
+        assertEquals(16000, histogram.getPercentile(99));
+        // Durations above the highest bound are in the open last bucket
+        assertEquals(-1, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testBucketBounds() {
+        ConnectTimeHistogram histogram = new ConnectTimeHistogram();
+        histogram.add(250);
+        assertEquals(250, histogram.getPercentile(100));
+
+        histogram = new ConnectTimeHistogram();
+        histogram.add(251);
+        assertEquals(500, histogram.getPercentile(100));
+
+        histogram = new ConnectTimeHistogram();
+        histogram.add(0);
+        assertEquals(250, histogram.getPercentile(100));
+    }
+}
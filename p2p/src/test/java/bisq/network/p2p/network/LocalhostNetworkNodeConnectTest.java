@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.mocks.MockPayload;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.io.IOException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LocalhostNetworkNodeConnectTest {
+    private static final int DELAY = 400;
+
+    private LocalhostNetworkNode networkNode;
+
+    @Before
+    public void setUp() {
+        LocalhostNetworkNode.setSimulateTorDelayConnect(DELAY);
+        networkNode = new LocalhostNetworkNode(0, null);
+        networkNode.createExecutorService();
+    }
+
+    @After
+    public void tearDown() {
+        LocalhostNetworkNode.setSimulateTorDelayConnect(0);
+        networkNode.executorService.shutdownNow();
+    }
+
+    @Test
+    public void testSimulatedConnectDelay() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            long startTs = System.currentTimeMillis();
+            Socket socket = networkNode.createSocket(new NodeAddress("localhost", serverSocket.getLocalPort()));
+            // The delay varies by +/- 50%
+            assertTrue(System.currentTimeMillis() - startTs >= DELAY / 2);
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testMessageFailsWithFailedPendingConnection() throws Exception {
+        NodeAddress nodeAddress = new NodeAddress("localhost", getUnusedPort());
+        SettableFuture<Connection> connectFuture = networkNode.connect(nodeAddress);
+        // The connect is still in the simulated delay, so the message waits for it
+        SettableFuture<Connection> sendFuture = networkNode.sendMessage(nodeAddress, new MockPayload("test"));
+        assertFalse(sendFuture.isDone());
+
+        try {
+            sendFuture.get(10, TimeUnit.SECONDS);
+            fail("Expected the message to fail with the pending connection");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+        assertTrue(connectFuture.isDone());
+        // No second connect attempt for the message
+        assertEquals(1, networkNode.getConnectTimeHistogram().getNumFailures());
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
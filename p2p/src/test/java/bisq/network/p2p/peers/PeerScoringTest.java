@@ -0,0 +1,217 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PeerScoringTest {
+    private PeerScoring peerScoring;
+    private NodeAddress fastPeer;
+    private NodeAddress slowPeer;
+    private NodeAddress unknownPeer;
+
+    @Before
+    public void setUp() {
+        peerScoring = new PeerScoring(new Random(1));
+        fastPeer = new NodeAddress("fast.onion:8000");
+        slowPeer = new NodeAddress("slow.onion:8000");
+        unknownPeer = new NodeAddress("unknown.onion:8000");
+        peerScoring.addRoundTripTime(fastPeer, 200);
+        peerScoring.addRoundTripTime(slowPeer, 5000);
+    }
+
+    @Test
+    public void testWeight() {
+        assertTrue(peerScoring.getWeight(fastPeer) > peerScoring.getWeight(unknownPeer));
+        assertTrue(peerScoring.getWeight(unknownPeer) > peerScoring.getWeight(slowPeer));
+
+        double weight = peerScoring.getWeight(fastPeer);
+        peerScoring.addResult(fastPeer, false);
+        assertTrue(peerScoring.getWeight(fastPeer) < weight);
+
+        for (int i = 0; i < 100; i++) {
+            peerScoring.addResult(slowPeer, false);
+        }
+        // We never exclude a peer completely
+        assertTrue(peerScoring.getWeight(slowPeer) > 0);
+    }
+
+    @Test
+    public void testWeightedShuffleKeepsAllItems() {
+        List<NodeAddress> nodeAddresses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            nodeAddresses.add(new NodeAddress("peer" + i + ".onion:8000"));
+        }
+        Set<NodeAddress> expected = new HashSet<>(nodeAddresses);
+        peerScoring.weightedShuffle(nodeAddresses);
+        assertEquals(20, nodeAddresses.size());
+        assertEquals(expected, new HashSet<>(nodeAddresses));
+    }
+
+    @Test
+    public void testWeightedShufflePrefersFastPeers() {
+        int fastFirst = 0;
+        int slowFirst = 0;
+        for (int i = 0; i < 1000; i++) {
+            List<NodeAddress> nodeAddresses = new ArrayList<>();
+            nodeAddresses.add(slowPeer);
+            nodeAddresses.add(fastPeer);
+            peerScoring.weightedShuffle(nodeAddresses);
+            if (nodeAddresses.get(0).equals(fastPeer))
+                fastFirst++;
+            else
+                slowFirst++;
+        }
+        assertTrue(fastFirst > slowFirst * 2);
+        // Slow peers still get selected sometimes
+        assertTrue(slowFirst > 0);
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        PeerScore peerScore = new PeerScore(fastPeer)
+                .withRoundTripTime(300)
+                .withResult(false)
+                .withThroughput(20_000);
+        assertEquals(peerScore, PeerScore.fromProto(peerScore.toProtoMessage()));
+
+        PeerScoring persistedPeerScoring = new PeerScoring();
+        persistedPeerScoring.addPersistedPeerScores(Collections.singletonList(peerScore));
+        assertEquals(peerScoring.getWeight(fastPeer) > 0, persistedPeerScoring.getWeight(fastPeer) > 0);
+        assertEquals(1, persistedPeerScoring.getPeerScores().size());
+    }
+
+    @Test
+    public void testPeerScoresAreNotChangedByLaterMeasurements() {
+        List<PeerScore> peerScores = peerScoring.getPeerScores();
+        PeerScore peerScore = peerScores.stream()
+                .filter(e -> e.getNodeAddress().equals(fastPeer))
+                .findAny()
+                .orElseThrow(AssertionError::new);
+        PB.PeerScore proto = peerScore.toProtoMessage();
+
+        peerScoring.addRoundTripTime(fastPeer, 3000);
+        peerScoring.addResult(fastPeer, false);
+        peerScoring.addThroughput(fastPeer, 1000, 1000);
+
+        assertEquals(proto, peerScore.toProtoMessage());
+        assertNotEquals(proto, peerScoring.getPeerScores().stream()
+                .filter(e -> e.getNodeAddress().equals(fastPeer))
+                .findAny()
+                .orElseThrow(AssertionError::new)
+                .toProtoMessage());
+    }
+
+    // Simulates repeated bootstraps with seed nodes of heterogeneous latency and reliability. We request data from
+    // 2 seed nodes in parallel and continue with the next candidate after a failure. The bootstrap time is the time
+    // until the first response.
+    @Test
+    public void testBootstrapSimulation() {
+        Random random = new Random(2);
+        int numPeers = 30;
+        List<NodeAddress> peers = new ArrayList<>();
+        Map<NodeAddress, Long> roundTripTimeByPeer = new HashMap<>();
+        Map<NodeAddress, Double> failureRateByPeer = new HashMap<>();
+        for (int i = 0; i < numPeers; i++) {
+            NodeAddress nodeAddress = new NodeAddress("seed" + i + ".onion:8000");
+            peers.add(nodeAddress);
+            roundTripTimeByPeer.put(nodeAddress, 300L + random.nextInt(5700));
+            failureRateByPeer.put(nodeAddress, i % 5 == 0 ? 0.5 : 0.02);
+        }
+
+        PeerScoring scoring = new PeerScoring(new Random(3));
+        Random shuffleRandom = new Random(4);
+        int numBootstraps = 300;
+        int warmUp = 30;
+        long shuffledTotal = 0;
+        long weightedTotal = 0;
+        Set<NodeAddress> firstChoices = new HashSet<>();
+        for (int i = 0; i < numBootstraps; i++) {
+            List<NodeAddress> shuffled = new ArrayList<>(peers);
+            Collections.shuffle(shuffled, shuffleRandom);
+            long shuffledTime = simulateBootstrap(shuffled, roundTripTimeByPeer, failureRateByPeer, random, null);
+
+            List<NodeAddress> weighted = new ArrayList<>(peers);
+            scoring.weightedShuffle(weighted);
+            long weightedTime = simulateBootstrap(weighted, roundTripTimeByPeer, failureRateByPeer, random, scoring);
+
+            if (i >= warmUp) {
+                shuffledTotal += shuffledTime;
+                weightedTotal += weightedTime;
+                firstChoices.add(weighted.get(0));
+            }
+        }
+
+        int numMeasured = numBootstraps - warmUp;
+        System.out.println("Mean bootstrap time with shuffled peers: " + shuffledTotal / numMeasured + " ms, " +
+                "with weighted peers: " + weightedTotal / numMeasured + " ms, " +
+                "distinct first choices: " + firstChoices.size() + " of " + numPeers);
+        assertTrue(weightedTotal < shuffledTotal);
+        // We still use many different peers
+        assertTrue(firstChoices.size() > numPeers / 3);
+    }
+
+    private static long simulateBootstrap(List<NodeAddress> candidates,
+                                          Map<NodeAddress, Long> roundTripTimeByPeer,
+                                          Map<NodeAddress, Double> failureRateByPeer,
+                                          Random random,
+                                          PeerScoring scoring) {
+        long failureTimeout = 20_000;
+        // A data request needs a connection and a request/response, we count it as 3 round trips
+        long[] chainTime = new long[2];
+        int next = 0;
+        long result = Long.MAX_VALUE;
+        for (int chain = 0; chain < chainTime.length; chain++) {
+            while (next < candidates.size()) {
+                NodeAddress nodeAddress = candidates.get(next++);
+                long roundTripTime = roundTripTimeByPeer.get(nodeAddress);
+                boolean success = random.nextDouble() >= failureRateByPeer.get(nodeAddress);
+                if (scoring != null) {
+                    scoring.addResult(nodeAddress, success);
+                    if (success)
+                        scoring.addRoundTripTime(nodeAddress, roundTripTime);
+                }
+                if (success) {
+                    chainTime[chain] += 3 * roundTripTime;
+                    result = Math.min(result, chainTime[chain]);
+                    break;
+                } else {
+                    chainTime[chain] += failureTimeout;
+                }
+            }
+        }
+        return result;
+    }
+}
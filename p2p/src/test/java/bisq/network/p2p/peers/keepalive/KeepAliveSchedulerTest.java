@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeepAliveSchedulerTest {
+    private static final long IDLE_THRESHOLD_MS = 15_000;
+    private static final long PING_INTERVAL_MS = 30_000;
+
+    private static class TestConnection {
+        private final String uid;
+        private long lastActivityTs;
+
+        TestConnection(String uid, long lastActivityTs) {
+            this.uid = uid;
+            this.lastActivityTs = lastActivityTs;
+        }
+    }
+
+    private KeepAliveScheduler<TestConnection> scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new KeepAliveScheduler<>(IDLE_THRESHOLD_MS, PING_INTERVAL_MS, c -> c.uid, c -> c.lastActivityTs);
+    }
+
+    @Test
+    public void testOnlyIdleConnectionsArePolled() {
+        TestConnection idle = new TestConnection("idle", 0);
+        TestConnection active = new TestConnection("active", 0);
+        scheduler.add(idle);
+        scheduler.add(active);
+
+        assertTrue(scheduler.pollIdleItems(10_000).isEmpty());
+
+        active.lastActivityTs = 14_000;
+        List<TestConnection> idleConnections = scheduler.pollIdleItems(15_000);
+        assertEquals(1, idleConnections.size());
+        assertEquals(idle, idleConnections.get(0));
+
+        // Active connection becomes idle at 29_000
+        assertTrue(scheduler.pollIdleItems(28_000).isEmpty());
+        assertEquals(active, scheduler.pollIdleItems(29_000).get(0));
+    }
+
+    @Test
+    public void testIdleConnectionIsPolledOncePerPingInterval() {
+        TestConnection idle = new TestConnection("idle", 0);
+        scheduler.add(idle);
+
+        assertEquals(1, scheduler.pollIdleItems(15_000).size());
+        assertTrue(scheduler.pollIdleItems(30_000).isEmpty());
+        assertEquals(1, scheduler.pollIdleItems(45_000).size());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        TestConnection connection = new TestConnection("1", 0);
+        scheduler.add(connection);
+        scheduler.add(new TestConnection("1", 0));
+        assertEquals(1, scheduler.size());
+
+        scheduler.remove(connection);
+        assertEquals(0, scheduler.size());
+        assertTrue(scheduler.pollIdleItems(100_000).isEmpty());
+    }
+
+    // Simulates a seed node with many connections where most connections carry regular traffic and compares the
+    // number of pings with the previous behaviour (ping all connections with an activity age of more than 15 ms at
+    // each 30 sec. interval).
+    @Test
+    public void testPingsSavedSimulation() {
+        int numConnections = 200;
+        long durationMs = 600_000;
+        Random random = new Random(1);
+        List<TestConnection> connections = new ArrayList<>();
+        List<Long> messageIntervals = new ArrayList<>();
+        for (int i = 0; i < numConnections; i++) {
+            TestConnection connection = new TestConnection(String.valueOf(i), 0);
+            connections.add(connection);
+            scheduler.add(connection);
+            // 80% of the connections get a message every 1-10 sec., the others are idle
+            messageIntervals.add(i % 5 == 0 ? Long.MAX_VALUE : 1000L + random.nextInt(9000));
+        }
+
+        int previousPings = 0;
+        int pings = 0;
+        for (long now = 1000; now <= durationMs; now += 1000) {
+            for (int i = 0; i < numConnections; i++) {
+                if (now % messageIntervals.get(i) < 1000)
+                    connections.get(i).lastActivityTs = now;
+            }
+
+            if (now % 30_000 == 0) {
+                for (TestConnection connection : connections) {
+                    if (now - connection.lastActivityTs > 15)
+                        previousPings++;
+                }
+            }
+
+            if (now % 5_000 == 0)
+                pings += scheduler.pollIdleItems(now).size();
+        }
+
+        double durationSec = durationMs / 1000d;
+        System.out.println("Previous pings/sec=" + previousPings / durationSec + ", pings/sec=" + pings / durationSec +
+                ", saved pings/sec=" + (previousPings - pings) / durationSec);
+        assertTrue(pings < previousPings / 2);
+        // Idle connections still get pinged each interval
+        assertTrue(pings >= (numConnections / 5) * (durationMs / PING_INTERVAL_MS - 1));
+    }
+}
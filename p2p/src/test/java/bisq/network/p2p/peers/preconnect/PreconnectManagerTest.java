@@ -0,0 +1,148 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.peers.preconnect;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.peers.PeerManager;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.net.ConnectException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class PreconnectManagerTest {
+    @Mocked
+    PeerManager peerManager;
+
+    private final NodeAddress peer1 = new NodeAddress("peer1.onion:8000");
+    private final NodeAddress peer2 = new NodeAddress("peer2.onion:8000");
+    private final NodeAddress peer3 = new NodeAddress("peer3.onion:8000");
+    private final NodeAddress peer4 = new NodeAddress("peer4.onion:8000");
+    private TestNetworkNode networkNode;
+
+    @Before
+    public void setUp() {
+        networkNode = new TestNetworkNode();
+        new Expectations() {{
+            peerManager.getMaxConnections();
+            result = 12;
+            minTimes = 0;
+        }};
+    }
+
+    @Test
+    public void testNoConnectBeforeStart() {
+        PreconnectManager preconnectManager = createPreconnectManager();
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.LOW);
+        assertTrue(networkNode.pendingConnects.isEmpty());
+
+        preconnectManager.start();
+        assertEquals(Arrays.asList(peer1), networkNode.getConnectingNodeAddresses());
+    }
+
+    @Test
+    public void testMaxPendingConnects() {
+        PreconnectManager preconnectManager = createPreconnectManager();
+        preconnectManager.start();
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer2, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer3, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer4, PreconnectManager.Priority.LOW);
+        assertEquals(Arrays.asList(peer1, peer2, peer3), networkNode.getConnectingNodeAddresses());
+
+        // A completed connect, also a failed one, frees a slot for the next peer in the queue
+        networkNode.pendingConnects.get(peer2).setException(new ConnectException());
+        assertEquals(Arrays.asList(peer1, peer2, peer3, peer4), networkNode.getConnectingNodeAddresses());
+    }
+
+    @Test
+    public void testHighPriorityFirst() {
+        PreconnectManager preconnectManager = createPreconnectManager();
+        preconnectManager.start();
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer2, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer3, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer4, PreconnectManager.Priority.LOW);
+        NodeAddress highPriorityPeer = new NodeAddress("high.onion:8000");
+        preconnectManager.preconnect(highPriorityPeer, PreconnectManager.Priority.HIGH);
+
+        networkNode.pendingConnects.get(peer1).set(null);
+        assertEquals(highPriorityPeer, networkNode.getConnectingNodeAddresses().get(3));
+    }
+
+    @Test
+    public void testNoDuplicateConnects() {
+        PreconnectManager preconnectManager = createPreconnectManager();
+        preconnectManager.start();
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.LOW);
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.HIGH);
+        assertEquals(1, networkNode.numConnects);
+    }
+
+    @Test
+    public void testNoConnectAfterShutDown() {
+        PreconnectManager preconnectManager = createPreconnectManager();
+        preconnectManager.start();
+        preconnectManager.shutDown();
+        preconnectManager.preconnect(peer1, PreconnectManager.Priority.HIGH);
+        assertEquals(0, networkNode.numConnects);
+    }
+
+    private PreconnectManager createPreconnectManager() {
+        return new PreconnectManager(networkNode, peerManager);
+    }
+
+    private static class TestNetworkNode extends LocalhostNetworkNode {
+        private final Map<NodeAddress, SettableFuture<Connection>> pendingConnects = new LinkedHashMap<>();
+        private int numConnects;
+
+        TestNetworkNode() {
+            super(0, null);
+        }
+
+        @Override
+        public SettableFuture<Connection> connect(NodeAddress peersNodeAddress) {
+            numConnects++;
+            SettableFuture<Connection> future = SettableFuture.create();
+            pendingConnects.put(peersNodeAddress, future);
+            return future;
+        }
+
+        List<NodeAddress> getConnectingNodeAddresses() {
+            return new ArrayList<>(pendingConnects.keySet());
+        }
+    }
+}
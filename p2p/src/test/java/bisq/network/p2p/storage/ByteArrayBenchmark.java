@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures map lookups with ByteArray keys created for each lookup, like we do for received messages. Not part of the
+ * unit tests, run it with: ./gradlew :p2p:test -PrunBenchmarks --tests '*ByteArrayBenchmark'
+ */
+public class ByteArrayBenchmark {
+
+    @Test
+    public void benchmarkLookup() {
+        int numKeys = 100_000;
+        Random random = new Random(4);
+        Map<P2PDataStorage.ByteArray, Integer> map = new HashMap<>();
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++) {
+            byte[] bytes = new byte[32];
+            random.nextBytes(bytes);
+            keys.add(bytes);
+            map.put(new P2PDataStorage.ByteArray(bytes), i);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long ts = System.nanoTime();
+            int found = 0;
+            for (byte[] key : keys) {
+                P2PDataStorage.ByteArray byteArray = new P2PDataStorage.ByteArray(key.clone());
+                for (int i = 0; i < 10; i++) {
+                    if (map.containsKey(byteArray))
+                        found++;
+                }
+            }
+            long duration = System.nanoTime() - ts;
+            assertEquals(numKeys * 10, found);
+            System.out.println("Round " + round + ": " + (numKeys * 10) + " lookups took " + duration / 1_000_000 +
+                    " ms (" + (numKeys * 10 * 1_000_000_000L / Math.max(1, duration)) + " lookups/sec)");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class ByteArrayTest {
+
+    @Test
+    public void testEqualsAndHashCode() {
+        byte[] bytes = getRandomBytes(new Random(1), 32);
+        P2PDataStorage.ByteArray byteArray = new P2PDataStorage.ByteArray(bytes);
+        P2PDataStorage.ByteArray copy = new P2PDataStorage.ByteArray(bytes.clone());
+        assertEquals(byteArray, copy);
+        assertEquals(byteArray.hashCode(), copy.hashCode());
+
+        byte[] changed = bytes.clone();
+        changed[31]++;
+        assertNotEquals(byteArray, new P2PDataStorage.ByteArray(changed));
+        assertNotEquals(byteArray, new P2PDataStorage.ByteArray(new byte[20]));
+    }
+
+    @Test
+    public void testHexAndProtoRoundTrip() {
+        P2PDataStorage.ByteArray byteArray = new P2PDataStorage.ByteArray(getRandomBytes(new Random(2), 20));
+        assertEquals(byteArray, new P2PDataStorage.ByteArray(byteArray.getHex()));
+        assertEquals(byteArray, P2PDataStorage.ByteArray.fromProto(byteArray.toProtoMessage()));
+    }
+
+    @Test
+    public void testIntern() {
+        byte[] bytes = getRandomBytes(new Random(3), 32);
+        P2PDataStorage.ByteArray interned = new P2PDataStorage.ByteArray(bytes).intern();
+        assertSame(interned, new P2PDataStorage.ByteArray(bytes.clone()).intern());
+        assertSame(interned, interned.intern());
+    }
+
+    private static byte[] getRandomBytes(Random random, int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
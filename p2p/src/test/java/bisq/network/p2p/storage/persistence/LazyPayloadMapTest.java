@@ -0,0 +1,216 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LazyPayloadMapTest {
+    private static final int ACCOUNT_AGE_WITNESS_STORE_FIELD_NUMBER = 13;
+    private static final int HASH_FIELD_NUMBER = 1;
+    private static final int ACCOUNT_AGE_WITNESS_PAYLOAD_FIELD_NUMBER = 1;
+    private static final int NUM_PAYLOADS = 1000;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("AccountAgeWitnessStore", null);
+        PB.AccountAgeWitnessStore.Builder storeBuilder = PB.AccountAgeWitnessStore.newBuilder();
+        for (int i = 0; i < NUM_PAYLOADS; i++) {
+            storeBuilder.addItems(PB.AccountAgeWitness.newBuilder()
+                    .setHash(ByteString.copyFrom(getHash(i)))
+                    .setDate(i));
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            PB.PersistableEnvelope.newBuilder()
+                    .setAccountAgeWitnessStore(storeBuilder)
+                    .build()
+                    .writeDelimitedTo(outputStream);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testIndexIsBuiltWithoutDecoding() throws IOException {
+        LazyPayloadMap map = getMap();
+        assertEquals(NUM_PAYLOADS, map.size());
+        assertTrue(map.containsKey(new P2PDataStorage.ByteArray(getHash(0))));
+        assertTrue(map.containsKey(new P2PDataStorage.ByteArray(getHash(NUM_PAYLOADS - 1))));
+        assertFalse(map.containsKey(new P2PDataStorage.ByteArray(getHash(NUM_PAYLOADS))));
+
+        Set<P2PDataStorage.ByteArray> keys = new HashSet<>(map.keySet());
+        assertEquals(NUM_PAYLOADS, keys.size());
+        assertEquals(0, map.getNumDecoded());
+    }
+
+    @Test
+    public void testGetDecodesOnceAndCaches() throws IOException {
+        LazyPayloadMap map = getMap();
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(getHash(42));
+        MockPayload payload = (MockPayload) map.get(key);
+        assertNotNull(payload);
+        assertEquals(42, payload.date);
+        assertTrue(Arrays.equals(getHash(42), payload.getHash()));
+
+        map.get(key);
+        assertEquals(1, map.getNumDecoded());
+        assertNull(map.get(new P2PDataStorage.ByteArray(getHash(NUM_PAYLOADS))));
+    }
+
+    @Test
+    public void testAddedPayloadsAndSerialization() throws IOException {
+        LazyPayloadMap map = getMap();
+        MockPayload added = new MockPayload(getHash(NUM_PAYLOADS), NUM_PAYLOADS);
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(added.getHash());
+        assertNull(map.putIfAbsent(key, added));
+        assertEquals(NUM_PAYLOADS + 1, map.size());
+        assertEquals(added, map.get(key));
+
+        PB.AccountAgeWitnessStore store = PB.AccountAgeWitnessStore.parseFrom(map.getSerializedStore(payload ->
+                ((MockPayload) payload).toProtoAccountAgeWitness().toByteArray()));
+        assertEquals(NUM_PAYLOADS + 1, store.getItemsCount());
+        // Only the added payload was encoded, the persisted ones got copied
+        assertEquals(0, map.getNumDecoded());
+    }
+
+    @Test
+    public void testWriteDelimitedTo() throws IOException {
+        LazyPayloadMap map = getMap();
+        MockPayload added = new MockPayload(getHash(NUM_PAYLOADS), NUM_PAYLOADS);
+        map.putIfAbsent(new P2PDataStorage.ByteArray(added.getHash()), added);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        map.writeDelimitedTo(outputStream, ACCOUNT_AGE_WITNESS_STORE_FIELD_NUMBER, payload ->
+                ((MockPayload) payload).toProtoAccountAgeWitness().toByteArray());
+        PB.PersistableEnvelope envelope = PB.PersistableEnvelope.parseDelimitedFrom(
+                new ByteArrayInputStream(outputStream.toByteArray()));
+        assertTrue(envelope.hasAccountAgeWitnessStore());
+        assertEquals(NUM_PAYLOADS + 1, envelope.getAccountAgeWitnessStore().getItemsCount());
+        assertEquals(0, map.getNumDecoded());
+    }
+
+    @Test
+    public void testGetPayloadsForSending() throws IOException {
+        LazyPayloadMap map = getMap();
+        MockPayload added = new MockPayload(getHash(NUM_PAYLOADS), NUM_PAYLOADS);
+        map.putIfAbsent(new P2PDataStorage.ByteArray(added.getHash()), added);
+        Set<P2PDataStorage.ByteArray> excludedKeys = new HashSet<>();
+        excludedKeys.add(new P2PDataStorage.ByteArray(getHash(0)));
+
+        List<PersistableNetworkPayload> payloads = map.getPayloadsForSending(excludedKeys, payload -> true);
+        assertEquals(NUM_PAYLOADS, payloads.size());
+        assertTrue(payloads.contains(added));
+        // Only the sample for the filter got decoded
+        assertEquals(1, map.getNumDecoded());
+
+        // The serialized payloads are sent with the same bytes as the decoded ones
+        PersistableNetworkPayload sent = payloads.stream()
+                .filter(payload -> Arrays.equals(getHash(42), payload.getHash()))
+                .findAny()
+                .orElseThrow(AssertionError::new);
+        MockPayload decoded = (MockPayload) map.get(new P2PDataStorage.ByteArray(getHash(42)));
+        assertTrue(Arrays.equals(decoded.toProtoMessage().toByteArray(), sent.toProtoMessage().toByteArray()));
+        assertEquals(42, PB.PersistableNetworkPayload.parseFrom(sent.toProtoMessage().toByteArray())
+                .getAccountAgeWitness().getDate());
+
+        // If the sample does not pass the filter we don't send any of the mapped payloads
+        payloads = map.getPayloadsForSending(excludedKeys, payload -> payload == added);
+        assertEquals(1, payloads.size());
+    }
+
+    private LazyPayloadMap getMap() throws IOException {
+        return LazyPayloadMap.fromFile(file,
+                ACCOUNT_AGE_WITNESS_STORE_FIELD_NUMBER,
+                HASH_FIELD_NUMBER,
+                ACCOUNT_AGE_WITNESS_PAYLOAD_FIELD_NUMBER,
+                MockPayload.class,
+                bytes -> MockPayload.fromProto(PB.AccountAgeWitness.parseFrom(bytes)),
+                10);
+    }
+
+    private static byte[] getHash(int i) {
+        byte[] hash = new byte[20];
+        hash[0] = (byte) (i >> 8);
+        hash[1] = (byte) i;
+        return hash;
+    }
+
+    private static class MockPayload implements PersistableNetworkPayload {
+        private final byte[] hash;
+        private final long date;
+
+        MockPayload(byte[] hash, long date) {
+            this.hash = hash;
+            this.date = date;
+        }
+
+        static MockPayload fromProto(PB.AccountAgeWitness proto) {
+            return new MockPayload(proto.getHash().toByteArray(), proto.getDate());
+        }
+
+        PB.AccountAgeWitness toProtoAccountAgeWitness() {
+            return PB.AccountAgeWitness.newBuilder().setHash(ByteString.copyFrom(hash)).setDate(date).build();
+        }
+
+        @Override
+        public PB.PersistableNetworkPayload toProtoMessage() {
+            return PB.PersistableNetworkPayload.newBuilder().setAccountAgeWitness(toProtoAccountAgeWitness()).build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return hash.length == 20;
+        }
+    }
+}